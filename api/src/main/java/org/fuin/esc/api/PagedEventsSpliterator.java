@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.api;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Reads the events of a stream slice by slice while they are consumed. Used
+ * by the default methods of {@link ReadableEventStore}. The next slice is only
+ * read when all events of the current one were consumed. A stream that does
+ * not exist has no events. This spliterator does not split. This class is NOT
+ * thread safe.
+ */
+final class PagedEventsSpliterator implements Spliterator<CommonEvent> {
+
+    /** Used as end event number if the end of the stream is not known. */
+    static final int NO_END = -1;
+
+    private final ReadableEventStore eventStore;
+
+    private final StreamId streamId;
+
+    private final boolean forward;
+
+    private final int chunkSize;
+
+    private final int end;
+
+    private int next;
+
+    private boolean endOfStream;
+
+    private Iterator<CommonEvent> current;
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param eventStore
+     *            Event store to read from.
+     * @param streamId
+     *            Unique identifier of the stream.
+     * @param forward
+     *            TRUE to read forward (oldest to newest), FALSE to read
+     *            backward (newest to oldest).
+     * @param start
+     *            First event number to read.
+     * @param end
+     *            Event number to stop reading before (exclusive) or
+     *            {@link #NO_END} to read until the end of the stream. Only
+     *            allowed for reading forward.
+     * @param chunkSize
+     *            Maximum number of events to read in a single operation.
+     */
+    PagedEventsSpliterator(@NotNull final ReadableEventStore eventStore, @NotNull final StreamId streamId,
+            final boolean forward, final int start, final int end, final int chunkSize) {
+        super();
+        Contract.requireArgNotNull("eventStore", eventStore);
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgMin("chunkSize", chunkSize, 1);
+        if (end != NO_END) {
+            if (!forward) {
+                throw new IllegalArgumentException("An end event number is only allowed for reading forward");
+            }
+            Contract.requireArgMin("end", end, start);
+        }
+        this.eventStore = eventStore;
+        this.streamId = streamId;
+        this.forward = forward;
+        this.chunkSize = chunkSize;
+        this.end = end;
+        this.next = start;
+        this.endOfStream = (end != NO_END && start >= end);
+    }
+
+    @Override
+    public final boolean tryAdvance(final Consumer<? super CommonEvent> action) {
+        Contract.requireArgNotNull("action", action);
+        while (current == null || !current.hasNext()) {
+            if (endOfStream) {
+                return false;
+            }
+            readSlice();
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    @Override
+    public final Spliterator<CommonEvent> trySplit() {
+        return null;
+    }
+
+    @Override
+    public final long estimateSize() {
+        if (end == NO_END) {
+            return Long.MAX_VALUE;
+        }
+        return end - next;
+    }
+
+    @Override
+    public final int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    private void readSlice() {
+        int count = chunkSize;
+        if (end != NO_END) {
+            count = Math.min(count, end - next);
+        }
+        final StreamEventsSlice slice;
+        try {
+            if (forward) {
+                slice = eventStore.readEventsForward(streamId, next, count);
+            } else {
+                slice = eventStore.readEventsBackward(streamId, next, count);
+            }
+        } catch (final StreamNotFoundException ex) {
+            current = Collections.emptyIterator();
+            endOfStream = true;
+            return;
+        }
+        current = slice.getEvents().iterator();
+        next = slice.getNextEventNumber();
+        endOfStream = slice.isEndOfStream() || (end != NO_END && next >= end);
+    }
+
+}
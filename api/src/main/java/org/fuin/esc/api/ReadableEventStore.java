@@ -18,9 +18,13 @@
 package org.fuin.esc.api;
 
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.validation.constraints.NotNull;
 
+import org.fuin.objects4j.common.Contract;
+
 /**
  * Interface for reading events from an event store synchronously. Calling any
  * method on a non-open event store will implicitly {@link #open()} it.
@@ -150,6 +154,94 @@ public interface ReadableEventStore extends EventStoreBasics {
             int startingAtEventNumber, int chunkSize,
             ChunkEventHandler handler);
 
+    /**
+     * Returns the events of a stream forward (e.g. oldest to newest) starting
+     * from position start. The events are read lazily in chunks while the
+     * stream is consumed, so no further chunks are read if the stream is
+     * closed early or an operation like {@link Stream#limit(long)} or
+     * {@link Stream#findFirst()} stops consuming it. A stream that does not
+     * exist results in an empty stream.
+     * 
+     * @param streamId
+     *            The stream to read from.
+     * @param start
+     *            The starting point to read from.
+     * @param chunkSize
+     *            Maximum number of events to read in a single operation.
+     * 
+     * @return Lazy sequential stream of events.
+     * 
+     * @throws StreamDeletedException
+     *             A stream with the given name previously existed but was
+     *             deleted.
+     */
+    @NotNull
+    public default Stream<CommonEvent> streamEventsForward(
+            @NotNull final StreamId streamId, final int start,
+            final int chunkSize) {
+        return StreamSupport.stream(new PagedEventsSpliterator(this, streamId,
+                true, start, PagedEventsSpliterator.NO_END, chunkSize), false);
+    }
+
+    /**
+     * Returns the events of a stream backward (e.g. newest to oldest)
+     * starting from position start. The events are read lazily in chunks
+     * like with {@link #streamEventsForward(StreamId, int, int)}.
+     * 
+     * @param streamId
+     *            The stream to read from.
+     * @param start
+     *            The starting point to read from.
+     * @param chunkSize
+     *            Maximum number of events to read in a single operation.
+     * 
+     * @return Lazy sequential stream of events.
+     * 
+     * @throws StreamDeletedException
+     *             A stream with the given name previously existed but was
+     *             deleted.
+     */
+    @NotNull
+    public default Stream<CommonEvent> streamEventsBackward(
+            @NotNull final StreamId streamId, final int start,
+            final int chunkSize) {
+        return StreamSupport.stream(new PagedEventsSpliterator(this, streamId,
+                false, start, PagedEventsSpliterator.NO_END, chunkSize), false);
+    }
+
+    /**
+     * Returns the events of a stream forward from event number start up to,
+     * but not including, event number end. The events are read lazily in
+     * chunks like with {@link #streamEventsForward(StreamId, int, int)}. The
+     * stream can be made {@link Stream#parallel()} to process sub ranges in
+     * parallel if the implementation supports it. Only do this if the
+     * implementation supports concurrent reads. The default implementation
+     * reads the range sequentially.
+     * 
+     * @param streamId
+     *            The stream to read from.
+     * @param start
+     *            First event number to read.
+     * @param end
+     *            Event number to stop before.
+     * @param chunkSize
+     *            Maximum number of events to read in a single operation.
+     * 
+     * @return Lazy sequential stream of events.
+     * 
+     * @throws StreamDeletedException
+     *             A stream with the given name previously existed but was
+     *             deleted.
+     */
+    @NotNull
+    public default Stream<CommonEvent> streamEventRange(
+            @NotNull final StreamId streamId, final int start, final int end,
+            final int chunkSize) {
+        Contract.requireArgMin("start", start, 0);
+        return StreamSupport.stream(new PagedEventsSpliterator(this, streamId,
+                true, start, end, chunkSize), false);
+    }
+
     /**
      * Handles a number of events.
      */
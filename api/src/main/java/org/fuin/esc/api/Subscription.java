@@ -33,7 +33,7 @@ public abstract class Subscription implements Serializable {
 
     private final StreamId streamId;
 
-    private final Integer lastEventNumber;
+    private volatile Integer lastEventNumber;
 
     /**
      * Constructor with all mandatory data.
@@ -69,4 +69,16 @@ public abstract class Subscription implements Serializable {
         return lastEventNumber;
     }
 
+    /**
+     * Sets the number of the last event processed by the subscription. Used
+     * by implementations that track the progress of a subscription.
+     * 
+     * @param lastEventNumber
+     *            Event number.
+     */
+    protected final void setLastEventNumber(
+            @Nullable final Integer lastEventNumber) {
+        this.lastEventNumber = lastEventNumber;
+    }
+
 }
@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * Test for {@link PagedEventsSpliterator}.
+ */
+// CHECKSTYLE:OFF Test
+@RunWith(MockitoJUnitRunner.class)
+public class PagedEventsSpliteratorTest {
+
+    private static final StreamId STREAM_ID = new SimpleStreamId("MyStream");
+
+    @Mock
+    private ReadableEventStore eventStore;
+
+    @Test
+    public void testForward() {
+
+        // PREPARE
+        final CommonEvent e0 = event("0");
+        final CommonEvent e1 = event("1");
+        final CommonEvent e2 = event("2");
+        when(eventStore.readEventsForward(STREAM_ID, 0, 2)).thenReturn(
+                new StreamEventsSlice(0, Arrays.asList(e0, e1), 2, false));
+        when(eventStore.readEventsForward(STREAM_ID, 2, 2)).thenReturn(
+                new StreamEventsSlice(2, Arrays.asList(e2), 3, true));
+
+        // TEST
+        final List<CommonEvent> result = StreamSupport.stream(
+                new PagedEventsSpliterator(eventStore, STREAM_ID, true, 0, PagedEventsSpliterator.NO_END, 2),
+                false).collect(Collectors.toList());
+
+        // VERIFY
+        assertThat(result).containsExactly(e0, e1, e2);
+
+    }
+
+    @Test
+    public void testReadsOnlyConsumedSlices() {
+
+        // PREPARE
+        final CommonEvent e0 = event("0");
+        final CommonEvent e1 = event("1");
+        when(eventStore.readEventsForward(STREAM_ID, 0, 2)).thenReturn(
+                new StreamEventsSlice(0, Arrays.asList(e0, e1), 2, false));
+
+        // TEST
+        final List<CommonEvent> result = StreamSupport.stream(
+                new PagedEventsSpliterator(eventStore, STREAM_ID, true, 0, PagedEventsSpliterator.NO_END, 2),
+                false).limit(2).collect(Collectors.toList());
+
+        // VERIFY
+        assertThat(result).containsExactly(e0, e1);
+        verify(eventStore, times(1)).readEventsForward(any(StreamId.class), anyInt(), anyInt());
+
+    }
+
+    @Test
+    public void testBackward() {
+
+        // PREPARE
+        final CommonEvent e0 = event("0");
+        final CommonEvent e1 = event("1");
+        when(eventStore.readEventsBackward(STREAM_ID, 1, 5)).thenReturn(
+                new StreamEventsSlice(1, Arrays.asList(e1, e0), -1, true));
+
+        // TEST
+        final List<CommonEvent> result = StreamSupport.stream(
+                new PagedEventsSpliterator(eventStore, STREAM_ID, false, 1, PagedEventsSpliterator.NO_END, 5),
+                false).collect(Collectors.toList());
+
+        // VERIFY
+        assertThat(result).containsExactly(e1, e0);
+
+    }
+
+    @Test
+    public void testRange() {
+
+        // PREPARE
+        final CommonEvent e1 = event("1");
+        final CommonEvent e2 = event("2");
+        when(eventStore.readEventsForward(STREAM_ID, 1, 2)).thenReturn(
+                new StreamEventsSlice(1, Arrays.asList(e1, e2), 3, false));
+
+        // TEST
+        final List<CommonEvent> result = StreamSupport.stream(
+                new PagedEventsSpliterator(eventStore, STREAM_ID, true, 1, 3, 5), false)
+                .collect(Collectors.toList());
+
+        // VERIFY
+        assertThat(result).containsExactly(e1, e2);
+
+    }
+
+    @Test
+    public void testStreamNotFound() {
+
+        // PREPARE
+        when(eventStore.readEventsForward(STREAM_ID, 0, 2)).thenThrow(new StreamNotFoundException(STREAM_ID));
+
+        // TEST & VERIFY
+        assertThat(StreamSupport.stream(
+                new PagedEventsSpliterator(eventStore, STREAM_ID, true, 0, PagedEventsSpliterator.NO_END, 2),
+                false).collect(Collectors.toList())).isEqualTo(Collections.emptyList());
+
+    }
+
+    private static CommonEvent event(final String id) {
+        return new SimpleCommonEvent(new EventId(), new TypeName("MyEvent"), id);
+    }
+
+}
+// CHECKSTYLE:ON
@@ -3,6 +3,9 @@ package org.apache.http.impl.nio.client;
 
 import java.util.concurrent.ThreadFactory;
 
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+
 /**
  * Workaround to set the thread factory. It looks like this is currently not supported by the standard methods
  * in the Apache package. Unfortunately the builder class is also private. Therefore this has to be placed in
@@ -21,5 +24,38 @@ public class ESHttpAsyncClients {
         return MinimalHttpAsyncClientBuilder.create().setThreadFactory(tf).build();
     }
 
+    /**
+     * Creates {@link CloseableHttpPipeliningClient} instance that supports pipelined request execution and uses
+     * the given connection manager. This client does not support authentication and automatic redirects.
+     *
+     * @param connManager
+     *            Connection manager to use. It will be shut down when the client is closed.
+     * @param tf
+     *            Thread factory to use.
+     */
+    public static CloseableHttpPipeliningClient createPipelining(final NHttpClientConnectionManager connManager,
+            final ThreadFactory tf) {
+        return MinimalHttpAsyncClientBuilder.create().setConnectionManager(connManager).setThreadFactory(tf)
+                .build();
+    }
+
+    /**
+     * Creates {@link CloseableHttpPipeliningClient} instance that supports pipelined request execution and uses
+     * the given connection manager and keep-alive strategy. This client does not support authentication and
+     * automatic redirects.
+     *
+     * @param connManager
+     *            Connection manager to use. It will be shut down when the client is closed.
+     * @param tf
+     *            Thread factory to use.
+     * @param keepAliveStrategy
+     *            Determines how long an idle connection is kept.
+     */
+    public static CloseableHttpPipeliningClient createPipelining(final NHttpClientConnectionManager connManager,
+            final ThreadFactory tf, final ConnectionKeepAliveStrategy keepAliveStrategy) {
+        return MinimalHttpAsyncClientBuilder.create().setConnectionManager(connManager).setThreadFactory(tf)
+                .setKeepAliveStrategy(keepAliveStrategy).build();
+    }
+
 }
 // CHECKSTYLE:ON
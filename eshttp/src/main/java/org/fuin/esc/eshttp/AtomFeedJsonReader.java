@@ -34,9 +34,9 @@ import org.fuin.esc.api.CommonEvent;
 import org.fuin.esc.api.EventId;
 import org.fuin.esc.api.SimpleCommonEvent;
 import org.fuin.esc.api.TypeName;
+import org.fuin.esc.spi.Deserializer;
 import org.fuin.esc.spi.DeserializerRegistry;
 import org.fuin.esc.spi.EnhancedMimeType;
-import org.fuin.esc.spi.SerializedDataType;
 import org.fuin.utils4j.Utils4J;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +52,8 @@ public final class AtomFeedJsonReader implements AtomFeedReader {
     
     private static final Logger LOG = LoggerFactory.getLogger(AtomFeedJsonReader.class); 
 
+    private final ESHttpJsonUnmarshaller unmarshaller = new ESHttpJsonUnmarshaller();
+
     @Override
     public final List<URI> readAtomFeed(final InputStream in) {
 
@@ -81,11 +83,10 @@ public final class AtomFeedJsonReader implements AtomFeedReader {
 
         final AtomEntry<JsonObject> entry = readAtomEntry(in);
 
-        final ESHttpJsonUnmarshaller unmarshaller = new ESHttpJsonUnmarshaller();
-
         final TypeName dataType = new TypeName(entry.getEventType());
-        final Object data = unmarshaller.unmarshal(desRegistry, new SerializedDataType(entry.getEventType()),
-                entry.getDataContentType(), entry.getData());
+        final Deserializer dataDeSer = ESHttpDeserializerCache.lookup(desRegistry,
+                entry.getEventType(), entry.getDataContentType());
+        final Object data = unmarshaller.unmarshal(dataDeSer, entry.getDataContentType(), entry.getData());
         final Object meta;
         final TypeName metaType;
         if (entry.getMetaType() == null) {
@@ -93,8 +94,9 @@ public final class AtomFeedJsonReader implements AtomFeedReader {
             meta = null;
         } else {
             metaType = new TypeName(entry.getMetaType());
-            meta = unmarshaller.unmarshal(desRegistry, new SerializedDataType(entry.getMetaType()),
-                    entry.getMetaContentType(), entry.getMeta());
+            final Deserializer metaDeSer = ESHttpDeserializerCache.lookup(desRegistry,
+                    entry.getMetaType(), entry.getMetaContentType());
+            meta = unmarshaller.unmarshal(metaDeSer, entry.getMetaContentType(), entry.getMeta());
         }
 
         return new SimpleCommonEvent(new EventId(entry.getEventId()), dataType, data, metaType, meta);
@@ -124,7 +126,7 @@ public final class AtomFeedJsonReader implements AtomFeedReader {
             final JsonObject escMetaObj = JsonPath.read(jsonObj, "$.content.metadata");
     
             final String dataContentTypeStr = escMetaObj.getString("data-content-type");
-            final EnhancedMimeType dataContentType = EnhancedMimeType.create(dataContentTypeStr);
+            final EnhancedMimeType dataContentType = EnhancedMimeType.intern(dataContentTypeStr);
             final JsonObject data = JsonPath.read(jsonObj, "$.content.data");
     
             final EnhancedMimeType metaContentType;
@@ -133,7 +135,7 @@ public final class AtomFeedJsonReader implements AtomFeedReader {
             if (escMetaObj.containsKey("meta-type")) {
                 metaTypeStr = escMetaObj.getString("meta-type");
                 final String metaContentTypeStr = escMetaObj.getString("meta-content-type");
-                metaContentType = EnhancedMimeType.create(metaContentTypeStr);
+                metaContentType = EnhancedMimeType.intern(metaContentTypeStr);
                 meta = escMetaObj;
             } else {
                 metaTypeStr = null;
@@ -37,9 +37,9 @@ import org.fuin.esc.api.CommonEvent;
 import org.fuin.esc.api.EventId;
 import org.fuin.esc.api.SimpleCommonEvent;
 import org.fuin.esc.api.TypeName;
+import org.fuin.esc.spi.Deserializer;
 import org.fuin.esc.spi.DeserializerRegistry;
 import org.fuin.esc.spi.EnhancedMimeType;
-import org.fuin.esc.spi.SerializedDataType;
 import org.fuin.utils4j.Utils4J;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -50,6 +50,8 @@ import org.w3c.dom.NodeList;
  */
 public final class AtomFeedXmlReader implements AtomFeedReader {
 
+    private final ESHttpXmlUnmarshaller unmarshaller = new ESHttpXmlUnmarshaller();
+
     @Override
     public final List<URI> readAtomFeed(final InputStream in) {
 
@@ -74,11 +76,10 @@ public final class AtomFeedXmlReader implements AtomFeedReader {
     public final CommonEvent readEvent(final DeserializerRegistry desRegistry, final InputStream in) {
         final AtomEntry<Node> entry = readAtomEntry(in);
 
-        final ESHttpXmlUnmarshaller unmarshaller = new ESHttpXmlUnmarshaller();
-
         final TypeName dataType = new TypeName(entry.getEventType());
-        final Object data = unmarshaller.unmarshal(desRegistry, new SerializedDataType(entry.getEventType()),
-                entry.getDataContentType(), entry.getData());
+        final Deserializer dataDeSer = ESHttpDeserializerCache.lookup(desRegistry,
+                entry.getEventType(), entry.getDataContentType());
+        final Object data = unmarshaller.unmarshal(dataDeSer, entry.getDataContentType(), entry.getData());
         final TypeName metaType;
         final Object meta;
         if (entry.getMetaType() == null) {
@@ -86,8 +87,9 @@ public final class AtomFeedXmlReader implements AtomFeedReader {
             meta = null;
         } else {
             metaType = new TypeName(entry.getMetaType());
-            meta = unmarshaller.unmarshal(desRegistry, new SerializedDataType(entry.getMetaType()),
-                    entry.getMetaContentType(), entry.getMeta());
+            final Deserializer metaDeSer = ESHttpDeserializerCache.lookup(desRegistry,
+                    entry.getMetaType(), entry.getMetaContentType());
+            meta = unmarshaller.unmarshal(metaDeSer, entry.getMetaContentType(), entry.getMeta());
         }
         return new SimpleCommonEvent(new EventId(entry.getEventId()), dataType, data, metaType, meta);
 
@@ -115,7 +117,7 @@ public final class AtomFeedXmlReader implements AtomFeedReader {
         final Node escMetaNode = findNode(doc, xPath, "/atom:entry/atom:content/metadata/esc-meta");
 
         final String dataContextTypeStr = findContentText(escMetaNode, xPath, "data-content-type");
-        final EnhancedMimeType dataContentType = EnhancedMimeType.create(dataContextTypeStr);
+        final EnhancedMimeType dataContentType = EnhancedMimeType.intern(dataContextTypeStr);
         final Node data = findNode(doc, xPath, "/atom:entry/atom:content/data");
 
         final EnhancedMimeType metaContentType;
@@ -123,7 +125,7 @@ public final class AtomFeedXmlReader implements AtomFeedReader {
         final Node meta;
         if (hasMetaData(escMetaNode)) {
             final String metaContentTypeStr = findContentText(escMetaNode, xPath, "meta-content-type");
-            metaContentType = EnhancedMimeType.create(metaContentTypeStr);
+            metaContentType = EnhancedMimeType.intern(metaContentTypeStr);
             metaTypeStr = findContentText(escMetaNode, xPath, "meta-type");
             meta = escMetaNode;
         } else {
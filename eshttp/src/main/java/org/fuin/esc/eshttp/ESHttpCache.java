@@ -0,0 +1,248 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.validation.constraints.NotNull;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpResponse;
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+
+/**
+ * Size bounded cache for parsed responses of the event store. Entries are
+ * keyed by the request URI and evicted in least recently used order. Complete
+ * feed pages and events never change, so the event store sends them with a
+ * long "max-age" that is honored here. Other responses like the head page of a
+ * stream are kept with their "ETag" to send conditional requests. This class
+ * is thread safe.
+ */
+final class ESHttpCache {
+
+    private final int maxEntries;
+
+    private final Map<URI, CachedResponse> entries;
+
+    /**
+     * Constructor with maximum size.
+     * 
+     * @param maxEntries
+     *            Maximum number of entries in the cache.
+     */
+    public ESHttpCache(final int maxEntries) {
+        super();
+        Contract.requireArgMin("maxEntries", maxEntries, 1);
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<URI, CachedResponse>(16, 0.75f,
+                true) {
+            private static final long serialVersionUID = 1000L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<URI, CachedResponse> eldest) {
+                return size() > ESHttpCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached response for a URI.
+     * 
+     * @param uri
+     *            Request URI.
+     * 
+     * @return Cached response or <code>null</code> if nothing is cached for
+     *         the URI.
+     */
+    @Nullable
+    public final synchronized CachedResponse get(@NotNull final URI uri) {
+        return entries.get(uri);
+    }
+
+    /**
+     * Adds the parsed content of a response to the cache. The response is
+     * ignored if it is not allowed to be stored or can neither be reused nor
+     * revalidated.
+     * 
+     * @param uri
+     *            Request URI.
+     * @param value
+     *            Parsed response content.
+     * @param response
+     *            Response with the caching headers.
+     */
+    public final void put(@NotNull final URI uri, @NotNull final Object value,
+            @NotNull final HttpResponse response) {
+        final CachedResponse cached = CachedResponse.create(value, response);
+        if (cached != null) {
+            synchronized (this) {
+                entries.put(uri, cached);
+            }
+        }
+    }
+
+    /**
+     * Removes all entries of a stream.
+     * 
+     * @param streamName
+     *            Name of the stream as used in the URI path.
+     */
+    public final synchronized void invalidate(
+            @NotNull final String streamName) {
+        final String path = "/streams/" + streamName;
+        final Iterator<URI> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            final String uriPath = it.next().getPath();
+            if (uriPath != null && (uriPath.equals(path)
+                    || uriPath.startsWith(path + "/"))) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     * 
+     * @return Current size.
+     */
+    public final synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Parsed response content together with the caching information.
+     */
+    public static final class CachedResponse {
+
+        private final Object value;
+
+        private final String etag;
+
+        private final long expiresAt;
+
+        /**
+         * Constructor with all data.
+         * 
+         * @param value
+         *            Parsed response content.
+         * @param etag
+         *            Entity tag or <code>null</code>.
+         * @param expiresAt
+         *            Time in milliseconds until the value can be used without
+         *            asking the server.
+         */
+        public CachedResponse(@NotNull final Object value,
+                @Nullable final String etag, final long expiresAt) {
+            super();
+            this.value = value;
+            this.etag = etag;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Returns the parsed response content.
+         * 
+         * @return Value.
+         */
+        @NotNull
+        public final Object getValue() {
+            return value;
+        }
+
+        /**
+         * Returns the entity tag used for conditional requests.
+         * 
+         * @return Entity tag or <code>null</code>.
+         */
+        @Nullable
+        public final String getETag() {
+            return etag;
+        }
+
+        /**
+         * Determines if the value can be used without asking the server.
+         * 
+         * @return TRUE if the entry did not expire.
+         */
+        public final boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+
+        /**
+         * Creates an entry using the caching headers of the response.
+         * 
+         * @param value
+         *            Parsed response content.
+         * @param response
+         *            Response with "Cache-Control" and "ETag" headers.
+         * 
+         * @return Cached response or <code>null</code> if the response should
+         *         not be cached.
+         */
+        @Nullable
+        static CachedResponse create(final Object value,
+                final HttpResponse response) {
+            long maxAgeSeconds = 0;
+            final Header cacheControl = response
+                    .getFirstHeader("Cache-Control");
+            if (cacheControl != null) {
+                for (final HeaderElement element : cacheControl
+                        .getElements()) {
+                    final String name = element.getName();
+                    if ("no-store".equalsIgnoreCase(name)) {
+                        return null;
+                    }
+                    if ("no-cache".equalsIgnoreCase(name)) {
+                        maxAgeSeconds = 0;
+                        break;
+                    }
+                    if ("max-age".equalsIgnoreCase(name)) {
+                        maxAgeSeconds = parseSeconds(element.getValue());
+                    }
+                }
+            }
+            final Header etagHeader = response.getFirstHeader("ETag");
+            final String etag = (etagHeader == null) ? null
+                    : etagHeader.getValue();
+            if (maxAgeSeconds <= 0 && etag == null) {
+                return null;
+            }
+            return new CachedResponse(value, etag,
+                    System.currentTimeMillis() + maxAgeSeconds * 1000);
+        }
+
+        private static long parseSeconds(final String value) {
+            if (value == null) {
+                return 0;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (final NumberFormatException ex) {
+                return 0;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.spi.Deserializer;
+import org.fuin.esc.spi.DeserializerRegistry;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.SerializedDataType;
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+
+/**
+ * Deserializer registry that caches the deserializers resolved by another
+ * registry for a type and content type, which are the same for nearly every
+ * event read from the event store. An instance belongs to the event store that
+ * created it, so it never outlives the registry it wraps. The content types
+ * are interned with {@link EnhancedMimeType#intern(EnhancedMimeType)}, so
+ * every event with the same content type shares one frozen mime type instance
+ * with a cached hash code. A lookup does not allocate any objects. If the
+ * cache is full it is simply cleared. This class is thread safe.
+ */
+final class ESHttpDeserializerCache implements DeserializerRegistry {
+
+    /** Default maximum number of entries in the cache. */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final DeserializerRegistry delegate;
+
+    private final int maxEntries;
+
+    private final ConcurrentMap<EnhancedMimeType, ConcurrentMap<String, Deserializer>> deserializers;
+
+    private final AtomicInteger size;
+
+    /**
+     * Constructor with registry and default size.
+     * 
+     * @param delegate
+     *            Registry used to resolve the deserializers.
+     */
+    public ESHttpDeserializerCache(@NotNull final DeserializerRegistry delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructor with registry and maximum size.
+     * 
+     * @param delegate
+     *            Registry used to resolve the deserializers.
+     * @param maxEntries
+     *            Maximum number of entries in the cache.
+     */
+    public ESHttpDeserializerCache(@NotNull final DeserializerRegistry delegate, final int maxEntries) {
+        super();
+        Contract.requireArgNotNull("delegate", delegate);
+        Contract.requireArgMin("maxEntries", maxEntries, 1);
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.deserializers = new ConcurrentHashMap<>();
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Returns the deserializer for a type and mime type. The delegate registry
+     * is only called if the combination was not resolved before.
+     * 
+     * @param type
+     *            Unique name of the data type.
+     * @param mimeType
+     *            Mime type of the data - Should be an instance returned by
+     *            {@link EnhancedMimeType#intern(String)} to avoid creating a
+     *            frozen copy.
+     * 
+     * @return Deserializer.
+     */
+    @NotNull
+    public final Deserializer deserializer(@NotNull final String type,
+            @NotNull final EnhancedMimeType mimeType) {
+        final EnhancedMimeType interned = EnhancedMimeType.intern(mimeType);
+        final Map<String, Deserializer> byType = deserializers.get(interned);
+        if (byType != null) {
+            final Deserializer cached = byType.get(type);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final Deserializer deSer = delegate
+                .getDeserializer(new SerializedDataType(type), interned);
+        if (deSer != null) {
+            if (size.incrementAndGet() > maxEntries) {
+                deserializers.clear();
+                size.set(1);
+            }
+            ConcurrentMap<String, Deserializer> map = deserializers.get(interned);
+            if (map == null) {
+                final ConcurrentMap<String, Deserializer> newMap = new ConcurrentHashMap<>();
+                map = deserializers.putIfAbsent(interned, newMap);
+                if (map == null) {
+                    map = newMap;
+                }
+            }
+            map.put(type, deSer);
+        }
+        return deSer;
+    }
+
+    /**
+     * Returns the number of resolved deserializers in the cache.
+     * 
+     * @return Number of deserializers.
+     */
+    public final int size() {
+        int count = 0;
+        for (final Map<String, Deserializer> byType : deserializers.values()) {
+            count = count + byType.size();
+        }
+        return count;
+    }
+
+    @Override
+    public final Deserializer getDeserializer(final SerializedDataType type,
+            final EnhancedMimeType mimeType) {
+        return deserializer(type.asBaseType(), mimeType);
+    }
+
+    @Override
+    public final Deserializer getDeserializer(final SerializedDataType type) {
+        return delegate.getDeserializer(type);
+    }
+
+    @Override
+    public final EnhancedMimeType getDefaultContentType(final SerializedDataType type) {
+        return delegate.getDefaultContentType(type);
+    }
+
+    @Override
+    public final boolean deserializerExists(final SerializedDataType type) {
+        return delegate.deserializerExists(type);
+    }
+
+    @Override
+    public final boolean deserializerExists(final SerializedDataType type,
+            final EnhancedMimeType mimeType) {
+        return delegate.deserializerExists(type, mimeType);
+    }
+
+    /**
+     * Returns the deserializer for a type and mime type. Uses the cache if the
+     * registry is one, otherwise the registry is called directly.
+     * 
+     * @param registry
+     *            Registry to use.
+     * @param type
+     *            Unique name of the data type.
+     * @param mimeType
+     *            Mime type of the data.
+     * 
+     * @return Deserializer.
+     */
+    @Nullable
+    static Deserializer lookup(@NotNull final DeserializerRegistry registry, @NotNull final String type,
+            @NotNull final EnhancedMimeType mimeType) {
+        if (registry instanceof ESHttpDeserializerCache) {
+            return ((ESHttpDeserializerCache) registry).deserializer(type, mimeType);
+        }
+        return registry.getDeserializer(new SerializedDataType(type), mimeType);
+    }
+
+}
@@ -27,27 +27,53 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import javax.validation.constraints.NotNull;
 
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
 import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.ESHttpAsyncClients;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.client.HttpPipeliningClient;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.EntityUtils;
 import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EscApiUtils;
 import org.fuin.esc.api.EventNotFoundException;
 import org.fuin.esc.api.EventStore;
 import org.fuin.esc.api.ExpectedVersion;
@@ -60,15 +86,18 @@ import org.fuin.esc.api.StreamId;
 import org.fuin.esc.api.StreamNotFoundException;
 import org.fuin.esc.api.StreamReadOnlyException;
 import org.fuin.esc.api.StreamState;
+import org.fuin.esc.api.SubscribableEventStore;
+import org.fuin.esc.api.Subscription;
 import org.fuin.esc.api.TypeName;
 import org.fuin.esc.api.WrongExpectedVersionException;
 import org.fuin.esc.spi.AbstractReadableEventStore;
 import org.fuin.esc.spi.DeserializerRegistry;
-import org.fuin.esc.spi.EnhancedMimeType;
 import org.fuin.esc.spi.EscSpiUtils;
 import org.fuin.esc.spi.SerializerRegistry;
+import org.fuin.esc.spi.SizedStreamEventsSlice;
 import org.fuin.objects4j.common.ConstraintViolationException;
 import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,14 +106,27 @@ import org.slf4j.LoggerFactory;
  * API.
  */
 public final class ESHttpEventStore extends AbstractReadableEventStore
-        implements EventStore, ProjectionAdminEventStore {
+        implements EventStore, SubscribableEventStore,
+        ProjectionAdminEventStore {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(ESHttpEventStore.class);
 
+    /** Maximum number of pre-parsed stream URIs kept. */
+    private static final int MAX_STREAM_URIS = 1000;
+
+    /** Number of events requested by a subscription with one long poll. */
+    private static final int SUBSCRIPTION_PAGE_SIZE = 20;
+
+    /** First delay before a failed long poll is repeated. */
+    private static final long MIN_BACKOFF_MILLIS = 100;
+
+    /** Maximum delay before a failed long poll is repeated. */
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+
     private final ThreadFactory threadFactory;
 
-    private final URL url;
+    private final URI baseUri;
 
     private final ESEnvelopeType envelopeType;
 
@@ -94,8 +136,50 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
 
     private final CredentialsProvider credentialsProvider;
 
+    private final int maxConnTotal;
+
+    private final int maxConnPerRoute;
+
+    private final int ioThreadCount;
+
+    private final long keepAliveMillis;
+
+    private final long maxIdleMillis;
+
+    private final boolean pipelining;
+
+    private final int longPollSeconds;
+
+    private final boolean compression;
+
+    private final int compressRequestsMinEvents;
+
+    private final int subscriptionThreads;
+
+    private final ESHttpCache cache;
+
+    private final RequestConfig requestConfig;
+
+    private final RequestConfig longPollRequestConfig;
+
+    private final AtomicInteger subscriberIds;
+
+    private final Map<ESHttpSubscription, LongPollingSubscriber> subscribers;
+
+    private final Map<String, ESHttpStreamUri> streamUris;
+
+    private PoolingNHttpClientConnectionManager connManager;
+
     private CloseableHttpAsyncClient httpclient;
 
+    private CloseableHttpAsyncClient pollHttpclient;
+
+    private Thread idleConnectionEvictor;
+
+    private ScheduledExecutorService subscriptionReactor;
+
+    private ExecutorService subscriptionExecutor;
+
     private boolean open;
 
     /**
@@ -140,18 +224,61 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
             @NotNull final SerializerRegistry serRegistry,
             @NotNull final DeserializerRegistry desRegistry,
             final CredentialsProvider credentialsProvider) {
+        this(new Builder(threadFactory, url, envelopeType, serRegistry,
+                desRegistry).credentialsProvider(credentialsProvider));
+    }
+
+    /**
+     * Constructor used by the builder.
+     * 
+     * @param builder
+     *            Builder with the configuration to use.
+     */
+    private ESHttpEventStore(final Builder builder) {
         super();
-        Contract.requireArgNotNull("threadFactory", threadFactory);
-        Contract.requireArgNotNull("url", url);
-        Contract.requireArgNotNull("envelopeType", envelopeType);
-        Contract.requireArgNotNull("serRegistry", serRegistry);
-        Contract.requireArgNotNull("desRegistry", desRegistry);
-        this.threadFactory = threadFactory;
-        this.url = url;
-        this.envelopeType = envelopeType;
-        this.serRegistry = serRegistry;
-        this.desRegistry = desRegistry;
-        this.credentialsProvider = credentialsProvider;
+        this.threadFactory = builder.threadFactory;
+        try {
+            this.baseUri = builder.url.toURI();
+        } catch (final URISyntaxException ex) {
+            throw new IllegalArgumentException(
+                    "Invalid event store URL: " + builder.url, ex);
+        }
+        this.envelopeType = builder.envelopeType;
+        this.serRegistry = builder.serRegistry;
+        this.desRegistry = new ESHttpDeserializerCache(builder.desRegistry);
+        this.credentialsProvider = builder.credentialsProvider;
+        this.maxConnTotal = builder.maxConnTotal;
+        this.maxConnPerRoute = builder.maxConnPerRoute;
+        this.ioThreadCount = builder.ioThreadCount;
+        this.keepAliveMillis = builder.keepAliveMillis;
+        this.maxIdleMillis = builder.maxIdleMillis;
+        this.pipelining = builder.pipelining;
+        this.longPollSeconds = builder.longPollSeconds;
+        this.compression = builder.compression;
+        this.compressRequestsMinEvents = builder.compressRequestsMinEvents;
+        this.subscriptionThreads = builder.subscriptionThreads;
+        if (builder.cacheSize > 0) {
+            this.cache = new ESHttpCache(builder.cacheSize);
+        } else {
+            this.cache = null;
+        }
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout(builder.connectTimeout)
+                .setSocketTimeout(builder.socketTimeout)
+                .setConnectionRequestTimeout(builder.connectionRequestTimeout)
+                .build();
+        // The server answers a long poll only after the wait time
+        final int longPollTimeout = (longPollSeconds + 10) * 1000;
+        if ((builder.socketTimeout > 0)
+                && (builder.socketTimeout < longPollTimeout)) {
+            this.longPollRequestConfig = RequestConfig.copy(requestConfig)
+                    .setSocketTimeout(longPollTimeout).build();
+        } else {
+            this.longPollRequestConfig = requestConfig;
+        }
+        this.subscriberIds = new AtomicInteger();
+        this.subscribers = new ConcurrentHashMap<>();
+        this.streamUris = new ConcurrentHashMap<>();
         this.open = false;
     }
 
@@ -161,13 +288,43 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
             // Ignore
             return;
         }
-        final HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
-                .setThreadFactory(threadFactory);
-        if (credentialsProvider != null) {
-            builder.setDefaultCredentialsProvider(credentialsProvider);
+        final IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(ioThreadCount).setSoKeepAlive(true).build();
+        try {
+            connManager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(ioReactorConfig,
+                            threadFactory));
+        } catch (final IOReactorException ex) {
+            throw new RuntimeException("Cannot create I/O reactor", ex);
+        }
+        connManager.setMaxTotal(maxConnTotal);
+        connManager.setDefaultMaxPerRoute(maxConnPerRoute);
+        if (pipelining) {
+            httpclient = ESHttpAsyncClients.createPipelining(connManager,
+                    threadFactory, createKeepAliveStrategy());
+        } else {
+            final HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                    .setThreadFactory(threadFactory)
+                    .setConnectionManager(connManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy(createKeepAliveStrategy());
+            if (credentialsProvider != null) {
+                builder.setDefaultCredentialsProvider(credentialsProvider);
+            }
+            httpclient = builder.build();
         }
-        httpclient = builder.build();
         httpclient.start();
+        // Threads are only created when the first subscription is made
+        subscriptionReactor = Executors
+                .newSingleThreadScheduledExecutor(threadFactory);
+        subscriptionExecutor = Executors.newFixedThreadPool(
+                subscriptionThreads, threadFactory);
+        if (maxIdleMillis > 0) {
+            idleConnectionEvictor = threadFactory
+                    .newThread(new IdleConnectionEvictor(connManager,
+                            maxIdleMillis));
+            idleConnectionEvictor.start();
+        }
         this.open = true;
     }
 
@@ -177,14 +334,46 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
             // Ignore
             return;
         }
+        for (final LongPollingSubscriber subscriber : subscribers.values()) {
+            subscriber.cancel();
+        }
+        subscribers.clear();
+        subscriptionReactor.shutdownNow();
+        subscriptionReactor = null;
+        subscriptionExecutor.shutdownNow();
+        subscriptionExecutor = null;
+        closePollHttpclient();
+        if (idleConnectionEvictor != null) {
+            idleConnectionEvictor.interrupt();
+            idleConnectionEvictor = null;
+        }
         try {
             httpclient.close();
         } catch (final IOException ex) {
             throw new RuntimeException("Cannot close http client", ex);
         }
+        connManager = null;
         this.open = false;
     }
 
+    /**
+     * Returns the statistics of the connection pool. Leased and pending
+     * connections that are always at the maximum indicate that the pool is too
+     * small for the load.
+     * 
+     * @return Total number of leased, pending and available connections and the
+     *         maximum pool size or <code>null</code> if the event store is not
+     *         open.
+     */
+    @Nullable
+    public final PoolStats getPoolStats() {
+        final PoolingNHttpClientConnectionManager cm = connManager;
+        if (cm == null) {
+            return null;
+        }
+        return cm.getTotalStats();
+    }
+
     @Override
     public final boolean isSupportsCreateStream() {
         return false;
@@ -231,46 +420,41 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
             throw new StreamReadOnlyException(streamId);
         }
 
+        // Events with a content type other than the envelope type are
+        // embedded Base64 encoded, so mixed batches need only one request.
+        // The events are serialized one by one while sending the request.
         final ESHttpMarshaller marshaller = envelopeType.getMarshaller();
-        final EnhancedMimeType mimeType = EscSpiUtils.mimeType(serRegistry,
-                commonEvents);
-        // TODO Get next expected version from event store!
-        final int nextExpectedVersion = 0;
-        if (mimeType == null) {
-            // Not all events have same type
-            for (final CommonEvent commonEvent : commonEvents) {
-                final List<CommonEvent> list = new ArrayList<>(1);
-                list.add(commonEvent);
-                final String content = marshaller.marshal(serRegistry, list);
-                appendToStream(streamId, expectedVersion, mimeType, content, 1);
-            }
+        final ESHttpEventsEntity events = new ESHttpEventsEntity(marshaller,
+                serRegistry, commonEvents);
+        final HttpEntity entity;
+        if (compressRequestsMinEvents > 0
+                && commonEvents.size() >= compressRequestsMinEvents) {
+            entity = new ESHttpGzipEntity(events);
         } else {
-            // All events are of same type
-            final String content = marshaller.marshal(serRegistry,
-                    commonEvents);
-            appendToStream(streamId, expectedVersion, mimeType, content,
-                    commonEvents.size());
+            entity = events;
         }
+        appendToStream(streamId, expectedVersion, entity, commonEvents.size());
+
+        // TODO Get next expected version from event store!
+        final int nextExpectedVersion = 0;
 
         return nextExpectedVersion;
     }
 
     private void appendToStream(final StreamId streamId,
-            final int expectedVersion, final EnhancedMimeType mimeType,
-            final String content, final int count)
+            final int expectedVersion, final HttpEntity entity, final int count)
             throws StreamDeletedException, WrongExpectedVersionException {
 
         final String msg = "appendToStream(" + streamId + ", " + expectedVersion
-                + ", " + mimeType + ", " + count + ")";
+                + ", " + count + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI())
-                    .setPath("/streams/" + streamId).build();
-            final HttpPost post = createPost(uri, expectedVersion, content);
+            final URI uri = streamUri(streamId).getStream();
+            final HttpPost post = createPost(uri, expectedVersion, entity);
             try {
                 LOG.debug(msg + " POST: {}", post);
 
                 final Future<HttpResponse> future = httpclient.execute(post,
-                        null);
+                        createContext(), null);
                 final HttpResponse response = future.get();
                 final StatusLine statusLine = response.getStatusLine();
                 if (statusLine.getStatusCode() == 201) {
@@ -300,14 +484,13 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
                 }
 
                 LOG.debug(msg + " RESPONSE: {}", response);
-                throw new RuntimeException(msg + " [Status=" + statusLine
-                        + ", Content=" + content + "]");
+                throw new RuntimeException(
+                        msg + " [Status=" + statusLine + "]");
 
             } finally {
                 post.reset();
             }
-        } catch (final URISyntaxException | InterruptedException
-                | ExecutionException ex) {
+        } catch (final InterruptedException | ExecutionException ex) {
             throw new RuntimeException(msg, ex);
         }
 
@@ -330,8 +513,7 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         final String msg = "deleteStream(" + streamId + ", " + expectedVersion
                 + ", " + hardDelete + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI())
-                    .setPath("/streams/" + streamId).build();
+            final URI uri = streamUri(streamId).getStream();
             final HttpDelete delete = new HttpDelete(uri);
             try {
                 delete.setHeader("ES-HardDelete", "" + hardDelete);
@@ -339,12 +521,15 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
                 LOG.debug(msg + " DELETE: {}", delete);
 
                 final Future<HttpResponse> future = httpclient.execute(delete,
-                        null);
+                        createContext(), null);
                 final HttpResponse response = future.get();
                 final StatusLine statusLine = response.getStatusLine();
                 if (statusLine.getStatusCode() == 204) {
                     // Stream deleted
                     LOG.debug(msg + " RESPONSE: {}", response);
+                    if (cache != null) {
+                        cache.invalidate(streamName(streamId));
+                    }
                     return;
                 }
                 if (statusLine.getStatusCode() == 400) {
@@ -368,8 +553,7 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
                 delete.reset();
             }
 
-        } catch (final URISyntaxException | ExecutionException
-                | InterruptedException ex) {
+        } catch (final ExecutionException | InterruptedException ex) {
             throw new RuntimeException(msg, ex);
         }
 
@@ -384,6 +568,12 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
     @Override
     public StreamEventsSlice readEventsForward(final StreamId streamId,
             final int start, final int count) {
+        return readSizedEventsForward(streamId, start, count).getSlice();
+    }
+
+    @Override
+    protected SizedStreamEventsSlice readSizedEventsForward(
+            final StreamId streamId, final int start, final int count) {
 
         Contract.requireArgNotNull("streamId", streamId);
         Contract.requireArgMin("start", start, 0);
@@ -393,11 +583,9 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         final String msg = "readEventsForward(" + streamId + ", " + start + ", "
                 + count + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI()).setPath("/streams/"
-                    + streamName(streamId) + "/" + start + "/forward/" + count)
-                    .build();
+            final URI uri = streamUri(streamId).forward(start, count);
             return readEvents(streamId, true, uri, start, count, msg, false);
-        } catch (final IOException | URISyntaxException | InterruptedException
+        } catch (final IOException | InterruptedException
                 | ExecutionException ex) {
             throw new RuntimeException(msg, ex);
         }
@@ -407,6 +595,12 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
     @Override
     public StreamEventsSlice readEventsBackward(final StreamId streamId,
             final int start, final int count) {
+        return readSizedEventsBackward(streamId, start, count).getSlice();
+    }
+
+    @Override
+    protected SizedStreamEventsSlice readSizedEventsBackward(
+            final StreamId streamId, final int start, final int count) {
 
         Contract.requireArgNotNull("streamId", streamId);
         Contract.requireArgMin("start", start, 0);
@@ -416,11 +610,9 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         final String msg = "readEventsBackward(" + streamId + ", " + start
                 + ", " + count + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI()).setPath("/streams/"
-                    + streamName(streamId) + "/" + start + "/backward/" + count)
-                    .build();
+            final URI uri = streamUri(streamId).backward(start, count);
             return readEvents(streamId, false, uri, start, count, msg, true);
-        } catch (final IOException | URISyntaxException | InterruptedException
+        } catch (final IOException | InterruptedException
                 | ExecutionException ex) {
             throw new RuntimeException(msg, ex);
         }
@@ -434,15 +626,8 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         Contract.requireArgMin("eventNumber", eventNumber, 0);
         ensureOpen();
 
-        final String msg = "readEvent(" + streamId + ", " + eventNumber + ")";
-        try {
-            final URI uri = new URIBuilder(url.toURI()).setPath(
-                    "/streams/" + streamName(streamId) + "/" + eventNumber)
-                    .build();
-            return readEvent(uri);
-        } catch (final URISyntaxException ex) {
-            throw new RuntimeException(msg, ex);
-        }
+        return readEvent(streamUri(streamId).event(eventNumber),
+                new ByteCount());
     }
 
     @Override
@@ -453,13 +638,12 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
 
         final String msg = "streamExists(" + streamId + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI())
-                    .setPath("/streams/" + streamName(streamId)).build();
+            final URI uri = streamUri(streamId).getStream();
             LOG.debug(uri.toString());
             final HttpGet get = createHttpGet(uri);
             try {
                 final Future<HttpResponse> future = httpclient.execute(get,
-                        null);
+                        createContext(), null);
                 final HttpResponse response = future.get();
                 final StatusLine status = response.getStatusLine();
                 if (status.getStatusCode() == 404) {
@@ -477,8 +661,7 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
             } finally {
                 get.reset();
             }
-        } catch (final URISyntaxException | InterruptedException
-                | ExecutionException ex) {
+        } catch (final InterruptedException | ExecutionException ex) {
             throw new RuntimeException(msg, ex);
         }
 
@@ -491,13 +674,12 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
 
         final String msg = "streamState(" + streamId + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI())
-                    .setPath("/streams/" + streamName(streamId)).build();
+            final URI uri = streamUri(streamId).getStream();
             LOG.debug(uri.toString());
             final HttpGet get = createHttpGet(uri);
             try {
                 final Future<HttpResponse> future = httpclient.execute(get,
-                        null);
+                        createContext(), null);
                 final HttpResponse response = future.get();
                 final StatusLine status = response.getStatusLine();
                 if (status.getStatusCode() == 200) {
@@ -521,12 +703,68 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
             } finally {
                 get.reset();
             }
-        } catch (final URISyntaxException | InterruptedException
-                | ExecutionException ex) {
+        } catch (final InterruptedException | ExecutionException ex) {
             throw new RuntimeException(msg, ex);
         }
     }
 
+    @Override
+    public final Subscription subscribeToStream(final StreamId streamId,
+            final int eventNumber,
+            final BiConsumer<Subscription, CommonEvent> onEvent,
+            final BiConsumer<Subscription, Exception> onDrop) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgMin("eventNumber", eventNumber,
+                EscApiUtils.SUBSCRIBE_TO_NEW_EVENTS);
+        Contract.requireArgNotNull("onEvent", onEvent);
+        Contract.requireArgNotNull("onDrop", onDrop);
+        ensureOpen();
+
+        int lastEventNumber;
+        try {
+            lastEventNumber = readLastEventNumber(streamId);
+        } catch (final StreamNotFoundException ex) {
+            // Wait for the first event of a stream created later
+            lastEventNumber = -1;
+        }
+        final int nextEventNumber;
+        if (eventNumber == EscApiUtils.SUBSCRIBE_TO_NEW_EVENTS) {
+            nextEventNumber = lastEventNumber + 1;
+        } else {
+            nextEventNumber = eventNumber;
+        }
+        final ESHttpSubscription subscription = new ESHttpSubscription(
+                subscriberIds.incrementAndGet(), streamId,
+                (lastEventNumber < 0) ? null : lastEventNumber);
+        final LongPollingSubscriber subscriber = new LongPollingSubscriber(
+                pollHttpclient(), subscription, nextEventNumber, onEvent,
+                onDrop);
+        subscribers.put(subscription, subscriber);
+        subscriber.schedule(0);
+        return subscription;
+
+    }
+
+    @Override
+    public final void unsubscribeFromStream(final Subscription subscription) {
+
+        Contract.requireArgNotNull("subscription", subscription);
+        ensureOpen();
+        if (!(subscription instanceof ESHttpSubscription)) {
+            throw new IllegalArgumentException(
+                    "Can only handle subscriptions of type "
+                            + ESHttpSubscription.class.getSimpleName()
+                            + ", not: " + subscription.getClass().getName());
+        }
+        final LongPollingSubscriber subscriber = subscribers
+                .remove(subscription);
+        if (subscriber != null) {
+            subscriber.cancel();
+        }
+
+    }
+
     @Override
     public boolean projectionExists(final StreamId projectionId) {
 
@@ -536,7 +774,7 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
 
         final String msg = "projectionExists(" + projectionId + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI())
+            final URI uri = new URIBuilder(baseUri)
                     .setPath("/projection/" + projectionId.getName() + "/state")
                     .build();
             LOG.debug(uri.toString());
@@ -544,7 +782,7 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
             get.setHeader("Accept", ESEnvelopeType.JSON.getMetaType());
             try {
                 final Future<HttpResponse> future = httpclient.execute(get,
-                        null);
+                        createContext(), null);
                 final HttpResponse response = future.get();
                 final StatusLine status = response.getStatusLine();
                 if (status.getStatusCode() == 404) {
@@ -586,14 +824,14 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
 
         final String msg = action + "Projection(" + projectionId + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI()).setPath("/projection/"
+            final URI uri = new URIBuilder(baseUri).setPath("/projection/"
                     + projectionId.getName() + "/command/" + action).build();
             LOG.debug("{}", uri);
             final HttpPost post = createPost(uri, "", ESEnvelopeType.JSON);
             try {
                 LOG.debug(msg + " POST: {}", post);
                 final Future<HttpResponse> future = httpclient.execute(post,
-                        null);
+                        createContext(), null);
                 final HttpResponse response = future.get();
                 final StatusLine status = response.getStatusLine();
                 LOG.debug(msg + " RESPONSE: {}", response);
@@ -637,7 +875,7 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         final String msg = "createProjection(" + projectionId + "," + enable
                 + type2str(eventTypes) + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI())
+            final URI uri = new URIBuilder(baseUri)
                     .setPath("/projections/continuous")
                     .addParameter("name", projectionId.getName())
                     .addParameter("emit", "yes")
@@ -651,7 +889,7 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
             try {
                 LOG.debug(msg + " POST: {}", post);
                 final Future<HttpResponse> future = httpclient.execute(post,
-                        null);
+                        createContext(), null);
                 final HttpResponse response = future.get();
                 final StatusLine status = response.getStatusLine();
                 LOG.debug(msg + " RESPONSE: {}", response);
@@ -680,7 +918,7 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
 
         final String msg = "deleteProjection(" + projectionId + ")";
         try {
-            final URI uri = new URIBuilder(url.toURI())
+            final URI uri = new URIBuilder(baseUri)
                     .setPath("/projection/" + projectionId.getName())
                     .addParameter("deleteCheckpointStream", "yes")
                     .addParameter("deleteStateStream", "yes").build();
@@ -688,7 +926,7 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
             try {
                 LOG.debug(msg + " DELETE: {}", delete);
                 final Future<HttpResponse> future = httpclient.execute(delete,
-                        null);
+                        createContext(), null);
                 final HttpResponse response = future.get();
                 final StatusLine statusLine = response.getStatusLine();
                 LOG.debug(msg + " RESPONSE: {}", response);
@@ -721,32 +959,35 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         }
     }
 
-    private StreamEventsSlice readEvents(final StreamId streamId,
+    private SizedStreamEventsSlice readEvents(final StreamId streamId,
             final boolean forward, final URI uri, final int start,
             final int count, final String msg, final boolean reverseOrder)
             throws InterruptedException, ExecutionException, IOException {
+        final ESHttpCache.CachedResponse cached = getCached(uri);
+        if (cached != null && cached.isFresh()) {
+            // Complete pages never change
+            return readEvents(forward, start, count, cachedUris(cached),
+                    reverseOrder);
+        }
         LOG.debug(uri.toString());
-        final HttpGet get = createHttpGet(uri);
+        final HttpGet get = createConditionalGet(uri, cached);
         try {
-            final Future<HttpResponse> future = httpclient.execute(get, null);
+            final Future<HttpResponse> future = httpclient.execute(get,
+                    createContext(), null);
             final HttpResponse response = future.get();
             final StatusLine statusLine = response.getStatusLine();
+            if (statusLine.getStatusCode() == 304 && cached != null) {
+                // Page did not change since it was cached
+                EntityUtils.consume(response.getEntity());
+                return readEvents(forward, start, count, cachedUris(cached),
+                        reverseOrder);
+            }
             if (statusLine.getStatusCode() == 200) {
-                final HttpEntity entity = response.getEntity();
-                try {
-                    final InputStream in = entity.getContent();
-                    try {
-                        final AtomFeedReader atomFeedReader = envelopeType
-                                .getAtomFeedReader();
-                        final List<URI> uris = atomFeedReader.readAtomFeed(in);
-                        return readEvents(forward, start, count, uris,
-                                reverseOrder);
-                    } finally {
-                        in.close();
-                    }
-                } finally {
-                    EntityUtils.consume(entity);
+                final List<URI> uris = readAtomFeed(response);
+                if (cache != null) {
+                    cache.put(uri, uris, response);
                 }
+                return readEvents(forward, start, count, uris, reverseOrder);
             }
             if (statusLine.getStatusCode() == 404) {
                 // 404 Not Found
@@ -764,19 +1005,76 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         }
     }
 
-    private StreamEventsSlice readEvents(final boolean forward,
+    private List<URI> readAtomFeed(final HttpResponse response)
+            throws IOException {
+        final HttpEntity entity = ESHttpUtils.decompress(response.getEntity());
+        try {
+            final InputStream in = entity.getContent();
+            try {
+                return envelopeType.getAtomFeedReader().readAtomFeed(in);
+            } finally {
+                in.close();
+            }
+        } finally {
+            EntityUtils.consume(entity);
+        }
+    }
+
+    private int readLastEventNumber(final StreamId streamId) {
+        final String msg = "readLastEventNumber(" + streamId + ")";
+        try {
+            final URI uri = streamUri(streamId).headBackward(1);
+            LOG.debug(uri.toString());
+            final HttpGet get = createHttpGet(uri);
+            try {
+                final Future<HttpResponse> future = httpclient.execute(get,
+                        createContext(), null);
+                final HttpResponse response = future.get();
+                final StatusLine status = response.getStatusLine();
+                if (status.getStatusCode() == 200) {
+                    final List<URI> uris = readAtomFeed(response);
+                    if (uris.isEmpty()) {
+                        return -1;
+                    }
+                    return ESHttpStreamUri.eventNumber(uris.get(0));
+                }
+                LOG.debug(msg + " RESPONSE: {}", response);
+                if (status.getStatusCode() == 404) {
+                    throw new StreamNotFoundException(streamId);
+                }
+                if (status.getStatusCode() == 410) {
+                    // Stream was hard deleted
+                    throw new StreamDeletedException(streamId);
+                }
+                throw new RuntimeException(msg + " [Status=" + status + "]");
+            } finally {
+                get.reset();
+            }
+        } catch (final IOException | InterruptedException
+                | ExecutionException ex) {
+            throw new RuntimeException(msg, ex);
+        }
+    }
+
+    private SizedStreamEventsSlice readEvents(final boolean forward,
             final int fromEventNumber, final int count, final List<URI> uris,
             final boolean reverseOrder) {
-        final List<CommonEvent> events = new ArrayList<>();
+        final List<URI> orderedUris = new ArrayList<>(uris.size());
         if (reverseOrder) {
-            for (int i = 0; i < uris.size(); i++) {
-                final URI uri = uris.get(i);
-                events.add(readEvent(uri));
-            }
+            orderedUris.addAll(uris);
         } else {
             for (int i = uris.size() - 1; i >= 0; i--) {
-                final URI uri = uris.get(i);
-                events.add(readEvent(uri));
+                orderedUris.add(uris.get(i));
+            }
+        }
+        final ByteCount byteCount = new ByteCount();
+        final List<CommonEvent> events;
+        if (pipelining && orderedUris.size() > 1) {
+            events = readEventsPipelined(orderedUris, byteCount);
+        } else {
+            events = new ArrayList<>(orderedUris.size());
+            for (final URI uri : orderedUris) {
+                events.add(readEvent(uri, byteCount));
             }
         }
         final int nextEventNumber;
@@ -789,79 +1087,139 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
                     : fromEventNumber - count;
             endOfStream = (fromEventNumber - count < 0);
         }
-        return new StreamEventsSlice(fromEventNumber, events, nextEventNumber,
-                endOfStream);
+        return new SizedStreamEventsSlice(new StreamEventsSlice(
+                fromEventNumber, events, nextEventNumber, endOfStream),
+                byteCount.getBytes());
     }
 
-    private CommonEvent readEvent(final URI uri) {
+    private List<CommonEvent> readEventsPipelined(final List<URI> uris,
+            final ByteCount byteCount) {
+        LOG.debug("readEventsPipelined({})", uris);
+        // All events of a slice that are not cached are requested in one
+        // batch over the same connection instead of waiting for each response
+        // before sending the next request
+        final List<CommonEvent> events = new ArrayList<>(uris.size());
+        final List<Integer> indexes = new ArrayList<>();
+        final List<ESHttpCache.CachedResponse> cachedResponses = new ArrayList<>();
+        final List<HttpRequest> requests = new ArrayList<>();
+        for (int i = 0; i < uris.size(); i++) {
+            final URI uri = uris.get(i);
+            final ESHttpCache.CachedResponse cached = getCached(uri);
+            if (cached != null && cached.isFresh()) {
+                byteCount.unknown();
+                events.add((CommonEvent) cached.getValue());
+            } else {
+                events.add(null);
+                indexes.add(i);
+                cachedResponses.add(cached);
+                final HttpGet get = createConditionalGet(uri, cached);
+                get.setConfig(requestConfig);
+                requests.add(get);
+            }
+        }
+        if (requests.isEmpty()) {
+            return events;
+        }
+        final HttpHost target = URIUtils.extractHost(uris.get(0));
+        try {
+            final Future<List<HttpResponse>> future = ((HttpPipeliningClient) httpclient)
+                    .execute(target, requests, createContext(), null);
+            final List<HttpResponse> responses = future.get();
+            for (int j = 0; j < responses.size(); j++) {
+                final int i = indexes.get(j);
+                events.set(i, readEvent(uris.get(i), responses.get(j),
+                        cachedResponses.get(j), byteCount));
+            }
+            return events;
+        } catch (final InterruptedException | ExecutionException ex) {
+            throw new RuntimeException("Failed to read " + uris, ex);
+        } finally {
+            for (final HttpRequest request : requests) {
+                ((HttpGet) request).reset();
+            }
+        }
+    }
+
+    private CommonEvent readEvent(final URI uri, final ByteCount byteCount) {
+        final ESHttpCache.CachedResponse cached = getCached(uri);
+        if (cached != null && cached.isFresh()) {
+            // Events never change
+            byteCount.unknown();
+            return (CommonEvent) cached.getValue();
+        }
         LOG.debug(uri.toString());
-        final String msg = "readEvent(" + uri + ")";
         try {
-            final HttpGet get = createHttpGet(uri);
+            final HttpGet get = createConditionalGet(uri, cached);
             try {
                 final Future<HttpResponse> future = httpclient.execute(get,
-                        null);
-                final HttpResponse response = future.get();
-                final StatusLine statusLine = response.getStatusLine();
-                if (statusLine.getStatusCode() == 200) {
-                    final HttpEntity entity = response.getEntity();
-                    try {
-                        final InputStream in = entity.getContent();
-                        try {
-                            return envelopeType.getAtomFeedReader()
-                                    .readEvent(desRegistry, in);
-                        } finally {
-                            in.close();
-                        }
-                    } finally {
-                        EntityUtils.consume(entity);
-                    }
-                }
-                if (statusLine.getStatusCode() == 404) {
-                    // 404 Not Found
-                    LOG.debug(msg + " RESPONSE: {}", response);
-                    final StreamId streamId = streamId(uri);
-                    final int eventNumber = eventNumber(uri);
-                    throw new EventNotFoundException(streamId, eventNumber);
-                }
-                throw new RuntimeException(
-                        msg + " [Status=" + statusLine + "]");
+                        createContext(), null);
+                return readEvent(uri, future.get(), cached, byteCount);
             } finally {
                 get.reset();
             }
-        } catch (final InterruptedException | ExecutionException
-                | UnsupportedOperationException | IOException ex) {
+        } catch (final InterruptedException | ExecutionException ex) {
             throw new RuntimeException("Failed to read " + uri, ex);
         }
     }
 
-    private StreamId streamId(final URI uri) {
-        // http://127.0.0.1:2113/streams/append_diff_and_read_stream/2
-        final String url = uri.toString();
-        final int p1 = url.indexOf("/streams/");
-        if (p1 == -1) {
-            throw new IllegalStateException(
-                    "Failed to extract '/streams/': " + uri);
-        }
-        final int p2 = url.lastIndexOf('/');
-        if (p2 == -1) {
-            throw new IllegalStateException(
-                    "Failed to extract last '/': " + uri);
+    private CommonEvent readEvent(final URI uri, final HttpResponse response,
+            final ESHttpCache.CachedResponse cached,
+            final ByteCount byteCount) {
+        final String msg = "readEvent(" + uri + ")";
+        try {
+            final StatusLine statusLine = response.getStatusLine();
+            if (statusLine.getStatusCode() == 304 && cached != null) {
+                // Event did not change since it was cached
+                EntityUtils.consume(response.getEntity());
+                byteCount.unknown();
+                return (CommonEvent) cached.getValue();
+            }
+            if (statusLine.getStatusCode() == 200) {
+                byteCount.add(response.getEntity().getContentLength());
+                final CommonEvent event;
+                final HttpEntity entity = ESHttpUtils
+                        .decompress(response.getEntity());
+                try {
+                    final InputStream in = entity.getContent();
+                    try {
+                        event = envelopeType.getAtomFeedReader()
+                                .readEvent(desRegistry, in);
+                    } finally {
+                        in.close();
+                    }
+                } finally {
+                    EntityUtils.consume(entity);
+                }
+                if (cache != null) {
+                    cache.put(uri, event, response);
+                }
+                return event;
+            }
+            if (statusLine.getStatusCode() == 404) {
+                // 404 Not Found
+                LOG.debug(msg + " RESPONSE: {}", response);
+                final StreamId streamId = ESHttpStreamUri.streamId(uri);
+                final int eventNumber = ESHttpStreamUri.eventNumber(uri);
+                throw new EventNotFoundException(streamId, eventNumber);
+            }
+            throw new RuntimeException(msg + " [Status=" + statusLine + "]");
+        } catch (final UnsupportedOperationException | IOException ex) {
+            throw new RuntimeException("Failed to read " + uri, ex);
         }
-        final String str = url.substring(p1 + 9, p2);
-        return new SimpleStreamId(str);
     }
 
-    private int eventNumber(final URI uri) {
-        // http://127.0.0.1:2113/streams/append_diff_and_read_stream/2
-        final String url = uri.toString();
-        final int p = url.lastIndexOf('/');
-        if (p == -1) {
-            throw new IllegalStateException(
-                    "Failed to extract event number: " + uri);
+    private ESHttpStreamUri streamUri(final StreamId streamId) {
+        final String name = streamName(streamId);
+        ESHttpStreamUri streamUri = streamUris.get(name);
+        if (streamUri == null) {
+            if (streamUris.size() >= MAX_STREAM_URIS) {
+                // Keep the memory bounded for applications with many streams
+                streamUris.clear();
+            }
+            streamUri = new ESHttpStreamUri(baseUri, name);
+            streamUris.put(name, streamUri);
         }
-        final String str = url.substring(p + 1);
-        return Integer.valueOf(str);
+        return streamUri;
     }
 
     private String streamName(final StreamId streamId) {
@@ -872,7 +1230,11 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
     }
 
     private HttpGet createHttpGet(final URI uri) {
-        return createHttpGet(uri, envelopeType);
+        final HttpGet get = createHttpGet(uri, envelopeType);
+        if (compression) {
+            get.setHeader("Accept-Encoding", "gzip");
+        }
+        return get;
     }
 
     private static HttpGet createHttpGet(final URI uri,
@@ -882,15 +1244,35 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         return request;
     }
 
-    private HttpPost createPost(final URI uri, final int expectedVersion,
-            final String content) {
-        return createPost(uri, expectedVersion, content, envelopeType);
+    private ESHttpCache.CachedResponse getCached(final URI uri) {
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(uri);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<URI> cachedUris(
+            final ESHttpCache.CachedResponse cached) {
+        return (List<URI>) cached.getValue();
     }
 
-    private static HttpPost createPost(final URI uri, final int expectedVersion,
-            final String content, final ESEnvelopeType envelopeType) {
-        final HttpPost post = createPost(uri, content, envelopeType);
+    private HttpGet createConditionalGet(final URI uri,
+            final ESHttpCache.CachedResponse cached) {
+        final HttpGet get = createHttpGet(uri);
+        if (cached != null && cached.getETag() != null) {
+            get.setHeader("If-None-Match", cached.getETag());
+        }
+        return get;
+    }
+
+    private HttpPost createPost(final URI uri, final int expectedVersion,
+            final HttpEntity entity) {
+        final HttpPost post = new HttpPost(uri);
+        post.setHeader("Content-Type", envelopeType.getWriteContentType()
+                + "; charset=" + envelopeType.getMetaCharset());
         post.setHeader("ES-ExpectedVersion", "" + expectedVersion);
+        post.setEntity(entity);
         return post;
     }
 
@@ -905,6 +1287,88 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         return post;
     }
 
+    /**
+     * Returns the client used for the long polls of the subscriptions and
+     * creates it with the first subscription. As every subscription holds a
+     * connection while the server waits for new events, the polls do not use
+     * the pool of the other requests, but a separate pool without a limit.
+     * All polls share a single I/O thread.
+     * 
+     * @return Started client.
+     */
+    private synchronized CloseableHttpAsyncClient pollHttpclient() {
+        if (pollHttpclient != null) {
+            return pollHttpclient;
+        }
+        final IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(1).setSoKeepAlive(true).build();
+        final PoolingNHttpClientConnectionManager pollConnManager;
+        try {
+            pollConnManager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(ioReactorConfig,
+                            threadFactory));
+        } catch (final IOReactorException ex) {
+            throw new RuntimeException("Cannot create I/O reactor", ex);
+        }
+        pollConnManager.setMaxTotal(Integer.MAX_VALUE);
+        pollConnManager.setDefaultMaxPerRoute(Integer.MAX_VALUE);
+        final HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                .setThreadFactory(threadFactory)
+                .setConnectionManager(pollConnManager)
+                .setDefaultRequestConfig(longPollRequestConfig)
+                .setKeepAliveStrategy(createKeepAliveStrategy());
+        if (credentialsProvider != null) {
+            builder.setDefaultCredentialsProvider(credentialsProvider);
+        }
+        pollHttpclient = builder.build();
+        pollHttpclient.start();
+        return pollHttpclient;
+    }
+
+    private synchronized void closePollHttpclient() {
+        if (pollHttpclient == null) {
+            return;
+        }
+        try {
+            pollHttpclient.close();
+        } catch (final IOException ex) {
+            LOG.warn("Cannot close long poll http client", ex);
+        }
+        pollHttpclient = null;
+    }
+
+    /**
+     * Creates the context of a single request. The pipelining client has no
+     * default request configuration, so the timeouts are passed with the
+     * context of every request.
+     * 
+     * @return New context with the request configuration.
+     */
+    private HttpClientContext createContext() {
+        final HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(requestConfig);
+        return context;
+    }
+
+    private ConnectionKeepAliveStrategy createKeepAliveStrategy() {
+        if (keepAliveMillis < 0) {
+            return DefaultConnectionKeepAliveStrategy.INSTANCE;
+        }
+        return new ConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(final HttpResponse response,
+                    final HttpContext context) {
+                // Never keep a connection longer than the server allows
+                final long serverMillis = DefaultConnectionKeepAliveStrategy.INSTANCE
+                        .getKeepAliveDuration(response, context);
+                if (serverMillis > 0) {
+                    return Math.min(serverMillis, keepAliveMillis);
+                }
+                return keepAliveMillis;
+            }
+        };
+    }
+
     private static String type2str(final List<TypeName> eventTypes) {
         final StringBuilder sb = new StringBuilder();
         for (final TypeName eventType : eventTypes) {
@@ -921,4 +1385,624 @@ public final class ESHttpEventStore extends AbstractReadableEventStore
         }
     }
 
+    /**
+     * Follows a stream by long polling the next page of the stream's feed. The
+     * single subscription reactor thread only schedules the polls, which run
+     * asynchronously on the separate long poll client. The answer of a poll is processed by the bounded
+     * subscription executor: It reads the events of the page and delivers
+     * them. As a subscription only starts the next poll after the events were
+     * delivered, the events of one subscription are delivered in order by one
+     * thread at a time, and a slow subscriber only occupies one thread of the
+     * pool. Failed polls are repeated with an increasing delay, starting again
+     * at the next event not yet delivered.
+     */
+    private final class LongPollingSubscriber
+            implements Runnable, FutureCallback<HttpResponse> {
+
+        private final CloseableHttpAsyncClient client;
+
+        private final ESHttpSubscription subscription;
+
+        private final BiConsumer<Subscription, CommonEvent> onEvent;
+
+        private final BiConsumer<Subscription, Exception> onDrop;
+
+        private int nextEventNumber;
+
+        private long backoffMillis;
+
+        private volatile boolean cancelled;
+
+        private volatile Future<HttpResponse> pending;
+
+        public LongPollingSubscriber(final CloseableHttpAsyncClient client,
+                final ESHttpSubscription subscription,
+                final int nextEventNumber,
+                final BiConsumer<Subscription, CommonEvent> onEvent,
+                final BiConsumer<Subscription, Exception> onDrop) {
+            super();
+            this.client = client;
+            this.subscription = subscription;
+            this.nextEventNumber = nextEventNumber;
+            this.onEvent = onEvent;
+            this.onDrop = onDrop;
+        }
+
+        /**
+         * Starts the next long poll after the given delay.
+         * 
+         * @param delayMillis
+         *            Delay in milliseconds.
+         */
+        public void schedule(final long delayMillis) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                subscriptionReactor.schedule(this, delayMillis,
+                        TimeUnit.MILLISECONDS);
+            } catch (final RejectedExecutionException ex) {
+                // Event store was closed
+            }
+        }
+
+        /**
+         * Stops the subscription and aborts a running long poll.
+         */
+        public void cancel() {
+            cancelled = true;
+            final Future<HttpResponse> future = pending;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                final URI uri = streamUri(subscription.getStreamId())
+                        .forward(nextEventNumber, SUBSCRIPTION_PAGE_SIZE);
+                final HttpGet get = createHttpGet(uri);
+                get.setHeader("ES-LongPoll", "" + longPollSeconds);
+                LOG.debug("{} long poll: {}", subscription, uri);
+                pending = client.execute(get, this);
+            } catch (final RuntimeException ex) {
+                retry(ex);
+            }
+        }
+
+        @Override
+        public void completed(final HttpResponse response) {
+            // Called by an I/O thread that must not be blocked
+            process(new Runnable() {
+                @Override
+                public void run() {
+                    process(response);
+                }
+            });
+        }
+
+        @Override
+        public void failed(final Exception ex) {
+            process(new Runnable() {
+                @Override
+                public void run() {
+                    retry(ex);
+                }
+            });
+        }
+
+        @Override
+        public void cancelled() {
+            // Unsubscribed or event store closed
+        }
+
+        private void process(final Runnable runnable) {
+            try {
+                subscriptionExecutor.execute(runnable);
+            } catch (final RejectedExecutionException ex) {
+                // Event store was closed
+            }
+        }
+
+        private void process(final HttpResponse response) {
+            if (cancelled) {
+                return;
+            }
+            final StatusLine status = response.getStatusLine();
+            if (status.getStatusCode() == 410) {
+                // Stream was hard deleted
+                drop(new StreamDeletedException(subscription.getStreamId()));
+                return;
+            }
+            if (status.getStatusCode() == 404) {
+                // Stream was not created yet
+                LOG.debug("{} waits for the stream to be created",
+                        subscription);
+                schedule(nextBackoff());
+                return;
+            }
+            if (status.getStatusCode() != 200) {
+                // A soft deleted stream may be recreated later
+                retry(new RuntimeException(
+                        subscription + " [Status=" + status + "]"));
+                return;
+            }
+            final List<URI> uris;
+            final List<CommonEvent> events;
+            final int lastEventNumber;
+            try {
+                uris = readAtomFeed(response);
+                if (uris.isEmpty()) {
+                    // Server already waited for new events
+                    backoffMillis = 0;
+                    schedule(0);
+                    return;
+                }
+                // The feed contains the newest event first
+                lastEventNumber = ESHttpStreamUri.eventNumber(uris.get(0));
+                events = readEvents(true, nextEventNumber,
+                        SUBSCRIPTION_PAGE_SIZE, uris, false).getSlice()
+                        .getEvents();
+            } catch (final IOException | RuntimeException ex) {
+                retry(ex);
+                return;
+            }
+            for (int i = 0; i < events.size(); i++) {
+                if (cancelled) {
+                    return;
+                }
+                try {
+                    onEvent.accept(subscription, events.get(i));
+                } catch (final RuntimeException ex) {
+                    drop(ex);
+                    return;
+                }
+                // The events are ordered oldest first, the URIs newest first
+                subscription.checkpoint(ESHttpStreamUri
+                        .eventNumber(uris.get(uris.size() - 1 - i)));
+            }
+            nextEventNumber = lastEventNumber + 1;
+            backoffMillis = 0;
+            schedule(0);
+        }
+
+        private void retry(final Exception ex) {
+            if (cancelled) {
+                return;
+            }
+            final long delayMillis = nextBackoff();
+            LOG.warn("Long poll of {} failed - Retry in {} ms", subscription,
+                    delayMillis, ex);
+            schedule(delayMillis);
+        }
+
+        private long nextBackoff() {
+            if (backoffMillis == 0) {
+                backoffMillis = MIN_BACKOFF_MILLIS;
+            } else {
+                backoffMillis = Math.min(backoffMillis * 2,
+                        MAX_BACKOFF_MILLIS);
+            }
+            return backoffMillis;
+        }
+
+        private void drop(final Exception ex) {
+            cancelled = true;
+            subscribers.remove(subscription);
+            onDrop.accept(subscription, ex);
+        }
+
+    }
+
+    /**
+     * Sums up the content length of the event responses of a slice.
+     */
+    private static final class ByteCount {
+
+        private long bytes;
+
+        /**
+         * Adds the content length of a response.
+         * 
+         * @param contentLength
+         *            Number of bytes or a negative value if unknown.
+         */
+        public void add(final long contentLength) {
+            if (contentLength < 0) {
+                unknown();
+            } else if (bytes >= 0) {
+                bytes = bytes + contentLength;
+            }
+        }
+
+        /**
+         * Marks the size as unknown, for example for cached events.
+         */
+        public void unknown() {
+            bytes = -1;
+        }
+
+        /**
+         * Returns the sum of the content lengths.
+         * 
+         * @return Number of bytes or -1 if the size of any event is unknown.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+    }
+
+    /**
+     * Closes expired connections and connections that were idle too long.
+     */
+    private static final class IdleConnectionEvictor implements Runnable {
+
+        private final PoolingNHttpClientConnectionManager connManager;
+
+        private final long maxIdleMillis;
+
+        public IdleConnectionEvictor(
+                final PoolingNHttpClientConnectionManager connManager,
+                final long maxIdleMillis) {
+            super();
+            this.connManager = connManager;
+            this.maxIdleMillis = maxIdleMillis;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(maxIdleMillis);
+                    connManager.closeExpiredConnections();
+                    connManager.closeIdleConnections(maxIdleMillis,
+                            TimeUnit.MILLISECONDS);
+                }
+            } catch (final InterruptedException ex) {
+                // Event store was closed
+            }
+        }
+
+    }
+
+    /**
+     * Builder used to create an event store with a tuned connection pool.
+     * Values that are not set explicitly keep the defaults of the Apache HTTP
+     * client.
+     */
+    public static final class Builder {
+
+        private final ThreadFactory threadFactory;
+
+        private final URL url;
+
+        private final ESEnvelopeType envelopeType;
+
+        private final SerializerRegistry serRegistry;
+
+        private final DeserializerRegistry desRegistry;
+
+        private CredentialsProvider credentialsProvider;
+
+        private int maxConnTotal = 20;
+
+        private int maxConnPerRoute = 2;
+
+        private int ioThreadCount = Runtime.getRuntime()
+                .availableProcessors();
+
+        private int connectTimeout = -1;
+
+        private int socketTimeout = -1;
+
+        private int connectionRequestTimeout = -1;
+
+        private long keepAliveMillis = -1;
+
+        private long maxIdleMillis = -1;
+
+        private boolean pipelining;
+
+        private int longPollSeconds = 30;
+
+        private int cacheSize;
+
+        private boolean compression;
+
+        private int compressRequestsMinEvents = -1;
+
+        private int subscriptionThreads = Runtime.getRuntime()
+                .availableProcessors();
+
+        /**
+         * Constructor with all mandatory data.
+         * 
+         * @param threadFactory
+         *            Factory used to create the necessary internal threads.
+         * @param url
+         *            Event store base URL like "http://127.0.0.1:2113/".
+         * @param envelopeType
+         *            Envelope type for reading/writing events.
+         * @param serRegistry
+         *            Registry used to locate serializers.
+         * @param desRegistry
+         *            Registry used to locate deserializers.
+         */
+        public Builder(@NotNull final ThreadFactory threadFactory,
+                @NotNull final URL url,
+                @NotNull final ESEnvelopeType envelopeType,
+                @NotNull final SerializerRegistry serRegistry,
+                @NotNull final DeserializerRegistry desRegistry) {
+            super();
+            Contract.requireArgNotNull("threadFactory", threadFactory);
+            Contract.requireArgNotNull("url", url);
+            Contract.requireArgNotNull("envelopeType", envelopeType);
+            Contract.requireArgNotNull("serRegistry", serRegistry);
+            Contract.requireArgNotNull("desRegistry", desRegistry);
+            this.threadFactory = threadFactory;
+            this.url = url;
+            this.envelopeType = envelopeType;
+            this.serRegistry = serRegistry;
+            this.desRegistry = desRegistry;
+        }
+
+        /**
+         * Sets the authentication information.
+         * 
+         * @param credentialsProvider
+         *            Provided authentication information or <code>null</code>.
+         * 
+         * @return This builder.
+         */
+        public final Builder credentialsProvider(
+                @Nullable final CredentialsProvider credentialsProvider) {
+            this.credentialsProvider = credentialsProvider;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections in the pool. Defaults to 20.
+         * 
+         * @param maxConnTotal
+         *            Maximum number of connections.
+         * 
+         * @return This builder.
+         */
+        public final Builder maxConnTotal(final int maxConnTotal) {
+            Contract.requireArgMin("maxConnTotal", maxConnTotal, 1);
+            this.maxConnTotal = maxConnTotal;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections per route. As all requests
+         * go to the same event store this usually limits the number of
+         * concurrent requests. Defaults to 2.
+         * 
+         * @param maxConnPerRoute
+         *            Maximum number of connections per route.
+         * 
+         * @return This builder.
+         */
+        public final Builder maxConnPerRoute(final int maxConnPerRoute) {
+            Contract.requireArgMin("maxConnPerRoute", maxConnPerRoute, 1);
+            this.maxConnPerRoute = maxConnPerRoute;
+            return this;
+        }
+
+        /**
+         * Sets the number of I/O dispatch threads. Defaults to the number of
+         * available processors.
+         * 
+         * @param ioThreadCount
+         *            Number of I/O threads.
+         * 
+         * @return This builder.
+         */
+        public final Builder ioThreadCount(final int ioThreadCount) {
+            Contract.requireArgMin("ioThreadCount", ioThreadCount, 1);
+            this.ioThreadCount = ioThreadCount;
+            return this;
+        }
+
+        /**
+         * Sets the timeout until a connection is established.
+         * 
+         * @param millis
+         *            Timeout in milliseconds, zero for infinite or -1 for the
+         *            system default.
+         * 
+         * @return This builder.
+         */
+        public final Builder connectTimeout(final int millis) {
+            Contract.requireArgMin("millis", millis, -1);
+            this.connectTimeout = millis;
+            return this;
+        }
+
+        /**
+         * Sets the maximum period of inactivity between two data packets.
+         * 
+         * @param millis
+         *            Timeout in milliseconds, zero for infinite or -1 for the
+         *            system default.
+         * 
+         * @return This builder.
+         */
+        public final Builder socketTimeout(final int millis) {
+            Contract.requireArgMin("millis", millis, -1);
+            this.socketTimeout = millis;
+            return this;
+        }
+
+        /**
+         * Sets the timeout for waiting on a connection from the pool.
+         * 
+         * @param millis
+         *            Timeout in milliseconds, zero for infinite or -1 for the
+         *            system default.
+         * 
+         * @return This builder.
+         */
+        public final Builder connectionRequestTimeout(final int millis) {
+            Contract.requireArgMin("millis", millis, -1);
+            this.connectionRequestTimeout = millis;
+            return this;
+        }
+
+        /**
+         * Sets how long an idle connection may be kept alive for reuse. A
+         * shorter "Keep-Alive" timeout sent by the server always wins.
+         * 
+         * @param millis
+         *            Duration in milliseconds or -1 to use the server's
+         *            "Keep-Alive" header only.
+         * 
+         * @return This builder.
+         */
+        public final Builder keepAlive(final long millis) {
+            Contract.requireArgMin("millis", millis, -1);
+            this.keepAliveMillis = millis;
+            return this;
+        }
+
+        /**
+         * Enables closing connections that are idle for longer than the given
+         * time. The check runs in a separate thread created by the thread
+         * factory.
+         * 
+         * @param millis
+         *            Maximum idle time in milliseconds or -1 to disable the
+         *            eviction.
+         * 
+         * @return This builder.
+         */
+        public final Builder maxIdle(final long millis) {
+            Contract.requireArgMin("millis", millis, -1);
+            this.maxIdleMillis = millis;
+            return this;
+        }
+
+        /**
+         * Enables HTTP request pipelining. The events of a slice are then
+         * requested in a single batch instead of one after another. The
+         * pipelining client does not support authentication. The timeouts
+         * and the keep-alive duration apply as without pipelining.
+         * 
+         * @param pipelining
+         *            TRUE to enable pipelining.
+         * 
+         * @return This builder.
+         */
+        public final Builder pipelining(final boolean pipelining) {
+            this.pipelining = pipelining;
+            return this;
+        }
+
+        /**
+         * Sets how long the server waits for new events before it answers a
+         * poll of a subscription. Defaults to 30 seconds. Every subscription
+         * holds one connection while it waits. These connections are not
+         * taken from the pool of the other requests, so the pool limits do not
+         * restrict the number of subscriptions.
+         * 
+         * @param seconds
+         *            Maximum wait time in seconds.
+         * 
+         * @return This builder.
+         */
+        public final Builder longPoll(final int seconds) {
+            Contract.requireArgMin("seconds", seconds, 1);
+            this.longPollSeconds = seconds;
+            return this;
+        }
+
+        /**
+         * Enables caching of parsed events and feed pages. Events and complete
+         * feed pages are immutable and served from the cache as long as the
+         * event store allows it. Other pages are revalidated with a
+         * conditional request using their "ETag". The cached events are
+         * shared between all readers and must not be modified. Defaults to 0
+         * (No cache).
+         * 
+         * @param maxEntries
+         *            Maximum number of cached events and pages or 0 to
+         *            disable the cache.
+         * 
+         * @return This builder.
+         */
+        public final Builder cacheSize(final int maxEntries) {
+            Contract.requireArgMin("maxEntries", maxEntries, 0);
+            this.cacheSize = maxEntries;
+            return this;
+        }
+
+        /**
+         * Enables "gzip" compressed responses. The content is decompressed
+         * while the feeds and events are parsed.
+         * 
+         * @param compression
+         *            TRUE to send "Accept-Encoding: gzip" with all reads.
+         * 
+         * @return This builder.
+         */
+        public final Builder compression(final boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Enables "gzip" compressed request bodies for appends with many
+         * events. The compressed body is created in memory before it is
+         * sent. The event store must accept compressed requests.
+         * 
+         * @param minEvents
+         *            Minimum number of events in an append that is compressed
+         *            or -1 to never compress.
+         * 
+         * @return This builder.
+         */
+        public final Builder compressRequests(final int minEvents) {
+            Contract.requireArgMin("minEvents", minEvents, -1);
+            this.compressRequestsMinEvents = minEvents;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads that read and deliver the events of
+         * subscriptions. Each thread handles one subscription at a time, so a
+         * slow subscriber only blocks other subscriptions if all threads are
+         * busy. Defaults to the number of available processors.
+         * 
+         * @param threads
+         *            Number of threads created by the thread factory.
+         * 
+         * @return This builder.
+         */
+        public final Builder subscriptionThreads(final int threads) {
+            Contract.requireArgMin("threads", threads, 1);
+            this.subscriptionThreads = threads;
+            return this;
+        }
+
+        /**
+         * Creates the event store.
+         * 
+         * @return New event store that is not yet opened.
+         */
+        public final ESHttpEventStore build() {
+            if (pipelining && credentialsProvider != null) {
+                throw new IllegalStateException(
+                        "Pipelining does not support authentication");
+            }
+            return new ESHttpEventStore(this);
+        }
+
+    }
+
 }
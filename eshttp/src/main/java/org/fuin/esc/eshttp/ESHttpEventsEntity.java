@@ -0,0 +1,233 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.EscEvent;
+import org.fuin.esc.spi.EscEvents;
+import org.fuin.esc.spi.Serializer;
+import org.fuin.esc.spi.SerializerRegistry;
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Request entity that creates a list of "application/vnd.eventstore.events(+json/+xml)" entries surrounded by
+ * "[]" (JSON) or "&lt;Events&gt;&lt;/Events&gt;" (XML). The events are serialized one by one while the content
+ * is sent using chunked transfer encoding. This way only a single serialized event is kept in memory, no
+ * matter how many events are appended. The entity is repeatable: Closing it resets the internal state.
+ */
+public final class ESHttpEventsEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+    private final ESHttpMarshaller marshaller;
+
+    private final SerializerRegistry registry;
+
+    private final List<CommonEvent> commonEvents;
+
+    private final EnhancedMimeType targetContentType;
+
+    private final Serializer eventSerializer;
+
+    private final byte[] prefix;
+
+    private final byte[] separator;
+
+    private final byte[] suffix;
+
+    private boolean prefixDone;
+
+    private boolean separatorPending;
+
+    private int eventIdx;
+
+    private boolean suffixDone;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Constructor with all mandatory data.
+     * 
+     * @param marshaller
+     *            Marshaller used to create the single events.
+     * @param registry
+     *            Registry with known serializers.
+     * @param commonEvents
+     *            Events to send.
+     */
+    public ESHttpEventsEntity(@NotNull final ESHttpMarshaller marshaller,
+            @NotNull final SerializerRegistry registry, @NotNull final List<CommonEvent> commonEvents) {
+        super();
+        Contract.requireArgNotNull("marshaller", marshaller);
+        Contract.requireArgNotNull("registry", registry);
+        Contract.requireArgNotNull("commonEvents", commonEvents);
+        this.marshaller = marshaller;
+        this.registry = registry;
+        this.commonEvents = commonEvents;
+
+        final Serializer eventsSerializer = registry.getSerializer(EscEvents.SER_TYPE);
+        this.targetContentType = eventsSerializer.getMimeType();
+        if (registry.serializerExists(EscEvent.SER_TYPE)) {
+            this.eventSerializer = registry.getSerializer(EscEvent.SER_TYPE);
+        } else {
+            // JSON and JAXB based serializers for the list are also capable of handling a single event
+            this.eventSerializer = eventsSerializer;
+        }
+
+        final Charset encoding = targetContentType.getEncoding();
+        if (targetContentType.isJson()) {
+            this.prefix = "[".getBytes(encoding);
+            this.separator = ",".getBytes(encoding);
+            this.suffix = "]".getBytes(encoding);
+        } else if (targetContentType.isXml()) {
+            this.prefix = "<Events>".getBytes(encoding);
+            this.separator = new byte[0];
+            this.suffix = "</Events>".getBytes(encoding);
+        } else {
+            throw new IllegalArgumentException(
+                    "Only 'application/json' or 'application/xml' is allowed, but was: " + targetContentType);
+        }
+
+        setChunked(true);
+        reset();
+    }
+
+    @Override
+    public final boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public final long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public final boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Returns the content as stream. CAUTION: This materializes the complete content in memory and should
+     * only be used by callers that are not capable of using {@link #writeTo(OutputStream)}.
+     * 
+     * @return Stream with the complete content.
+     * 
+     * @throws IOException
+     *             Error creating the content.
+     */
+    @Override
+    public final InputStream getContent() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writeTo(bos);
+        return new ByteArrayInputStream(bos.toByteArray());
+    }
+
+    @Override
+    public final void writeTo(final OutputStream out) throws IOException {
+        Contract.requireArgNotNull("out", out);
+        out.write(prefix);
+        for (int i = 0; i < commonEvents.size(); i++) {
+            if (i > 0) {
+                out.write(separator);
+            }
+            out.write(marshal(commonEvents.get(i)));
+        }
+        out.write(suffix);
+        out.flush();
+    }
+
+    @Override
+    public final void produceContent(final ContentEncoder encoder, final IOControl ioctrl)
+            throws IOException {
+        while (true) {
+            if ((buffer == null) || !buffer.hasRemaining()) {
+                buffer = nextChunk();
+                if (buffer == null) {
+                    encoder.complete();
+                    return;
+                }
+            }
+            encoder.write(buffer);
+            if (buffer.hasRemaining()) {
+                // Channel is saturated - Continue when the encoder is ready again
+                return;
+            }
+        }
+    }
+
+    @Override
+    public final void close() throws IOException {
+        reset();
+    }
+
+    private void reset() {
+        prefixDone = false;
+        separatorPending = false;
+        eventIdx = 0;
+        suffixDone = false;
+        buffer = null;
+    }
+
+    /**
+     * Returns the next part of the content. Used by {@link #produceContent(ContentEncoder, IOControl)} and by
+     * wrappers that encode the content while it is produced.
+     * 
+     * @return Next part or <code>null</code> if the content is complete.
+     */
+    final ByteBuffer nextChunk() {
+        final byte[] chunk;
+        if (!prefixDone) {
+            prefixDone = true;
+            chunk = prefix;
+        } else if (separatorPending) {
+            separatorPending = false;
+            chunk = separator;
+        } else if (eventIdx < commonEvents.size()) {
+            chunk = marshal(commonEvents.get(eventIdx));
+            eventIdx++;
+            separatorPending = (eventIdx < commonEvents.size());
+        } else if (!suffixDone) {
+            suffixDone = true;
+            chunk = suffix;
+        } else {
+            return null;
+        }
+        return ByteBuffer.wrap(chunk);
+    }
+
+    private byte[] marshal(final CommonEvent commonEvent) {
+        final EscEvent event = marshaller.createEscEvent(registry, targetContentType, commonEvent);
+        return eventSerializer.marshal(event);
+    }
+
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import javax.validation.constraints.NotNull;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Request entity that sends the content of an {@link ESHttpEventsEntity} "gzip" encoded. The events are
+ * serialized and compressed one by one while the content is sent, so neither the uncompressed nor the
+ * compressed content of all events is kept in memory. The entity is repeatable: Closing it resets the internal
+ * state.
+ */
+public final class ESHttpGzipEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+    /** GZIP member header: Magic number, "deflate", no flags, no time, no extra flags and unknown OS. */
+    private static final byte[] HEADER = new byte[] { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0,
+            (byte) 0xff };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ESHttpEventsEntity entity;
+
+    private final byte[] output;
+
+    private final CRC32 crc;
+
+    private Deflater deflater;
+
+    private boolean headerDone;
+
+    private boolean inputDone;
+
+    private boolean trailerDone;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Constructor with the entity to compress.
+     * 
+     * @param entity
+     *            Entity with the uncompressed content.
+     */
+    public ESHttpGzipEntity(@NotNull final ESHttpEventsEntity entity) {
+        super();
+        Contract.requireArgNotNull("entity", entity);
+        this.entity = entity;
+        this.output = new byte[BUFFER_SIZE];
+        this.crc = new CRC32();
+        setContentType(entity.getContentType());
+        setContentEncoding("gzip");
+        setChunked(true);
+    }
+
+    @Override
+    public final boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public final long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public final boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Returns the compressed content as stream. CAUTION: This materializes the complete content in memory and
+     * should only be used by callers that are not capable of using {@link #writeTo(OutputStream)}.
+     * 
+     * @return Stream with the complete compressed content.
+     * 
+     * @throws IOException
+     *             Error creating the content.
+     */
+    @Override
+    public final InputStream getContent() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writeTo(bos);
+        return new ByteArrayInputStream(bos.toByteArray());
+    }
+
+    @Override
+    public final void writeTo(final OutputStream out) throws IOException {
+        Contract.requireArgNotNull("out", out);
+        final GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        entity.writeTo(gzip);
+        gzip.finish();
+        out.flush();
+    }
+
+    @Override
+    public final void produceContent(final ContentEncoder encoder, final IOControl ioctrl) throws IOException {
+        while (true) {
+            if ((buffer == null) || !buffer.hasRemaining()) {
+                buffer = nextChunk();
+                if (buffer == null) {
+                    encoder.complete();
+                    return;
+                }
+            }
+            encoder.write(buffer);
+            if (buffer.hasRemaining()) {
+                // Channel is saturated - Continue when the encoder is ready again
+                return;
+            }
+        }
+    }
+
+    @Override
+    public final void close() throws IOException {
+        entity.close();
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
+        crc.reset();
+        headerDone = false;
+        inputDone = false;
+        trailerDone = false;
+        buffer = null;
+    }
+
+    private ByteBuffer nextChunk() {
+        if (!headerDone) {
+            headerDone = true;
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            return ByteBuffer.wrap(HEADER);
+        }
+        if (trailerDone) {
+            return null;
+        }
+        while (!deflater.finished()) {
+            if (!inputDone && deflater.needsInput()) {
+                final ByteBuffer chunk = entity.nextChunk();
+                if (chunk == null) {
+                    inputDone = true;
+                    deflater.finish();
+                } else {
+                    crc.update(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+                    deflater.setInput(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+                }
+            }
+            final int count = deflater.deflate(output);
+            if (count > 0) {
+                // The output is written completely before the next call
+                return ByteBuffer.wrap(output, 0, count);
+            }
+        }
+        trailerDone = true;
+        final ByteBuffer trailer = ByteBuffer.allocate(8);
+        trailer.put(intel((int) crc.getValue()));
+        trailer.put(intel((int) deflater.getBytesRead()));
+        trailer.flip();
+        deflater.end();
+        deflater = null;
+        return trailer;
+    }
+
+    private static byte[] intel(final int value) {
+        // GZIP stores numbers least significant byte first
+        return new byte[] { (byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24) };
+    }
+
+}
@@ -35,6 +35,16 @@ public final class ESHttpJsonUnmarshaller implements ESHttpUnmarshaller {
     public final Object unmarshal(final DeserializerRegistry registry, final SerializedDataType dataType,
             final EnhancedMimeType mimeType, final Object data) {
 
+        if (data == null) {
+            return null;
+        }
+        return unmarshal(registry.getDeserializer(dataType, mimeType), mimeType, data);
+
+    }
+
+    @Override
+    public final Object unmarshal(final Deserializer deSer, final EnhancedMimeType mimeType, final Object data) {
+
         if (data == null) {
             return null;
         }
@@ -47,12 +57,10 @@ public final class ESHttpJsonUnmarshaller implements ESHttpUnmarshaller {
         final String transferEncodingData = mimeType.getParameter("transfer-encoding");
         if (transferEncodingData == null) {
             // JSON Object or Array
-            final Deserializer deSer = registry.getDeserializer(dataType, mimeType);
             return deSer.unmarshal(jsonObj, mimeType);
         }
         final String base64str = jsonObj.getString(Base64Data.EL_ROOT_NAME);
         final byte[] bytes = Base64.decodeBase64(base64str);
-        final Deserializer deSer = registry.getDeserializer(dataType, mimeType);
         return deSer.unmarshal(bytes, mimeType);
 
     }
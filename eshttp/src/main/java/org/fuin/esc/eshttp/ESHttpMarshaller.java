@@ -42,7 +42,8 @@ public final class ESHttpMarshaller {
 
     /**
      * Creates a list of "application/vnd.eventstore.events(+json/+xml)" entries surrounded by "[]" (JSON) or
-     * "&lt;Events&gt;&lt;/Events&gt;" (XML).
+     * "&lt;Events&gt;&lt;/Events&gt;" (XML). The events may have different content types. Data that does not
+     * match the content type of the envelope will be Base64 encoded.
      * 
      * @param registry
      *            Registry with known serializers.
@@ -106,7 +107,7 @@ public final class ESHttpMarshaller {
      * 
      * @return Single event that has to be surrounded by "&lt;Events&gt;&lt;/Events&gt;".
      */
-    private EscEvent createEscEvent(final SerializerRegistry registry,
+    final EscEvent createEscEvent(final SerializerRegistry registry,
             final EnhancedMimeType targetContentType, final CommonEvent commonEvent) {
 
         Contract.requireArgNotNull("registry", registry);
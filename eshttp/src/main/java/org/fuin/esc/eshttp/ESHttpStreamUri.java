@@ -0,0 +1,202 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import javax.validation.constraints.NotNull;
+
+import org.apache.http.client.utils.URIBuilder;
+import org.fuin.esc.api.SimpleStreamId;
+import org.fuin.esc.api.StreamId;
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Pre-parsed URI of a single stream like
+ * "http://127.0.0.1:2113/streams/my-stream". The base URI and the encoded
+ * stream name are only processed once, so the URIs of events and feed pages
+ * are created by appending numbers. This class is immutable and thread safe.
+ */
+final class ESHttpStreamUri {
+
+    private static final String STREAMS = "/streams/";
+
+    private final URI uri;
+
+    private final String str;
+
+    /**
+     * Constructor with all mandatory data.
+     * 
+     * @param baseUri
+     *            Event store base URI like "http://127.0.0.1:2113/".
+     * @param streamName
+     *            Name of the stream used in the path.
+     */
+    public ESHttpStreamUri(@NotNull final URI baseUri,
+            @NotNull final String streamName) {
+        super();
+        Contract.requireArgNotNull("baseUri", baseUri);
+        Contract.requireArgNotNull("streamName", streamName);
+        try {
+            this.uri = new URIBuilder(baseUri).setPath(STREAMS + streamName)
+                    .build();
+        } catch (final URISyntaxException ex) {
+            throw new IllegalArgumentException(
+                    "Cannot create URI for stream: " + streamName, ex);
+        }
+        this.str = uri.toString();
+    }
+
+    /**
+     * Returns the URI of the stream itself.
+     * 
+     * @return Stream URI.
+     */
+    @NotNull
+    public final URI getStream() {
+        return uri;
+    }
+
+    /**
+     * Returns the URI of a single event.
+     * 
+     * @param eventNumber
+     *            Number of the event.
+     * 
+     * @return Event URI like ".../streams/my-stream/2".
+     */
+    @NotNull
+    public final URI event(final int eventNumber) {
+        return URI.create(new StringBuilder(str.length() + 11).append(str)
+                .append('/').append(eventNumber).toString());
+    }
+
+    /**
+     * Returns the URI of a feed page read in forward direction.
+     * 
+     * @param start
+     *            Number of the first event.
+     * @param count
+     *            Number of events on the page.
+     * 
+     * @return Feed URI like ".../streams/my-stream/0/forward/20".
+     */
+    @NotNull
+    public final URI forward(final int start, final int count) {
+        return page(String.valueOf(start), "/forward/", count);
+    }
+
+    /**
+     * Returns the URI of a feed page read in backward direction.
+     * 
+     * @param start
+     *            Number of the first event.
+     * @param count
+     *            Number of events on the page.
+     * 
+     * @return Feed URI like ".../streams/my-stream/10/backward/20".
+     */
+    @NotNull
+    public final URI backward(final int start, final int count) {
+        return page(String.valueOf(start), "/backward/", count);
+    }
+
+    /**
+     * Returns the URI of the newest events read in backward direction.
+     * 
+     * @param count
+     *            Number of events on the page.
+     * 
+     * @return Feed URI like ".../streams/my-stream/head/backward/1".
+     */
+    @NotNull
+    public final URI headBackward(final int count) {
+        return page("head", "/backward/", count);
+    }
+
+    private URI page(final String start, final String direction,
+            final int count) {
+        return URI.create(new StringBuilder(
+                str.length() + start.length() + direction.length() + 12)
+                        .append(str).append('/').append(start)
+                        .append(direction).append(count).toString());
+    }
+
+    @Override
+    public final String toString() {
+        return str;
+    }
+
+    /**
+     * Extracts the stream identifier from an event URI like
+     * "http://127.0.0.1:2113/streams/my-stream/2".
+     * 
+     * @param uri
+     *            Event URI.
+     * 
+     * @return Stream identifier.
+     */
+    @NotNull
+    public static StreamId streamId(@NotNull final URI uri) {
+        final String str = uri.toString();
+        final int p1 = str.indexOf(STREAMS);
+        if (p1 == -1) {
+            throw new IllegalStateException(
+                    "Failed to extract '" + STREAMS + "': " + uri);
+        }
+        final int p2 = str.lastIndexOf('/');
+        if (p2 < p1 + STREAMS.length()) {
+            throw new IllegalStateException(
+                    "Failed to extract last '/': " + uri);
+        }
+        return new SimpleStreamId(str.substring(p1 + STREAMS.length(), p2));
+    }
+
+    /**
+     * Extracts the event number from an event URI like
+     * "http://127.0.0.1:2113/streams/my-stream/2". The digits are parsed in
+     * place without creating a sub string.
+     * 
+     * @param uri
+     *            Event URI.
+     * 
+     * @return Event number.
+     */
+    public static int eventNumber(@NotNull final URI uri) {
+        final String str = uri.toString();
+        final int p = str.lastIndexOf('/');
+        final int end = str.length();
+        if (p == -1 || p == end - 1) {
+            throw new IllegalStateException(
+                    "Failed to extract event number: " + uri);
+        }
+        int number = 0;
+        for (int i = p + 1; i < end; i++) {
+            final char ch = str.charAt(i);
+            if (ch < '0' || ch > '9') {
+                throw new IllegalStateException(
+                        "Failed to extract event number: " + uri);
+            }
+            number = number * 10 + (ch - '0');
+        }
+        return number;
+    }
+
+}
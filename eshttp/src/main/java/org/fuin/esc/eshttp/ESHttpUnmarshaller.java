@@ -19,6 +19,7 @@ package org.fuin.esc.eshttp;
 
 import javax.validation.constraints.NotNull;
 
+import org.fuin.esc.spi.Deserializer;
 import org.fuin.esc.spi.DeserializerRegistry;
 import org.fuin.esc.spi.EnhancedMimeType;
 import org.fuin.esc.spi.SerializedDataType;
@@ -46,4 +47,26 @@ public interface ESHttpUnmarshaller {
     public Object unmarshal(@NotNull DeserializerRegistry registry, @NotNull SerializedDataType dataType,
             @NotNull EnhancedMimeType mimeType, @Nullable Object data);
 
+    /**
+     * Creates an object from the data using an already resolved deserializer.
+     * The default implementation passes the data unchanged to the
+     * deserializer.
+     * 
+     * @param deSer
+     *            Deserializer for the type and mime type of the data.
+     * @param mimeType
+     *            Mime type of the data.
+     * @param data
+     *            Data to unmarshal.
+     * 
+     * @return Object.
+     */
+    public default Object unmarshal(@NotNull final Deserializer deSer, @NotNull final EnhancedMimeType mimeType,
+            @Nullable final Object data) {
+        if (data == null) {
+            return null;
+        }
+        return deSer.unmarshal(data, mimeType);
+    }
+
 }
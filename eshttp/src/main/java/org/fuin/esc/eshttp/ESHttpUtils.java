@@ -30,6 +30,10 @@ import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
 import org.fuin.objects4j.common.Contract;
 import org.fuin.objects4j.common.Nullable;
 import org.w3c.dom.Document;
@@ -209,4 +213,31 @@ public final class ESHttpUtils {
         return "no";
     }
 
+    /**
+     * Wraps a "gzip" encoded entity so that the content is decompressed while
+     * it is read. Other entities are returned unchanged.
+     * 
+     * @param entity
+     *            Entity of a response or <code>null</code>.
+     * 
+     * @return Entity with decoded content or <code>null</code> if the argument
+     *         was <code>null</code>.
+     */
+    @Nullable
+    public static HttpEntity decompress(@Nullable final HttpEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        final Header contentEncoding = entity.getContentEncoding();
+        if (contentEncoding == null) {
+            return entity;
+        }
+        for (final HeaderElement element : contentEncoding.getElements()) {
+            if ("gzip".equalsIgnoreCase(element.getName())) {
+                return new GzipDecompressingEntity(entity);
+            }
+        }
+        return entity;
+    }
+
 }
@@ -37,6 +37,16 @@ public final class ESHttpXmlUnmarshaller implements ESHttpUnmarshaller {
     public final Object unmarshal(final DeserializerRegistry registry, final SerializedDataType dataType,
             final EnhancedMimeType mimeType, final Object data) {
 
+        if (data == null) {
+            return null;
+        }
+        return unmarshal(registry.getDeserializer(dataType, mimeType), mimeType, data);
+
+    }
+
+    @Override
+    public final Object unmarshal(final Deserializer deSer, final EnhancedMimeType mimeType, final Object data) {
+
         if (data == null) {
             return null;
         }
@@ -48,13 +58,11 @@ public final class ESHttpXmlUnmarshaller implements ESHttpUnmarshaller {
         final String transferEncodingData = mimeType.getParameter("transfer-encoding");
         if (transferEncodingData == null) {
             final Node childNode = findLastChildElement(node);
-            final Deserializer deSer = registry.getDeserializer(dataType, mimeType);
             return deSer.unmarshal(childNode, mimeType);
         }
         final Node childNode = findLastChildElement(node);
         final String base64str = childNode.getTextContent();
         final byte[] bytes = Base64.decodeBase64(base64str);
-        final Deserializer deSer = registry.getDeserializer(dataType, mimeType);
         return deSer.unmarshal(bytes, mimeType);
 
     }
@@ -79,6 +79,8 @@ public class AtomFeedJsonReaderTest {
                     EnhancedMimeType.create("application/xml; encoding=utf-8"));
             assertThat(entry.getData()).isInstanceOf(JsonObject.class);
             assertThat(entry.getMeta()).isInstanceOf(JsonObject.class);
+            assertThat(entry.getDataContentType()).isSameAs(
+                    EnhancedMimeType.intern("application/xml; encoding=utf-8"));
 
         } finally {
             in.close();
@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ESHttpCache} class.
+ */
+// CHECKSTYLE:OFF Test
+public class ESHttpCacheTest {
+
+    @Test
+    public void testPutImmutable() {
+
+        // PREPARE
+        final ESHttpCache testee = new ESHttpCache(10);
+        final URI uri = URI.create("http://127.0.0.1:2113/streams/MyStream/0");
+
+        // TEST
+        testee.put(uri, "One", response("max-age=31536000, public", null));
+
+        // VERIFY
+        final ESHttpCache.CachedResponse cached = testee.get(uri);
+        assertThat(cached).isNotNull();
+        assertThat(cached.getValue()).isEqualTo("One");
+        assertThat(cached.getETag()).isNull();
+        assertThat(cached.isFresh()).isTrue();
+
+    }
+
+    @Test
+    public void testPutRevalidate() {
+
+        // PREPARE
+        final ESHttpCache testee = new ESHttpCache(10);
+        final URI uri = URI.create("http://127.0.0.1:2113/streams/MyStream/0/forward/20");
+
+        // TEST
+        testee.put(uri, "Head", response("max-age=0, no-cache, must-revalidate", "\"3;-1296467268\""));
+
+        // VERIFY
+        final ESHttpCache.CachedResponse cached = testee.get(uri);
+        assertThat(cached).isNotNull();
+        assertThat(cached.getETag()).isEqualTo("\"3;-1296467268\"");
+        assertThat(cached.isFresh()).isFalse();
+
+    }
+
+    @Test
+    public void testPutNotCacheable() {
+
+        // PREPARE
+        final ESHttpCache testee = new ESHttpCache(10);
+        final URI uri1 = URI.create("http://127.0.0.1:2113/streams/MyStream/0");
+        final URI uri2 = URI.create("http://127.0.0.1:2113/streams/MyStream/1");
+
+        // TEST
+        testee.put(uri1, "One", response("no-cache", null));
+        testee.put(uri2, "Two", response("no-store", "\"1\""));
+
+        // VERIFY
+        assertThat(testee.get(uri1)).isNull();
+        assertThat(testee.get(uri2)).isNull();
+        assertThat(testee.size()).isEqualTo(0);
+
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+
+        // PREPARE
+        final ESHttpCache testee = new ESHttpCache(2);
+        final URI uri1 = URI.create("http://127.0.0.1:2113/streams/MyStream/0");
+        final URI uri2 = URI.create("http://127.0.0.1:2113/streams/MyStream/1");
+        final URI uri3 = URI.create("http://127.0.0.1:2113/streams/MyStream/2");
+        testee.put(uri1, "One", response("max-age=60", null));
+        testee.put(uri2, "Two", response("max-age=60", null));
+        testee.get(uri1);
+
+        // TEST
+        testee.put(uri3, "Three", response("max-age=60", null));
+
+        // VERIFY
+        assertThat(testee.size()).isEqualTo(2);
+        assertThat(testee.get(uri1)).isNotNull();
+        assertThat(testee.get(uri2)).isNull();
+        assertThat(testee.get(uri3)).isNotNull();
+
+    }
+
+    @Test
+    public void testInvalidate() {
+
+        // PREPARE
+        final ESHttpCache testee = new ESHttpCache(10);
+        final URI uri1 = URI.create("http://127.0.0.1:2113/streams/MyStream/0");
+        final URI uri2 = URI.create("http://127.0.0.1:2113/streams/MyStream/0/forward/20");
+        final URI uri3 = URI.create("http://127.0.0.1:2113/streams/MyStreamOther/0");
+        testee.put(uri1, "One", response("max-age=60", null));
+        testee.put(uri2, "Page", response("max-age=60", null));
+        testee.put(uri3, "Other", response("max-age=60", null));
+
+        // TEST
+        testee.invalidate("MyStream");
+
+        // VERIFY
+        assertThat(testee.get(uri1)).isNull();
+        assertThat(testee.get(uri2)).isNull();
+        assertThat(testee.get(uri3)).isNotNull();
+
+    }
+
+    private static HttpResponse response(final String cacheControl, final String etag) {
+        final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setHeader("Cache-Control", cacheControl);
+        if (etag != null) {
+            response.setHeader("ETag", etag);
+        }
+        return response;
+    }
+
+}
+// CHECKSTYLE:ON
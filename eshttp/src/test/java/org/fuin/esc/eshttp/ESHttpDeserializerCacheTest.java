@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.fuin.esc.spi.Deserializer;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.JsonDeSerializer;
+import org.fuin.esc.spi.SerializedDataType;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ESHttpDeserializerCache} class.
+ */
+// CHECKSTYLE:OFF Test
+public class ESHttpDeserializerCacheTest {
+
+    @Test
+    public void testDeserializerResolvedOnce() {
+
+        // PREPARE
+        final SerializedDataType type = new SerializedDataType("MyEvent");
+        final JsonDeSerializer original = new JsonDeSerializer();
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        registry.addDeserializer(type, "application/json", original);
+        final ESHttpDeserializerCache testee = new ESHttpDeserializerCache(registry);
+        final EnhancedMimeType mimeType = EnhancedMimeType.intern("application/json");
+
+        // TEST
+        final Deserializer first = testee.deserializer("MyEvent", mimeType);
+        registry.addDeserializer(type, "application/json", new JsonDeSerializer());
+        final Deserializer second = testee.deserializer("MyEvent",
+                EnhancedMimeType.intern("application/json"));
+        final Deserializer third = testee.getDeserializer(type,
+                EnhancedMimeType.create("application/json"));
+
+        // VERIFY
+        assertThat(first).isSameAs(original);
+        assertThat(second).isSameAs(original);
+        assertThat(third).isSameAs(original);
+        assertThat(testee.size()).isEqualTo(1);
+
+    }
+
+    @Test
+    public void testLookup() {
+
+        // PREPARE
+        final SerializedDataType type = new SerializedDataType("MyEvent");
+        final JsonDeSerializer deSer1 = new JsonDeSerializer();
+        final SimpleSerializerDeserializerRegistry registry1 = new SimpleSerializerDeserializerRegistry();
+        registry1.addDeserializer(type, "application/json", deSer1);
+        final JsonDeSerializer deSer2 = new JsonDeSerializer();
+        final SimpleSerializerDeserializerRegistry registry2 = new SimpleSerializerDeserializerRegistry();
+        registry2.addDeserializer(type, "application/json", deSer2);
+        final ESHttpDeserializerCache cache = new ESHttpDeserializerCache(registry2);
+        final EnhancedMimeType mimeType = EnhancedMimeType.intern("application/json");
+
+        // TEST & VERIFY
+        assertThat(ESHttpDeserializerCache.lookup(registry1, "MyEvent", mimeType)).isSameAs(deSer1);
+        assertThat(ESHttpDeserializerCache.lookup(cache, "MyEvent", mimeType)).isSameAs(deSer2);
+        assertThat(cache.size()).isEqualTo(1);
+
+    }
+
+    @Test
+    public void testDeserializerFull() {
+
+        // PREPARE
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        registry.addDeserializer(new SerializedDataType("A"), "application/json", new JsonDeSerializer());
+        registry.addDeserializer(new SerializedDataType("B"), "application/json", new JsonDeSerializer());
+        final ESHttpDeserializerCache testee = new ESHttpDeserializerCache(registry, 1);
+        final EnhancedMimeType mimeType = EnhancedMimeType.intern("application/json");
+        testee.deserializer("A", mimeType);
+
+        // TEST
+        testee.deserializer("B", mimeType);
+
+        // VERIFY
+        assertThat(testee.size()).isEqualTo(1);
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -21,9 +21,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Supplier;
@@ -33,12 +36,14 @@ import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EscApiUtils;
 import org.fuin.esc.api.EventId;
 import org.fuin.esc.api.ProjectionStreamId;
 import org.fuin.esc.api.SimpleCommonEvent;
 import org.fuin.esc.api.SimpleStreamId;
 import org.fuin.esc.api.StreamEventsSlice;
 import org.fuin.esc.api.StreamId;
+import org.fuin.esc.api.Subscription;
 import org.fuin.esc.api.TypeName;
 import org.fuin.esc.spi.EscEvent;
 import org.fuin.esc.spi.EscEvents;
@@ -250,6 +255,88 @@ public class ESHttpEventStoreIT {
 
     }
 
+    @Test
+    public void testSubscribeToStream() {
+
+        // PREPARE
+        final StreamId streamId = new SimpleStreamId("MySubscribedStream-" + UUID.randomUUID());
+        final TypeName dataType = new TypeName("MyEvent");
+        final MyEvent one = new MyEvent("One");
+        final CommonEvent eventOne = new SimpleCommonEvent(new EventId(one.getId()), dataType, one);
+        final MyEvent two = new MyEvent("Two");
+        final CommonEvent eventTwo = new SimpleCommonEvent(new EventId(two.getId()), dataType, two);
+        final MyEvent three = new MyEvent("Three");
+        final CommonEvent eventThree = new SimpleCommonEvent(new EventId(three.getId()), dataType, three);
+        testee.appendToStream(streamId, eventOne);
+        final List<CommonEvent> fromFirst = new CopyOnWriteArrayList<>();
+        final List<CommonEvent> newOnly = new CopyOnWriteArrayList<>();
+
+        // TEST
+        final Subscription subscriptionFirst = testee.subscribeToStream(streamId, 0,
+                (subscription, event) -> fromFirst.add(event), (subscription, exception) -> {
+                    // Not used
+                });
+        final Subscription subscriptionNew = testee.subscribeToStream(streamId,
+                EscApiUtils.SUBSCRIBE_TO_NEW_EVENTS, (subscription, event) -> newOnly.add(event),
+                (subscription, exception) -> {
+                    // Not used
+                });
+        testee.appendToStream(streamId, eventTwo, eventThree);
+
+        // VERIFY
+        // The checkpoint is recorded after the handler returned
+        waitFor(() -> fromFirst.size() == 3 && newOnly.size() == 2
+                && Integer.valueOf(2).equals(subscriptionFirst.getLastEventNumber())
+                && Integer.valueOf(2).equals(subscriptionNew.getLastEventNumber()), MAX_TRIES * 10);
+        assertThat(subscriptionFirst.getLastEventNumber()).isEqualTo(2);
+        assertThat(subscriptionNew.getLastEventNumber()).isEqualTo(2);
+        assertThat(fromFirst).containsExactly(eventOne, eventTwo, eventThree);
+        assertThat(newOnly).containsExactly(eventTwo, eventThree);
+
+        testee.unsubscribeFromStream(subscriptionFirst);
+        testee.unsubscribeFromStream(subscriptionNew);
+
+    }
+
+    @Test
+    public void testSubscribeToFutureStreams() {
+
+        // PREPARE
+        final TypeName dataType = new TypeName("MyEvent");
+        final List<StreamId> streamIds = new ArrayList<>();
+        final List<Subscription> subscriptions = new ArrayList<>();
+        final List<CommonEvent> received = new CopyOnWriteArrayList<>();
+        // More subscriptions than pooled connections per route
+        for (int i = 0; i < 3; i++) {
+            streamIds.add(new SimpleStreamId("MyFutureStream-" + UUID.randomUUID()));
+        }
+
+        // TEST
+        for (final StreamId streamId : streamIds) {
+            subscriptions.add(testee.subscribeToStream(streamId, EscApiUtils.SUBSCRIBE_TO_NEW_EVENTS,
+                    (subscription, event) -> received.add(event), (subscription, exception) -> {
+                        // Not used
+                    }));
+        }
+        final List<CommonEvent> events = new ArrayList<>();
+        for (final StreamId streamId : streamIds) {
+            final MyEvent myEvent = new MyEvent(streamId.getName());
+            final CommonEvent event = new SimpleCommonEvent(new EventId(myEvent.getId()), dataType, myEvent);
+            events.add(event);
+            testee.appendToStream(streamId, event);
+        }
+
+        // VERIFY
+        waitFor(() -> received.size() == 3, MAX_TRIES * 10);
+        assertThat(received).containsOnlyElementsOf(events);
+        assertThat(testee.readEvent(streamIds.get(0), 0)).isEqualTo(events.get(0));
+
+        for (final Subscription subscription : subscriptions) {
+            testee.unsubscribeFromStream(subscription);
+        }
+
+    }
+
     @SuppressWarnings("unused")
     private void println(String prefix, List<CommonEvent> events) {
         System.out.println(prefix);
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.Executors;
+
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.pool.PoolStats;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.fuin.objects4j.common.ConstraintViolationException;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ESHttpEventStore} class without a running event store.
+ */
+// CHECKSTYLE:OFF Test
+public class ESHttpEventStoreTest {
+
+    @Test
+    public void testBuilderPoolStats() throws MalformedURLException {
+
+        // PREPARE
+        final ESHttpEventStore testee = createBuilder().maxConnTotal(10).maxConnPerRoute(5).connectTimeout(1000)
+                .socketTimeout(5000).connectionRequestTimeout(500).keepAlive(30000).maxIdle(10000).build();
+        assertThat(testee.getPoolStats()).isNull();
+
+        // TEST
+        testee.open();
+        try {
+
+            // VERIFY
+            final PoolStats stats = testee.getPoolStats();
+            assertThat(stats).isNotNull();
+            assertThat(stats.getMax()).isEqualTo(10);
+            assertThat(stats.getLeased()).isEqualTo(0);
+            assertThat(stats.getPending()).isEqualTo(0);
+            assertThat(stats.getAvailable()).isEqualTo(0);
+
+        } finally {
+            testee.close();
+        }
+        assertThat(testee.getPoolStats()).isNull();
+
+    }
+
+    @Test
+    public void testBuilderPipelining() throws MalformedURLException {
+
+        // PREPARE
+        final ESHttpEventStore testee = createBuilder().pipelining(true).build();
+
+        // TEST
+        testee.open();
+        try {
+
+            // VERIFY
+            assertThat(testee.getPoolStats()).isNotNull();
+
+        } finally {
+            testee.close();
+        }
+
+    }
+
+    @Test
+    public void testBuilderPipeliningWithCredentials() throws MalformedURLException {
+
+        try {
+            createBuilder().pipelining(true).credentialsProvider(new BasicCredentialsProvider()).build();
+            fail();
+        } catch (final IllegalStateException ex) {
+            assertThat(ex.getMessage()).isEqualTo("Pipelining does not support authentication");
+        }
+
+    }
+
+    @Test
+    public void testBuilderInvalidPoolSize() throws MalformedURLException {
+
+        try {
+            createBuilder().maxConnPerRoute(0);
+            fail();
+        } catch (final ConstraintViolationException ex) {
+            assertThat(ex.getMessage()).contains("maxConnPerRoute");
+        }
+
+    }
+
+    private static ESHttpEventStore.Builder createBuilder() throws MalformedURLException {
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        return new ESHttpEventStore.Builder(Executors.defaultThreadFactory(), new URL("http://127.0.0.1:2113/"),
+                ESEnvelopeType.JSON, registry, registry);
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,218 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.apache.http.nio.ContentEncoder;
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.spi.EscEvent;
+import org.fuin.esc.spi.EscEvents;
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.JsonDeSerializer;
+import org.fuin.esc.spi.SerDeserializerRegistry;
+import org.fuin.esc.spi.SerializedDataType;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.fuin.esc.spi.XmlDeSerializer;
+import org.junit.Test;
+import org.xmlunit.builder.DiffBuilder;
+import org.xmlunit.diff.Diff;
+
+/**
+ * Tests the {@link ESHttpEventsEntity} class.
+ */
+// CHECKSTYLE:OFF Test
+public class ESHttpEventsEntityTest {
+
+    @Test
+    public void testWriteToJSON() throws IOException {
+
+        // PREPARE
+        final SerDeserializerRegistry registry = createJsonRegistry();
+        final List<CommonEvent> commonEvents = createJsonEvents(3);
+        final ESHttpMarshaller marshaller = new ESHttpMarshaller();
+        final ESHttpEventsEntity testee = new ESHttpEventsEntity(marshaller, registry, commonEvents);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        // TEST
+        testee.writeTo(bos);
+
+        // VERIFY
+        assertThat(testee.isChunked()).isTrue();
+        assertThat(testee.getContentLength()).isEqualTo(-1);
+        assertThatJson(new String(bos.toByteArray(), "utf-8"))
+                .isEqualTo(marshaller.marshal(registry, commonEvents));
+
+    }
+
+    @Test
+    public void testWriteToXML() throws IOException {
+
+        // PREPARE
+        final SerDeserializerRegistry registry = createXmlRegistry();
+        final List<CommonEvent> commonEvents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final UUID uuid = UUID.randomUUID();
+            commonEvents.add(new SimpleCommonEvent(new EventId(uuid), MyEvent.TYPE, new MyEvent(uuid, "XML " + i)));
+        }
+        final ESHttpMarshaller marshaller = new ESHttpMarshaller();
+        final ESHttpEventsEntity testee = new ESHttpEventsEntity(marshaller, registry, commonEvents);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        // TEST
+        testee.writeTo(bos);
+
+        // VERIFY
+        final Diff documentDiff = DiffBuilder.compare(marshaller.marshal(registry, commonEvents))
+                .withTest(new String(bos.toByteArray(), "utf-8")).ignoreWhitespace().build();
+        assertThat(documentDiff.hasDifferences()).describedAs(documentDiff.toString()).isFalse();
+
+    }
+
+    @Test
+    public void testProduceContent() throws IOException {
+
+        // PREPARE
+        final SerDeserializerRegistry registry = createJsonRegistry();
+        final List<CommonEvent> commonEvents = createJsonEvents(5);
+        final ESHttpMarshaller marshaller = new ESHttpMarshaller();
+        final ESHttpEventsEntity testee = new ESHttpEventsEntity(marshaller, registry, commonEvents);
+        final LimitedContentEncoder encoder = new LimitedContentEncoder(7);
+
+        // TEST
+        int calls = 0;
+        while (!encoder.isCompleted()) {
+            testee.produceContent(encoder, null);
+            calls++;
+        }
+
+        // VERIFY
+        assertThat(calls).isGreaterThan(1);
+        assertThatJson(new String(encoder.getBytes(), "utf-8"))
+                .isEqualTo(marshaller.marshal(registry, commonEvents));
+
+        // Repeat after close
+        testee.close();
+        final LimitedContentEncoder encoder2 = new LimitedContentEncoder(Integer.MAX_VALUE);
+        testee.produceContent(encoder2, null);
+        assertThat(encoder2.isCompleted()).isTrue();
+        assertThat(encoder2.getBytes()).isEqualTo(encoder.getBytes());
+
+    }
+
+    @Test
+    public void testEmptyList() throws IOException {
+
+        // PREPARE
+        final ESHttpEventsEntity testee = new ESHttpEventsEntity(new ESHttpMarshaller(), createJsonRegistry(),
+                new ArrayList<CommonEvent>());
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        // TEST
+        testee.writeTo(bos);
+
+        // VERIFY
+        assertThat(new String(bos.toByteArray(), "utf-8")).isEqualTo("[]");
+
+    }
+
+    private static List<CommonEvent> createJsonEvents(final int count) {
+        final List<CommonEvent> commonEvents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final UUID uuid = UUID.randomUUID();
+            final JsonObject myEvent = Json.createObjectBuilder().add("id", uuid.toString())
+                    .add("description", "JSON " + i).build();
+            commonEvents.add(new SimpleCommonEvent(new EventId(uuid), MyEvent.TYPE, myEvent));
+        }
+        return commonEvents;
+    }
+
+    private SerDeserializerRegistry createXmlRegistry() {
+        final XmlDeSerializer xmlDeSer = new XmlDeSerializer(false, MyEvent.class, EscEvent.class,
+                EscEvents.class, EscMeta.class);
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        registry.add(new SerializedDataType(MyEvent.TYPE.asBaseType()), "application/xml", xmlDeSer);
+        registry.add(new SerializedDataType(EscEvents.TYPE.asBaseType()), "application/xml", xmlDeSer);
+        registry.add(new SerializedDataType(EscMeta.TYPE.asBaseType()), "application/xml", xmlDeSer);
+        return registry;
+    }
+
+    private SerDeserializerRegistry createJsonRegistry() {
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        final JsonDeSerializer jsonDeSer = new JsonDeSerializer();
+        registry.add(new SerializedDataType(MyEvent.TYPE.asBaseType()), "application/json", jsonDeSer);
+        registry.add(new SerializedDataType(EscEvents.TYPE.asBaseType()), "application/json", jsonDeSer);
+        registry.add(new SerializedDataType(EscMeta.TYPE.asBaseType()), "application/json", jsonDeSer);
+        return registry;
+    }
+
+    /**
+     * Encoder that accepts only a limited number of bytes per call.
+     */
+    private static final class LimitedContentEncoder implements ContentEncoder {
+
+        private final int maxPerWrite;
+
+        private final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        private boolean completed;
+
+        public LimitedContentEncoder(final int maxPerWrite) {
+            this.maxPerWrite = maxPerWrite;
+        }
+
+        @Override
+        public int write(final ByteBuffer src) throws IOException {
+            final int count = Math.min(maxPerWrite, src.remaining());
+            for (int i = 0; i < count; i++) {
+                bos.write(src.get());
+            }
+            return count;
+        }
+
+        @Override
+        public void complete() throws IOException {
+            completed = true;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public byte[] getBytes() {
+            return bos.toByteArray();
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
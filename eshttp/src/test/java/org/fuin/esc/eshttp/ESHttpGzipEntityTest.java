@@ -0,0 +1,165 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.nio.ContentEncoder;
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.spi.EscEvents;
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.JsonDeSerializer;
+import org.fuin.esc.spi.SerializedDataType;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ESHttpGzipEntity} class.
+ */
+// CHECKSTYLE:OFF Test
+public class ESHttpGzipEntityTest {
+
+    @Test
+    public void testProduceContent() throws IOException {
+
+        // PREPARE
+        final ESHttpEventsEntity events = createEntity(50);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        events.writeTo(expected);
+        final ESHttpGzipEntity testee = new ESHttpGzipEntity(events);
+        final LimitedContentEncoder encoder = new LimitedContentEncoder(100);
+
+        // TEST
+        int calls = 0;
+        while (!encoder.isCompleted()) {
+            testee.produceContent(encoder, null);
+            calls++;
+        }
+
+        // VERIFY
+        assertThat(testee.isChunked()).isTrue();
+        assertThat(testee.getContentLength()).isEqualTo(-1);
+        assertThat(testee.getContentEncoding().getValue()).isEqualTo("gzip");
+        assertThat(calls).isGreaterThan(1);
+        assertThat(encoder.getBytes().length).isLessThan(expected.size());
+        assertThat(gunzip(encoder.getBytes())).isEqualTo(expected.toByteArray());
+
+        // Repeat after close
+        testee.close();
+        final LimitedContentEncoder encoder2 = new LimitedContentEncoder(Integer.MAX_VALUE);
+        testee.produceContent(encoder2, null);
+        assertThat(encoder2.isCompleted()).isTrue();
+        assertThat(gunzip(encoder2.getBytes())).isEqualTo(expected.toByteArray());
+
+    }
+
+    @Test
+    public void testWriteTo() throws IOException {
+
+        // PREPARE
+        final ESHttpEventsEntity events = createEntity(3);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        events.writeTo(expected);
+        final ESHttpGzipEntity testee = new ESHttpGzipEntity(events);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        // TEST
+        testee.writeTo(bos);
+
+        // VERIFY
+        assertThat(gunzip(bos.toByteArray())).isEqualTo(expected.toByteArray());
+
+    }
+
+    private static byte[] gunzip(final byte[] compressed) throws IOException {
+        return IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+    }
+
+    private static ESHttpEventsEntity createEntity(final int count) {
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        final JsonDeSerializer jsonDeSer = new JsonDeSerializer();
+        registry.add(new SerializedDataType(MyEvent.TYPE.asBaseType()), "application/json", jsonDeSer);
+        registry.add(new SerializedDataType(EscEvents.TYPE.asBaseType()), "application/json", jsonDeSer);
+        registry.add(new SerializedDataType(EscMeta.TYPE.asBaseType()), "application/json", jsonDeSer);
+        final List<CommonEvent> commonEvents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final UUID uuid = UUID.randomUUID();
+            final JsonObject myEvent = Json.createObjectBuilder().add("id", uuid.toString())
+                    .add("description", "JSON " + i).build();
+            commonEvents.add(new SimpleCommonEvent(new EventId(uuid), MyEvent.TYPE, myEvent));
+        }
+        return new ESHttpEventsEntity(new ESHttpMarshaller(), registry, commonEvents);
+    }
+
+    /**
+     * Encoder that accepts only a limited number of bytes per call.
+     */
+    private static final class LimitedContentEncoder implements ContentEncoder {
+
+        private final int maxPerWrite;
+
+        private final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        private boolean completed;
+
+        public LimitedContentEncoder(final int maxPerWrite) {
+            this.maxPerWrite = maxPerWrite;
+        }
+
+        @Override
+        public int write(final ByteBuffer src) throws IOException {
+            final int count = Math.min(maxPerWrite, src.remaining());
+            for (int i = 0; i < count; i++) {
+                bos.write(src.get());
+            }
+            return count;
+        }
+
+        @Override
+        public void complete() throws IOException {
+            completed = true;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public byte[] getBytes() {
+            return bos.toByteArray();
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
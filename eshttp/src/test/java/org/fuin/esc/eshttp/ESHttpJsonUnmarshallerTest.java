@@ -100,6 +100,25 @@ public class ESHttpJsonUnmarshallerTest extends AbstractESHttpMarshallerTest {
 
     }
 
+    @Test
+    public void testJsonUpcasting() throws IOException, MimeTypeParseException {
+
+        // PREPARE
+        final SerializedDataType dataType = new SerializedDataType(MyEvent.TYPE.asBaseType());
+        final EnhancedMimeType mimeType = new EnhancedMimeType("application/json; version=1; encoding=utf-8");
+        final SimpleSerializerDeserializerRegistry registry = createRegistry();
+        registry.addUpcaster(dataType, "1", new ReplaceTextUpcaster("Hello", "Hi", "2"));
+        final JsonObject jsonObj = parse("/event-json-json-json.json", "$.Data");
+
+        // TEST
+        final Object obj = new ESHttpJsonUnmarshaller().unmarshal(registry, dataType, mimeType, jsonObj);
+
+        // VERIFY
+        assertThat(obj).isInstanceOf(JsonObject.class);
+        assertThat(((JsonObject) obj).getString("description")).isEqualTo("Hi, JSON!");
+
+    }
+
     private JsonObject parse(final String resource, final String expression) throws IOException {
         final InputStream in = this.getClass().getResourceAsStream(resource);
         final Reader reader = new InputStreamReader(in, Charset.forName("utf-8"));
@@ -112,7 +131,7 @@ public class ESHttpJsonUnmarshallerTest extends AbstractESHttpMarshallerTest {
         }
     }
 
-    private DeserializerRegistry createRegistry() throws MimeTypeParseException {
+    private SimpleSerializerDeserializerRegistry createRegistry() throws MimeTypeParseException {
         final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
         final XmlDeSerializer xmlDeserializer = new XmlDeSerializer(MyEvent.class, MyMeta.class);
         registry.addDeserializer(new SerializedDataType("MyEvent"), "application/xml", xmlDeserializer);
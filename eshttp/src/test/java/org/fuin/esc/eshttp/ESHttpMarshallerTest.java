@@ -21,17 +21,21 @@ import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import javax.json.Json;
+import javax.json.JsonArray;
 import javax.json.JsonObject;
 
 import org.apache.commons.io.IOUtils;
 import org.fuin.esc.api.CommonEvent;
 import org.fuin.esc.api.EventId;
 import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.api.TypeName;
+import org.fuin.esc.spi.Base64Data;
 import org.fuin.esc.spi.EscEvent;
 import org.fuin.esc.spi.EscEvents;
 import org.fuin.esc.spi.EscMeta;
@@ -154,6 +158,51 @@ public class ESHttpMarshallerTest {
 
     }
 
+    @Test
+    public void testMarshalMixedEventsJSON() throws IOException {
+
+        // PREPARE
+        final UUID uuid1 = UUID.fromString("a07d6a1a-715d-4d8e-98fa-b158e3339303");
+        final CommonEvent commonEvent1 = new SimpleCommonEvent(new EventId(uuid1), MyEvent.TYPE,
+                new MyEvent(uuid1, "Hello XML"));
+
+        final UUID uuid2 = UUID.fromString("ee9e13fc-e799-4835-9830-ecb9d620c1c9");
+        final JsonObject otherEvent = Json.createObjectBuilder().add("id", uuid2.toString())
+                .add("description", "Hello JSON").build();
+        final CommonEvent commonEvent2 = new SimpleCommonEvent(new EventId(uuid2), new TypeName("OtherEvent"),
+                otherEvent);
+
+        final List<CommonEvent> commonEvents = new ArrayList<>();
+        commonEvents.add(commonEvent1);
+        commonEvents.add(commonEvent2);
+
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        final JsonDeSerializer jsonDeSer = new JsonDeSerializer();
+        final XmlDeSerializer xmlDeSer = new XmlDeSerializer(false, MyEvent.class);
+        registry.add(new SerializedDataType(MyEvent.TYPE.asBaseType()), "application/xml", xmlDeSer);
+        registry.add(new SerializedDataType("OtherEvent"), "application/json", jsonDeSer);
+        registry.add(new SerializedDataType(EscEvents.TYPE.asBaseType()), "application/json", jsonDeSer);
+        registry.add(new SerializedDataType(EscMeta.TYPE.asBaseType()), "application/json", jsonDeSer);
+
+        final ESHttpMarshaller testee = new ESHttpMarshaller();
+
+        // TEST
+        final String currentJson = testee.marshal(registry, commonEvents);
+
+        // VERIFY
+        final JsonArray array = Json.createReader(new StringReader(currentJson)).readArray();
+        assertThat(array).hasSize(2);
+        final JsonObject xmlEvent = array.getJsonObject(0);
+        assertThat(xmlEvent.getJsonObject("Data").containsKey(Base64Data.EL_ROOT_NAME)).isTrue();
+        assertThat(xmlEvent.getJsonObject("MetaData").getString("data-content-type"))
+                .contains("transfer-encoding=base64");
+        final JsonObject jsonEvent = array.getJsonObject(1);
+        assertThat(jsonEvent.getJsonObject("Data").getString("description")).isEqualTo("Hello JSON");
+        assertThat(jsonEvent.getJsonObject("MetaData").getString("data-content-type"))
+                .doesNotContain("transfer-encoding");
+
+    }
+
     private SerDeserializerRegistry createXmlRegistry() {
         final XmlDeSerializer xmlDeSer = new XmlDeSerializer(false, MyEvent.class, EscEvent.class,
                 EscEvents.class, EscMeta.class);
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+
+import org.apache.http.client.utils.URIBuilder;
+import org.fuin.esc.api.SimpleStreamId;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ESHttpStreamUri} class.
+ */
+// CHECKSTYLE:OFF Test
+public class ESHttpStreamUriTest {
+
+    private static final URI BASE_URI = URI.create("http://127.0.0.1:2113/");
+
+    @Test
+    public void testCreate() {
+
+        // TEST
+        final ESHttpStreamUri testee = new ESHttpStreamUri(BASE_URI, "my-stream");
+
+        // VERIFY
+        assertThat(testee.getStream()).isEqualTo(URI.create("http://127.0.0.1:2113/streams/my-stream"));
+        assertThat(testee.event(2)).isEqualTo(URI.create("http://127.0.0.1:2113/streams/my-stream/2"));
+        assertThat(testee.forward(0, 20))
+                .isEqualTo(URI.create("http://127.0.0.1:2113/streams/my-stream/0/forward/20"));
+        assertThat(testee.backward(10, 5))
+                .isEqualTo(URI.create("http://127.0.0.1:2113/streams/my-stream/10/backward/5"));
+        assertThat(testee.headBackward(1))
+                .isEqualTo(URI.create("http://127.0.0.1:2113/streams/my-stream/head/backward/1"));
+
+    }
+
+    @Test
+    public void testCreateEncoded() throws Exception {
+
+        // PREPARE
+        final String name = "my stream#1";
+
+        // TEST
+        final ESHttpStreamUri testee = new ESHttpStreamUri(BASE_URI, name);
+
+        // VERIFY
+        final URI expected = new URIBuilder(BASE_URI).setPath("/streams/" + name + "/3").build();
+        assertThat(testee.event(3)).isEqualTo(expected);
+
+    }
+
+    @Test
+    public void testStreamId() {
+
+        assertThat(ESHttpStreamUri.streamId(URI.create("http://127.0.0.1:2113/streams/append_diff_and_read_stream/2")))
+                .isEqualTo(new SimpleStreamId("append_diff_and_read_stream"));
+
+    }
+
+    @Test
+    public void testEventNumber() {
+
+        assertThat(ESHttpStreamUri.eventNumber(URI.create("http://127.0.0.1:2113/streams/my-stream/0"))).isEqualTo(0);
+        assertThat(ESHttpStreamUri.eventNumber(URI.create("http://127.0.0.1:2113/streams/my-stream/123456")))
+                .isEqualTo(123456);
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEventNumberInvalid() {
+
+        ESHttpStreamUri.eventNumber(URI.create("http://127.0.0.1:2113/streams/my-stream/head"));
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -19,12 +19,19 @@ package org.fuin.esc.eshttp;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.xml.namespace.NamespaceContext;
 import javax.xml.xpath.XPath;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -149,5 +156,38 @@ public class ESHttpUtilsTest {
 
     }
 
+    @Test
+    public void testDecompress() throws IOException {
+
+        // PREPARE
+        final String content = "{\"name\":\"Shining\",\"author\":\"Stephen King\"}";
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final GZIPOutputStream out = new GZIPOutputStream(bos);
+        out.write(content.getBytes("utf-8"));
+        out.close();
+        final ByteArrayEntity compressed = new ByteArrayEntity(bos.toByteArray(), ContentType.APPLICATION_JSON);
+        compressed.setContentEncoding("gzip");
+
+        // TEST
+        final HttpEntity decompressed = ESHttpUtils.decompress(compressed);
+
+        // VERIFY
+        assertThat(decompressed).isNotSameAs(compressed);
+        assertThat(IOUtils.toString(decompressed.getContent(), "utf-8")).isEqualTo(content);
+
+    }
+
+    @Test
+    public void testDecompressUncompressed() {
+
+        // PREPARE
+        final HttpEntity entity = new StringEntity("abc", ContentType.TEXT_PLAIN);
+
+        // TEST & VERIFY
+        assertThat(ESHttpUtils.decompress(entity)).isSameAs(entity);
+        assertThat(ESHttpUtils.decompress(null)).isNull();
+
+    }
+
 }
 // CHECKSTYLE:ON
@@ -99,6 +99,25 @@ public class ESHttpXmlUnmarshallerTest extends AbstractESHttpMarshallerTest {
 
     }
 
+    @Test
+    public void testXmlUpcasting() throws IOException, MimeTypeParseException {
+
+        // PREPARE
+        final SerializedDataType dataType = new SerializedDataType(MyEvent.TYPE.asBaseType());
+        final EnhancedMimeType mimeType = new EnhancedMimeType("application/xml; version=1; encoding=utf-8");
+        final SimpleSerializerDeserializerRegistry registry = createRegistry();
+        registry.addUpcaster(dataType, "1", new ReplaceTextUpcaster("Hello", "Hi", "2"));
+        final Node node = parse("/event-xml-xml-xml.xml", "/Event/Data");
+
+        // TEST
+        final Object obj = new ESHttpXmlUnmarshaller().unmarshal(registry, dataType, mimeType, node);
+
+        // VERIFY
+        assertThat(obj).isInstanceOf(MyEvent.class);
+        assertThat(((MyEvent) obj).getDescription()).isEqualTo("Hi, XML!");
+
+    }
+
     private Node parse(final String resource, final String expression) throws IOException {
         final InputStream in = this.getClass().getResourceAsStream(resource);
         try {
@@ -110,7 +129,7 @@ public class ESHttpXmlUnmarshallerTest extends AbstractESHttpMarshallerTest {
         }
     }
 
-    private DeserializerRegistry createRegistry() throws MimeTypeParseException {
+    private SimpleSerializerDeserializerRegistry createRegistry() throws MimeTypeParseException {
         final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
         final XmlDeSerializer xmlDeserializer = new XmlDeSerializer(MyEvent.class, MyMeta.class);
         registry.addDeserializer(new SerializedDataType("MyEvent"), "application/xml", xmlDeserializer);
@@ -0,0 +1,109 @@
+// CHECKSTYLE:OFF
+package org.fuin.esc.eshttp;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.function.Consumer;
+
+import org.apache.http.client.utils.URIBuilder;
+
+/**
+ * Compares the per request overhead of creating and parsing event and feed URIs with the
+ * {@link URIBuilder} and with the pre-parsed {@link ESHttpStreamUri}.
+ */
+public final class EsHttpUriPerformance {
+
+    private static final int WARMUP = 200000;
+
+    private static final int MAX = 2000000;
+
+    private static long blackhole;
+
+    private EsHttpUriPerformance() {
+        super();
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            Not used.
+     * 
+     * @throws Exception
+     *             Error creating an URI.
+     */
+    public static void main(final String[] args) throws Exception {
+
+        final URL url = new URL("http://127.0.0.1:2113/");
+        final String name = "books-performance";
+        final ESHttpStreamUri streamUri = new ESHttpStreamUri(url.toURI(), name);
+
+        for (int run = 0; run < 2; run++) {
+            final int count = (run == 0) ? WARMUP : MAX;
+            final String prefix = (run == 0) ? "WARMUP " : "";
+
+            measure(prefix + "URIBuilder event URI", count, none -> {
+                for (int i = 0; i < count; i++) {
+                    blackhole += builderEventUri(url, name, i).hashCode();
+                }
+            });
+            measure(prefix + "Template event URI", count, none -> {
+                for (int i = 0; i < count; i++) {
+                    blackhole += streamUri.event(i).hashCode();
+                }
+            });
+            measure(prefix + "URIBuilder feed URI", count, none -> {
+                for (int i = 0; i < count; i++) {
+                    blackhole += builderFeedUri(url, name, i, 20).hashCode();
+                }
+            });
+            measure(prefix + "Template feed URI", count, none -> {
+                for (int i = 0; i < count; i++) {
+                    blackhole += streamUri.forward(i, 20).hashCode();
+                }
+            });
+
+            final URI eventUri = streamUri.event(123456);
+            measure(prefix + "Substring event number", count, none -> {
+                for (int i = 0; i < count; i++) {
+                    final String str = eventUri.toString();
+                    blackhole += Integer.valueOf(str.substring(str.lastIndexOf('/') + 1));
+                }
+            });
+            measure(prefix + "Parsed event number", count, none -> {
+                for (int i = 0; i < count; i++) {
+                    blackhole += ESHttpStreamUri.eventNumber(eventUri);
+                }
+            });
+        }
+        System.out.println("IGNORE " + blackhole);
+
+    }
+
+    private static URI builderEventUri(final URL url, final String name, final int eventNumber) {
+        try {
+            return new URIBuilder(url.toURI()).setPath("/streams/" + name + "/" + eventNumber).build();
+        } catch (final URISyntaxException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static URI builderFeedUri(final URL url, final String name, final int start, final int count) {
+        try {
+            return new URIBuilder(url.toURI()).setPath("/streams/" + name + "/" + start + "/forward/" + count)
+                    .build();
+        } catch (final URISyntaxException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static void measure(final String name, final int count, final Consumer<String> func) {
+        final long start = System.nanoTime();
+        func.accept(name);
+        final long nanos = System.nanoTime() - start;
+        System.out.println("NANOS PER CALL " + name + ": " + (nanos / count));
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.eshttp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import org.apache.commons.io.IOUtils;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.Upcaster;
+
+/**
+ * Upcaster that replaces a text in the raw data.
+ */
+// CHECKSTYLE:OFF Test
+public final class ReplaceTextUpcaster implements Upcaster {
+
+    private final String from;
+
+    private final String to;
+
+    private final String targetVersion;
+
+    public ReplaceTextUpcaster(final String from, final String to, final String targetVersion) {
+        this.from = from;
+        this.to = to;
+        this.targetVersion = targetVersion;
+    }
+
+    @Override
+    public String getTargetVersion() {
+        return targetVersion;
+    }
+
+    @Override
+    public void upcast(final InputStream in, final OutputStream out, final EnhancedMimeType mimeType) {
+        final Charset encoding = mimeType.getEncoding() == null ? Charset.forName("utf-8") : mimeType
+                .getEncoding();
+        try {
+            final String text = IOUtils.toString(in, encoding.name());
+            out.write(text.replace(from, to).getBytes(encoding));
+        } catch (final IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.ExpectedVersion;
+import org.fuin.esc.api.StreamId;
+import org.fuin.esc.spi.EscSpiUtils;
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Request to append events to a stream as part of a batch. This class is
+ * immutable.
+ */
+public final class AppendRequest {
+
+    private final StreamId streamId;
+
+    private final int expectedVersion;
+
+    private final List<CommonEvent> events;
+
+    /**
+     * Constructor for appending no matter what the current version of the
+     * stream is.
+     * 
+     * @param streamId
+     *            The unique identifier of the stream to append the events to.
+     * @param events
+     *            Events to write to the stream.
+     */
+    public AppendRequest(@NotNull final StreamId streamId,
+            @NotNull final CommonEvent... events) {
+        this(streamId, ExpectedVersion.ANY.getNo(),
+                EscSpiUtils.asList(events));
+    }
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param streamId
+     *            The unique identifier of the stream to append the events to.
+     * @param expectedVersion
+     *            The version the stream should have.
+     * @param events
+     *            Events to write to the stream.
+     */
+    public AppendRequest(@NotNull final StreamId streamId,
+            final int expectedVersion, @NotNull final List<CommonEvent> events) {
+        super();
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgMin("expectedVersion", expectedVersion,
+                ExpectedVersion.ANY.getNo());
+        Contract.requireArgNotNull("events", events);
+        this.streamId = streamId;
+        this.expectedVersion = expectedVersion;
+        this.events = Collections.unmodifiableList(events);
+    }
+
+    /**
+     * Returns the stream to append the events to.
+     * 
+     * @return Unique stream identifier.
+     */
+    @NotNull
+    public final StreamId getStreamId() {
+        return streamId;
+    }
+
+    /**
+     * Returns the version the stream should have.
+     * 
+     * @return Expected version.
+     */
+    public final int getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    /**
+     * Returns the events to append.
+     * 
+     * @return Unmodifiable list of events.
+     */
+    @NotNull
+    public final List<CommonEvent> getEvents() {
+        return events;
+    }
+
+    @Override
+    public final String toString() {
+        return "AppendRequest [streamId=" + streamId + ", expectedVersion="
+                + expectedVersion + ", events=" + events.size() + "]";
+    }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+
+/**
+ * Result of a single {@link AppendRequest} of a batch. Contains either the
+ * next expected version of the stream or the exception that caused the
+ * request to fail. This class is immutable.
+ */
+public final class AppendResult {
+
+    private final AppendRequest request;
+
+    private final Integer nextExpectedVersion;
+
+    private final RuntimeException exception;
+
+    /**
+     * Constructor for a successful request.
+     * 
+     * @param request
+     *            Request the result belongs to.
+     * @param nextExpectedVersion
+     *            The next expected version for the stream.
+     */
+    public AppendResult(@NotNull final AppendRequest request,
+            final int nextExpectedVersion) {
+        super();
+        Contract.requireArgNotNull("request", request);
+        this.request = request;
+        this.nextExpectedVersion = nextExpectedVersion;
+        this.exception = null;
+    }
+
+    /**
+     * Constructor for a failed request.
+     * 
+     * @param request
+     *            Request the result belongs to.
+     * @param exception
+     *            Reason why the request failed.
+     */
+    public AppendResult(@NotNull final AppendRequest request,
+            @NotNull final RuntimeException exception) {
+        super();
+        Contract.requireArgNotNull("request", request);
+        Contract.requireArgNotNull("exception", exception);
+        this.request = request;
+        this.nextExpectedVersion = null;
+        this.exception = exception;
+    }
+
+    /**
+     * Returns the request the result belongs to.
+     * 
+     * @return Request.
+     */
+    @NotNull
+    public final AppendRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Returns the information if the events were appended.
+     * 
+     * @return TRUE if the request succeeded, else FALSE.
+     */
+    public final boolean isSuccess() {
+        return exception == null;
+    }
+
+    /**
+     * Returns the next expected version of the stream.
+     * 
+     * @return Version or <code>null</code> if the request failed.
+     */
+    @Nullable
+    public final Integer getNextExpectedVersion() {
+        return nextExpectedVersion;
+    }
+
+    /**
+     * Returns the reason why the request failed. These are the same
+     * exceptions that appending to a single stream throws, like
+     * {@link org.fuin.esc.api.WrongExpectedVersionException}.
+     * 
+     * @return Exception or <code>null</code> if the request succeeded.
+     */
+    @Nullable
+    public final RuntimeException getException() {
+        return exception;
+    }
+
+    @Override
+    public final String toString() {
+        if (exception == null) {
+            return "AppendResult [request=" + request
+                    + ", nextExpectedVersion=" + nextExpectedVersion + "]";
+        }
+        return "AppendResult [request=" + request + ", exception="
+                + exception + "]";
+    }
+
+}
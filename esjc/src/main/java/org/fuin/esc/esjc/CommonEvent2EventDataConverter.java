@@ -28,6 +28,7 @@ import org.fuin.esc.spi.Converter;
 import org.fuin.esc.spi.EnhancedMimeType;
 import org.fuin.esc.spi.EscMeta;
 import org.fuin.esc.spi.EscSpiUtils;
+import org.fuin.esc.spi.ReusableByteArrayOutputStream;
 import org.fuin.esc.spi.SerializedDataType;
 import org.fuin.esc.spi.Serializer;
 import org.fuin.esc.spi.SerializerRegistry;
@@ -36,20 +37,26 @@ import org.fuin.objects4j.common.Contract;
 import com.github.msemys.esjc.EventData;
 
 /**
- * Converts a {@link CommonEvent} into {@link EventData}.
+ * Converts a {@link CommonEvent} into {@link EventData}. Serializers write into
+ * a buffer that is reused by each thread, so only the final payload arrays are
+ * allocated per event. Binary data (see {@link EscSpiUtils#isBinary(EnhancedMimeType)})
+ * is stored as it is if the target content type is XML, as the event store
+ * does not interpret non JSON data. With JSON it is Base64 encoded.
  */
 public final class CommonEvent2EventDataConverter implements Converter<CommonEvent, EventData> {
 
-    private static final EnhancedMimeType XML_UTF8 = EnhancedMimeType.create("application", "xml",
-            Charset.forName("utf-8"));
+    private static final EnhancedMimeType XML_UTF8 = EnhancedMimeType
+            .intern(EnhancedMimeType.create("application", "xml", Charset.forName("utf-8")));
 
-    private static final EnhancedMimeType JSON_UTF8 = EnhancedMimeType.create("application", "json",
-            Charset.forName("utf-8"));;
+    private static final EnhancedMimeType JSON_UTF8 = EnhancedMimeType
+            .intern(EnhancedMimeType.create("application", "json", Charset.forName("utf-8")));;
 
     private final SerializerRegistry serRegistry;
 
     private final EnhancedMimeType targetContentType;
 
+    private final ThreadLocal<ReusableByteArrayOutputStream> buffers;
+
     /**
      * Constructor with all mandatory data.
      * 
@@ -71,6 +78,12 @@ public final class CommonEvent2EventDataConverter implements Converter<CommonEve
         }
         this.serRegistry = serRegistry;
         this.targetContentType = targetContentType;
+        this.buffers = new ThreadLocal<ReusableByteArrayOutputStream>() {
+            @Override
+            protected ReusableByteArrayOutputStream initialValue() {
+                return new ReusableByteArrayOutputStream();
+            }
+        };
     }
 
     /**
@@ -88,21 +101,32 @@ public final class CommonEvent2EventDataConverter implements Converter<CommonEve
         final String dataType = commonEvent.getDataType().asBaseType();
         final SerializedDataType serUserDataType = new SerializedDataType(dataType);
         final Serializer userDataSerializer = serRegistry.getSerializer(serUserDataType);
-        final byte[] serUserData = userDataSerializer.marshal(commonEvent.getData());
+        final ReusableByteArrayOutputStream buffer = buffers.get();
         final byte[] serData;
-        if (userDataSerializer.getMimeType().matchEncoding(targetContentType)) {
-            serData = serUserData;
-        } else {
-            final Base64Data base64data = new Base64Data(serUserData);
-            final Serializer base64Serializer = serRegistry.getSerializer(Base64Data.SER_TYPE);
-            serData = base64Serializer.marshal(base64data);
+        final byte[] escSerMeta;
+        try {
+            userDataSerializer.marshal(commonEvent.getData(), buffer);
+            final boolean nativeBinary = !targetContentType.isJson()
+                    && EscSpiUtils.isBinary(userDataSerializer.getMimeType());
+            if (!nativeBinary && !userDataSerializer.getMimeType().matchEncoding(targetContentType)) {
+                final Base64Data base64data = new Base64Data(buffer.toByteArray());
+                final Serializer base64Serializer = serRegistry.getSerializer(Base64Data.SER_TYPE);
+                buffer.reset();
+                base64Serializer.marshal(base64data, buffer);
+            }
+            serData = buffer.toByteArray();
+
+            // EscMeta
+            final EscMeta escMeta = EscSpiUtils.createEscMeta(serRegistry, targetContentType, commonEvent,
+                    nativeBinary);
+            final Serializer escMetaSerializer = getSerializer(EscMeta.TYPE);
+            buffer.reset();
+            escMetaSerializer.marshal(escMeta, buffer);
+            escSerMeta = buffer.toByteArray();
+        } finally {
+            buffer.release();
         }
 
-        // EscMeta
-        final EscMeta escMeta = EscSpiUtils.createEscMeta(serRegistry, targetContentType, commonEvent);
-        final Serializer escMetaSerializer = getSerializer(EscMeta.TYPE);
-        final byte[] escSerMeta = escMetaSerializer.marshal(escMeta);
-
         // Create event data
         final EventData.Builder builder = EventData.newBuilder().eventId(commonEvent.getId().asBaseType())
                 .type(dataType);
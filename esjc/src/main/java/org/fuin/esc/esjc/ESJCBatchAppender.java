@@ -0,0 +1,309 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.ExpectedVersion;
+import org.fuin.esc.api.StreamId;
+import org.fuin.esc.api.StreamReadOnlyException;
+import org.fuin.objects4j.common.Contract;
+
+import com.github.msemys.esjc.EventData;
+import com.github.msemys.esjc.WriteResult;
+
+/**
+ * Appends events to many streams with as many append operations in flight as
+ * allowed. The requests for one stream are executed one after another in the
+ * given order. Consecutive requests for the same stream are combined into a
+ * single append operation if the expected version of a request is exactly the
+ * version the stream has after the previous one, or if both accept any
+ * version. Requests for different streams are executed concurrently. Every
+ * request gets its own result. Streams exceeding the maximum number in
+ * flight are queued and started by the executor when another stream is
+ * finished, so no thread is blocked and the call stack does not grow with the
+ * number of queued streams or failed requests. This class is thread safe.
+ */
+final class ESJCBatchAppender {
+
+    /** Default maximum number of streams with an append in progress. */
+    public static final int DEFAULT_MAX_STREAMS_IN_FLIGHT = 1000;
+
+    /** Maximum number of events combined into a single append operation. */
+    private static final int MAX_EVENTS_PER_APPEND = 500;
+
+    private static final int ANY = ExpectedVersion.ANY.getNo();
+
+    private final com.github.msemys.esjc.EventStore es;
+
+    private final CommonEvent2EventDataConverter ce2edConv;
+
+    private final int maxStreamsInFlight;
+
+    /** Streams waiting for another stream to finish. Also used as lock. */
+    private final Deque<Runnable> waiting;
+
+    /** Number of streams with an append in progress. Guarded by waiting. */
+    private int streamsInFlight;
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param es
+     *            Event store to append to.
+     * @param ce2edConv
+     *            Converter for the events.
+     * @param maxStreamsInFlight
+     *            Maximum number of streams with an append in progress.
+     */
+    public ESJCBatchAppender(@NotNull final com.github.msemys.esjc.EventStore es,
+            @NotNull final CommonEvent2EventDataConverter ce2edConv,
+            final int maxStreamsInFlight) {
+        super();
+        Contract.requireArgNotNull("es", es);
+        Contract.requireArgNotNull("ce2edConv", ce2edConv);
+        Contract.requireArgMin("maxStreamsInFlight", maxStreamsInFlight, 1);
+        this.es = es;
+        this.ce2edConv = ce2edConv;
+        this.maxStreamsInFlight = maxStreamsInFlight;
+        this.waiting = new ArrayDeque<>();
+    }
+
+    /**
+     * Starts appending without blocking the calling thread. The events of the
+     * first append operations are converted by the calling thread. Converting
+     * the events of all following operations is done by the given executor,
+     * never by the thread that completes the esjc future.
+     * 
+     * @param requests
+     *            Requests to execute.
+     * @param executor
+     *            Executor used to convert the events and start the next
+     *            append operations.
+     * 
+     * @return One future per request in the same order as the requests. A
+     *         future completes with the next expected version of the stream
+     *         or exceptionally with the reason why the request failed.
+     */
+    @NotNull
+    public final List<CompletableFuture<Integer>> append(
+            @NotNull final List<AppendRequest> requests,
+            @NotNull final Executor executor) {
+
+        Contract.requireArgNotNull("requests", requests);
+        Contract.requireArgNotNull("executor", executor);
+
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>(
+                requests.size());
+        final Map<String, List<Pending>> streams = new LinkedHashMap<>();
+        for (final AppendRequest request : requests) {
+            final CompletableFuture<Integer> future = new CompletableFuture<>();
+            futures.add(future);
+            final StreamId streamId = request.getStreamId();
+            if (streamId.isProjection()) {
+                future.completeExceptionally(
+                        new StreamReadOnlyException(streamId));
+            } else {
+                List<Pending> pendings = streams.get(streamId.asString());
+                if (pendings == null) {
+                    pendings = new ArrayList<>();
+                    streams.put(streamId.asString(), pendings);
+                }
+                pendings.add(new Pending(request, future));
+            }
+        }
+
+        for (final List<Pending> pendings : streams.values()) {
+            final List<Batch> batches = combine(pendings);
+            start(new Runnable() {
+                @Override
+                public void run() {
+                    appendNext(batches, 0, executor);
+                }
+            }, executor);
+        }
+
+        return futures;
+
+    }
+
+    private List<Batch> combine(final List<Pending> pendings) {
+        final List<Batch> batches = new ArrayList<>();
+        Batch current = null;
+        for (final Pending pending : pendings) {
+            if (current == null || !current.accepts(pending)) {
+                current = new Batch();
+                batches.add(current);
+            }
+            current.add(pending);
+        }
+        return batches;
+    }
+
+    private void start(final Runnable stream, final Executor executor) {
+        synchronized (waiting) {
+            if (streamsInFlight >= maxStreamsInFlight) {
+                // Started later on a fresh stack of the executor
+                waiting.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        executor.execute(stream);
+                    }
+                });
+                return;
+            }
+            streamsInFlight++;
+        }
+        stream.run();
+    }
+
+    private void finished() {
+        final Runnable next;
+        synchronized (waiting) {
+            next = waiting.poll();
+            if (next == null) {
+                streamsInFlight--;
+                return;
+            }
+        }
+        // The next stream takes over the place of the finished one
+        next.run();
+    }
+
+    private void appendNext(final List<Batch> batches, final int start,
+            final Executor executor) {
+        for (int index = start; index < batches.size(); index++) {
+            final Batch batch = batches.get(index);
+            final CompletableFuture<WriteResult> result;
+            try {
+                final List<EventData> eventData = new ArrayList<>(batch.size);
+                for (final Pending pending : batch.pendings) {
+                    for (final CommonEvent event : pending.request.getEvents()) {
+                        eventData.add(ce2edConv.convert(event));
+                    }
+                }
+                result = es.appendToStream(batch.streamId().asString(),
+                        com.github.msemys.esjc.ExpectedVersion
+                                .of(batch.expectedVersion()),
+                        eventData);
+            } catch (final RuntimeException ex) {
+                // Continue with the next batch without growing the stack
+                batch.fail(ex);
+                continue;
+            }
+            final int next = index + 1;
+            result.whenCompleteAsync(new BiConsumer<WriteResult, Throwable>() {
+                @Override
+                public void accept(final WriteResult writeResult,
+                        final Throwable ex) {
+                    if (ex == null) {
+                        batch.complete(writeResult.nextExpectedVersion);
+                    } else {
+                        batch.fail(ex);
+                    }
+                    appendNext(batches, next, executor);
+                }
+            }, executor);
+            return;
+        }
+        finished();
+    }
+
+    /**
+     * Request together with the future for its result.
+     */
+    private static final class Pending {
+
+        private final AppendRequest request;
+
+        private final CompletableFuture<Integer> future;
+
+        public Pending(final AppendRequest request,
+                final CompletableFuture<Integer> future) {
+            super();
+            this.request = request;
+            this.future = future;
+        }
+
+    }
+
+    /**
+     * Consecutive requests for one stream executed as a single append.
+     */
+    private static final class Batch {
+
+        private final List<Pending> pendings = new ArrayList<>();
+
+        private int size;
+
+        public StreamId streamId() {
+            return pendings.get(0).request.getStreamId();
+        }
+
+        public int expectedVersion() {
+            return pendings.get(0).request.getExpectedVersion();
+        }
+
+        public boolean accepts(final Pending pending) {
+            final int expected = pending.request.getExpectedVersion();
+            if (size + pending.request.getEvents().size() > MAX_EVENTS_PER_APPEND) {
+                return false;
+            }
+            if (expectedVersion() == ANY) {
+                return expected == ANY;
+            }
+            return expected == expectedVersion() + size;
+        }
+
+        public void add(final Pending pending) {
+            pendings.add(pending);
+            size = size + pending.request.getEvents().size();
+        }
+
+        public void complete(final int nextExpectedVersion) {
+            int version = nextExpectedVersion;
+            for (int i = pendings.size() - 1; i >= 0; i--) {
+                final Pending pending = pendings.get(i);
+                pending.future.complete(version);
+                version = version - pending.request.getEvents().size();
+            }
+        }
+
+        public void fail(final Throwable ex) {
+            for (final Pending pending : pendings) {
+                pending.future.completeExceptionally(ESJCUtils.translate(
+                        pending.request.getStreamId(),
+                        pending.request.getExpectedVersion(), ex,
+                        "Error executing append"));
+            }
+        }
+
+    }
+
+}
@@ -18,15 +18,34 @@
 package org.fuin.esc.esjc;
 
 import static org.fuin.esc.api.ExpectedVersion.ANY;
+import static org.fuin.esc.esjc.ESJCUtils.translate;
+import static org.fuin.esc.esjc.ESJCUtils.verifyEvent;
+import static org.fuin.esc.esjc.ESJCUtils.verifyStream;
+import static org.fuin.esc.esjc.ESJCUtils.verifyWritable;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import javax.validation.constraints.NotNull;
 
 import org.fuin.esc.api.CommonEvent;
-import org.fuin.esc.api.EventNotFoundException;
+import org.fuin.esc.api.EscApiUtils;
 import org.fuin.esc.api.EventStore;
 import org.fuin.esc.api.ExpectedVersion;
 import org.fuin.esc.api.StreamAlreadyExistsException;
@@ -36,29 +55,56 @@ import org.fuin.esc.api.StreamId;
 import org.fuin.esc.api.StreamNotFoundException;
 import org.fuin.esc.api.StreamReadOnlyException;
 import org.fuin.esc.api.StreamState;
+import org.fuin.esc.api.SubscribableEventStore;
+import org.fuin.esc.api.Subscription;
 import org.fuin.esc.api.WrongExpectedVersionException;
 import org.fuin.esc.spi.AbstractReadableEventStore;
 import org.fuin.esc.spi.DeserializerRegistry;
 import org.fuin.esc.spi.EnhancedMimeType;
 import org.fuin.esc.spi.EscSpiUtils;
 import org.fuin.esc.spi.SerializerRegistry;
+import org.fuin.esc.spi.SizedStreamEventsSlice;
 import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.github.msemys.esjc.CatchUpSubscription;
+import com.github.msemys.esjc.CatchUpSubscriptionListener;
+import com.github.msemys.esjc.CatchUpSubscriptionSettings;
 import com.github.msemys.esjc.EventData;
 import com.github.msemys.esjc.EventReadResult;
-import com.github.msemys.esjc.EventReadStatus;
+import com.github.msemys.esjc.RecordedEvent;
 import com.github.msemys.esjc.ResolvedEvent;
 import com.github.msemys.esjc.SliceReadStatus;
 import com.github.msemys.esjc.StreamMetadataResult;
+import com.github.msemys.esjc.StreamPosition;
+import com.github.msemys.esjc.SubscriptionDropReason;
 import com.github.msemys.esjc.WriteResult;
 
 /**
  * Implementation that connects to the event store
  * (http://www.geteventstore.com) using the esjc
- * (https://github.com/msemys/esjc) API.
+ * (https://github.com/msemys/esjc) API. Subscriptions are based on esjc
+ * catch-up subscriptions. The received events are converted and handed to
+ * the subscriber by a separate decode executor. Each subscription buffers a
+ * limited number of events, so a slow subscriber only blocks the esjc client
+ * thread that delivers the events when its buffer is full.
  */
 public final class ESJCEventStore extends AbstractReadableEventStore
-        implements EventStore {
+        implements EventStore, SubscribableEventStore {
+
+    private static final Logger LOG = LoggerFactory
+            .getLogger(ESJCEventStore.class);
+
+    /** Default maximum number of received events buffered per subscription. */
+    public static final int DEFAULT_SUBSCRIPTION_BUFFER_SIZE = 1000;
+
+    /** Seconds to wait for a catch-up subscription to stop. */
+    private static final int STOP_TIMEOUT_SECONDS = 3;
+
+    /** Milliseconds to wait for space in a full buffer before checking for stop. */
+    private static final long BUFFER_WAIT_MILLIS = 100;
 
     private final com.github.msemys.esjc.EventStore es;
 
@@ -66,10 +112,28 @@ public final class ESJCEventStore extends AbstractReadableEventStore
 
     private final RecordedEvent2CommonEventConverter ed2ceConv;
 
+    private final RecordedEvents2CommonEventsConverter sliceConv;
+
+    private final ESJCBatchAppender batchAppender;
+
+    private final Executor decodeExecutor;
+
+    private final ThreadFactory threadFactory;
+
+    private final int subscriptionBufferSize;
+
+    private final AtomicInteger subscriberIds;
+
+    private final Map<ESJCSubscription, CatchUpSubscriber> subscribers;
+
+    private ExecutorService decodePool;
+
     private boolean open;
 
     /**
-     * Constructor with event store to use.
+     * Constructor with event store to use. Events received by subscriptions
+     * are converted by a pool with one daemon thread per available processor
+     * that is created on open.
      * 
      * @param es
      *            Delegate.
@@ -85,15 +149,58 @@ public final class ESJCEventStore extends AbstractReadableEventStore
             @NotNull final SerializerRegistry serRegistry,
             @NotNull final DeserializerRegistry desRegistry,
             @NotNull final EnhancedMimeType targetContentType) {
+        this(es, serRegistry, desRegistry, targetContentType, null);
+    }
+
+    /**
+     * Constructor with event store and decode executor to use.
+     * 
+     * @param es
+     *            Delegate.
+     * @param serRegistry
+     *            Registry used to locate serializers.
+     * @param desRegistry
+     *            Registry used to locate deserializers.
+     * @param targetContentType
+     *            Target content type (Allows only 'application/xml' or
+     *            'application/json' with 'utf-8' encoding).
+     * @param decodeExecutor
+     *            Executor used to convert the events received by
+     *            subscriptions, to call the subscribers and to convert the
+     *            events of batched appends or <code>null</code> to use a pool
+     *            that is created on open.
+     */
+    public ESJCEventStore(@NotNull final com.github.msemys.esjc.EventStore es,
+            @NotNull final SerializerRegistry serRegistry,
+            @NotNull final DeserializerRegistry desRegistry,
+            @NotNull final EnhancedMimeType targetContentType,
+            @Nullable final Executor decodeExecutor) {
+        this(new Builder(es, serRegistry, desRegistry, targetContentType)
+                .decodeExecutor(decodeExecutor));
+    }
+
+    /**
+     * Constructor with builder.
+     * 
+     * @param builder
+     *            Builder with the configuration.
+     */
+    private ESJCEventStore(final Builder builder) {
         super();
-        Contract.requireArgNotNull("es", es);
-        Contract.requireArgNotNull("serRegistry", serRegistry);
-        Contract.requireArgNotNull("desRegistry", desRegistry);
-        Contract.requireArgNotNull("targetContentType", targetContentType);
-        this.es = es;
-        this.ce2edConv = new CommonEvent2EventDataConverter(serRegistry,
-                targetContentType);
-        this.ed2ceConv = new RecordedEvent2CommonEventConverter(desRegistry);
+        this.es = builder.es;
+        this.ce2edConv = new CommonEvent2EventDataConverter(
+                builder.serRegistry, builder.targetContentType);
+        this.ed2ceConv = new RecordedEvent2CommonEventConverter(
+                builder.desRegistry);
+        this.sliceConv = new RecordedEvents2CommonEventsConverter(ed2ceConv,
+                builder.parallelDecodePool, builder.parallelDecodeThreshold);
+        this.batchAppender = new ESJCBatchAppender(es, ce2edConv,
+                builder.maxStreamsInFlight);
+        this.decodeExecutor = builder.decodeExecutor;
+        this.threadFactory = builder.threadFactory;
+        this.subscriptionBufferSize = builder.subscriptionBufferSize;
+        this.subscriberIds = new AtomicInteger();
+        this.subscribers = new ConcurrentHashMap<>();
         this.open = false;
     }
 
@@ -103,6 +210,10 @@ public final class ESJCEventStore extends AbstractReadableEventStore
             // Ignore
             return;
         }
+        if (decodeExecutor == null) {
+            decodePool = Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors(), threadFactory);
+        }
         es.connect();
         this.open = true;
     }
@@ -113,7 +224,15 @@ public final class ESJCEventStore extends AbstractReadableEventStore
             // Ignore
             return;
         }
+        for (final CatchUpSubscriber subscriber : subscribers.values()) {
+            subscriber.stop();
+        }
+        subscribers.clear();
         es.disconnect();
+        if (decodePool != null) {
+            decodePool.shutdown();
+            decodePool = null;
+        }
         this.open = false;
     }
 
@@ -163,9 +282,7 @@ public final class ESJCEventStore extends AbstractReadableEventStore
         Contract.requireArgNotNull("commonEvents", commonEvents);
         ensureOpen();
 
-        if (streamId.isProjection()) {
-            throw new StreamReadOnlyException(streamId);
-        }
+        verifyWritable(streamId);
 
         try {
             final Iterable<EventData> eventDataIt = asEventData(commonEvents);
@@ -174,22 +291,57 @@ public final class ESJCEventStore extends AbstractReadableEventStore
                     eventDataIt).get();
             return result.nextExpectedVersion;
         } catch (final ExecutionException ex) {
-            if (ex.getCause() instanceof com.github.msemys.esjc.operation.WrongExpectedVersionException) {
-                // TODO Add actual version instead of NULL if ES returns this
-                // some day
-                throw new WrongExpectedVersionException(streamId,
-                        expectedVersion, null);
-            }
-            if (ex.getCause() instanceof com.github.msemys.esjc.operation.StreamDeletedException) {
-                throw new StreamDeletedException(streamId);
-            }
-            throw new RuntimeException("Error executing append", ex);
+            throw translate(streamId, expectedVersion, ex,
+                    "Error executing append");
         } catch (InterruptedException ex) {
             throw new RuntimeException("Error waiting for append result", ex);
         }
 
     }
 
+    /**
+     * Appends events to many streams. Append operations for different streams
+     * are executed concurrently. The requests for the same stream are executed
+     * in the given order and consecutive requests are combined into one
+     * append operation where the expected version allows it. A failing
+     * request does not stop the others.
+     * 
+     * @param requests
+     *            Requests to execute.
+     * 
+     * @return One result per request in the same order as the requests.
+     */
+    @NotNull
+    public final List<AppendResult> appendToStreams(
+            @NotNull final List<AppendRequest> requests) {
+
+        Contract.requireArgNotNull("requests", requests);
+        ensureOpen();
+
+        final List<CompletableFuture<Integer>> futures = batchAppender
+                .append(requests, executor());
+        final List<AppendResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            final AppendRequest request = requests.get(i);
+            try {
+                results.add(new AppendResult(request, futures.get(i).get()));
+            } catch (final ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    results.add(new AppendResult(request,
+                            (RuntimeException) ex.getCause()));
+                } else {
+                    results.add(new AppendResult(request, new RuntimeException(
+                            "Error executing append", ex.getCause())));
+                }
+            } catch (final InterruptedException ex) {
+                throw new RuntimeException("Error waiting for append result",
+                        ex);
+            }
+        }
+        return results;
+
+    }
+
     @Override
     public final void deleteStream(final StreamId streamId,
             final int expectedVersion, final boolean hardDelete)
@@ -200,25 +352,15 @@ public final class ESJCEventStore extends AbstractReadableEventStore
                 ExpectedVersion.ANY.getNo());
         ensureOpen();
 
-        if (streamId.isProjection()) {
-            throw new StreamReadOnlyException(streamId);
-        }
+        verifyWritable(streamId);
 
         try {
             es.deleteStream(streamId.asString(),
                     com.github.msemys.esjc.ExpectedVersion.of(expectedVersion),
                     hardDelete).get();
         } catch (final ExecutionException ex) {
-            if (ex.getCause() instanceof com.github.msemys.esjc.operation.WrongExpectedVersionException) {
-                // TODO Add actual version instead of NULL if ES returns this
-                // some day
-                throw new WrongExpectedVersionException(streamId,
-                        expectedVersion, null);
-            }
-            if (ex.getCause() instanceof com.github.msemys.esjc.operation.StreamDeletedException) {
-                throw new StreamDeletedException(streamId);
-            }
-            throw new RuntimeException("Error executing delete", ex);
+            throw translate(streamId, expectedVersion, ex,
+                    "Error executing delete");
         } catch (final InterruptedException ex) {
             throw new RuntimeException("Error waiting for delete result", ex);
         }
@@ -237,6 +379,12 @@ public final class ESJCEventStore extends AbstractReadableEventStore
     @Override
     public final StreamEventsSlice readEventsForward(final StreamId streamId,
             final int start, final int count) {
+        return readSizedEventsForward(streamId, start, count).getSlice();
+    }
+
+    @Override
+    protected final SizedStreamEventsSlice readSizedEventsForward(
+            final StreamId streamId, final int start, final int count) {
 
         Contract.requireArgNotNull("streamId", streamId);
         Contract.requireArgMin("start", start, 0);
@@ -248,16 +396,13 @@ public final class ESJCEventStore extends AbstractReadableEventStore
                     .readStreamEventsForward(streamId.asString(), start, count,
                             true)
                     .get();
-            if (SliceReadStatus.StreamDeleted == slice.status) {
-                throw new StreamDeletedException(streamId);
-            }
-            if (SliceReadStatus.StreamNotFound == slice.status) {
-                throw new StreamNotFoundException(streamId);
-            }
+            verifyStream(streamId, slice.status);
             final List<CommonEvent> events = asCommonEvents(slice.events);
             final boolean endOfStream = count > events.size();
-            return new StreamEventsSlice(slice.fromEventNumber, events,
-                    slice.nextEventNumber, endOfStream);
+            return new SizedStreamEventsSlice(
+                    new StreamEventsSlice(slice.fromEventNumber, events,
+                            slice.nextEventNumber, endOfStream),
+                    bytes(slice.events));
         } catch (InterruptedException | ExecutionException ex) {
             throw new RuntimeException("Error waiting for read forward result",
                     ex);
@@ -268,6 +413,12 @@ public final class ESJCEventStore extends AbstractReadableEventStore
     @Override
     public final StreamEventsSlice readEventsBackward(final StreamId streamId,
             final int start, final int count) {
+        return readSizedEventsBackward(streamId, start, count).getSlice();
+    }
+
+    @Override
+    protected final SizedStreamEventsSlice readSizedEventsBackward(
+            final StreamId streamId, final int start, final int count) {
 
         Contract.requireArgNotNull("streamId", streamId);
         Contract.requireArgMin("start", start, 0);
@@ -279,20 +430,17 @@ public final class ESJCEventStore extends AbstractReadableEventStore
                     .readStreamEventsBackward(streamId.asString(), start, count,
                             true)
                     .get();
-            if (SliceReadStatus.StreamDeleted == slice.status) {
-                throw new StreamDeletedException(streamId);
-            }
-            if (SliceReadStatus.StreamNotFound == slice.status) {
-                throw new StreamNotFoundException(streamId);
-            }
+            verifyStream(streamId, slice.status);
             final List<CommonEvent> events = asCommonEvents(slice.events);
             int nextEventNumber = slice.nextEventNumber;
             final boolean endOfStream = (start - count < 0);
             if (endOfStream) {
                 nextEventNumber = 0;
             }
-            return new StreamEventsSlice(slice.fromEventNumber, events,
-                    nextEventNumber, endOfStream);
+            return new SizedStreamEventsSlice(
+                    new StreamEventsSlice(slice.fromEventNumber, events,
+                            nextEventNumber, endOfStream),
+                    bytes(slice.events));
         } catch (InterruptedException | ExecutionException ex) {
             throw new RuntimeException("Error waiting for read forward result",
                     ex);
@@ -311,15 +459,7 @@ public final class ESJCEventStore extends AbstractReadableEventStore
         try {
             final EventReadResult eventReadResult = es
                     .readEvent(streamId.asString(), eventNumber, true).get();
-            if (eventReadResult.status == EventReadStatus.NoStream) {
-                throw new StreamNotFoundException(streamId);
-            }
-            if (eventReadResult.status == EventReadStatus.NotFound) {
-                throw new EventNotFoundException(streamId, eventNumber);
-            }
-            if (eventReadResult.status == EventReadStatus.StreamDeleted) {
-                throw new StreamDeletedException(streamId);
-            }
+            verifyEvent(streamId, eventNumber, eventReadResult.status);
             return asCommonEvent(eventReadResult.event);
         } catch (InterruptedException | ExecutionException ex) {
             throw new RuntimeException("Error waiting for read forward result",
@@ -383,6 +523,77 @@ public final class ESJCEventStore extends AbstractReadableEventStore
 
     }
 
+    @Override
+    public final Subscription subscribeToStream(final StreamId streamId,
+            final int eventNumber,
+            final BiConsumer<Subscription, CommonEvent> onEvent,
+            final BiConsumer<Subscription, Exception> onDrop) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgMin("eventNumber", eventNumber,
+                EscApiUtils.SUBSCRIBE_TO_NEW_EVENTS);
+        Contract.requireArgNotNull("onEvent", onEvent);
+        Contract.requireArgNotNull("onDrop", onDrop);
+        ensureOpen();
+
+        final int lastEventNumber = readLastEventNumber(streamId);
+
+        // The esjc checkpoint is the last event already seen (exclusive)
+        final Integer lastCheckpoint;
+        if (eventNumber == EscApiUtils.SUBSCRIBE_TO_NEW_EVENTS) {
+            lastCheckpoint = lastEventNumber;
+        } else if (eventNumber == 0) {
+            lastCheckpoint = null;
+        } else {
+            lastCheckpoint = eventNumber - 1;
+        }
+
+        final ESJCSubscription subscription = new ESJCSubscription(
+                subscriberIds.incrementAndGet(), streamId, lastCheckpoint);
+        final CatchUpSubscriber subscriber = new CatchUpSubscriber(
+                subscription, executor(), subscriptionBufferSize, onEvent,
+                onDrop);
+        subscribers.put(subscription, subscriber);
+        final CatchUpSubscriptionSettings settings = CatchUpSubscriptionSettings
+                .newBuilder().resolveLinkTos(true).build();
+        subscriber.start(es.subscribeToStreamFrom(streamId.asString(),
+                lastCheckpoint, settings, subscriber));
+        return subscription;
+
+    }
+
+    @Override
+    public final void unsubscribeFromStream(final Subscription subscription) {
+
+        Contract.requireArgNotNull("subscription", subscription);
+        ensureOpen();
+        if (!(subscription instanceof ESJCSubscription)) {
+            throw new IllegalArgumentException(
+                    "Can only handle subscriptions of type "
+                            + ESJCSubscription.class.getSimpleName()
+                            + ", not: " + subscription.getClass().getName());
+        }
+        final CatchUpSubscriber subscriber = subscribers.remove(subscription);
+        if (subscriber != null) {
+            subscriber.stop();
+        }
+
+    }
+
+    private int readLastEventNumber(final StreamId streamId) {
+        try {
+            final com.github.msemys.esjc.StreamEventsSlice slice = es
+                    .readStreamEventsBackward(streamId.asString(),
+                            StreamPosition.END, 1, false)
+                    .get();
+            verifyStream(streamId, slice.status);
+            return slice.lastEventNumber;
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new RuntimeException(
+                    "Error waiting for read backward result", ex);
+        }
+    }
+
     private List<EventData> asEventData(final List<CommonEvent> commonEvents) {
         final List<EventData> list = new ArrayList<>(commonEvents.size());
         for (final CommonEvent commonEvent : commonEvents) {
@@ -393,11 +604,26 @@ public final class ESJCEventStore extends AbstractReadableEventStore
 
     private List<CommonEvent> asCommonEvents(
             final List<ResolvedEvent> resolvedEvents) {
-        final List<CommonEvent> list = new ArrayList<>(resolvedEvents.size());
+        final List<RecordedEvent> list = new ArrayList<>(
+                resolvedEvents.size());
         for (final ResolvedEvent resolvedEvent : resolvedEvents) {
-            list.add(asCommonEvent(resolvedEvent));
+            list.add(resolvedEvent.event);
         }
-        return list;
+        return sliceConv.convert(list);
+    }
+
+    private static long bytes(final List<ResolvedEvent> resolvedEvents) {
+        long bytes = 0;
+        for (final ResolvedEvent resolvedEvent : resolvedEvents) {
+            final RecordedEvent event = resolvedEvent.event;
+            if (event.data != null) {
+                bytes = bytes + event.data.length;
+            }
+            if (event.metadata != null) {
+                bytes = bytes + event.metadata.length;
+            }
+        }
+        return bytes;
     }
 
     private CommonEvent asCommonEvent(final ResolvedEvent resolvedEvent) {
@@ -410,4 +636,337 @@ public final class ESJCEventStore extends AbstractReadableEventStore
         }
     }
 
+    private Executor executor() {
+        if (decodeExecutor == null) {
+            return decodePool;
+        }
+        return decodeExecutor;
+    }
+
+    /**
+     * Receives the events of a catch-up subscription on the thread of the
+     * esjc client and queues them. The queue is drained in order by at most
+     * one task at a time running on the decode executor. If the queue is
+     * full, the esjc client thread waits until the subscriber caught up, so
+     * the esjc flow control also applies to slow subscribers. An exception
+     * thrown by the subscriber drops the subscription.
+     */
+    private final class CatchUpSubscriber
+            implements CatchUpSubscriptionListener, Runnable {
+
+        private final ESJCSubscription subscription;
+
+        private final Executor executor;
+
+        private final BiConsumer<Subscription, CommonEvent> onEvent;
+
+        private final BiConsumer<Subscription, Exception> onDrop;
+
+        private final BlockingQueue<ResolvedEvent> queue;
+
+        private final AtomicBoolean scheduled;
+
+        private final AtomicBoolean stopped;
+
+        private volatile CatchUpSubscription catchUpSubscription;
+
+        public CatchUpSubscriber(final ESJCSubscription subscription,
+                final Executor executor, final int bufferSize,
+                final BiConsumer<Subscription, CommonEvent> onEvent,
+                final BiConsumer<Subscription, Exception> onDrop) {
+            super();
+            this.subscription = subscription;
+            this.executor = executor;
+            this.onEvent = onEvent;
+            this.onDrop = onDrop;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+            this.scheduled = new AtomicBoolean(false);
+            this.stopped = new AtomicBoolean(false);
+        }
+
+        public void start(final CatchUpSubscription catchUpSubscription) {
+            this.catchUpSubscription = catchUpSubscription;
+            if (stopped.get()) {
+                catchUpSubscription.stop(
+                        Duration.ofSeconds(STOP_TIMEOUT_SECONDS));
+            }
+        }
+
+        public void stop() {
+            if (stopped.compareAndSet(false, true)) {
+                queue.clear();
+                final CatchUpSubscription cs = catchUpSubscription;
+                if (cs != null) {
+                    cs.stop(Duration.ofSeconds(STOP_TIMEOUT_SECONDS));
+                }
+            }
+        }
+
+        @Override
+        public void onEvent(final CatchUpSubscription cs,
+                final ResolvedEvent event) {
+            if (stopped.get()) {
+                return;
+            }
+            try {
+                while (!queue.offer(event, BUFFER_WAIT_MILLIS,
+                        TimeUnit.MILLISECONDS)) {
+                    if (stopped.get()) {
+                        return;
+                    }
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (stopped.get()) {
+                queue.clear();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void onClose(final CatchUpSubscription cs,
+                final SubscriptionDropReason reason, final Exception ex) {
+            if (reason == SubscriptionDropReason.UserInitiated) {
+                return;
+            }
+            if (ex == null) {
+                drop(new RuntimeException("Subscription dropped: " + reason));
+            } else {
+                drop(ex);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                ResolvedEvent event;
+                while (!stopped.get() && (event = queue.poll()) != null) {
+                    try {
+                        onEvent.accept(subscription, asCommonEvent(event));
+                    } catch (final RuntimeException ex) {
+                        LOG.error("Subscriber failed to handle event #"
+                                + event.originalEventNumber() + " of "
+                                + subscription.getStreamId(), ex);
+                        subscribers.remove(subscription);
+                        stop();
+                        onDrop.accept(subscription, ex);
+                        return;
+                    }
+                    subscription.checkpoint(event.originalEventNumber());
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty() && !stopped.get()
+                    && scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        private void drop(final Exception ex) {
+            if (stopped.compareAndSet(false, true)) {
+                queue.clear();
+                subscribers.remove(subscription);
+                onDrop.accept(subscription, ex);
+            }
+        }
+
+    }
+
+    /**
+     * Creates the named daemon threads of the default decode pool.
+     */
+    private static final class DecodeThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadIds = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable,
+                    "esjc-decode-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+    /**
+     * Builder used to create an event store with optional settings.
+     */
+    public static final class Builder {
+
+        private final com.github.msemys.esjc.EventStore es;
+
+        private final SerializerRegistry serRegistry;
+
+        private final DeserializerRegistry desRegistry;
+
+        private final EnhancedMimeType targetContentType;
+
+        private Executor decodeExecutor;
+
+        private ForkJoinPool parallelDecodePool;
+
+        private int parallelDecodeThreshold = Integer.MAX_VALUE;
+
+        private int maxStreamsInFlight = ESJCBatchAppender.DEFAULT_MAX_STREAMS_IN_FLIGHT;
+
+        private ThreadFactory threadFactory = new DecodeThreadFactory();
+
+        private int subscriptionBufferSize = DEFAULT_SUBSCRIPTION_BUFFER_SIZE;
+
+        /**
+         * Constructor with all mandatory data.
+         * 
+         * @param es
+         *            Delegate.
+         * @param serRegistry
+         *            Registry used to locate serializers.
+         * @param desRegistry
+         *            Registry used to locate deserializers.
+         * @param targetContentType
+         *            Target content type (Allows only 'application/xml' or
+         *            'application/json' with 'utf-8' encoding).
+         */
+        public Builder(@NotNull final com.github.msemys.esjc.EventStore es,
+                @NotNull final SerializerRegistry serRegistry,
+                @NotNull final DeserializerRegistry desRegistry,
+                @NotNull final EnhancedMimeType targetContentType) {
+            super();
+            Contract.requireArgNotNull("es", es);
+            Contract.requireArgNotNull("serRegistry", serRegistry);
+            Contract.requireArgNotNull("desRegistry", desRegistry);
+            Contract.requireArgNotNull("targetContentType",
+                    targetContentType);
+            this.es = es;
+            this.serRegistry = serRegistry;
+            this.desRegistry = desRegistry;
+            this.targetContentType = targetContentType;
+        }
+
+        /**
+         * Sets the executor used to convert the events received by
+         * subscriptions, to call the subscribers and to convert the events of
+         * batched appends. Defaults to a pool with
+         * one thread per available processor that is created on open.
+         * 
+         * @param decodeExecutor
+         *            Executor or <code>null</code> to use the default pool.
+         * 
+         * @return This builder.
+         */
+        public final Builder decodeExecutor(
+                @Nullable final Executor decodeExecutor) {
+            this.decodeExecutor = decodeExecutor;
+            return this;
+        }
+
+        /**
+         * Converts the events of slices with at least the given number of
+         * events in parallel using the common fork/join pool. The order of
+         * the events is preserved. Only use this if all deserializers in the
+         * registry are thread safe. Defaults to sequential conversion.
+         * 
+         * @param threshold
+         *            Minimum number of events in a slice to convert it in
+         *            parallel.
+         * 
+         * @return This builder.
+         */
+        public final Builder parallelDecode(final int threshold) {
+            return parallelDecode(ForkJoinPool.commonPool(), threshold);
+        }
+
+        /**
+         * Converts the events of slices with at least the given number of
+         * events in parallel using a fork/join pool. The order of the events
+         * is preserved. Only use this if all deserializers in the registry
+         * are thread safe. Defaults to sequential conversion.
+         * 
+         * @param pool
+         *            Pool used for the conversion.
+         * @param threshold
+         *            Minimum number of events in a slice to convert it in
+         *            parallel.
+         * 
+         * @return This builder.
+         */
+        public final Builder parallelDecode(@NotNull final ForkJoinPool pool,
+                final int threshold) {
+            Contract.requireArgNotNull("pool", pool);
+            Contract.requireArgMin("threshold", threshold, 2);
+            this.parallelDecodePool = pool;
+            this.parallelDecodeThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of streams with an append in progress when
+         * appending to many streams at once. Defaults to
+         * {@value ESJCBatchAppender#DEFAULT_MAX_STREAMS_IN_FLIGHT}.
+         * 
+         * @param maxStreamsInFlight
+         *            Maximum number of streams.
+         * 
+         * @return This builder.
+         */
+        public final Builder maxStreamsInFlight(final int maxStreamsInFlight) {
+            Contract.requireArgMin("maxStreamsInFlight", maxStreamsInFlight,
+                    1);
+            this.maxStreamsInFlight = maxStreamsInFlight;
+            return this;
+        }
+
+        /**
+         * Sets the thread factory used for the default decode pool. Defaults
+         * to daemon threads named "esjc-decode-N". Not used if a decode
+         * executor is set.
+         * 
+         * @param threadFactory
+         *            Factory for the threads of the decode pool.
+         * 
+         * @return This builder.
+         */
+        public final Builder threadFactory(
+                @NotNull final ThreadFactory threadFactory) {
+            Contract.requireArgNotNull("threadFactory", threadFactory);
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of received events buffered per
+         * subscription. If the buffer is full, the esjc client waits until
+         * the subscriber handled some events. Defaults to
+         * {@value ESJCEventStore#DEFAULT_SUBSCRIPTION_BUFFER_SIZE}.
+         * 
+         * @param subscriptionBufferSize
+         *            Maximum number of events.
+         * 
+         * @return This builder.
+         */
+        public final Builder subscriptionBufferSize(
+                final int subscriptionBufferSize) {
+            Contract.requireArgMin("subscriptionBufferSize",
+                    subscriptionBufferSize, 1);
+            this.subscriptionBufferSize = subscriptionBufferSize;
+            return this;
+        }
+
+        /**
+         * Creates the event store.
+         * 
+         * @return New event store that is not yet opened.
+         */
+        public final ESJCEventStore build() {
+            return new ESJCEventStore(this);
+        }
+
+    }
+
 }
@@ -0,0 +1,466 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import static org.fuin.esc.api.ExpectedVersion.ANY;
+import static org.fuin.esc.esjc.ESJCUtils.translate;
+import static org.fuin.esc.esjc.ESJCUtils.verifyEvent;
+import static org.fuin.esc.esjc.ESJCUtils.verifyStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventStoreAsync;
+import org.fuin.esc.api.ExpectedVersion;
+import org.fuin.esc.api.StreamAlreadyExistsException;
+import org.fuin.esc.api.StreamEventsSlice;
+import org.fuin.esc.api.StreamId;
+import org.fuin.esc.api.StreamNotFoundException;
+import org.fuin.esc.api.StreamReadOnlyException;
+import org.fuin.esc.api.StreamState;
+import org.fuin.esc.spi.DeserializerRegistry;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.EscSpiUtils;
+import org.fuin.esc.spi.SerializerRegistry;
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+
+import com.github.msemys.esjc.EventData;
+import com.github.msemys.esjc.EventReadResult;
+import com.github.msemys.esjc.ResolvedEvent;
+import com.github.msemys.esjc.SliceReadStatus;
+import com.github.msemys.esjc.StreamMetadataResult;
+import com.github.msemys.esjc.WriteResult;
+
+/**
+ * Asynchronous implementation that connects to the event store
+ * (http://www.geteventstore.com) using the esjc
+ * (https://github.com/msemys/esjc) API. The futures returned by esjc are
+ * composed directly, so no thread blocks while waiting for the event store.
+ * Converting the results into common events is done by the thread that
+ * completes the esjc future. Failures are reported by completing the returned
+ * future exceptionally with the same exceptions the synchronous
+ * {@link ESJCEventStore} throws.
+ */
+public final class ESJCEventStoreAsync implements EventStoreAsync {
+
+    private final com.github.msemys.esjc.EventStore es;
+
+    private final CommonEvent2EventDataConverter ce2edConv;
+
+    private final RecordedEvent2CommonEventConverter ed2ceConv;
+
+    private final ESJCBatchAppender batchAppender;
+
+    private final Executor executor;
+
+    private volatile boolean open;
+
+    /**
+     * Constructor with event store to use.
+     * 
+     * @param es
+     *            Delegate.
+     * @param serRegistry
+     *            Registry used to locate serializers.
+     * @param desRegistry
+     *            Registry used to locate deserializers.
+     * @param targetContentType
+     *            Target content type (Allows only 'application/xml' or
+     *            'application/json' with 'utf-8' encoding).
+     */
+    public ESJCEventStoreAsync(
+            @NotNull final com.github.msemys.esjc.EventStore es,
+            @NotNull final SerializerRegistry serRegistry,
+            @NotNull final DeserializerRegistry desRegistry,
+            @NotNull final EnhancedMimeType targetContentType) {
+        this(es, serRegistry, desRegistry, targetContentType, null);
+    }
+
+    /**
+     * Constructor with event store and executor to use.
+     * 
+     * @param es
+     *            Delegate.
+     * @param serRegistry
+     *            Registry used to locate serializers.
+     * @param desRegistry
+     *            Registry used to locate deserializers.
+     * @param targetContentType
+     *            Target content type (Allows only 'application/xml' or
+     *            'application/json' with 'utf-8' encoding).
+     * @param executor
+     *            Executor used to convert the events of batched appends or
+     *            <code>null</code> to use the common fork/join pool.
+     */
+    public ESJCEventStoreAsync(
+            @NotNull final com.github.msemys.esjc.EventStore es,
+            @NotNull final SerializerRegistry serRegistry,
+            @NotNull final DeserializerRegistry desRegistry,
+            @NotNull final EnhancedMimeType targetContentType,
+            @Nullable final Executor executor) {
+        super();
+        Contract.requireArgNotNull("es", es);
+        Contract.requireArgNotNull("serRegistry", serRegistry);
+        Contract.requireArgNotNull("desRegistry", desRegistry);
+        Contract.requireArgNotNull("targetContentType", targetContentType);
+        this.es = es;
+        this.ce2edConv = new CommonEvent2EventDataConverter(serRegistry,
+                targetContentType);
+        this.ed2ceConv = new RecordedEvent2CommonEventConverter(desRegistry);
+        this.batchAppender = new ESJCBatchAppender(es, ce2edConv,
+                ESJCBatchAppender.DEFAULT_MAX_STREAMS_IN_FLIGHT);
+        if (executor == null) {
+            this.executor = ForkJoinPool.commonPool();
+        } else {
+            this.executor = executor;
+        }
+        this.open = false;
+    }
+
+    @Override
+    public final CompletableFuture<Void> open() {
+        if (!open) {
+            es.connect();
+            this.open = true;
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public final void close() {
+        if (!open) {
+            // Ignore
+            return;
+        }
+        es.disconnect();
+        this.open = false;
+    }
+
+    @Override
+    public final boolean isSupportsCreateStream() {
+        return false;
+    }
+
+    @Override
+    public final CompletableFuture<Void> createStream(final StreamId streamId)
+            throws StreamAlreadyExistsException {
+        // Do nothing as the operation is not supported
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public final CompletableFuture<Integer> appendToStream(
+            final StreamId streamId, final CommonEvent... events) {
+        return appendToStream(streamId, ANY.getNo(),
+                EscSpiUtils.asList(events));
+    }
+
+    @Override
+    public final CompletableFuture<Integer> appendToStream(
+            final StreamId streamId, final int expectedVersion,
+            final CommonEvent... events) {
+        return appendToStream(streamId, expectedVersion,
+                EscSpiUtils.asList(events));
+    }
+
+    @Override
+    public final CompletableFuture<Integer> appendToStream(
+            final StreamId streamId, final List<CommonEvent> events) {
+        return appendToStream(streamId, ANY.getNo(), events);
+    }
+
+    @Override
+    public final CompletableFuture<Integer> appendToStream(
+            final StreamId streamId, final int expectedVersion,
+            final List<CommonEvent> commonEvents) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgMin("expectedVersion", expectedVersion,
+                ExpectedVersion.ANY.getNo());
+        Contract.requireArgNotNull("commonEvents", commonEvents);
+        ensureOpen();
+
+        if (streamId.isProjection()) {
+            return failed(new StreamReadOnlyException(streamId));
+        }
+
+        final List<EventData> eventData = asEventData(commonEvents);
+        return es
+                .appendToStream(streamId.asString(),
+                        com.github.msemys.esjc.ExpectedVersion
+                                .of(expectedVersion),
+                        eventData)
+                .handle(new BiFunction<WriteResult, Throwable, Integer>() {
+                    @Override
+                    public Integer apply(final WriteResult result,
+                            final Throwable ex) {
+                        if (ex != null) {
+                            throw translate(streamId, expectedVersion, ex,
+                                    "Error executing append");
+                        }
+                        return result.nextExpectedVersion;
+                    }
+                });
+
+    }
+
+    /**
+     * Appends events to many streams. Append operations for different streams
+     * are executed concurrently. The requests for the same stream are executed
+     * in the given order and consecutive requests are combined into one
+     * append operation where the expected version allows it. The calling
+     * thread is never blocked: Streams exceeding the maximum number in flight
+     * are started when another stream is finished.
+     * 
+     * @param requests
+     *            Requests to execute.
+     * 
+     * @return One future per request in the same order as the requests.
+     */
+    @NotNull
+    public final List<CompletableFuture<Integer>> appendToStreams(
+            @NotNull final List<AppendRequest> requests) {
+        Contract.requireArgNotNull("requests", requests);
+        ensureOpen();
+        return batchAppender.append(requests, executor);
+    }
+
+    @Override
+    public final CompletableFuture<Void> deleteStream(final StreamId streamId,
+            final int expectedVersion, final boolean hardDelete) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgMin("expectedVersion", expectedVersion,
+                ExpectedVersion.ANY.getNo());
+        ensureOpen();
+
+        if (streamId.isProjection()) {
+            return failed(new StreamReadOnlyException(streamId));
+        }
+
+        return es
+                .deleteStream(streamId.asString(),
+                        com.github.msemys.esjc.ExpectedVersion
+                                .of(expectedVersion),
+                        hardDelete)
+                .handle(new BiFunction<Object, Throwable, Void>() {
+                    @Override
+                    public Void apply(final Object result,
+                            final Throwable ex) {
+                        if (ex != null) {
+                            throw translate(streamId, expectedVersion, ex,
+                                    "Error executing delete");
+                        }
+                        return null;
+                    }
+                });
+
+    }
+
+    @Override
+    public final CompletableFuture<Void> deleteStream(final StreamId streamId,
+            final boolean hardDelete) {
+        return deleteStream(streamId, ANY.getNo(), hardDelete);
+    }
+
+    @Override
+    public final CompletableFuture<StreamEventsSlice> readEventsForward(
+            final StreamId streamId, final int start, final int count) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgMin("start", start, 0);
+        Contract.requireArgMin("count", count, 1);
+        ensureOpen();
+
+        return es
+                .readStreamEventsForward(streamId.asString(), start, count,
+                        true)
+                .thenApply(
+                        new Function<com.github.msemys.esjc.StreamEventsSlice, StreamEventsSlice>() {
+                            @Override
+                            public StreamEventsSlice apply(
+                                    final com.github.msemys.esjc.StreamEventsSlice slice) {
+                                verifyStream(streamId, slice.status);
+                                final List<CommonEvent> events = asCommonEvents(
+                                        slice.events);
+                                final boolean endOfStream = count > events
+                                        .size();
+                                return new StreamEventsSlice(
+                                        slice.fromEventNumber, events,
+                                        slice.nextEventNumber, endOfStream);
+                            }
+                        });
+
+    }
+
+    @Override
+    public final CompletableFuture<StreamEventsSlice> readEventsBackward(
+            final StreamId streamId, final int start, final int count) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgMin("start", start, 0);
+        Contract.requireArgMin("count", count, 1);
+        ensureOpen();
+
+        return es
+                .readStreamEventsBackward(streamId.asString(), start, count,
+                        true)
+                .thenApply(
+                        new Function<com.github.msemys.esjc.StreamEventsSlice, StreamEventsSlice>() {
+                            @Override
+                            public StreamEventsSlice apply(
+                                    final com.github.msemys.esjc.StreamEventsSlice slice) {
+                                verifyStream(streamId, slice.status);
+                                final List<CommonEvent> events = asCommonEvents(
+                                        slice.events);
+                                int nextEventNumber = slice.nextEventNumber;
+                                final boolean endOfStream = (start
+                                        - count < 0);
+                                if (endOfStream) {
+                                    nextEventNumber = 0;
+                                }
+                                return new StreamEventsSlice(
+                                        slice.fromEventNumber, events,
+                                        nextEventNumber, endOfStream);
+                            }
+                        });
+
+    }
+
+    @Override
+    public final CompletableFuture<CommonEvent> readEvent(
+            final StreamId streamId, final int eventNumber) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgMin("eventNumber", eventNumber, 0);
+        ensureOpen();
+
+        return es.readEvent(streamId.asString(), eventNumber, true)
+                .thenApply(new Function<EventReadResult, CommonEvent>() {
+                    @Override
+                    public CommonEvent apply(final EventReadResult result) {
+                        verifyEvent(streamId, eventNumber, result.status);
+                        return asCommonEvent(result.event);
+                    }
+                });
+
+    }
+
+    @Override
+    public final CompletableFuture<Boolean> streamExists(
+            final StreamId streamId) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        ensureOpen();
+
+        return es.readStreamEventsForward(streamId.asString(), 0, 1, false)
+                .thenApply(
+                        new Function<com.github.msemys.esjc.StreamEventsSlice, Boolean>() {
+                            @Override
+                            public Boolean apply(
+                                    final com.github.msemys.esjc.StreamEventsSlice slice) {
+                                return SliceReadStatus.StreamDeleted != slice.status
+                                        && SliceReadStatus.StreamNotFound != slice.status;
+                            }
+                        });
+
+    }
+
+    @Override
+    public final CompletableFuture<StreamState> streamState(
+            final StreamId streamId) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        ensureOpen();
+
+        return es.readStreamEventsForward(streamId.asString(), 0, 1, false)
+                .thenCompose(
+                        new Function<com.github.msemys.esjc.StreamEventsSlice, CompletableFuture<StreamState>>() {
+                            @Override
+                            public CompletableFuture<StreamState> apply(
+                                    final com.github.msemys.esjc.StreamEventsSlice slice) {
+                                if (SliceReadStatus.StreamNotFound == slice.status) {
+                                    throw new StreamNotFoundException(
+                                            streamId);
+                                }
+                                if (SliceReadStatus.StreamDeleted != slice.status) {
+                                    return CompletableFuture.completedFuture(
+                                            StreamState.ACTIVE);
+                                }
+                                return es
+                                        .getStreamMetadata(
+                                                streamId.asString())
+                                        .thenApply(
+                                                new Function<StreamMetadataResult, StreamState>() {
+                                                    @Override
+                                                    public StreamState apply(
+                                                            final StreamMetadataResult result) {
+                                                        if (result.isStreamDeleted) {
+                                                            return StreamState.HARD_DELETED;
+                                                        }
+                                                        return StreamState.SOFT_DELETED;
+                                                    }
+                                                });
+                            }
+                        });
+
+    }
+
+    private List<EventData> asEventData(final List<CommonEvent> commonEvents) {
+        final List<EventData> list = new ArrayList<>(commonEvents.size());
+        for (final CommonEvent commonEvent : commonEvents) {
+            list.add(ce2edConv.convert(commonEvent));
+        }
+        return list;
+    }
+
+    private List<CommonEvent> asCommonEvents(
+            final List<ResolvedEvent> resolvedEvents) {
+        final List<CommonEvent> list = new ArrayList<>(resolvedEvents.size());
+        for (final ResolvedEvent resolvedEvent : resolvedEvents) {
+            list.add(asCommonEvent(resolvedEvent));
+        }
+        return list;
+    }
+
+    private CommonEvent asCommonEvent(final ResolvedEvent resolvedEvent) {
+        return ed2ceConv.convert(resolvedEvent.event);
+    }
+
+    private void ensureOpen() {
+        if (!open) {
+            open();
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(final Throwable ex) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import org.fuin.esc.api.StreamId;
+import org.fuin.esc.api.Subscription;
+
+/**
+ * Result of subscribing to a stream via the esjc API. The last event number is
+ * updated after every event successfully handled by the subscriber. Hash code
+ * and equals are based on the subscriber ID.
+ */
+public final class ESJCSubscription extends Subscription implements
+        Comparable<ESJCSubscription> {
+
+    private static final long serialVersionUID = 1000L;
+
+    private final int subscriberId;
+
+    /**
+     * Creates a subscription.
+     * 
+     * @param subscriberId
+     *            Uniquely identifies a subscriber.
+     * @param streamId
+     *            Unique stream identifier.
+     * @param lastEventNumber
+     *            Last event seen on the stream.
+     */
+    public ESJCSubscription(final int subscriberId, final StreamId streamId,
+            final Integer lastEventNumber) {
+        super(streamId, lastEventNumber);
+        this.subscriberId = subscriberId;
+    }
+
+    /**
+     * Returns the subscriber ID.
+     * 
+     * @return Uniquely identifies a subscriber.
+     */
+    public final int getSubscriberId() {
+        return subscriberId;
+    }
+
+    /**
+     * Records the number of the last event handled by the subscriber.
+     * 
+     * @param eventNumber
+     *            Event number.
+     */
+    final void checkpoint(final int eventNumber) {
+        setLastEventNumber(eventNumber);
+    }
+
+    @Override
+    public final int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + subscriberId;
+        return result;
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof ESJCSubscription)) {
+            return false;
+        }
+        final ESJCSubscription other = (ESJCSubscription) obj;
+        return (subscriberId == other.subscriberId);
+    }
+
+    @Override
+    public final int compareTo(final ESJCSubscription other) {
+        if (subscriberId > other.subscriberId) {
+            return 1;
+        }
+        if (subscriberId < other.subscriberId) {
+            return -1;
+        }
+        return 0;
+    }
+
+    @Override
+    public final String toString() {
+        return this.getClass().getSimpleName() + "#" + subscriberId;
+    }
+
+}
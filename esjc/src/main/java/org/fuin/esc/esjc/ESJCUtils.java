@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.api.EventNotFoundException;
+import org.fuin.esc.api.StreamDeletedException;
+import org.fuin.esc.api.StreamId;
+import org.fuin.esc.api.StreamNotFoundException;
+import org.fuin.esc.api.StreamReadOnlyException;
+import org.fuin.esc.api.WrongExpectedVersionException;
+
+import com.github.msemys.esjc.EventReadStatus;
+import com.github.msemys.esjc.SliceReadStatus;
+
+/**
+ * Stream checks and error translation shared by the ESJC event store
+ * implementations of the package.
+ */
+final class ESJCUtils {
+
+    private ESJCUtils() {
+        throw new UnsupportedOperationException("It's not allowed to create instances of this utility class");
+    }
+
+    /**
+     * Verifies that events can be appended to or deleted from a stream.
+     * 
+     * @param streamId
+     *            Stream to verify.
+     * 
+     * @throws StreamReadOnlyException
+     *             The stream is a projection.
+     */
+    static void verifyWritable(@NotNull final StreamId streamId) throws StreamReadOnlyException {
+        if (streamId.isProjection()) {
+            throw new StreamReadOnlyException(streamId);
+        }
+    }
+
+    /**
+     * Verifies the status of a slice read from a stream.
+     * 
+     * @param streamId
+     *            Stream that was read.
+     * @param status
+     *            Status of the read operation.
+     * 
+     * @throws StreamDeletedException
+     *             The stream was deleted.
+     * @throws StreamNotFoundException
+     *             The stream does not exist.
+     */
+    static void verifyStream(@NotNull final StreamId streamId, @NotNull final SliceReadStatus status)
+            throws StreamDeletedException, StreamNotFoundException {
+        if (SliceReadStatus.StreamDeleted == status) {
+            throw new StreamDeletedException(streamId);
+        }
+        if (SliceReadStatus.StreamNotFound == status) {
+            throw new StreamNotFoundException(streamId);
+        }
+    }
+
+    /**
+     * Verifies the status of a single event read from a stream.
+     * 
+     * @param streamId
+     *            Stream that was read.
+     * @param eventNumber
+     *            Number of the event that was read.
+     * @param status
+     *            Status of the read operation.
+     * 
+     * @throws StreamNotFoundException
+     *             The stream does not exist.
+     * @throws EventNotFoundException
+     *             The stream has no such event.
+     * @throws StreamDeletedException
+     *             The stream was deleted.
+     */
+    static void verifyEvent(@NotNull final StreamId streamId, final int eventNumber,
+            @NotNull final EventReadStatus status)
+            throws StreamNotFoundException, EventNotFoundException, StreamDeletedException {
+        if (status == EventReadStatus.NoStream) {
+            throw new StreamNotFoundException(streamId);
+        }
+        if (status == EventReadStatus.NotFound) {
+            throw new EventNotFoundException(streamId, eventNumber);
+        }
+        if (status == EventReadStatus.StreamDeleted) {
+            throw new StreamDeletedException(streamId);
+        }
+    }
+
+    /**
+     * Translates the failure of a write operation into the exceptions of the
+     * event store API. A {@link CompletionException} or
+     * {@link ExecutionException} is replaced by its cause.
+     * 
+     * @param streamId
+     *            Stream that was written.
+     * @param expectedVersion
+     *            Expected version of the write operation.
+     * @param ex
+     *            Failure to translate.
+     * @param message
+     *            Message for failures without a matching API exception.
+     * 
+     * @return Exception to throw.
+     */
+    @NotNull
+    static RuntimeException translate(@NotNull final StreamId streamId, final int expectedVersion,
+            @NotNull final Throwable ex, @NotNull final String message) {
+        final Throwable cause;
+        if ((ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null) {
+            cause = ex.getCause();
+        } else {
+            cause = ex;
+        }
+        if (cause instanceof com.github.msemys.esjc.operation.WrongExpectedVersionException) {
+            // TODO Add actual version instead of NULL if ES returns this
+            // some day
+            return new WrongExpectedVersionException(streamId, expectedVersion, null);
+        }
+        if (cause instanceof com.github.msemys.esjc.operation.StreamDeletedException) {
+            return new StreamDeletedException(streamId);
+        }
+        return new RuntimeException(message, cause);
+    }
+
+}
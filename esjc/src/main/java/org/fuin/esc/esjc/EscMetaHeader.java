@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+import javax.validation.constraints.NotNull;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.objects4j.common.Nullable;
+
+/**
+ * Data type and content type read from the {@link EscMeta} envelope of an
+ * event without creating the envelope object. Only envelopes without user meta
+ * data are handled. All others are left to the full deserialization of the
+ * envelope. This class is immutable and thread safe.
+ */
+final class EscMetaHeader {
+
+    private static final Charset UTF8 = Charset.forName("utf-8");
+
+    private static final String DATA_TYPE = "data-type";
+
+    private static final String DATA_CONTENT_TYPE = "data-content-type";
+
+    private static final JsonParserFactory JSON_PARSER_FACTORY = Json
+            .createParserFactory(null);
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final String dataType;
+
+    private final String dataContentType;
+
+    private EscMetaHeader(final String dataType, final String dataContentType) {
+        super();
+        this.dataType = dataType;
+        this.dataContentType = dataContentType;
+    }
+
+    /**
+     * Returns the type of the data.
+     * 
+     * @return Unique name of the data type.
+     */
+    @NotNull
+    public final String getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Returns the unparsed content type of the data.
+     * 
+     * @return Content type string.
+     */
+    @NotNull
+    public final String getDataContentType() {
+        return dataContentType;
+    }
+
+    /**
+     * Reads the header from the meta data of an event.
+     * 
+     * @param metadata
+     *            Meta data in UTF-8 encoding.
+     * @param json
+     *            TRUE if the meta data is JSON, else FALSE for XML.
+     * 
+     * @return Header or <code>null</code> if the envelope contains user meta
+     *         data or is not in the expected format.
+     */
+    @Nullable
+    public static EscMetaHeader parse(@Nullable final byte[] metadata,
+            final boolean json) {
+        if (metadata == null || metadata.length == 0) {
+            return null;
+        }
+        if (json) {
+            return parseJson(metadata);
+        }
+        return parseXml(metadata);
+    }
+
+    private static EscMetaHeader parseJson(final byte[] metadata) {
+        try (final JsonParser parser = JSON_PARSER_FACTORY
+                .createParser(new ByteArrayInputStream(metadata), UTF8)) {
+            if (!parser.hasNext()
+                    || parser.next() != JsonParser.Event.START_OBJECT) {
+                return null;
+            }
+            String dataType = null;
+            String dataContentType = null;
+            while (parser.hasNext()) {
+                final JsonParser.Event event = parser.next();
+                if (event == JsonParser.Event.END_OBJECT) {
+                    return create(dataType, dataContentType);
+                }
+                if (event != JsonParser.Event.KEY_NAME) {
+                    return null;
+                }
+                final String key = parser.getString();
+                if (parser.next() != JsonParser.Event.VALUE_STRING) {
+                    return null;
+                }
+                if (DATA_TYPE.equals(key)) {
+                    dataType = parser.getString();
+                } else if (DATA_CONTENT_TYPE.equals(key)) {
+                    dataContentType = parser.getString();
+                } else {
+                    // User meta data or unknown element
+                    return null;
+                }
+            }
+            return null;
+        } catch (final RuntimeException ex) {
+            // Let the full deserialization report the problem
+            return null;
+        }
+    }
+
+    private static EscMetaHeader parseXml(final byte[] metadata) {
+        try {
+            final XMLStreamReader reader = XML_INPUT_FACTORY
+                    .createXMLStreamReader(new ByteArrayInputStream(metadata),
+                            UTF8.name());
+            try {
+                if (reader.nextTag() != XMLStreamConstants.START_ELEMENT
+                        || !EscMeta.EL_ROOT_NAME
+                                .equals(reader.getLocalName())) {
+                    return null;
+                }
+                String dataType = null;
+                String dataContentType = null;
+                while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    final String name = reader.getLocalName();
+                    if (DATA_TYPE.equals(name)) {
+                        dataType = reader.getElementText();
+                    } else if (DATA_CONTENT_TYPE.equals(name)) {
+                        dataContentType = reader.getElementText();
+                    } else {
+                        // User meta data or unknown element
+                        return null;
+                    }
+                }
+                return create(dataType, dataContentType);
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException | RuntimeException ex) {
+            // Let the full deserialization report the problem
+            return null;
+        }
+    }
+
+    private static EscMetaHeader create(final String dataType,
+            final String dataContentType) {
+        if (dataType == null || dataContentType == null) {
+            return null;
+        }
+        return new EscMetaHeader(dataType, dataContentType);
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                Boolean.FALSE);
+        return factory;
+    }
+
+}
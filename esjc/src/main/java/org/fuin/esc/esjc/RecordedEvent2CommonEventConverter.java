@@ -18,6 +18,8 @@
 package org.fuin.esc.esjc;
 
 import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.validation.constraints.NotNull;
 
@@ -37,12 +39,29 @@ import org.fuin.objects4j.common.Contract;
 import com.github.msemys.esjc.RecordedEvent;
 
 /**
- * Converts a {@link RecordedEvent} into {@link CommonEvent}.
+ * Converts a {@link RecordedEvent} into {@link CommonEvent}. Events without
+ * user meta data take a fast path: Only data type and content type are read
+ * from the {@link EscMeta} envelope and the deserializer resolved for an event
+ * type is reused for all following events of that type. This class is thread
+ * safe if the deserializers are.
  */
 public final class RecordedEvent2CommonEventConverter implements Converter<RecordedEvent, CommonEvent> {
 
+    private static final EnhancedMimeType JSON_UTF8 = EnhancedMimeType
+            .intern(EnhancedMimeType.create("application", "json", Charset.forName("utf-8")));
+
+    private static final EnhancedMimeType XML_UTF8 = EnhancedMimeType
+            .intern(EnhancedMimeType.create("application", "xml", Charset.forName("utf-8")));
+
+    /** Maximum number of event types cached per envelope format. */
+    private static final int MAX_EVENT_TYPES = 1000;
+
     private final DeserializerRegistry deserRegistry;
 
+    private final Map<String, DataConverter> jsonConverters;
+
+    private final Map<String, DataConverter> xmlConverters;
+
     /**
      * Constructor with all mandatory data.
      * 
@@ -53,6 +72,8 @@ public final class RecordedEvent2CommonEventConverter implements Converter<Recor
         super();
         Contract.requireArgNotNull("deserRegistry", deserRegistry);
         this.deserRegistry = deserRegistry;
+        this.jsonConverters = new ConcurrentHashMap<>();
+        this.xmlConverters = new ConcurrentHashMap<>();
     }
 
     /**
@@ -66,9 +87,33 @@ public final class RecordedEvent2CommonEventConverter implements Converter<Recor
     @Override
     public final CommonEvent convert(final RecordedEvent eventData) {
 
+        final EscMetaHeader header = EscMetaHeader.parse(eventData.metadata, eventData.isJson);
+        if (header == null || !eventData.eventType.equals(header.getDataType())) {
+            return convertEscMeta(eventData);
+        }
+        final DataConverter converter = dataConverter(eventData.eventType, eventData.isJson,
+                header.getDataContentType());
+        if (converter == null) {
+            return convertEscMeta(eventData);
+        }
+        final Object data = converter.deserializer.unmarshal(eventData.data, converter.mimeType);
+        return new SimpleCommonEvent(new EventId(eventData.eventId), converter.dataType, data);
+
+    }
+
+    /**
+     * Converts event data into a common event by deserializing the complete
+     * {@link EscMeta} envelope.
+     * 
+     * @param eventData
+     *            Data to convert.
+     * 
+     * @return Converted data das event.
+     */
+    final CommonEvent convertEscMeta(final RecordedEvent eventData) {
+
         final EnhancedMimeType escMetaMimeType = metaMimeType(eventData.isJson);
-        final SerializedDataType escSerMetaType = new SerializedDataType(EscMeta.TYPE.asBaseType());
-        final Deserializer escMetaDeserializer = deserRegistry.getDeserializer(escSerMetaType,
+        final Deserializer escMetaDeserializer = deserRegistry.getDeserializer(EscMeta.SER_TYPE,
                 escMetaMimeType);
         final EscMeta escMeta = escMetaDeserializer.unmarshal(eventData.metadata, escMetaMimeType);
         final EnhancedMimeType metaMimeType = escMeta.getMetaContentType();
@@ -108,21 +153,49 @@ public final class RecordedEvent2CommonEventConverter implements Converter<Recor
 
         if (data instanceof Base64Data) {
             final Base64Data base64Data = (Base64Data) data;
-            return dataDeserializer.unmarshal(base64Data.getDecoded(), dataMimeType);
+            return dataDeserializer.unmarshal(base64Data.openDecoded(), dataMimeType);
         }
 
         // Currently only 'base64' is supported
         final Deserializer base64Deserializer = deserRegistry.getDeserializer(Base64Data.SER_TYPE,
                 escMetaMimeType);
         final Base64Data base64Data = base64Deserializer.unmarshal(data, metaMimeType);
-        return dataDeserializer.unmarshal(base64Data.getDecoded(), dataMimeType);
+        return dataDeserializer.unmarshal(base64Data.openDecoded(), dataMimeType);
+    }
+
+    private DataConverter dataConverter(final String eventType, final boolean json,
+            final String dataContentType) {
+        final Map<String, DataConverter> converters;
+        if (json) {
+            converters = jsonConverters;
+        } else {
+            converters = xmlConverters;
+        }
+        final DataConverter cached = converters.get(eventType);
+        if (cached != null && cached.contentType.equals(dataContentType)) {
+            return cached;
+        }
+        final EnhancedMimeType mimeType = EnhancedMimeType.intern(dataContentType);
+        if (mimeType.getParameter("transfer-encoding") != null) {
+            // Base64 encoded data is left to the full conversion
+            return null;
+        }
+        final Deserializer deserializer = deserRegistry.getDeserializer(new SerializedDataType(eventType),
+                mimeType);
+        final DataConverter converter = new DataConverter(dataContentType, new TypeName(eventType), mimeType,
+                deserializer);
+        if (converters.size() >= MAX_EVENT_TYPES) {
+            converters.clear();
+        }
+        converters.put(eventType, converter);
+        return converter;
     }
 
     private EnhancedMimeType metaMimeType(final boolean json) {
         if (json) {
-            return EnhancedMimeType.create("application", "json", Charset.forName("utf-8"));
+            return JSON_UTF8;
         }
-        return EnhancedMimeType.create("application", "xml", Charset.forName("utf-8"));
+        return XML_UTF8;
     }
 
     @Override
@@ -135,4 +208,29 @@ public final class RecordedEvent2CommonEventConverter implements Converter<Recor
         return CommonEvent.class;
     }
 
+    /**
+     * Everything required to convert the data of an event type with a given
+     * content type.
+     */
+    private static final class DataConverter {
+
+        private final String contentType;
+
+        private final TypeName dataType;
+
+        private final EnhancedMimeType mimeType;
+
+        private final Deserializer deserializer;
+
+        public DataConverter(final String contentType, final TypeName dataType,
+                final EnhancedMimeType mimeType, final Deserializer deserializer) {
+            super();
+            this.contentType = contentType;
+            this.dataType = dataType;
+            this.mimeType = mimeType;
+            this.deserializer = deserializer;
+        }
+
+    }
+
 }
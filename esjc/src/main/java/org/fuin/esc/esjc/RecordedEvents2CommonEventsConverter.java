@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Nullable;
+
+import com.github.msemys.esjc.RecordedEvent;
+
+/**
+ * Converts a list of {@link RecordedEvent}s into {@link CommonEvent}s. Lists
+ * with at least a given number of events are split into chunks that are
+ * converted in parallel by a fork/join pool. The result always has the same
+ * order as the input. Parallel conversion requires that all deserializers
+ * used by the converter are thread safe.
+ */
+final class RecordedEvents2CommonEventsConverter {
+
+    /** Number of chunks created per thread of the pool. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final RecordedEvent2CommonEventConverter converter;
+
+    private final ForkJoinPool pool;
+
+    private final int threshold;
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param converter
+     *            Converter for a single event.
+     * @param pool
+     *            Pool used for parallel conversion or <code>null</code> to
+     *            always convert sequentially.
+     * @param threshold
+     *            Minimum number of events to convert in parallel.
+     */
+    public RecordedEvents2CommonEventsConverter(
+            @NotNull final RecordedEvent2CommonEventConverter converter,
+            @Nullable final ForkJoinPool pool, final int threshold) {
+        super();
+        Contract.requireArgNotNull("converter", converter);
+        Contract.requireArgMin("threshold", threshold, 1);
+        this.converter = converter;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Converts the events.
+     * 
+     * @param events
+     *            Events to convert.
+     * 
+     * @return Converted events in the same order.
+     */
+    @NotNull
+    public final List<CommonEvent> convert(
+            @NotNull final List<RecordedEvent> events) {
+        final int size = events.size();
+        if (pool == null || size < threshold) {
+            final List<CommonEvent> list = new ArrayList<>(size);
+            for (final RecordedEvent event : events) {
+                list.add(converter.convert(event));
+            }
+            return list;
+        }
+        final CommonEvent[] result = new CommonEvent[size];
+        final int chunkSize = Math.max(1,
+                size / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        pool.invoke(new ConvertTask(events, result, 0, size, chunkSize));
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Splits the range until it is not larger than the chunk size and
+     * converts the events into the corresponding slots of the result array.
+     */
+    private final class ConvertTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1000L;
+
+        private final List<RecordedEvent> events;
+
+        private final CommonEvent[] result;
+
+        private final int from;
+
+        private final int to;
+
+        private final int chunkSize;
+
+        public ConvertTask(final List<RecordedEvent> events,
+                final CommonEvent[] result, final int from, final int to,
+                final int chunkSize) {
+            super();
+            this.events = events;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    result[i] = converter.convert(events.get(i));
+                }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new ConvertTask(events, result, from, middle, chunkSize),
+                    new ConvertTask(events, result, middle, to, chunkSize));
+        }
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.SerDeserializer;
+
+/**
+ * Passes byte arrays through as they are. The content type is always
+ * "application/octet-stream".
+ */
+public final class BinaryDeSerializer implements SerDeserializer {
+
+    private static final EnhancedMimeType MIME_TYPE = EnhancedMimeType.intern("application/octet-stream");
+
+    @Override
+    public final EnhancedMimeType getMimeType() {
+        return MIME_TYPE;
+    }
+
+    @Override
+    public final <T> byte[] marshal(final T obj) {
+        return (byte[]) obj;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final <T> T unmarshal(final Object data, final EnhancedMimeType mimeType) {
+        return (T) data;
+    }
+
+}
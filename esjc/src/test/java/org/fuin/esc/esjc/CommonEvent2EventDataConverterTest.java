@@ -27,11 +27,15 @@ import org.fuin.esc.api.CommonEvent;
 import org.fuin.esc.api.EventId;
 import org.fuin.esc.api.SimpleCommonEvent;
 import org.fuin.esc.api.TypeName;
+import org.fuin.esc.spi.Base64Data;
+import org.fuin.esc.spi.Base64Data.Base64DataJsonDeSerializer;
 import org.fuin.esc.spi.EnhancedMimeType;
 import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.EscMetaJsonDeSerializer;
 import org.fuin.esc.spi.JsonDeSerializer;
 import org.fuin.esc.spi.SerializedDataType;
 import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.fuin.esc.spi.XmlDeSerializer;
 import org.junit.Test;
 
 import com.github.msemys.esjc.EventData;
@@ -81,5 +85,61 @@ public final class CommonEvent2EventDataConverterTest {
 
     }
 
+    @Test
+    public final void testConvertBinaryXml() {
+
+        // PREPARE
+        final EnhancedMimeType targetContentType = EnhancedMimeType.create("application", "xml",
+                Charset.forName("utf-8"));
+        final SimpleSerializerDeserializerRegistry serRegistry = new SimpleSerializerDeserializerRegistry();
+        serRegistry.addSerializer(new SerializedDataType("MyBinary"), new BinaryDeSerializer());
+        serRegistry.addSerializer(new SerializedDataType(EscMeta.TYPE.asBaseType()),
+                new XmlDeSerializer(false, EscMeta.class, Base64Data.class));
+
+        final byte[] data = new byte[] { 0, 1, 2, (byte) 0xFF };
+        final CommonEvent commonEvent = new SimpleCommonEvent(new EventId(), new TypeName("MyBinary"), data);
+
+        final CommonEvent2EventDataConverter testee = new CommonEvent2EventDataConverter(serRegistry,
+                targetContentType);
+
+        // TEST
+        final EventData eventData = testee.convert(commonEvent);
+
+        // VERIFY
+        assertThat(eventData.isJsonData).isFalse();
+        assertThat(eventData.data).isEqualTo(data);
+        assertThat(new String(eventData.metadata, Charset.forName("utf-8")))
+                .contains("<data-content-type>application/octet-stream</data-content-type>");
+
+    }
+
+    @Test
+    public final void testConvertBinaryJson() {
+
+        // PREPARE
+        final EnhancedMimeType targetContentType = EnhancedMimeType.create("application", "json",
+                Charset.forName("utf-8"));
+        final SimpleSerializerDeserializerRegistry serRegistry = new SimpleSerializerDeserializerRegistry();
+        serRegistry.addSerializer(new SerializedDataType("MyBinary"), new BinaryDeSerializer());
+        serRegistry.addSerializer(EscMeta.SER_TYPE, new EscMetaJsonDeSerializer());
+        serRegistry.addSerializer(Base64Data.SER_TYPE, new Base64DataJsonDeSerializer());
+
+        final byte[] data = new byte[] { 0, 1, 2, (byte) 0xFF };
+        final CommonEvent commonEvent = new SimpleCommonEvent(new EventId(), new TypeName("MyBinary"), data);
+
+        final CommonEvent2EventDataConverter testee = new CommonEvent2EventDataConverter(serRegistry,
+                targetContentType);
+
+        // TEST
+        final EventData eventData = testee.convert(commonEvent);
+
+        // VERIFY
+        assertThat(eventData.isJsonData).isTrue();
+        assertThat(eventData.data).isNotEqualTo(data);
+        assertThat(new String(eventData.metadata, Charset.forName("utf-8")))
+                .contains("\"data-content-type\":\"application/octet-stream; transfer-encoding=base64\"");
+
+    }
+
 }
 // CHECKSTYLE:ON
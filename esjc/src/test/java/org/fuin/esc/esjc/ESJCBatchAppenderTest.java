@@ -0,0 +1,277 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.json.Json;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.ProjectionStreamId;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.api.SimpleStreamId;
+import org.fuin.esc.api.StreamReadOnlyException;
+import org.fuin.esc.api.TypeName;
+import org.fuin.esc.api.WrongExpectedVersionException;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.JsonDeSerializer;
+import org.fuin.esc.spi.SerializedDataType;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.github.msemys.esjc.EventData;
+import com.github.msemys.esjc.EventStore;
+import com.github.msemys.esjc.ExpectedVersion;
+import com.github.msemys.esjc.Position;
+import com.github.msemys.esjc.WriteResult;
+
+/**
+ * Test for {@link ESJCBatchAppender} class.
+ */
+// CHECKSTYLE:OFF Test code
+@RunWith(MockitoJUnitRunner.class)
+public class ESJCBatchAppenderTest {
+
+    @Mock
+    private EventStore es;
+
+    private ExecutorService executor;
+
+    private ESJCBatchAppender testee;
+
+    @Before
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        final JsonDeSerializer deSer = new JsonDeSerializer();
+        registry.add(new SerializedDataType("MyData"), "application/json", deSer);
+        registry.add(new SerializedDataType(EscMeta.TYPE.asBaseType()), "application/json", deSer);
+        testee = new ESJCBatchAppender(es, new CommonEvent2EventDataConverter(registry,
+                EnhancedMimeType.create("application", "json", Charset.forName("utf-8"))), 2);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCombineChainedRequests() throws Exception {
+
+        // PREPARE
+        when(es.appendToStream(eq("MyStream"), any(ExpectedVersion.class), any(Iterable.class)))
+                .thenReturn(CompletableFuture.completedFuture(new WriteResult(4, new Position(1, 1))));
+        final SimpleStreamId streamId = new SimpleStreamId("MyStream");
+        final List<AppendRequest> requests = Arrays.asList(
+                new AppendRequest(streamId, 0, Arrays.asList(createEvent(), createEvent())),
+                new AppendRequest(streamId, 2, Arrays.asList(createEvent())),
+                new AppendRequest(streamId, 3, Arrays.asList(createEvent())));
+
+        // TEST
+        final List<CompletableFuture<Integer>> futures = testee.append(requests, executor);
+
+        // VERIFY
+        assertThat(futures).hasSize(3);
+        assertThat(futures.get(0).get()).isEqualTo(2);
+        assertThat(futures.get(1).get()).isEqualTo(3);
+        assertThat(futures.get(2).get()).isEqualTo(4);
+        final ArgumentCaptor<Iterable> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(es, times(1)).appendToStream(eq("MyStream"), any(ExpectedVersion.class), captor.capture());
+        assertThat(toList(captor.getValue())).hasSize(4);
+
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSeparateStreamsAndGaps() throws Exception {
+
+        // PREPARE
+        when(es.appendToStream(eq("A"), any(ExpectedVersion.class), any(Iterable.class)))
+                .thenReturn(CompletableFuture.completedFuture(new WriteResult(0, new Position(1, 1))),
+                        CompletableFuture.completedFuture(new WriteResult(5, new Position(2, 2))));
+        when(es.appendToStream(eq("B"), any(ExpectedVersion.class), any(Iterable.class)))
+                .thenReturn(CompletableFuture.completedFuture(new WriteResult(0, new Position(3, 3))));
+        final SimpleStreamId a = new SimpleStreamId("A");
+        final SimpleStreamId b = new SimpleStreamId("B");
+        final List<AppendRequest> requests = Arrays.asList(new AppendRequest(a, createEvent()),
+                new AppendRequest(b, createEvent()), new AppendRequest(a, 5, Arrays.asList(createEvent())));
+
+        // TEST
+        final List<CompletableFuture<Integer>> futures = testee.append(requests, executor);
+
+        // VERIFY
+        assertThat(futures.get(0).get()).isEqualTo(0);
+        assertThat(futures.get(1).get()).isEqualTo(0);
+        assertThat(futures.get(2).get()).isEqualTo(5);
+        verify(es, times(2)).appendToStream(eq("A"), any(ExpectedVersion.class), any(Iterable.class));
+        verify(es, times(1)).appendToStream(eq("B"), any(ExpectedVersion.class), any(Iterable.class));
+
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testWrongExpectedVersionPerRequest() throws Exception {
+
+        // PREPARE
+        when(es.appendToStream(eq("MyStream"), any(ExpectedVersion.class), any(Iterable.class)))
+                .thenReturn(failed(new com.github.msemys.esjc.operation.WrongExpectedVersionException("Test")));
+        final SimpleStreamId streamId = new SimpleStreamId("MyStream");
+        final List<AppendRequest> requests = Arrays.asList(
+                new AppendRequest(streamId, 7, Arrays.asList(createEvent())),
+                new AppendRequest(streamId, 8, Arrays.asList(createEvent())));
+
+        // TEST
+        final List<CompletableFuture<Integer>> futures = testee.append(requests, executor);
+
+        // VERIFY
+        final Throwable first = causeOf(futures.get(0));
+        final Throwable second = causeOf(futures.get(1));
+        assertThat(first).isInstanceOf(WrongExpectedVersionException.class);
+        assertThat(second).isInstanceOf(WrongExpectedVersionException.class);
+        assertThat(((WrongExpectedVersionException) first).getExpected()).isEqualTo(7);
+        assertThat(((WrongExpectedVersionException) second).getExpected()).isEqualTo(8);
+
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testQueueStreamsWithoutBlocking() throws Exception {
+
+        // PREPARE
+        final CompletableFuture<WriteResult> resultA = new CompletableFuture<>();
+        final CompletableFuture<WriteResult> resultB = new CompletableFuture<>();
+        when(es.appendToStream(eq("A"), any(ExpectedVersion.class), any(Iterable.class))).thenReturn(resultA);
+        when(es.appendToStream(eq("B"), any(ExpectedVersion.class), any(Iterable.class))).thenReturn(resultB);
+        when(es.appendToStream(eq("C"), any(ExpectedVersion.class), any(Iterable.class)))
+                .thenReturn(CompletableFuture.completedFuture(new WriteResult(0, new Position(1, 1))));
+        final List<AppendRequest> requests = Arrays.asList(
+                new AppendRequest(new SimpleStreamId("A"), createEvent()),
+                new AppendRequest(new SimpleStreamId("B"), createEvent()),
+                new AppendRequest(new SimpleStreamId("C"), createEvent()));
+
+        // TEST
+        final List<CompletableFuture<Integer>> futures = testee.append(requests, executor);
+
+        // VERIFY
+        verify(es, times(0)).appendToStream(eq("C"), any(ExpectedVersion.class), any(Iterable.class));
+        resultA.complete(new WriteResult(0, new Position(2, 2)));
+        assertThat(futures.get(0).get()).isEqualTo(0);
+        assertThat(futures.get(2).get()).isEqualTo(0);
+        assertThat(futures.get(1).isDone()).isFalse();
+        resultB.complete(new WriteResult(0, new Position(3, 3)));
+        assertThat(futures.get(1).get()).isEqualTo(0);
+
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testManySynchronousFailures() throws Exception {
+
+        // PREPARE
+        when(es.appendToStream(any(String.class), any(ExpectedVersion.class), any(Iterable.class)))
+                .thenThrow(new IllegalStateException("Test"));
+        final List<AppendRequest> requests = new ArrayList<>();
+        final SimpleStreamId streamId = new SimpleStreamId("MyStream");
+        for (int i = 0; i < 20000; i++) {
+            // Same expected version, so every request is a batch of its own
+            requests.add(new AppendRequest(streamId, 0, Arrays.asList(createEvent())));
+        }
+        for (int i = 0; i < 5000; i++) {
+            requests.add(new AppendRequest(new SimpleStreamId("Stream" + i), createEvent()));
+        }
+
+        // TEST
+        final List<CompletableFuture<Integer>> futures = testee.append(requests, executor);
+
+        // VERIFY
+        assertThat(futures).hasSize(requests.size());
+        for (final CompletableFuture<Integer> future : futures) {
+            assertThat(causeOf(future).getCause()).isInstanceOf(IllegalStateException.class);
+        }
+
+    }
+
+    @Test
+    public void testAppendToProjection() throws Exception {
+
+        // TEST
+        final List<CompletableFuture<Integer>> futures = testee
+                .append(Arrays.asList(new AppendRequest(new ProjectionStreamId("MyProjection"), createEvent())), executor);
+
+        // VERIFY
+        assertThat(causeOf(futures.get(0))).isInstanceOf(StreamReadOnlyException.class);
+        verifyZeroInteractions(es);
+
+    }
+
+    private static CommonEvent createEvent() {
+        return new SimpleCommonEvent(new EventId(), new TypeName("MyData"),
+                Json.createObjectBuilder().add("id", 1).build());
+    }
+
+    private static List<EventData> toList(final Iterable<EventData> it) {
+        final List<EventData> list = new ArrayList<>();
+        for (final EventData eventData : it) {
+            list.add(eventData);
+        }
+        return list;
+    }
+
+    private static <T> CompletableFuture<T> failed(final Throwable ex) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+
+    private static Throwable causeOf(final CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+            fail("Expected an exception");
+            return null;
+        } catch (final ExecutionException ex) {
+            return ex.getCause();
+        }
+    }
+
+}
+// CHECKSTYLE:ON
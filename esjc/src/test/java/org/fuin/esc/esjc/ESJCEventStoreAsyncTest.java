@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.json.Json;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.ProjectionStreamId;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.api.SimpleStreamId;
+import org.fuin.esc.api.StreamDeletedException;
+import org.fuin.esc.api.StreamReadOnlyException;
+import org.fuin.esc.api.TypeName;
+import org.fuin.esc.api.WrongExpectedVersionException;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.JsonDeSerializer;
+import org.fuin.esc.spi.SerializedDataType;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.github.msemys.esjc.EventStore;
+import com.github.msemys.esjc.ExpectedVersion;
+import com.github.msemys.esjc.Position;
+import com.github.msemys.esjc.WriteResult;
+
+/**
+ * Test for {@link ESJCEventStoreAsync} class.
+ */
+// CHECKSTYLE:OFF Test code
+@RunWith(MockitoJUnitRunner.class)
+public class ESJCEventStoreAsyncTest {
+
+    @Mock
+    private EventStore es;
+
+    private ESJCEventStoreAsync testee;
+
+    @Before
+    public void setup() {
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        final JsonDeSerializer deSer = new JsonDeSerializer();
+        registry.add(new SerializedDataType("MyData"), "application/json", deSer);
+        registry.add(new SerializedDataType(EscMeta.TYPE.asBaseType()), "application/json", deSer);
+        testee = new ESJCEventStoreAsync(es, registry, registry,
+                EnhancedMimeType.create("application", "json", Charset.forName("utf-8")));
+    }
+
+    @Test
+    public void testOpenClose() throws Exception {
+
+        // TEST
+        testee.open().get();
+        testee.close();
+
+        // VERIFY
+        verify(es).connect();
+        verify(es).disconnect();
+
+    }
+
+    @Test
+    public void testAppendToStream() throws Exception {
+
+        // PREPARE
+        when(es.appendToStream(eq("MyStream"), any(ExpectedVersion.class), any(Iterable.class)))
+                .thenReturn(CompletableFuture.completedFuture(new WriteResult(3, new Position(1, 1))));
+
+        // TEST
+        final Integer result = testee.appendToStream(new SimpleStreamId("MyStream"), createEvent()).get();
+
+        // VERIFY
+        assertThat(result).isEqualTo(3);
+
+    }
+
+    @Test
+    public void testAppendToStreamWrongExpectedVersion() throws Exception {
+
+        // PREPARE
+        when(es.appendToStream(eq("MyStream"), any(ExpectedVersion.class), any(Iterable.class)))
+                .thenReturn(failed(new com.github.msemys.esjc.operation.WrongExpectedVersionException("Test")));
+
+        // TEST
+        final CompletableFuture<Integer> future = testee.appendToStream(new SimpleStreamId("MyStream"), 1,
+                createEvent());
+
+        // VERIFY
+        assertThat(causeOf(future)).isInstanceOf(WrongExpectedVersionException.class);
+
+    }
+
+    @Test
+    public void testAppendToProjection() throws Exception {
+
+        // TEST
+        final CompletableFuture<Integer> future = testee
+                .appendToStream(new ProjectionStreamId("MyProjection"), createEvent());
+
+        // VERIFY
+        assertThat(causeOf(future)).isInstanceOf(StreamReadOnlyException.class);
+        verifyZeroInteractions(es);
+
+    }
+
+    @Test
+    public void testDeleteStreamDeleted() throws Exception {
+
+        // PREPARE
+        when(es.deleteStream(eq("MyStream"), any(ExpectedVersion.class), anyBoolean()))
+                .thenReturn(failed(new com.github.msemys.esjc.operation.StreamDeletedException("Test")));
+
+        // TEST
+        final CompletableFuture<Void> future = testee.deleteStream(new SimpleStreamId("MyStream"), true);
+
+        // VERIFY
+        assertThat(causeOf(future)).isInstanceOf(StreamDeletedException.class);
+
+    }
+
+    private static CommonEvent createEvent() {
+        return new SimpleCommonEvent(new EventId(), new TypeName("MyData"),
+                Json.createObjectBuilder().add("id", 1).build());
+    }
+
+    private static <T> CompletableFuture<T> failed(final Throwable ex) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+
+    private static Throwable causeOf(final CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+            fail("Expected an exception");
+            return null;
+        } catch (final ExecutionException ex) {
+            return ex.getCause();
+        }
+    }
+
+}
+// CHECKSTYLE:ON
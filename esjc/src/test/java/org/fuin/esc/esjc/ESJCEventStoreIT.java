@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EscApiUtils;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.api.SimpleStreamId;
+import org.fuin.esc.api.StreamId;
+import org.fuin.esc.api.Subscription;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.EscEvent;
+import org.fuin.esc.spi.EscEvents;
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.SerializedDataType;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.fuin.esc.spi.XmlDeSerializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.msemys.esjc.EventStoreBuilder;
+
+/**
+ * Tests the {@link ESJCEventStore} class against a running event store.
+ */
+// CHECKSTYLE:OFF Test
+public class ESJCEventStoreIT {
+
+    private static final int MAX_TRIES = 100;
+
+    private ESJCEventStore testee;
+
+    @Before
+    public void setup() {
+
+        final XmlDeSerializer xmlDeSer = new XmlDeSerializer(false, MyEvent.class, EscEvent.class,
+                EscEvents.class, EscMeta.class);
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        registry.add(new SerializedDataType(MyEvent.TYPE.asBaseType()), "application/xml", xmlDeSer);
+        registry.add(new SerializedDataType(EscEvent.TYPE.asBaseType()), "application/xml", xmlDeSer);
+        registry.add(new SerializedDataType(EscEvents.TYPE.asBaseType()), "application/xml", xmlDeSer);
+        registry.add(new SerializedDataType(EscMeta.TYPE.asBaseType()), "application/xml", xmlDeSer);
+
+        final com.github.msemys.esjc.EventStore es = EventStoreBuilder.newBuilder()
+                .singleNodeAddress("127.0.0.1", 1113).build();
+        testee = new ESJCEventStore(es, registry, registry,
+                EnhancedMimeType.create("application", "xml", Charset.forName("utf-8")));
+        testee.open();
+
+    }
+
+    @After
+    public void teardown() {
+        testee.close();
+        testee = null;
+    }
+
+    @Test
+    public void testSubscribeToStream() {
+
+        // PREPARE
+        final StreamId streamId = new SimpleStreamId("MySubscribedStream-" + UUID.randomUUID());
+        final CommonEvent eventOne = createEvent("One");
+        final CommonEvent eventTwo = createEvent("Two");
+        final CommonEvent eventThree = createEvent("Three");
+        testee.appendToStream(streamId, eventOne);
+        final List<CommonEvent> fromFirst = new CopyOnWriteArrayList<>();
+        final List<CommonEvent> newOnly = new CopyOnWriteArrayList<>();
+
+        // TEST
+        final Subscription subscriptionFirst = testee.subscribeToStream(streamId, 0,
+                (subscription, event) -> fromFirst.add(event), (subscription, exception) -> {
+                    // Not used
+                });
+        final Subscription subscriptionNew = testee.subscribeToStream(streamId,
+                EscApiUtils.SUBSCRIBE_TO_NEW_EVENTS, (subscription, event) -> newOnly.add(event),
+                (subscription, exception) -> {
+                    // Not used
+                });
+        testee.appendToStream(streamId, eventTwo, eventThree);
+
+        // VERIFY
+        waitFor(() -> fromFirst.size() == 3 && newOnly.size() == 2, MAX_TRIES);
+        assertThat(fromFirst).containsExactly(eventOne, eventTwo, eventThree);
+        assertThat(newOnly).containsExactly(eventTwo, eventThree);
+        waitFor(() -> Integer.valueOf(2).equals(subscriptionFirst.getLastEventNumber()), MAX_TRIES);
+        waitFor(() -> Integer.valueOf(2).equals(subscriptionNew.getLastEventNumber()), MAX_TRIES);
+
+        testee.unsubscribeFromStream(subscriptionFirst);
+        testee.unsubscribeFromStream(subscriptionNew);
+
+    }
+
+    @Test
+    public void testSubscriberFailureDropsSubscription() {
+
+        // PREPARE
+        final StreamId streamId = new SimpleStreamId("MyFailingStream-" + UUID.randomUUID());
+        testee.appendToStream(streamId, createEvent("One"), createEvent("Two"));
+        final List<Exception> dropped = new CopyOnWriteArrayList<>();
+
+        // TEST
+        final Subscription subscription = testee.subscribeToStream(streamId, 0, (s, event) -> {
+            throw new IllegalStateException("Test");
+        }, (s, exception) -> dropped.add(exception));
+
+        // VERIFY
+        waitFor(() -> dropped.size() == 1, MAX_TRIES);
+        assertThat(dropped.get(0)).isInstanceOf(IllegalStateException.class);
+        assertThat(subscription.getLastEventNumber()).isNull();
+
+    }
+
+    private static CommonEvent createEvent(final String description) {
+        final MyEvent event = new MyEvent(description);
+        return new SimpleCommonEvent(new EventId(event.getId()), MyEvent.TYPE, event);
+    }
+
+    private static void waitFor(final Supplier<Boolean> finished, final int maxTries) {
+        int tries = 0;
+        while (!finished.get() && (tries < maxTries)) {
+            try {
+                Thread.sleep(100);
+            } catch (final InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+            tries++;
+        }
+        if (!finished.get()) {
+            throw new IllegalStateException("Waiting for result failed!");
+        }
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fuin.utils4j.Utils4J.deserialize;
+import static org.fuin.utils4j.Utils4J.serialize;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+
+import org.fuin.esc.api.SimpleStreamId;
+import org.fuin.esc.api.StreamId;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link ESJCSubscription}.
+ */
+// CHECKSTYLE:OFF Test code
+public class ESJCSubscriptionTest {
+
+    @Test
+    public void testSerDeserialize() {
+
+        // PREPARE
+        final StreamId streamId = new SimpleStreamId("MyStream");
+        final ESJCSubscription original = new ESJCSubscription(4711, streamId, 1);
+
+        // TEST
+        final ESJCSubscription copy = deserialize(serialize(original));
+
+        // VERIFY
+        assertThat(copy).isEqualTo(original);
+        assertThat(copy.getLastEventNumber()).isEqualTo(1);
+
+    }
+
+    @Test
+    public void testCheckpoint() {
+
+        // PREPARE
+        final ESJCSubscription testee = new ESJCSubscription(4711, new SimpleStreamId("MyStream"), null);
+
+        // TEST
+        testee.checkpoint(5);
+
+        // VERIFY
+        assertThat(testee.getLastEventNumber()).isEqualTo(5);
+
+    }
+
+    @Test
+    public void testEqualsHashCode() {
+        EqualsVerifier.forClass(ESJCSubscription.class).suppress(Warning.ALL_FIELDS_SHOULD_BE_USED).verify();
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import org.fuin.esc.api.EventNotFoundException;
+import org.fuin.esc.api.ProjectionStreamId;
+import org.fuin.esc.api.SimpleStreamId;
+import org.fuin.esc.api.StreamDeletedException;
+import org.fuin.esc.api.StreamNotFoundException;
+import org.fuin.esc.api.StreamReadOnlyException;
+import org.fuin.esc.api.WrongExpectedVersionException;
+import org.junit.Test;
+
+import com.github.msemys.esjc.EventReadStatus;
+import com.github.msemys.esjc.SliceReadStatus;
+
+/**
+ * Test for {@link ESJCUtils} class.
+ */
+// CHECKSTYLE:OFF Test code
+public class ESJCUtilsTest {
+
+    private static final SimpleStreamId STREAM_ID = new SimpleStreamId("MyStream");
+
+    @Test
+    public void testTranslate() {
+
+        // TEST & VERIFY
+        final RuntimeException wrongVersion = ESJCUtils.translate(STREAM_ID, 5,
+                new ExecutionException(new com.github.msemys.esjc.operation.WrongExpectedVersionException("Test")),
+                "Error");
+        assertThat(wrongVersion).isInstanceOf(WrongExpectedVersionException.class);
+        assertThat(((WrongExpectedVersionException) wrongVersion).getExpected()).isEqualTo(5);
+
+        assertThat(ESJCUtils.translate(STREAM_ID, 5,
+                new CompletionException(new com.github.msemys.esjc.operation.StreamDeletedException("Test")),
+                "Error")).isInstanceOf(StreamDeletedException.class);
+
+        final IllegalStateException cause = new IllegalStateException("Test");
+        final RuntimeException other = ESJCUtils.translate(STREAM_ID, 5, cause, "Error");
+        assertThat(other).hasMessage("Error");
+        assertThat(other.getCause()).isSameAs(cause);
+
+    }
+
+    @Test
+    public void testVerifyStream() {
+
+        // TEST & VERIFY
+        ESJCUtils.verifyStream(STREAM_ID, SliceReadStatus.Success);
+        try {
+            ESJCUtils.verifyStream(STREAM_ID, SliceReadStatus.StreamDeleted);
+            fail("Expected an exception");
+        } catch (final StreamDeletedException ex) {
+            assertThat(ex.getStreamId()).isEqualTo(STREAM_ID);
+        }
+        try {
+            ESJCUtils.verifyStream(STREAM_ID, SliceReadStatus.StreamNotFound);
+            fail("Expected an exception");
+        } catch (final StreamNotFoundException ex) {
+            assertThat(ex.getStreamId()).isEqualTo(STREAM_ID);
+        }
+
+    }
+
+    @Test
+    public void testVerifyEvent() {
+
+        // TEST & VERIFY
+        ESJCUtils.verifyEvent(STREAM_ID, 1, EventReadStatus.Success);
+        try {
+            ESJCUtils.verifyEvent(STREAM_ID, 1, EventReadStatus.NotFound);
+            fail("Expected an exception");
+        } catch (final EventNotFoundException ex) {
+            // OK
+        }
+        try {
+            ESJCUtils.verifyEvent(STREAM_ID, 1, EventReadStatus.NoStream);
+            fail("Expected an exception");
+        } catch (final StreamNotFoundException ex) {
+            // OK
+        }
+        try {
+            ESJCUtils.verifyEvent(STREAM_ID, 1, EventReadStatus.StreamDeleted);
+            fail("Expected an exception");
+        } catch (final StreamDeletedException ex) {
+            // OK
+        }
+
+    }
+
+    @Test(expected = StreamReadOnlyException.class)
+    public void testVerifyWritable() {
+        ESJCUtils.verifyWritable(STREAM_ID);
+        ESJCUtils.verifyWritable(new ProjectionStreamId("MyProjection"));
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.Charset;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link EscMetaHeader} class.
+ */
+// CHECKSTYLE:OFF Test code
+public class EscMetaHeaderTest {
+
+    private static final Charset UTF8 = Charset.forName("utf-8");
+
+    @Test
+    public void testParseJson() {
+
+        // PREPARE
+        final byte[] metadata = "{\"data-type\":\"MyEvent\",\"data-content-type\":\"application/json; encoding=UTF-8\"}"
+                .getBytes(UTF8);
+
+        // TEST
+        final EscMetaHeader testee = EscMetaHeader.parse(metadata, true);
+
+        // VERIFY
+        assertThat(testee).isNotNull();
+        assertThat(testee.getDataType()).isEqualTo("MyEvent");
+        assertThat(testee.getDataContentType()).isEqualTo("application/json; encoding=UTF-8");
+
+    }
+
+    @Test
+    public void testParseJsonWithMeta() {
+
+        // PREPARE
+        final byte[] metadata = ("{\"data-type\":\"MyEvent\",\"data-content-type\":\"application/json; encoding=UTF-8\","
+                + "\"meta-type\":\"MyMeta\",\"meta-content-type\":\"application/json; encoding=UTF-8\","
+                + "\"MyMeta\":{\"user\":\"michael\"}}").getBytes(UTF8);
+
+        // TEST & VERIFY
+        assertThat(EscMetaHeader.parse(metadata, true)).isNull();
+
+    }
+
+    @Test
+    public void testParseXml() {
+
+        // PREPARE
+        final byte[] metadata = ("<esc-meta><data-type>MyEvent</data-type>"
+                + "<data-content-type>application/xml; encoding=UTF-8</data-content-type></esc-meta>")
+                        .getBytes(UTF8);
+
+        // TEST
+        final EscMetaHeader testee = EscMetaHeader.parse(metadata, false);
+
+        // VERIFY
+        assertThat(testee).isNotNull();
+        assertThat(testee.getDataType()).isEqualTo("MyEvent");
+        assertThat(testee.getDataContentType()).isEqualTo("application/xml; encoding=UTF-8");
+
+    }
+
+    @Test
+    public void testParseXmlWithMeta() {
+
+        // PREPARE
+        final byte[] metadata = ("<esc-meta><data-type>MyEvent</data-type>"
+                + "<data-content-type>application/xml; encoding=UTF-8</data-content-type>"
+                + "<meta-type>MyMeta</meta-type>"
+                + "<meta-content-type>application/xml; encoding=UTF-8</meta-content-type>"
+                + "<MyMeta><user>michael</user></MyMeta></esc-meta>").getBytes(UTF8);
+
+        // TEST & VERIFY
+        assertThat(EscMetaHeader.parse(metadata, false)).isNull();
+
+    }
+
+    @Test
+    public void testParseInvalid() {
+        assertThat(EscMetaHeader.parse(null, true)).isNull();
+        assertThat(EscMetaHeader.parse(new byte[0], false)).isNull();
+        assertThat(EscMetaHeader.parse("[1, 2]".getBytes(UTF8), true)).isNull();
+        assertThat(EscMetaHeader.parse("<other/>".getBytes(UTF8), false)).isNull();
+        assertThat(EscMetaHeader.parse("{\"data-type\":\"MyEvent\"}".getBytes(UTF8), true)).isNull();
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,104 @@
+// CHECKSTYLE:OFF
+package org.fuin.esc.esjc;
+
+import java.nio.charset.Charset;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.EscMetaJsonDeSerializer;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.fuin.esc.spi.XmlDeSerializer;
+
+import com.github.msemys.esjc.EventData;
+import com.github.msemys.esjc.RecordedEvent;
+import com.github.msemys.esjc.proto.EventStoreClientMessages.EventRecord;
+import com.github.msemys.esjc.util.UUIDConverter;
+import com.google.protobuf.ByteString;
+
+/**
+ * Measures the events per second a single thread converts with the {@link RecordedEvent2CommonEventConverter}
+ * using the full {@link EscMeta} deserialization and using the fast path for events without user meta data.
+ */
+public final class EsjcConverterPerformance {
+
+    private static final int WARMUP = 50000;
+
+    private static final int MAX = 500000;
+
+    private static final Class<?>[] JAXB_CLASSES = new Class<?>[] { EscMeta.class, MyEvent.class };
+
+    private static long blackhole;
+
+    private EsjcConverterPerformance() {
+        super();
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            Not used.
+     */
+    public static void main(final String[] args) {
+
+        for (final boolean json : new boolean[] { true, false }) {
+            final String format = json ? "JSON" : "XML";
+            final EnhancedMimeType envelope = EnhancedMimeType.create("application", json ? "json" : "xml",
+                    Charset.forName("utf-8"));
+            final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+            if (json) {
+                registry.add(EscMeta.SER_TYPE, "application/json", new EscMetaJsonDeSerializer());
+                registry.add(MyEvent.SER_TYPE, "application/json", new MyEvent.MyEventJsonDeSerializer());
+            } else {
+                final XmlDeSerializer xmlDeSer = new XmlDeSerializer(JAXB_CLASSES);
+                registry.add(EscMeta.SER_TYPE, "application/xml", xmlDeSer);
+                registry.add(MyEvent.SER_TYPE, "application/xml", xmlDeSer);
+            }
+            final RecordedEvent event = createRecordedEvent(registry, envelope, json);
+            final RecordedEvent2CommonEventConverter testee = new RecordedEvent2CommonEventConverter(
+                    registry);
+
+            for (int run = 0; run < 2; run++) {
+                final int count = (run == 0) ? WARMUP : MAX;
+                final String prefix = (run == 0) ? "WARMUP " : "";
+                measure(prefix + format + " full EscMeta", count, event, testee::convertEscMeta);
+                measure(prefix + format + " fast path", count, event, testee::convert);
+            }
+        }
+        System.out.println("IGNORE " + blackhole);
+
+    }
+
+    private static RecordedEvent createRecordedEvent(final SimpleSerializerDeserializerRegistry registry,
+            final EnhancedMimeType envelope, final boolean json) {
+        final MyEvent myEvent = new MyEvent(UUID.randomUUID(), "Hello, performance!");
+        final CommonEvent2EventDataConverter converter = new CommonEvent2EventDataConverter(registry,
+                envelope);
+        final EventData eventData = converter
+                .convert(new SimpleCommonEvent(new EventId(myEvent.getId()), MyEvent.TYPE, myEvent));
+        final EventRecord eventRecord = EventRecord.newBuilder()
+                .setEventId(ByteString.copyFrom(UUIDConverter.toBytes(eventData.eventId)))
+                .setEventStreamId("mystream").setEventNumber(1).setEventType(eventData.type)
+                .setDataContentType(json ? 1 : 0).setData(ByteString.copyFrom(eventData.data))
+                .setMetadataContentType(json ? 1 : 0).setMetadata(ByteString.copyFrom(eventData.metadata))
+                .setCreated(System.currentTimeMillis()).build();
+        return new RecordedEvent(eventRecord);
+    }
+
+    private static void measure(final String name, final int count, final RecordedEvent event,
+            final Function<RecordedEvent, CommonEvent> func) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            blackhole += func.apply(event).getData().hashCode();
+        }
+        final long nanos = System.nanoTime() - start;
+        System.out.println("EVENTS PER SECOND " + name + ": " + ((long) count * 1000000000L / nanos));
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,133 @@
+// CHECKSTYLE:OFF
+package org.fuin.esc.esjc;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.EscMetaJsonDeSerializer;
+import org.fuin.esc.spi.SerDeserializer;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.fuin.esc.spi.XmlDeSerializer;
+
+import com.github.msemys.esjc.EventData;
+import com.github.msemys.esjc.RecordedEvent;
+import com.github.msemys.esjc.proto.EventStoreClientMessages.EventRecord;
+import com.github.msemys.esjc.util.UUIDConverter;
+import com.google.protobuf.ByteString;
+
+/**
+ * Measures the throughput of converting a slice of recorded events into common events sequentially and in
+ * parallel with the {@link RecordedEvents2CommonEventsConverter} for different payload sizes and formats.
+ */
+public final class EsjcDecodePerformance {
+
+    private static final int SLICE_SIZE = 4000;
+
+    private static final int RUNS = 20;
+
+    private static final int[] PAYLOAD_SIZES = new int[] { 100, 1000, 10000 };
+
+    private static final Class<?>[] JAXB_CLASSES = new Class<?>[] { EscMeta.class, MyEvent.class };
+
+    private static long blackhole;
+
+    private EsjcDecodePerformance() {
+        super();
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            Not used.
+     */
+    public static void main(final String[] args) {
+
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("Parallelism: " + pool.getParallelism());
+
+        for (final boolean json : new boolean[] { true, false }) {
+            final SimpleSerializerDeserializerRegistry registry = createRegistry(json);
+            final EnhancedMimeType envelope = EnhancedMimeType.create("application", json ? "json" : "xml",
+                    Charset.forName("utf-8"));
+            final RecordedEvent2CommonEventConverter converter = new RecordedEvent2CommonEventConverter(
+                    registry);
+            final RecordedEvents2CommonEventsConverter sequential = new RecordedEvents2CommonEventsConverter(
+                    converter, null, 1);
+            final RecordedEvents2CommonEventsConverter parallel = new RecordedEvents2CommonEventsConverter(
+                    converter, pool, 2);
+            for (final int payloadSize : PAYLOAD_SIZES) {
+                final List<RecordedEvent> slice = createSlice(registry, envelope, payloadSize);
+                final String name = envelope.getSubType().toUpperCase() + " " + payloadSize + " chars";
+                // Warm up
+                measure("WARMUP " + name + " sequential", slice, sequential);
+                measure("WARMUP " + name + " parallel", slice, parallel);
+                measure(name + " sequential", slice, sequential);
+                measure(name + " parallel", slice, parallel);
+            }
+        }
+        System.out.println("IGNORE " + blackhole);
+
+    }
+
+    private static SimpleSerializerDeserializerRegistry createRegistry(final boolean json) {
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        if (json) {
+            registry.add(EscMeta.SER_TYPE, "application/json", new EscMetaJsonDeSerializer());
+            registry.add(MyEvent.SER_TYPE, "application/json", new MyEvent.MyEventJsonDeSerializer());
+        } else {
+            final SerDeserializer xmlDeSer = new XmlDeSerializer(JAXB_CLASSES);
+            registry.add(EscMeta.SER_TYPE, "application/xml", xmlDeSer);
+            registry.add(MyEvent.SER_TYPE, "application/xml", xmlDeSer);
+        }
+        return registry;
+    }
+
+    private static List<RecordedEvent> createSlice(final SimpleSerializerDeserializerRegistry registry,
+            final EnhancedMimeType envelope, final int payloadSize) {
+        final boolean json = "json".equals(envelope.getSubType());
+        final CommonEvent2EventDataConverter converter = new CommonEvent2EventDataConverter(registry,
+                envelope);
+        final StringBuilder sb = new StringBuilder(payloadSize);
+        for (int i = 0; i < payloadSize; i++) {
+            sb.append((char) ('a' + (i % 26)));
+        }
+        final String description = sb.toString();
+        final List<RecordedEvent> slice = new ArrayList<>(SLICE_SIZE);
+        for (int i = 0; i < SLICE_SIZE; i++) {
+            final MyEvent myEvent = new MyEvent(UUID.randomUUID(), description);
+            final EventData eventData = converter
+                    .convert(new SimpleCommonEvent(new EventId(myEvent.getId()), MyEvent.TYPE, myEvent));
+            final EventRecord eventRecord = EventRecord.newBuilder()
+                    .setEventId(ByteString.copyFrom(UUIDConverter.toBytes(eventData.eventId)))
+                    .setEventStreamId("mystream").setEventNumber(i).setEventType(eventData.type)
+                    .setDataContentType(json ? 1 : 0).setData(ByteString.copyFrom(eventData.data))
+                    .setMetadataContentType(json ? 1 : 0).setMetadata(ByteString.copyFrom(eventData.metadata))
+                    .setCreated(System.currentTimeMillis()).build();
+            slice.add(new RecordedEvent(eventRecord));
+        }
+        return slice;
+    }
+
+    private static void measure(final String name, final List<RecordedEvent> slice,
+            final RecordedEvents2CommonEventsConverter converter) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            final List<CommonEvent> events = converter.convert(slice);
+            blackhole += events.get(events.size() - 1).getId().hashCode();
+        }
+        final long nanos = System.nanoTime() - start;
+        final long eventsPerSecond = (long) SLICE_SIZE * RUNS * 1000000000L / nanos;
+        System.out.println("EVENTS PER SECOND " + name + ": " + eventsPerSecond);
+    }
+
+}
+// CHECKSTYLE:ON
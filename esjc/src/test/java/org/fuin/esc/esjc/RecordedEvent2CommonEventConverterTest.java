@@ -26,11 +26,13 @@ import java.util.UUID;
 import org.fuin.esc.api.CommonEvent;
 import org.fuin.esc.api.EventId;
 import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.api.TypeName;
 import org.fuin.esc.spi.Base64Data;
 import org.fuin.esc.spi.Base64Data.Base64DataJsonDeSerializer;
 import org.fuin.esc.spi.EnhancedMimeType;
 import org.fuin.esc.spi.EscMeta;
 import org.fuin.esc.spi.EscMetaJsonDeSerializer;
+import org.fuin.esc.spi.SerializedDataType;
 import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
 import org.fuin.esc.spi.XmlDeSerializer;
 import org.junit.Test;
@@ -366,5 +368,126 @@ public class RecordedEvent2CommonEventConverterTest {
 
     }
 
+    /**
+     * Tests envelope JSON without meta (fast path) + data JSON
+     */
+    @Test
+    public final void testConvertJsonWithoutMeta() throws IOException {
+
+        // PREPARE
+        final EnhancedMimeType envelope = EnhancedMimeType.create("application", "json",
+                Charset.forName("utf-8"));
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        registry.add(EscMeta.SER_TYPE, envelope.getBaseType(), new EscMetaJsonDeSerializer());
+        registry.add(MyEvent.SER_TYPE, "application/json", new MyEvent.MyEventJsonDeSerializer());
+        final RecordedEvent2CommonEventConverter testee = new RecordedEvent2CommonEventConverter(registry);
+
+        for (int i = 0; i < 2; i++) {
+
+            final MyEvent myEvent = new MyEvent(UUID.randomUUID(), "Hello, JSON " + i + "!");
+            final RecordedEvent recordedEvent = createRecordedEvent(registry, envelope, myEvent, true);
+
+            // TEST
+            final CommonEvent result = testee.convert(recordedEvent);
+
+            // VERIFY
+            assertThat(result.getId()).isEqualTo(new EventId(myEvent.getId()));
+            assertThat(result.getDataType()).isEqualTo(MyEvent.TYPE);
+            assertThat(result.getMetaType()).isNull();
+            assertThat(result.getData()).isInstanceOf(MyEvent.class);
+            final MyEvent copyMyEvent = (MyEvent) result.getData();
+            assertThat(copyMyEvent.getId()).isEqualTo(myEvent.getId());
+            assertThat(copyMyEvent.getDescription()).isEqualTo(myEvent.getDescription());
+
+        }
+
+    }
+
+    /**
+     * Tests envelope XML without meta (fast path) + data XML
+     */
+    @Test
+    public final void testConvertXmlWithoutMeta() throws IOException {
+
+        // PREPARE
+        final EnhancedMimeType envelope = EnhancedMimeType.create("application", "xml",
+                Charset.forName("utf-8"));
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        registry.add(EscMeta.SER_TYPE, envelope.getBaseType(), new XmlDeSerializer(JAXB_CLASSES));
+        registry.add(MyEvent.SER_TYPE, "application/xml", new XmlDeSerializer(JAXB_CLASSES));
+        final MyEvent myEvent = new MyEvent(UUID.randomUUID(), "Hello, XML!");
+        final RecordedEvent recordedEvent = createRecordedEvent(registry, envelope, myEvent, false);
+        final RecordedEvent2CommonEventConverter testee = new RecordedEvent2CommonEventConverter(registry);
+
+        // TEST
+        final CommonEvent result = testee.convert(recordedEvent);
+
+        // VERIFY
+        final CommonEvent expected = testee.convertEscMeta(recordedEvent);
+        assertThat(result.getId()).isEqualTo(expected.getId());
+        assertThat(result.getDataType()).isEqualTo(expected.getDataType());
+        assertThat(result.getMetaType()).isNull();
+        assertThat(result.getData()).isInstanceOf(MyEvent.class);
+        final MyEvent copyMyEvent = (MyEvent) result.getData();
+        assertThat(copyMyEvent.getId()).isEqualTo(myEvent.getId());
+        assertThat(copyMyEvent.getDescription()).isEqualTo(myEvent.getDescription());
+
+    }
+
+    /**
+     * Tests envelope XML + binary data stored without Base64 encoding
+     */
+    @Test
+    public final void testConvertXmlBinary() throws IOException {
+
+        // PREPARE
+        final EnhancedMimeType envelope = EnhancedMimeType.create("application", "xml",
+                Charset.forName("utf-8"));
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        registry.add(EscMeta.SER_TYPE, envelope.getBaseType(), new XmlDeSerializer(JAXB_CLASSES));
+        registry.add(Base64Data.SER_TYPE, envelope.getBaseType(), new XmlDeSerializer(JAXB_CLASSES));
+        registry.add(new SerializedDataType("MyBinary"), "application/octet-stream", new BinaryDeSerializer());
+        final byte[] data = new byte[] { 0, 1, 2, (byte) 0xFF };
+        final CommonEvent commonEvent = new SimpleCommonEvent(new EventId(), new TypeName("MyBinary"), data);
+        final CommonEvent2EventDataConverter converter = new CommonEvent2EventDataConverter(registry,
+                envelope);
+        final EventData eventData = converter.convert(commonEvent);
+        final EventRecord eventRecord = EventRecord.newBuilder()
+                .setEventId(ByteString.copyFrom(UUIDConverter.toBytes(eventData.eventId)))
+                .setEventStreamId("mystream").setEventNumber(1).setEventType(eventData.type)
+                .setDataContentType(0).setData(ByteString.copyFrom(eventData.data)).setMetadataContentType(0)
+                .setMetadata(ByteString.copyFrom(eventData.metadata)).setCreated(System.currentTimeMillis())
+                .build();
+        final RecordedEvent recordedEvent = new RecordedEvent(eventRecord);
+        final RecordedEvent2CommonEventConverter testee = new RecordedEvent2CommonEventConverter(registry);
+
+        // TEST
+        final CommonEvent result = testee.convert(recordedEvent);
+
+        // VERIFY
+        assertThat(eventData.data).isEqualTo(data);
+        assertThat(result.getId()).isEqualTo(commonEvent.getId());
+        assertThat(result.getDataType()).isEqualTo(commonEvent.getDataType());
+        assertThat((byte[]) result.getData()).isEqualTo(data);
+        assertThat((byte[]) testee.convertEscMeta(recordedEvent).getData()).isEqualTo(data);
+
+    }
+
+    private static RecordedEvent createRecordedEvent(final SimpleSerializerDeserializerRegistry registry,
+            final EnhancedMimeType envelope, final MyEvent myEvent, final boolean json) {
+        final CommonEvent commonEvent = new SimpleCommonEvent(new EventId(myEvent.getId()), MyEvent.TYPE,
+                myEvent);
+        final CommonEvent2EventDataConverter converter = new CommonEvent2EventDataConverter(registry,
+                envelope);
+        final EventData eventData = converter.convert(commonEvent);
+        final EventRecord eventRecord = EventRecord.newBuilder()
+                .setEventId(ByteString.copyFrom(UUIDConverter.toBytes(eventData.eventId)))
+                .setEventStreamId("mystream").setEventNumber(1).setEventType(eventData.type)
+                .setDataContentType(json ? 1 : 0).setData(ByteString.copyFrom(eventData.data))
+                .setMetadataContentType(json ? 1 : 0).setMetadata(ByteString.copyFrom(eventData.metadata))
+                .setCreated(System.currentTimeMillis()).build();
+        return new RecordedEvent(eventRecord);
+    }
+
 }
 // CHECKSTYLE:ON
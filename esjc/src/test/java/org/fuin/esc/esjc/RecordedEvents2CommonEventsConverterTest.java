@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.esjc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.EscMetaJsonDeSerializer;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.github.msemys.esjc.EventData;
+import com.github.msemys.esjc.RecordedEvent;
+import com.github.msemys.esjc.proto.EventStoreClientMessages.EventRecord;
+import com.github.msemys.esjc.util.UUIDConverter;
+import com.google.protobuf.ByteString;
+
+/**
+ * Test for {@link RecordedEvents2CommonEventsConverter} class.
+ */
+// CHECKSTYLE:OFF Test code
+public class RecordedEvents2CommonEventsConverterTest {
+
+    private static final int COUNT = 100;
+
+    private static ForkJoinPool pool;
+
+    private static SimpleSerializerDeserializerRegistry registry;
+
+    private static List<MyEvent> myEvents;
+
+    private static List<RecordedEvent> recordedEvents;
+
+    @BeforeClass
+    public static void beforeClass() {
+        pool = new ForkJoinPool(4);
+        final EnhancedMimeType envelope = EnhancedMimeType.create("application", "json",
+                Charset.forName("utf-8"));
+        registry = new SimpleSerializerDeserializerRegistry();
+        registry.add(EscMeta.SER_TYPE, envelope.getBaseType(), new EscMetaJsonDeSerializer());
+        registry.add(MyEvent.SER_TYPE, "application/json", new MyEvent.MyEventJsonDeSerializer());
+        final CommonEvent2EventDataConverter converter = new CommonEvent2EventDataConverter(registry,
+                envelope);
+        myEvents = new ArrayList<>();
+        recordedEvents = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            final MyEvent myEvent = new MyEvent(UUID.randomUUID(), "Event " + i);
+            final EventData eventData = converter
+                    .convert(new SimpleCommonEvent(new EventId(myEvent.getId()), MyEvent.TYPE, myEvent));
+            final EventRecord eventRecord = EventRecord.newBuilder()
+                    .setEventId(ByteString.copyFrom(UUIDConverter.toBytes(eventData.eventId)))
+                    .setEventStreamId("mystream").setEventNumber(i).setEventType(eventData.type)
+                    .setDataContentType(1).setData(ByteString.copyFrom(eventData.data))
+                    .setMetadataContentType(1).setMetadata(ByteString.copyFrom(eventData.metadata))
+                    .setCreated(System.currentTimeMillis()).build();
+            myEvents.add(myEvent);
+            recordedEvents.add(new RecordedEvent(eventRecord));
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testConvertSequential() {
+
+        // PREPARE
+        final RecordedEvents2CommonEventsConverter testee = new RecordedEvents2CommonEventsConverter(
+                new RecordedEvent2CommonEventConverter(registry), null, 1);
+
+        // TEST
+        final List<CommonEvent> result = testee.convert(recordedEvents);
+
+        // VERIFY
+        assertOrder(result);
+
+    }
+
+    @Test
+    public void testConvertParallel() {
+
+        // PREPARE
+        final RecordedEvents2CommonEventsConverter testee = new RecordedEvents2CommonEventsConverter(
+                new RecordedEvent2CommonEventConverter(registry), pool, 2);
+
+        // TEST
+        final List<CommonEvent> result = testee.convert(recordedEvents);
+
+        // VERIFY
+        assertOrder(result);
+
+    }
+
+    @Test
+    public void testConvertBelowThreshold() {
+
+        // PREPARE
+        final RecordedEvents2CommonEventsConverter testee = new RecordedEvents2CommonEventsConverter(
+                new RecordedEvent2CommonEventConverter(registry), pool, COUNT + 1);
+
+        // TEST
+        final List<CommonEvent> result = testee.convert(recordedEvents);
+
+        // VERIFY
+        assertOrder(result);
+
+    }
+
+    private static void assertOrder(final List<CommonEvent> result) {
+        assertThat(result).hasSize(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            assertThat(result.get(i).getId()).isEqualTo(new EventId(myEvents.get(i).getId()));
+            assertThat(((MyEvent) result.get(i).getData()).getDescription())
+                    .isEqualTo(myEvents.get(i).getDescription());
+        }
+    }
+
+}
+// CHECKSTYLE:ON
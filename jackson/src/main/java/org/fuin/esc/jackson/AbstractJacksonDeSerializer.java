@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.jackson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.SerDeserializer;
+import org.fuin.objects4j.common.Contract;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Base class for serializers that bind a POJO type with a Jackson
+ * {@link ObjectMapper}. The mapper creates the (de)serializer for a class once
+ * and caches it, so objects are written to and read from bytes without an
+ * intermediate tree. This implementation supports <code>byte[]</code> and
+ * instances of the bound type for unmarshalling content. An instance of the
+ * bound type will simply return the input without any change. This class is
+ * thread safe if the object mapper is not reconfigured after construction.
+ */
+abstract class AbstractJacksonDeSerializer implements SerDeserializer {
+
+    private final Class<?> type;
+
+    private final String format;
+
+    private final ObjectWriter writer;
+
+    private final ObjectReader reader;
+
+    /**
+     * Constructor with all mandatory data.
+     * 
+     * @param mapper
+     *            Mapper to use.
+     * @param type
+     *            Type of the objects to unmarshal.
+     * @param format
+     *            Name of the data format used in error messages.
+     */
+    protected AbstractJacksonDeSerializer(@NotNull final ObjectMapper mapper, @NotNull final Class<?> type,
+            @NotNull final String format) {
+        super();
+        Contract.requireArgNotNull("mapper", mapper);
+        Contract.requireArgNotNull("type", type);
+        Contract.requireArgNotNull("format", format);
+        this.type = type;
+        this.format = format;
+        // The streams belong to the caller
+        this.writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.reader = mapper.readerFor(type).without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
+    @Override
+    public final <T> byte[] marshal(final T obj) {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+        marshal(obj, bos);
+        return bos.toByteArray();
+    }
+
+    @Override
+    public final <T> void marshal(final T obj, final OutputStream out) {
+        try {
+            writer.writeValue(out, obj);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error writing " + format + " data", ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final <T> T unmarshal(final Object data, final EnhancedMimeType mimeType) {
+
+        if (data instanceof byte[]) {
+            try {
+                return reader.readValue((byte[]) data);
+            } catch (final IOException ex) {
+                throw new RuntimeException("Error reading " + format + " data", ex);
+            }
+        }
+        if (type.isInstance(data)) {
+            // Simply return it
+            return (T) data;
+        }
+        throw new IllegalArgumentException("This deserializer only supports input of type '" + type.getName()
+                + "' and 'byte[]', but was: " + data);
+
+    }
+
+    @Override
+    public final <T> T unmarshal(final InputStream in, final EnhancedMimeType mimeType) {
+        try {
+            return reader.readValue(in);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error reading " + format + " data", ex);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.jackson;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.spi.EnhancedMimeType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Serializes and deserializes a POJO as CBOR (Concise Binary Object
+ * Representation). The content type is always "application/cbor". As the
+ * result is binary, adapters with a binary storage keep it as it is instead of
+ * encoding it as Base64.
+ */
+public final class CborDeSerializer extends AbstractJacksonDeSerializer {
+
+    /** Content type used for CBOR. */
+    public static final EnhancedMimeType MIME_TYPE = EnhancedMimeType.intern("application/cbor");
+
+    /**
+     * Constructor with type to read.
+     * 
+     * @param type
+     *            Type of the objects to unmarshal.
+     */
+    public CborDeSerializer(@NotNull final Class<?> type) {
+        this(new ObjectMapper(new CBORFactory()), type);
+    }
+
+    /**
+     * Constructor with object mapper and type.
+     * 
+     * @param mapper
+     *            Mapper to use. Must be created with a {@link CBORFactory}.
+     * @param type
+     *            Type of the objects to unmarshal.
+     */
+    public CborDeSerializer(@NotNull final ObjectMapper mapper, @NotNull final Class<?> type) {
+        super(requireCbor(mapper), type, "CBOR");
+    }
+
+    @Override
+    public final EnhancedMimeType getMimeType() {
+        return MIME_TYPE;
+    }
+
+    private static ObjectMapper requireCbor(final ObjectMapper mapper) {
+        if (mapper != null && !CBORFactory.FORMAT_NAME.equals(mapper.getFactory().getFormatName())) {
+            throw new IllegalArgumentException("The mapper must create CBOR, but was: "
+                    + mapper.getFactory().getFormatName());
+        }
+        return mapper;
+    }
+
+}
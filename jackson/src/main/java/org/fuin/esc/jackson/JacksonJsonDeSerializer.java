@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.jackson;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.spi.EnhancedMimeType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializes and deserializes a POJO as JSON using Jackson data binding. The
+ * content type for serialization is always "application/json" with UTF-8
+ * encoding. In contrast to the {@link org.fuin.esc.spi.JsonDeSerializer} the
+ * type does not have to implement {@link org.fuin.esc.spi.ToJsonCapable} and
+ * no <code>javax.json</code> structure is created while writing or reading.
+ * Jackson detects UTF-16 and UTF-32 input automatically.
+ */
+public final class JacksonJsonDeSerializer extends AbstractJacksonDeSerializer {
+
+    /** Content type used for JSON. */
+    public static final EnhancedMimeType MIME_TYPE = EnhancedMimeType
+            .intern(EnhancedMimeType.create("application", "json", StandardCharsets.UTF_8));
+
+    /**
+     * Constructor with type to read.
+     * 
+     * @param type
+     *            Type of the objects to unmarshal.
+     */
+    public JacksonJsonDeSerializer(@NotNull final Class<?> type) {
+        this(new ObjectMapper(), type);
+    }
+
+    /**
+     * Constructor with object mapper and type.
+     * 
+     * @param mapper
+     *            Mapper to use. Must be created with a
+     *            {@link JsonFactory} for JSON.
+     * @param type
+     *            Type of the objects to unmarshal.
+     */
+    public JacksonJsonDeSerializer(@NotNull final ObjectMapper mapper, @NotNull final Class<?> type) {
+        super(requireJson(mapper), type, "JSON");
+    }
+
+    @Override
+    public final EnhancedMimeType getMimeType() {
+        return MIME_TYPE;
+    }
+
+    private static ObjectMapper requireJson(final ObjectMapper mapper) {
+        if (mapper != null && !JsonFactory.FORMAT_NAME_JSON.equals(mapper.getFactory().getFormatName())) {
+            throw new IllegalArgumentException("The mapper must create JSON, but was: "
+                    + mapper.getFactory().getFormatName());
+        }
+        return mapper;
+    }
+
+}
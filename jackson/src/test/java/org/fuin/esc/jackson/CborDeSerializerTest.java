@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.jackson;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.fuin.esc.spi.EscSpiUtils;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests the {@link CborDeSerializer} class.
+ */
+// CHECKSTYLE:OFF Test
+public class CborDeSerializerTest {
+
+    @Test
+    public void testMarshalUnmarshal() {
+
+        // PREPARE
+        final CborDeSerializer testee = new CborDeSerializer(Person.class);
+        final Person original = new Person("Peter", 21);
+
+        // TEST
+        final byte[] data = testee.marshal(original);
+        final Person copy = testee.unmarshal(data, CborDeSerializer.MIME_TYPE);
+
+        // VERIFY
+        assertThat(copy.getName()).isEqualTo("Peter");
+        assertThat(copy.getAge()).isEqualTo(21);
+
+    }
+
+    @Test
+    public void testMarshalUnmarshalStream() {
+
+        // PREPARE
+        final CborDeSerializer testee = new CborDeSerializer(Person.class);
+        final Person original = new Person("Peter", 21);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // TEST
+        testee.marshal(original, out);
+        final Person copy = testee.unmarshal(new ByteArrayInputStream(out.toByteArray()),
+                CborDeSerializer.MIME_TYPE);
+
+        // VERIFY
+        assertThat(out.toByteArray()).isEqualTo(testee.marshal(original));
+        assertThat(copy.getName()).isEqualTo("Peter");
+        assertThat(copy.getAge()).isEqualTo(21);
+
+    }
+
+    @Test
+    public void testUnmarshalInstance() {
+
+        // PREPARE
+        final CborDeSerializer testee = new CborDeSerializer(Person.class);
+        final Person original = new Person("Peter", 21);
+
+        // TEST
+        final Person same = testee.unmarshal(original, CborDeSerializer.MIME_TYPE);
+
+        // VERIFY
+        assertThat(same).isSameAs(original);
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnmarshalIllegalInput() {
+        new CborDeSerializer(Person.class).unmarshal("Peter", CborDeSerializer.MIME_TYPE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructNonCborMapper() {
+        new CborDeSerializer(new ObjectMapper(), Person.class);
+    }
+
+    @Test
+    public void testMimeTypeIsBinary() {
+        assertThat(EscSpiUtils.isBinary(CborDeSerializer.MIME_TYPE)).isTrue();
+    }
+
+}
+// CHECKSTYLE:ON
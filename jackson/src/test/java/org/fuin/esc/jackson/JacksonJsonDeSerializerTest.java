@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.jackson;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+
+import javax.json.JsonObject;
+
+import org.fuin.esc.spi.EnhancedMimeType;
+import org.fuin.esc.spi.JsonDeSerializer;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Tests the {@link JacksonJsonDeSerializer} class.
+ */
+// CHECKSTYLE:OFF Test
+public class JacksonJsonDeSerializerTest {
+
+    @Test
+    public void testMarshalUnmarshal() {
+
+        // PREPARE
+        final JacksonJsonDeSerializer testee = new JacksonJsonDeSerializer(Person.class);
+        final Person original = new Person("Peter", 21);
+
+        // TEST
+        final byte[] data = testee.marshal(original);
+        final Person copy = testee.unmarshal(data, JacksonJsonDeSerializer.MIME_TYPE);
+
+        // VERIFY
+        assertThat(new String(data, Charset.forName("utf-8"))).isEqualTo("{\"name\":\"Peter\",\"age\":21}");
+        assertThat(copy.getName()).isEqualTo("Peter");
+        assertThat(copy.getAge()).isEqualTo(21);
+
+    }
+
+    @Test
+    public void testMarshalUnmarshalStream() {
+
+        // PREPARE
+        final JacksonJsonDeSerializer testee = new JacksonJsonDeSerializer(Person.class);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // TEST
+        testee.marshal(new Person("Peter", 21), out);
+        final Person copy = testee.unmarshal(new ByteArrayInputStream(out.toByteArray()),
+                JacksonJsonDeSerializer.MIME_TYPE);
+
+        // VERIFY
+        assertThat(copy.getName()).isEqualTo("Peter");
+        assertThat(copy.getAge()).isEqualTo(21);
+
+    }
+
+    @Test
+    public void testCompatibleWithJsonDeSerializer() {
+
+        // PREPARE
+        final JacksonJsonDeSerializer testee = new JacksonJsonDeSerializer(Person.class);
+        final JsonDeSerializer jsonDeSer = new JsonDeSerializer();
+        final Person original = new Person("Peter", 21);
+
+        // TEST
+        final JsonObject jsonObj = jsonDeSer.unmarshal(testee.marshal(original), jsonDeSer.getMimeType());
+        final Person copy = testee.unmarshal(jsonDeSer.marshal(original), jsonDeSer.getMimeType());
+
+        // VERIFY
+        assertThat(Person.create(jsonObj).getName()).isEqualTo("Peter");
+        assertThat(copy.getName()).isEqualTo("Peter");
+        assertThat(copy.getAge()).isEqualTo(21);
+
+    }
+
+    @Test
+    public void testUnmarshalUtf16() {
+
+        // PREPARE
+        final JacksonJsonDeSerializer testee = new JacksonJsonDeSerializer(Person.class);
+        final byte[] data = "{\"name\":\"Peter\",\"age\":21}".getBytes(Charset.forName("utf-16"));
+
+        // TEST
+        final Person copy = testee.unmarshal(data, EnhancedMimeType.create("application/json; encoding=UTF-16"));
+
+        // VERIFY
+        assertThat(copy.getName()).isEqualTo("Peter");
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructNonJsonMapper() {
+        new JacksonJsonDeSerializer(new ObjectMapper(new CBORFactory()), Person.class);
+    }
+
+}
+// CHECKSTYLE:ON
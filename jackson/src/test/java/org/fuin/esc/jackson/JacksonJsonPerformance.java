@@ -0,0 +1,160 @@
+// CHECKSTYLE:OFF
+package org.fuin.esc.jackson;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+
+import org.fuin.esc.spi.JsonDeSerializer;
+import org.fuin.esc.spi.SerDeserializer;
+import org.fuin.esc.spi.ToJsonCapable;
+
+/**
+ * Compares throughput and allocated bytes of the <code>javax.json</code> based {@link JsonDeSerializer} with
+ * the data binding {@link JacksonJsonDeSerializer} for a small flat event and a larger nested one. Every
+ * operation marshals an event and unmarshals it again into the event class.
+ */
+public final class JacksonJsonPerformance {
+
+    private static final int COUNT = 200000;
+
+    private static long blackhole;
+
+    private JacksonJsonPerformance() {
+        super();
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            Not used.
+     */
+    public static void main(final String[] args) {
+
+        final Person person = new Person("Peter Parker", 21);
+        final List<Person> members = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            members.add(new Person("Member " + i, 20 + i));
+        }
+        final Team team = new Team("Avengers", "Earth's mightiest heroes", members);
+
+        final JsonDeSerializer jsonDeSer = new JsonDeSerializer();
+        final JacksonJsonDeSerializer personDeSer = new JacksonJsonDeSerializer(Person.class);
+        final JacksonJsonDeSerializer teamDeSer = new JacksonJsonDeSerializer(Team.class);
+
+        for (int run = 0; run < 2; run++) {
+            final String prefix = (run == 0 ? "WARMUP " : "");
+            measure(prefix + "javax.json flat", jsonDeSer, person, true);
+            measure(prefix + "jackson flat", personDeSer, person, false);
+            measure(prefix + "javax.json nested", jsonDeSer, team, true);
+            measure(prefix + "jackson nested", teamDeSer, team, false);
+        }
+        System.out.println("IGNORE " + blackhole);
+
+    }
+
+    private static void measure(final String name, final SerDeserializer deSer, final Object event,
+            final boolean dom) {
+        final long startBytes = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < COUNT; i++) {
+            final byte[] data = deSer.marshal(event);
+            final Object copy;
+            if (dom) {
+                final JsonObject jsonObj = deSer.unmarshal(data, deSer.getMimeType());
+                copy = (event instanceof Team ? Team.create(jsonObj) : Person.create(jsonObj));
+            } else {
+                copy = deSer.unmarshal(data, deSer.getMimeType());
+            }
+            blackhole += data.length + copy.hashCode();
+        }
+        final long nanos = System.nanoTime() - start;
+        final long bytes = allocatedBytes() - startBytes;
+        System.out.println("EVENTS PER SECOND " + name + ": " + (COUNT * 1000000000L / nanos));
+        System.out.println("BYTES PER EVENT " + name + ": " + (bytes / COUNT));
+    }
+
+    private static long allocatedBytes() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread()
+                    .getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Nested event with a list of members.
+     */
+    public static final class Team implements ToJsonCapable {
+
+        private String name;
+
+        private String description;
+
+        private List<Person> members;
+
+        public Team() {
+            super();
+        }
+
+        public Team(final String name, final String description, final List<Person> members) {
+            super();
+            this.name = name;
+            this.description = description;
+            this.members = members;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(final String description) {
+            this.description = description;
+        }
+
+        public List<Person> getMembers() {
+            return members;
+        }
+
+        public void setMembers(final List<Person> members) {
+            this.members = members;
+        }
+
+        @Override
+        public JsonObject toJson() {
+            final JsonArrayBuilder array = Json.createArrayBuilder();
+            for (final Person member : members) {
+                array.add(member.toJson());
+            }
+            return Json.createObjectBuilder().add("name", name).add("description", description)
+                    .add("members", array).build();
+        }
+
+        public static Team create(final JsonObject jsonObj) {
+            final JsonArray array = jsonObj.getJsonArray("members");
+            final List<Person> members = new ArrayList<>(array.size());
+            for (int i = 0; i < array.size(); i++) {
+                members.add(Person.create(array.getJsonObject(i)));
+            }
+            return new Team(jsonObj.getString("name"), jsonObj.getString("description"), members);
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
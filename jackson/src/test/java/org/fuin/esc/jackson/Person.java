@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.jackson;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.fuin.esc.spi.ToJsonCapable;
+
+/**
+ * Simple POJO for tests. Also supports the <code>javax.json</code> based
+ * serializer for comparison.
+ */
+public final class Person implements ToJsonCapable {
+
+    private String name;
+
+    private int age;
+
+    /**
+     * Default constructor for Jackson.
+     */
+    public Person() {
+        super();
+    }
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param name
+     *            Name.
+     * @param age
+     *            Age.
+     */
+    public Person(final String name, final int age) {
+        super();
+        this.name = name;
+        this.age = age;
+    }
+
+    /**
+     * Returns the name.
+     * 
+     * @return Name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name.
+     * 
+     * @param name
+     *            Name.
+     */
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the age.
+     * 
+     * @return Age.
+     */
+    public int getAge() {
+        return age;
+    }
+
+    /**
+     * Sets the age.
+     * 
+     * @param age
+     *            Age.
+     */
+    public void setAge(final int age) {
+        this.age = age;
+    }
+
+    @Override
+    public JsonObject toJson() {
+        return Json.createObjectBuilder().add("name", name).add("age", age).build();
+    }
+
+    /**
+     * Creates in instance from the given JSON object.
+     * 
+     * @param jsonObj
+     *            Object to read values from.
+     * 
+     * @return New instance.
+     */
+    public static Person create(final JsonObject jsonObj) {
+        return new Person(jsonObj.getString("name"), jsonObj.getInt("age"));
+    }
+
+}
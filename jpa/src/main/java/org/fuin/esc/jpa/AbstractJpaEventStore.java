@@ -48,6 +48,7 @@ import org.fuin.esc.spi.EscSpiUtils;
 import org.fuin.esc.spi.SerializedData;
 import org.fuin.esc.spi.SerializedDataType;
 import org.fuin.esc.spi.SerializerRegistry;
+import org.fuin.esc.spi.SizedStreamEventsSlice;
 import org.fuin.objects4j.common.ConstraintViolationException;
 import org.fuin.objects4j.common.Contract;
 import org.fuin.objects4j.vo.KeyValue;
@@ -167,10 +168,16 @@ public abstract class AbstractJpaEventStore extends AbstractReadableEventStore i
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public final StreamEventsSlice readEventsForward(final StreamId streamId, final int start,
             final int count) {
+        return readSizedEventsForward(streamId, start, count).getSlice();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected final SizedStreamEventsSlice readSizedEventsForward(final StreamId streamId, final int start,
+            final int count) {
 
         Contract.requireArgNotNull("streamId", streamId);
         Contract.requireArgMin("start", start, 0);
@@ -185,7 +192,8 @@ public abstract class AbstractJpaEventStore extends AbstractReadableEventStore i
             }
             if (!projection.isEnabled()) {
                 // The projection does exist, but is not ready yet
-                return new StreamEventsSlice(start, new ArrayList<CommonEvent>(), start, true);
+                return new SizedStreamEventsSlice(
+                        new StreamEventsSlice(start, new ArrayList<CommonEvent>(), start, true), 0);
             }
         } else {
             final JpaStream stream = findStream(streamId);
@@ -212,14 +220,22 @@ public abstract class AbstractJpaEventStore extends AbstractReadableEventStore i
         final int nextEventNumber = (start + events.size());
         final boolean endOfStream = (events.size() < count);
 
-        return new StreamEventsSlice(fromEventNumber, events, nextEventNumber, endOfStream);
+        return new SizedStreamEventsSlice(
+                new StreamEventsSlice(fromEventNumber, events, nextEventNumber, endOfStream),
+                bytes(resultList));
 
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public final StreamEventsSlice readEventsBackward(final StreamId streamId, final int start,
             final int count) {
+        return readSizedEventsBackward(streamId, start, count).getSlice();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected final SizedStreamEventsSlice readSizedEventsBackward(final StreamId streamId, final int start,
+            final int count) {
 
         Contract.requireArgNotNull("streamId", streamId);
         Contract.requireArgMin("start", start, 0);
@@ -234,7 +250,8 @@ public abstract class AbstractJpaEventStore extends AbstractReadableEventStore i
             }
             if (!projection.isEnabled()) {
                 // The projection does exist, but is not ready yet
-                return new StreamEventsSlice(start, new ArrayList<CommonEvent>(), start, true);
+                return new SizedStreamEventsSlice(
+                        new StreamEventsSlice(start, new ArrayList<CommonEvent>(), start, true), 0);
             }
         } else {
             final JpaStream stream = findStream(streamId);
@@ -264,7 +281,9 @@ public abstract class AbstractJpaEventStore extends AbstractReadableEventStore i
         }
         final boolean endOfStream = (start - count) < 0;
 
-        return new StreamEventsSlice(fromEventNumber, events, nextEventNumber, endOfStream);
+        return new SizedStreamEventsSlice(
+                new StreamEventsSlice(fromEventNumber, events, nextEventNumber, endOfStream),
+                bytes(resultList));
 
     }
 
@@ -532,6 +551,21 @@ public abstract class AbstractJpaEventStore extends AbstractReadableEventStore i
         return conditions;
     }
 
+    private static long bytes(final List<JpaEvent> eventEntries) {
+        long bytes = 0;
+        for (final JpaEvent eventEntry : eventEntries) {
+            bytes = bytes + bytes(eventEntry.getData()) + bytes(eventEntry.getMeta());
+        }
+        return bytes;
+    }
+
+    private static long bytes(final JpaData data) {
+        if (data == null || data.getRaw() == null) {
+            return 0;
+        }
+        return data.getRaw().length;
+    }
+
     private List<CommonEvent> asCommonEvents(final List<JpaEvent> eventEntries) {
         final List<CommonEvent> events = new ArrayList<CommonEvent>();
         for (JpaEvent eventEntry : eventEntries) {
@@ -569,4 +603,18 @@ public abstract class AbstractJpaEventStore extends AbstractReadableEventStore i
         }
     }
 
+    /**
+     * Returns FALSE, because all operations use the single entity manager
+     * passed to the constructor, which is not thread safe. Therefore the read
+     * ahead variant of
+     * {@link #readAllEventsForward(StreamId, int, int, ReadableEventStore.ChunkEventHandler, java.util.concurrent.Executor, int)}
+     * reads the slices one after another in the caller's thread.
+     * 
+     * @return Always FALSE.
+     */
+    @Override
+    protected final boolean isSupportsConcurrentReads() {
+        return false;
+    }
+
 }
@@ -122,7 +122,7 @@ public class JpaData implements ValueObject, Serializable {
      */
     @NeverNull
     public final EnhancedMimeType getMimeType() {
-        return EnhancedMimeType.create(mimeType);
+        return EnhancedMimeType.intern(mimeType);
     }
 
     /**
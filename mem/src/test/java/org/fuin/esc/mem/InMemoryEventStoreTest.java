@@ -19,9 +19,13 @@ package org.fuin.esc.mem;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import org.fuin.esc.api.CommonEvent;
 import org.fuin.esc.api.EscApiUtils;
@@ -32,6 +36,7 @@ import org.fuin.esc.api.SimpleCommonEvent;
 import org.fuin.esc.api.SimpleStreamId;
 import org.fuin.esc.api.StreamEventsSlice;
 import org.fuin.esc.api.StreamId;
+import org.fuin.esc.spi.AdaptiveChunkSize;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -201,6 +206,99 @@ public class InMemoryEventStoreTest {
 
     }
 
+    @Test
+    public void testReadAllEventsForwardReadAhead() throws Exception {
+
+        // PREPARE
+        final StreamId streamId = new SimpleStreamId("MyStream");
+        final List<CommonEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(event("Event" + i));
+        }
+        testee.appendToStream(streamId, events);
+        final List<CommonEvent> result = new ArrayList<>();
+        final List<Integer> sliceStarts = new ArrayList<>();
+        final Thread caller = Thread.currentThread();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // TEST
+            testee.readAllEventsForward(streamId, 0, 3, (slice) -> {
+                assertThat(Thread.currentThread()).isSameAs(caller);
+                sliceStarts.add(slice.getFromEventNumber());
+                result.addAll(slice.getEvents());
+            }, executor, 2);
+            testee.readAllEventsForward(new SimpleStreamId("Unknown"), 0, 3, (slice) -> {
+                sliceStarts.add(-1);
+            }, executor, 2);
+        } finally {
+            executor.shutdown();
+        }
+
+        // VERIFY
+        assertThat(result).containsExactlyElementsOf(events);
+        assertThat(sliceStarts).containsExactly(0, 3, 6, 9);
+
+    }
+
+    @Test
+    public void testStreamEvents() {
+
+        // PREPARE
+        final StreamId streamId = new SimpleStreamId("MyStream");
+        final List<CommonEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(event("Event" + i));
+        }
+        testee.appendToStream(streamId, events);
+        final List<CommonEvent> reversed = new ArrayList<>(events);
+        Collections.reverse(reversed);
+
+        // TEST & VERIFY
+        assertThat(testee.streamEventsForward(streamId, 0, 3).collect(Collectors.toList()))
+                .containsExactlyElementsOf(events);
+        assertThat(testee.streamEventsForward(streamId, 2, 3).limit(4).collect(Collectors.toList()))
+                .containsExactlyElementsOf(events.subList(2, 6));
+        assertThat(testee.streamEventsBackward(streamId, 9, 3).collect(Collectors.toList()))
+                .containsExactlyElementsOf(reversed);
+        assertThat(testee.streamEventRange(streamId, 1, 8, 2).collect(Collectors.toList()))
+                .containsExactlyElementsOf(events.subList(1, 8));
+        assertThat(testee.streamEventRange(streamId, 0, 10, 2).parallel().collect(Collectors.toList()))
+                .containsExactlyElementsOf(events);
+        assertThat(testee.streamEventsForward(new SimpleStreamId("Unknown"), 0, 3).count()).isEqualTo(0);
+
+    }
+
+    @Test
+    public void testReadAdaptive() {
+
+        // PREPARE
+        final StreamId streamId = new SimpleStreamId("MyStream");
+        final List<CommonEvent> events = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            events.add(event("Event" + i));
+        }
+        testee.appendToStream(streamId, events);
+        final List<CommonEvent> reversed = new ArrayList<>(events);
+        Collections.reverse(reversed);
+        final List<CommonEvent> result = new ArrayList<>();
+        final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize(2, 16, 100, 1024);
+
+        // TEST
+        testee.readAllEventsForward(streamId, 0, chunkSize, (currentSlice) -> {
+            result.addAll(currentSlice.getEvents());
+        });
+
+        // VERIFY
+        assertThat(result).containsExactlyElementsOf(events);
+        assertThat(chunkSize.getChunkSize()).isGreaterThan(2);
+        assertThat(testee.streamEventsForward(streamId, 0, new AdaptiveChunkSize()).collect(Collectors.toList()))
+                .containsExactlyElementsOf(events);
+        assertThat(testee.streamEventsBackward(streamId, 49, new AdaptiveChunkSize()).collect(Collectors.toList()))
+                .containsExactlyElementsOf(reversed);
+
+    }
+
     // TODO Fix test
     @Ignore("Unstable - Fails sometimes")
     @Test
@@ -17,10 +17,23 @@
  */
 package org.fuin.esc.spi;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.api.CommonEvent;
 import org.fuin.esc.api.ReadableEventStore;
 import org.fuin.esc.api.StreamEventsSlice;
 import org.fuin.esc.api.StreamId;
 import org.fuin.esc.api.StreamNotFoundException;
+import org.fuin.objects4j.common.Contract;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,4 +73,327 @@ public abstract class AbstractReadableEventStore implements ReadableEventStore {
 
     }
 
+    /**
+     * Reads all events until the end of the stream like
+     * {@link #readAllEventsForward(StreamId, int, int, ChunkEventHandler)},
+     * but adapts the number of events read in a single operation to the
+     * observed read time and size of the events.
+     * 
+     * @param streamId
+     *            Unique identifier of the stream.
+     * @param startingAtEventNumber
+     *            First event number to read.
+     * @param chunkSize
+     *            Provides the number of events to read in a single operation
+     *            and is informed about each read.
+     * @param handler
+     *            Handler to pass a read chunk to.
+     */
+    public final void readAllEventsForward(@NotNull final StreamId streamId,
+            final int startingAtEventNumber,
+            @NotNull final AdaptiveChunkSize chunkSize,
+            @NotNull final ChunkEventHandler handler) {
+
+        Contract.requireArgNotNull("chunkSize", chunkSize);
+
+        int sliceStart = startingAtEventNumber;
+        StreamEventsSlice currentSlice;
+        do {
+            final int count = chunkSize.getChunkSize();
+            final long startNanos = System.nanoTime();
+            final SizedStreamEventsSlice sizedSlice;
+            try {
+                LOG.debug(
+                        "Read slice: streamId={}, sliceStart={}, sliceCount={}",
+                        streamId, sliceStart, count);
+                sizedSlice = readSizedEventsForward(streamId, sliceStart,
+                        count);
+                LOG.debug("Result slice: {}", sizedSlice);
+            } catch (final StreamNotFoundException ex) {
+                // Nothing to read
+                LOG.debug(ex.getMessage());
+                break;
+            }
+            currentSlice = sizedSlice.getSlice();
+            chunkSize.sliceRead(currentSlice.getEvents().size(),
+                    System.nanoTime() - startNanos, sizedSlice.getBytes());
+            if (currentSlice.getEvents().size() > 0) {
+                handler.handle(currentSlice);
+            }
+            sliceStart = currentSlice.getNextEventNumber();
+        } while (!currentSlice.isEndOfStream());
+
+    }
+
+    /**
+     * Reads all events until the end of the stream like
+     * {@link #readAllEventsForward(StreamId, int, int, ChunkEventHandler)},
+     * but reads the next slices with the executor while the handler processes
+     * the current one. Slices are requested assuming that each one continues
+     * where the previous ended. If a slice ends elsewhere, the slices read
+     * ahead are dropped and reading continues at the correct position. The
+     * handler is called in the order of the slices in the caller's thread.
+     * The read methods of the implementation are called concurrently. If the
+     * implementation does not allow this (see
+     * {@link #isSupportsConcurrentReads()}), the slices are read one after
+     * another in the caller's thread without using the executor.
+     * 
+     * @param streamId
+     *            Unique identifier of the stream.
+     * @param startingAtEventNumber
+     *            First event number to read.
+     * @param chunkSize
+     *            Number of events to read in a single operation.
+     * @param handler
+     *            Handler to pass a read chunk to.
+     * @param executor
+     *            Executor used to read the slices.
+     * @param maxSlicesInFlight
+     *            Maximum number of slices requested or read, but not yet
+     *            handled. This limits the memory used for read ahead.
+     */
+    public final void readAllEventsForward(@NotNull final StreamId streamId,
+            final int startingAtEventNumber, final int chunkSize,
+            @NotNull final ChunkEventHandler handler,
+            @NotNull final Executor executor, final int maxSlicesInFlight) {
+
+        Contract.requireArgNotNull("streamId", streamId);
+        Contract.requireArgNotNull("handler", handler);
+        Contract.requireArgNotNull("executor", executor);
+        Contract.requireArgMin("chunkSize", chunkSize, 1);
+        Contract.requireArgMin("maxSlicesInFlight", maxSlicesInFlight, 1);
+
+        if (!isSupportsConcurrentReads()) {
+            readAllEventsForward(streamId, startingAtEventNumber, chunkSize,
+                    handler);
+            return;
+        }
+
+        final Deque<SliceRequest> inFlight = new ArrayDeque<>();
+        int expectedStart = startingAtEventNumber;
+        int nextRequestStart = startingAtEventNumber;
+        try {
+            while (true) {
+                while (inFlight.size() < maxSlicesInFlight) {
+                    inFlight.add(requestSlice(streamId, nextRequestStart,
+                            chunkSize, executor));
+                    nextRequestStart = nextRequestStart + chunkSize;
+                }
+                final SliceRequest request = inFlight.poll();
+                if (request.start != expectedStart) {
+                    // Previous slice ended at an unexpected position
+                    LOG.debug(
+                            "Drop read ahead: streamId={}, expected={}, requested={}",
+                            streamId, expectedStart, request.start);
+                    request.future.cancel(false);
+                    cancel(inFlight);
+                    nextRequestStart = expectedStart;
+                    continue;
+                }
+                final StreamEventsSlice currentSlice;
+                try {
+                    currentSlice = await(request.future);
+                } catch (final StreamNotFoundException ex) {
+                    // Nothing to read
+                    LOG.debug(ex.getMessage());
+                    break;
+                }
+                LOG.debug("Result slice: {}", currentSlice);
+                if (currentSlice.getEvents().size() > 0) {
+                    handler.handle(currentSlice);
+                }
+                if (currentSlice.isEndOfStream()) {
+                    break;
+                }
+                expectedStart = currentSlice.getNextEventNumber();
+            }
+        } finally {
+            cancel(inFlight);
+        }
+
+    }
+
+    @Override
+    public final Stream<CommonEvent> streamEventsForward(
+            final StreamId streamId, final int start, final int chunkSize) {
+        return StreamSupport.stream(new StreamEventsSpliterator(this, streamId,
+                true, start, StreamEventsSpliterator.NO_END, chunkSize), false);
+    }
+
+    @Override
+    public final Stream<CommonEvent> streamEventsBackward(
+            final StreamId streamId, final int start, final int chunkSize) {
+        return StreamSupport.stream(new StreamEventsSpliterator(this, streamId,
+                false, start, StreamEventsSpliterator.NO_END, chunkSize),
+                false);
+    }
+
+    @Override
+    public final Stream<CommonEvent> streamEventRange(final StreamId streamId,
+            final int start, final int end, final int chunkSize) {
+        Contract.requireArgMin("start", start, 0);
+        return StreamSupport.stream(new StreamEventsSpliterator(this, streamId,
+                true, start, end, chunkSize), false);
+    }
+
+    /**
+     * Returns the events of a stream forward like
+     * {@link #streamEventsForward(StreamId, int, int)}, but adapts the number
+     * of events read in a single operation.
+     * 
+     * @param streamId
+     *            The stream to read from.
+     * @param start
+     *            The starting point to read from.
+     * @param chunkSize
+     *            Provides the number of events to read in a single operation
+     *            and is informed about each read.
+     * 
+     * @return Lazy sequential stream of events.
+     */
+    @NotNull
+    public final Stream<CommonEvent> streamEventsForward(
+            @NotNull final StreamId streamId, final int start,
+            @NotNull final AdaptiveChunkSize chunkSize) {
+        return StreamSupport.stream(new StreamEventsSpliterator(this, streamId,
+                true, start, StreamEventsSpliterator.NO_END, chunkSize), false);
+    }
+
+    /**
+     * Returns the events of a stream backward like
+     * {@link #streamEventsBackward(StreamId, int, int)}, but adapts the
+     * number of events read in a single operation.
+     * 
+     * @param streamId
+     *            The stream to read from.
+     * @param start
+     *            The starting point to read from.
+     * @param chunkSize
+     *            Provides the number of events to read in a single operation
+     *            and is informed about each read.
+     * 
+     * @return Lazy sequential stream of events.
+     */
+    @NotNull
+    public final Stream<CommonEvent> streamEventsBackward(
+            @NotNull final StreamId streamId, final int start,
+            @NotNull final AdaptiveChunkSize chunkSize) {
+        return StreamSupport.stream(new StreamEventsSpliterator(this, streamId,
+                false, start, StreamEventsSpliterator.NO_END, chunkSize),
+                false);
+    }
+
+    /**
+     * Determines if the read methods may be called concurrently by different
+     * threads. Implementations that are not thread safe must overwrite this
+     * method. The default returns TRUE.
+     * 
+     * @return TRUE if slices can be read ahead in parallel.
+     */
+    protected boolean isSupportsConcurrentReads() {
+        return true;
+    }
+
+    /**
+     * Reads events from a stream forward like
+     * {@link #readEventsForward(StreamId, int, int)} and returns the number of
+     * bytes of the serialized events for the memory target of an
+     * {@link AdaptiveChunkSize}. Implementations that know the size of the
+     * serialized events should overwrite this method and implement
+     * {@link #readEventsForward(StreamId, int, int)} with it. The default
+     * returns -1 (unknown), so only the latency target is used.
+     * 
+     * @param streamId
+     *            The stream to read from.
+     * @param start
+     *            The starting point to read from.
+     * @param count
+     *            The count of items to read.
+     * 
+     * @return Slice with the number of bytes or a negative value if unknown.
+     */
+    @NotNull
+    protected SizedStreamEventsSlice readSizedEventsForward(
+            @NotNull final StreamId streamId, final int start,
+            final int count) {
+        return new SizedStreamEventsSlice(
+                readEventsForward(streamId, start, count), -1);
+    }
+
+    /**
+     * Reads events from a stream backward like
+     * {@link #readEventsBackward(StreamId, int, int)} and returns the number
+     * of bytes of the serialized events. See
+     * {@link #readSizedEventsForward(StreamId, int, int)}.
+     * 
+     * @param streamId
+     *            The stream to read from.
+     * @param start
+     *            The starting point to read from.
+     * @param count
+     *            The count of items to read.
+     * 
+     * @return Slice with the number of bytes or a negative value if unknown.
+     */
+    @NotNull
+    protected SizedStreamEventsSlice readSizedEventsBackward(
+            @NotNull final StreamId streamId, final int start,
+            final int count) {
+        return new SizedStreamEventsSlice(
+                readEventsBackward(streamId, start, count), -1);
+    }
+
+    private SliceRequest requestSlice(final StreamId streamId, final int start,
+            final int count, final Executor executor) {
+        LOG.debug("Read slice ahead: streamId={}, sliceStart={}, sliceCount={}",
+                streamId, start, count);
+        final CompletableFuture<StreamEventsSlice> future = CompletableFuture
+                .supplyAsync(new Supplier<StreamEventsSlice>() {
+                    @Override
+                    public StreamEventsSlice get() {
+                        return readEventsForward(streamId, start, count);
+                    }
+                }, executor);
+        return new SliceRequest(start, future);
+    }
+
+    private static StreamEventsSlice await(
+            final CompletableFuture<StreamEventsSlice> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading a slice", ex);
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException("Error reading a slice", ex.getCause());
+        }
+    }
+
+    private static void cancel(final Deque<SliceRequest> inFlight) {
+        while (!inFlight.isEmpty()) {
+            inFlight.poll().future.cancel(false);
+        }
+    }
+
+    /**
+     * Slice requested from the executor.
+     */
+    private static final class SliceRequest {
+
+        private final int start;
+
+        private final CompletableFuture<StreamEventsSlice> future;
+
+        public SliceRequest(final int start,
+                final CompletableFuture<StreamEventsSlice> future) {
+            super();
+            this.start = start;
+            this.future = future;
+        }
+
+    }
+
 }
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Adapts the number of events read in a single operation to the observed
+ * read time and size of the events. After each slice the average time and
+ * bytes per event are updated and the chunk size is set to the number of
+ * events that fits into the latency target and the memory target. The chunk
+ * size grows at most by factor two per slice, but shrinks at once. As the
+ * time of a read includes the fixed round trip costs, small chunks grow
+ * until the round trip no longer dominates. This class is thread safe.
+ */
+public final class AdaptiveChunkSize {
+
+    /** Default minimal number of events read at once. */
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 10;
+
+    /** Default maximal number of events read at once. */
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 4096;
+
+    /** Default time a single read should take in milliseconds. */
+    public static final long DEFAULT_TARGET_LATENCY_MILLIS = 100;
+
+    /** Default maximal number of bytes read at once. */
+    public static final long DEFAULT_MAX_BYTES_PER_CHUNK = 8 * 1024 * 1024;
+
+    /** Weight of a new measurement for the averages. */
+    private static final double ALPHA = 0.3;
+
+    private final int minChunkSize;
+
+    private final int maxChunkSize;
+
+    private final long targetLatencyNanos;
+
+    private final long maxBytesPerChunk;
+
+    private int chunkSize;
+
+    private double nanosPerEvent;
+
+    private double bytesPerEvent;
+
+    /**
+     * Constructor with default values.
+     */
+    public AdaptiveChunkSize() {
+        this(DEFAULT_MIN_CHUNK_SIZE, DEFAULT_MAX_CHUNK_SIZE, DEFAULT_TARGET_LATENCY_MILLIS,
+                DEFAULT_MAX_BYTES_PER_CHUNK);
+    }
+
+    /**
+     * Constructor with all data. The first chunk has the minimal size.
+     * 
+     * @param minChunkSize
+     *            Minimal number of events read at once.
+     * @param maxChunkSize
+     *            Maximal number of events read at once.
+     * @param targetLatencyMillis
+     *            Time a single read should take in milliseconds.
+     * @param maxBytesPerChunk
+     *            Maximal number of bytes read at once. Only used if the
+     *            size of the read events is reported.
+     */
+    public AdaptiveChunkSize(final int minChunkSize, final int maxChunkSize, final long targetLatencyMillis,
+            final long maxBytesPerChunk) {
+        super();
+        Contract.requireArgMin("minChunkSize", minChunkSize, 1);
+        Contract.requireArgMin("maxChunkSize", maxChunkSize, minChunkSize);
+        Contract.requireArgMin("targetLatencyMillis", targetLatencyMillis, 1);
+        Contract.requireArgMin("maxBytesPerChunk", maxBytesPerChunk, 1);
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.maxBytesPerChunk = maxBytesPerChunk;
+        this.chunkSize = minChunkSize;
+    }
+
+    /**
+     * Returns the number of events to read with the next operation.
+     * 
+     * @return Chunk size between minimal and maximal size.
+     */
+    public final synchronized int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Reports a finished read and adapts the chunk size.
+     * 
+     * @param events
+     *            Number of events read. Reads without events are ignored.
+     * @param nanos
+     *            Time the read took in nanoseconds.
+     * @param bytes
+     *            Size of the read events or a negative value if unknown.
+     */
+    public final synchronized void sliceRead(final int events, final long nanos, final long bytes) {
+        if (events <= 0) {
+            return;
+        }
+        nanosPerEvent = average(nanosPerEvent, Math.max(1, nanos) / (double) events);
+        if (bytes >= 0) {
+            bytesPerEvent = average(bytesPerEvent, bytes / (double) events);
+        }
+        double target = targetLatencyNanos / nanosPerEvent;
+        if (bytesPerEvent > 0) {
+            target = Math.min(target, maxBytesPerChunk / bytesPerEvent);
+        }
+        final long limited = (long) Math.min(target, 2.0 * chunkSize);
+        chunkSize = (int) Math.max(minChunkSize, Math.min(maxChunkSize, limited));
+    }
+
+    private static double average(final double average, final double value) {
+        if (average == 0) {
+            return value;
+        }
+        return average + ALPHA * (value - average);
+    }
+
+    @Override
+    public final synchronized String toString() {
+        return "AdaptiveChunkSize [chunkSize=" + chunkSize + ", nanosPerEvent=" + (long) nanosPerEvent
+                + ", bytesPerEvent=" + (long) bytesPerEvent + "]";
+    }
+
+}
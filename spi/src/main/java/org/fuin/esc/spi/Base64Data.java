@@ -17,21 +17,34 @@
  */
 package org.fuin.esc.spi;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 import javax.validation.constraints.NotNull;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.bind.annotation.XmlValue;
 
-import org.apache.commons.codec.binary.Base64;
 import org.fuin.esc.api.TypeName;
 import org.fuin.objects4j.common.Contract;
 
 /**
- * Contains some Base64 encoded data.
+ * Contains some Base64 encoded data. Only the representation given to the
+ * constructor is kept: The other one is created on demand with each call and
+ * not cached. Large data can be written or read as stream to avoid creating
+ * the other representation at all.
  */
 @XmlRootElement(name = Base64Data.EL_ROOT_NAME)
 public final class Base64Data implements ToJsonCapable {
@@ -45,7 +58,13 @@ public final class Base64Data implements ToJsonCapable {
     /** Unique name of the serialized type. */
     public static final SerializedDataType SER_TYPE = new SerializedDataType(TYPE.asBaseType());
 
-    @XmlValue
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+
+    // Lenient like the former commons-codec decoder: Line breaks and
+    // other non alphabet characters are ignored
+    private static final Base64.Decoder DECODER = Base64.getMimeDecoder();
+
+    @XmlTransient
     private String base64Str;
 
     @XmlTransient
@@ -68,11 +87,11 @@ public final class Base64Data implements ToJsonCapable {
         super();
         Contract.requireArgNotNull("base64Str", base64Str);
         this.base64Str = base64Str;
-        this.binaryData = Base64.decodeBase64(base64Str);
     }
 
     /**
-     * Constructor with binary data that will be Base64 encoded.
+     * Constructor with binary data that will be Base64 encoded. The array is
+     * not copied.
      * 
      * @param binaryData
      *            Binary data.
@@ -80,7 +99,6 @@ public final class Base64Data implements ToJsonCapable {
     public Base64Data(@NotNull final byte[] binaryData) {
         super();
         Contract.requireArgNotNull("binaryData", binaryData);
-        this.base64Str = Base64.encodeBase64String(binaryData);
         this.binaryData = binaryData;
     }
 
@@ -90,6 +108,9 @@ public final class Base64Data implements ToJsonCapable {
      * @return Base64 string.
      */
     public final String getEncoded() {
+        if (base64Str == null) {
+            return ENCODER.encodeToString(binaryData);
+        }
         return base64Str;
     }
 
@@ -100,14 +121,61 @@ public final class Base64Data implements ToJsonCapable {
      */
     public final byte[] getDecoded() {
         if (binaryData == null) {
-            binaryData = Base64.decodeBase64(base64Str);
+            return DECODER.decode(base64Str);
         }
         return binaryData;
     }
 
+    /**
+     * Writes the Base64 encoded data to a stream. Binary data is encoded while
+     * writing. The stream is not closed.
+     * 
+     * @param out
+     *            Stream to write the US-ASCII encoded characters to.
+     */
+    public final void writeEncoded(@NotNull final OutputStream out) {
+        Contract.requireArgNotNull("out", out);
+        try {
+            if (binaryData == null) {
+                out.write(base64Str.getBytes(StandardCharsets.US_ASCII));
+            } else {
+                // Closing the encoder writes the padding
+                final OutputStream encoder = ENCODER.wrap(SpiStreams.nonClosing(out));
+                encoder.write(binaryData);
+                encoder.close();
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error writing Base64 data", ex);
+        }
+    }
+
+    /**
+     * Returns a stream with the decoded data. A Base64 string is decoded while
+     * reading.
+     * 
+     * @return Binary data stream.
+     */
+    public final InputStream openDecoded() {
+        if (binaryData == null) {
+            return DECODER.wrap(SpiStreams.asciiInputStream(base64Str));
+        }
+        return new ByteArrayInputStream(binaryData);
+    }
+
+    @XmlValue
+    private byte[] getXmlValue() {
+        // JAXB writes byte arrays Base64 encoded without an intermediate string
+        return getDecoded();
+    }
+
+    private void setXmlValue(final byte[] binaryData) {
+        this.binaryData = binaryData;
+        this.base64Str = null;
+    }
+
     @Override
     public final JsonObject toJson() {
-        return Json.createObjectBuilder().add(EL_ROOT_NAME, base64Str).build();
+        return Json.createObjectBuilder().add(EL_ROOT_NAME, getEncoded()).build();
     }
 
     /**
@@ -125,7 +193,9 @@ public final class Base64Data implements ToJsonCapable {
 
     /**
      * Serializes and deserializes a {@link Base64Data} object as JSON. The
-     * content type for serialization is always "application/json".
+     * content type for serialization is always "application/json". Binary
+     * data is encoded directly into the output and the input is parsed
+     * without building a {@link JsonObject}.
      */
     public static class Base64DataJsonDeSerializer implements SerDeserializer {
 
@@ -160,13 +230,54 @@ public final class Base64Data implements ToJsonCapable {
             return jsonDeSer.marshal(obj);
         }
 
+        @Override
+        public final <T> void marshal(final T obj, final OutputStream out) {
+            if (!(obj instanceof Base64Data)) {
+                jsonDeSer.marshal(obj, out);
+                return;
+            }
+            final Base64Data base64Data = (Base64Data) obj;
+            try {
+                final Writer writer = new OutputStreamWriter(SpiStreams.nonClosing(out),
+                        jsonDeSer.getMimeType().getEncoding());
+                writer.write("{\"" + EL_ROOT_NAME + "\":\"");
+                base64Data.writeEncoded(SpiStreams.asciiOutputStream(writer));
+                writer.write("\"}");
+                writer.close();
+            } catch (final IOException ex) {
+                throw new RuntimeException("Error writing Base64 data", ex);
+            }
+        }
+
         @SuppressWarnings("unchecked")
         @Override
         public final Base64Data unmarshal(final Object data, final EnhancedMimeType mimeType) {
+            if (data instanceof byte[]) {
+                return unmarshal(new ByteArrayInputStream((byte[]) data), mimeType);
+            }
             final JsonObject jsonObj = jsonDeSer.unmarshal(data, mimeType);
             return Base64Data.create(jsonObj);
         }
 
+        @SuppressWarnings("unchecked")
+        @Override
+        public final Base64Data unmarshal(final InputStream in, final EnhancedMimeType mimeType) {
+            // The JSON parser closes the input, but it belongs to the caller
+            final Reader reader = new InputStreamReader(SpiStreams.nonClosing(in), mimeType.getEncoding());
+            final JsonParser parser = Json.createParser(reader);
+            try {
+                while (parser.hasNext()) {
+                    if (parser.next() == JsonParser.Event.KEY_NAME && EL_ROOT_NAME.equals(parser.getString())) {
+                        parser.next();
+                        return new Base64Data(parser.getString());
+                    }
+                }
+            } finally {
+                parser.close();
+            }
+            throw new IllegalArgumentException("Expected a JSON object with a '" + EL_ROOT_NAME + "' value");
+        }
+
     }
 
 }
@@ -23,7 +23,6 @@ import static org.fuin.utils4j.JaxbUtils.unmarshal;
 import java.io.Serializable;
 import java.io.StringReader;
 
-import javax.activation.MimeTypeParseException;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.validation.constraints.NotNull;
@@ -116,7 +115,7 @@ public final class Data implements ValueObject, Serializable {
      */
     @NotNull
     public final EnhancedMimeType getMimeType() {
-        return EnhancedMimeType.create(mimeType);
+        return EnhancedMimeType.intern(mimeType);
     }
 
     /**
@@ -223,16 +222,12 @@ public final class Data implements ValueObject, Serializable {
     }
 
     private static EnhancedMimeType mimeType(final Object obj) {
-        try {
-            // We can only handle JSON...
-            if (obj instanceof JsonObject) {
-                return new EnhancedMimeType("application/json; encoding=utf-8");
-            }
-            // ...or XML
-            return new EnhancedMimeType("application/xml; encoding=utf-8");
-        } catch (final MimeTypeParseException ex) {
-            throw new RuntimeException(ex);
+        // We can only handle JSON...
+        if (obj instanceof JsonObject) {
+            return EnhancedMimeType.intern("application/json; encoding=utf-8");
         }
+        // ...or XML
+        return EnhancedMimeType.intern("application/xml; encoding=utf-8");
     }
 
     private static String content(final Object obj) {
@@ -17,6 +17,11 @@
  */
 package org.fuin.esc.spi;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import javax.validation.constraints.NotNull;
+
 /**
  * Serializes an object.
  */
@@ -39,4 +44,42 @@ public interface Deserializer {
      */
     public <T> T unmarshal(Object data, EnhancedMimeType mimeType);
 
+    /**
+     * Reads an object from a stream. The stream is read until it ends, but it is not closed. The default
+     * implementation reads all bytes into an array and calls {@link #unmarshal(Object, EnhancedMimeType)}.
+     * Implementations should override this to parse directly from the stream.
+     * 
+     * @param in
+     *            Stream with the serialized object.
+     * @param mimeType
+     *            Type of the data in the stream.
+     * 
+     * @return Deserialized object.
+     * 
+     * @param <T>
+     *            Type the data is converted into.
+     */
+    public default <T> T unmarshal(@NotNull final InputStream in, @NotNull final EnhancedMimeType mimeType) {
+        return unmarshal((Object) SpiStreams.readAll(in), mimeType);
+    }
+
+    /**
+     * Reads an object from the bytes between position and limit of a buffer. The position of the buffer is not
+     * changed. The default implementation uses {@link #unmarshal(InputStream, EnhancedMimeType)} and reads heap
+     * buffers without copying.
+     * 
+     * @param buffer
+     *            Buffer with the serialized object.
+     * @param mimeType
+     *            Type of the data in the buffer.
+     * 
+     * @return Deserialized object.
+     * 
+     * @param <T>
+     *            Type the data is converted into.
+     */
+    public default <T> T unmarshal(@NotNull final ByteBuffer buffer, @NotNull final EnhancedMimeType mimeType) {
+        return unmarshal(SpiStreams.asInputStream(buffer), mimeType);
+    }
+
 }
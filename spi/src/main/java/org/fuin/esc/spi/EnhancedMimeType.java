@@ -17,12 +17,20 @@
  */
 package org.fuin.esc.spi;
 
+import java.io.IOException;
+import java.io.ObjectInput;
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.activation.MimeTypeParameterList;
 import javax.activation.MimeTypeParseException;
 import javax.validation.constraints.NotNull;
 
@@ -30,7 +38,12 @@ import org.fuin.objects4j.common.Nullable;
 
 /**
  * Enhances the {@link javax.activation.MimeType} class with convenience methods for accessing version and
- * encoding parameters. Equals and hash code are base on the {@link #toString()} method.
+ * encoding parameters. Equals and hash code are base on the {@link #toString()} method.<br>
+ * <br>
+ * Instances returned by the <code>intern(..)</code> methods are canonical and cannot be changed. Equal
+ * interned instances are usually the same object, so {@link #equals(Object)} returns after the identity check.
+ * String form, base type, hash code, parameters, encoding and version of them are computed only once. Prefer
+ * them for content types that are used for many events.
  */
 public final class EnhancedMimeType extends javax.activation.MimeType {
 
@@ -40,6 +53,25 @@ public final class EnhancedMimeType extends javax.activation.MimeType {
     /** Encoding parameter name. */
     public static final String ENCODING = "encoding";
 
+    /** Maximum number of interned instances. */
+    private static final int MAX_INTERNED = 1000;
+
+    private static final ConcurrentMap<String, EnhancedMimeType> INTERNED = new ConcurrentHashMap<>();
+
+    private transient boolean frozen;
+
+    private transient Charset encoding;
+
+    private transient String version;
+
+    private transient String str;
+
+    private transient String baseType;
+
+    private transient int hash;
+
+    private transient Map<String, String> parameterMap;
+
     /**
      * Default constructor for de-serialization.
      */
@@ -170,6 +202,9 @@ public final class EnhancedMimeType extends javax.activation.MimeType {
      */
     @Nullable
     public final String getVersion() {
+        if (frozen) {
+            return version;
+        }
         return getParameter(VERSION);
     }
 
@@ -180,6 +215,9 @@ public final class EnhancedMimeType extends javax.activation.MimeType {
      */
     @Nullable
     public final Charset getEncoding() {
+        if (frozen) {
+            return encoding;
+        }
         final String parameter = getParameter(ENCODING);
         if (parameter == null) {
             return null;
@@ -187,13 +225,36 @@ public final class EnhancedMimeType extends javax.activation.MimeType {
         return Charset.forName(parameter);
     }
 
+    /**
+     * Returns the parameters as map.
+     * 
+     * @return Unmodifiable map with parameter names and values in the order of their definition.
+     */
+    @NotNull
+    public final Map<String, String> getParameterMap() {
+        if (frozen) {
+            return parameterMap;
+        }
+        return createParameterMap();
+    }
+
+    private Map<String, String> createParameterMap() {
+        final Map<String, String> map = new LinkedHashMap<>();
+        final Enumeration<?> names = super.getParameters().getNames();
+        while (names.hasMoreElements()) {
+            final String name = (String) names.nextElement();
+            map.put(name, super.getParameter(name));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
     /**
      * Returns the information if the base type is "application/json".
      * 
      * @return TRUE if it's JSON content, else FALSE:
      */
     public final boolean isJson() {
-        return getBaseType().equals("application/json");
+        return "application".equals(getPrimaryType()) && "json".equals(getSubType());
     }
 
     /**
@@ -202,7 +263,7 @@ public final class EnhancedMimeType extends javax.activation.MimeType {
      * @return TRUE if it's XML content, else FALSE:
      */
     public final boolean isXml() {
-        return getBaseType().equals("application/xml");
+        return "application".equals(getPrimaryType()) && "xml".equals(getSubType());
     }
 
     /**
@@ -215,6 +276,9 @@ public final class EnhancedMimeType extends javax.activation.MimeType {
      * @return True if they match.
      */
     public final boolean matchEncoding(final EnhancedMimeType other) {
+        if (this == other) {
+            return true;
+        }
         return match(other) && Objects.equals(getEncoding(), other.getEncoding());
 
     }
@@ -321,8 +385,148 @@ public final class EnhancedMimeType extends javax.activation.MimeType {
         }
     }
 
+    /**
+     * Returns the canonical instance for the given string. The string is only parsed the first time it is seen.
+     * 
+     * @param str
+     *            Contains base type, sub type, version and parameters.
+     * 
+     * @return Canonical instance that cannot be changed.
+     */
+    @Nullable
+    public static EnhancedMimeType intern(@Nullable final String str) {
+        if (str == null) {
+            return null;
+        }
+        final EnhancedMimeType cached = INTERNED.get(str);
+        if (cached != null) {
+            return cached;
+        }
+        // Different notations of the same type share the canonical instance
+        return put(str, intern(create(str)));
+    }
+
+    /**
+     * Returns the canonical instance that is equal to the given one.
+     * 
+     * @param mimeType
+     *            Mime type.
+     * 
+     * @return Canonical instance that cannot be changed.
+     */
+    @Nullable
+    public static EnhancedMimeType intern(@Nullable final EnhancedMimeType mimeType) {
+        if (mimeType == null) {
+            return null;
+        }
+        if (mimeType.frozen) {
+            return mimeType;
+        }
+        final String key = mimeType.toString();
+        final EnhancedMimeType cached = INTERNED.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final EnhancedMimeType copy = create(key);
+        copy.freeze();
+        return put(key, copy);
+    }
+
+    private static EnhancedMimeType put(final String key, final EnhancedMimeType mimeType) {
+        if (INTERNED.size() >= MAX_INTERNED) {
+            // Still a valid frozen instance, only not shared
+            return mimeType;
+        }
+        final EnhancedMimeType existing = INTERNED.putIfAbsent(key, mimeType);
+        if (existing == null) {
+            return mimeType;
+        }
+        return existing;
+    }
+
+    private void freeze() {
+        version = getParameter(VERSION);
+        final String parameter = getParameter(ENCODING);
+        if (parameter != null) {
+            encoding = Charset.forName(parameter);
+        }
+        str = super.toString();
+        baseType = super.getBaseType();
+        hash = str.hashCode();
+        parameterMap = createParameterMap();
+        frozen = true;
+    }
+
+    private void ensureNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Interned mime types cannot be changed: " + this);
+        }
+    }
+
+    @Override
+    public final void setPrimaryType(final String primary) throws MimeTypeParseException {
+        ensureNotFrozen();
+        super.setPrimaryType(primary);
+    }
+
+    @Override
+    public final void setSubType(final String sub) throws MimeTypeParseException {
+        ensureNotFrozen();
+        super.setSubType(sub);
+    }
+
+    @Override
+    public final void setParameter(final String name, final String value) {
+        ensureNotFrozen();
+        super.setParameter(name, value);
+    }
+
+    @Override
+    public final void removeParameter(final String name) {
+        ensureNotFrozen();
+        super.removeParameter(name);
+    }
+
+    @Override
+    public final MimeTypeParameterList getParameters() {
+        if (!frozen) {
+            return super.getParameters();
+        }
+        // Return a copy as the list can be changed
+        final MimeTypeParameterList copy = new MimeTypeParameterList();
+        for (final Map.Entry<String, String> entry : parameterMap.entrySet()) {
+            copy.set(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    @Override
+    public final String getParameter(final String name) {
+        if (frozen) {
+            return parameterMap.get(name);
+        }
+        return super.getParameter(name);
+    }
+
+    @Override
+    public final String getBaseType() {
+        if (frozen) {
+            return baseType;
+        }
+        return super.getBaseType();
+    }
+
+    @Override
+    public final void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
+        ensureNotFrozen();
+        super.readExternal(in);
+    }
+
     @Override
     public final int hashCode() {
+        if (frozen) {
+            return hash;
+        }
         return toString().hashCode();
     }
 
@@ -338,7 +542,19 @@ public final class EnhancedMimeType extends javax.activation.MimeType {
             return false;
         }
         final EnhancedMimeType other = (EnhancedMimeType) obj;
+        if (frozen && other.frozen) {
+            // Frozen instances are only different objects if they were not shared
+            return hash == other.hash && str.equals(other.str);
+        }
         return toString().equals(other.toString());
     }
 
+    @Override
+    public final String toString() {
+        if (frozen) {
+            return str;
+        }
+        return super.toString();
+    }
+
 }
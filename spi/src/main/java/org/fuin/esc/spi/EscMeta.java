@@ -144,7 +144,7 @@ public final class EscMeta implements ToJsonCapable {
     @NotNull
     public final EnhancedMimeType getDataContentType() {
         if (dataContentType == null) {
-            dataContentType = EnhancedMimeType.create(dataContentTypeStr);
+            dataContentType = EnhancedMimeType.intern(dataContentTypeStr);
         }
         return dataContentType;
     }
@@ -167,7 +167,7 @@ public final class EscMeta implements ToJsonCapable {
     @Nullable
     public final EnhancedMimeType getMetaContentType() {
         if ((metaContentType == null) && (metaContentTypeStr != null)) {
-            metaContentType = EnhancedMimeType.create(metaContentTypeStr);
+            metaContentType = EnhancedMimeType.intern(metaContentTypeStr);
         }
         return metaContentType;
     }
@@ -17,6 +17,8 @@
  */
 package org.fuin.esc.spi;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 
 import javax.json.JsonObject;
@@ -58,6 +60,11 @@ public class EscMetaJsonDeSerializer implements SerDeserializer {
         return jsonDeSer.marshal(obj);
     }
 
+    @Override
+    public final <T> void marshal(final T obj, final OutputStream out) {
+        jsonDeSer.marshal(obj, out);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public final EscMeta unmarshal(final Object data, final EnhancedMimeType mimeType) {
@@ -65,4 +72,11 @@ public class EscMetaJsonDeSerializer implements SerDeserializer {
         return EscMeta.create(jsonObj);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public final EscMeta unmarshal(final InputStream in, final EnhancedMimeType mimeType) {
+        final JsonObject jsonObj = jsonDeSer.unmarshal(in, mimeType);
+        return EscMeta.create(jsonObj);
+    }
+
 }
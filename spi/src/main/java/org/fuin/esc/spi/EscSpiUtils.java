@@ -203,6 +203,29 @@ public final class EscSpiUtils {
      */
     public static EscMeta createEscMeta(@NotNull final SerializerRegistry registry,
             @NotNull final EnhancedMimeType targetContentType, @Nullable final CommonEvent commonEvent) {
+        return createEscMeta(registry, targetContentType, commonEvent, false);
+    }
+
+    /**
+     * Create meta information for a given a {@link CommonEvent}.
+     * 
+     * @param registry
+     *            Registry with serializers.
+     * @param targetContentType
+     *            Content type that will later be used to serialize the created
+     *            result.
+     * @param commonEvent
+     *            Event to create meta information for.
+     * @param nativeBinaryData
+     *            TRUE if the caller stores binary data (see
+     *            {@link #isBinary(EnhancedMimeType)}) as it is, so the data
+     *            content type must not mark it as Base64 encoded.
+     * 
+     * @return New meta instance.
+     */
+    public static EscMeta createEscMeta(@NotNull final SerializerRegistry registry,
+            @NotNull final EnhancedMimeType targetContentType, @Nullable final CommonEvent commonEvent,
+            final boolean nativeBinaryData) {
 
         Contract.requireArgNotNull("registry", registry);
         Contract.requireArgNotNull("targetContentType", targetContentType);
@@ -213,7 +236,12 @@ public final class EscSpiUtils {
 
         final String dataType = commonEvent.getDataType().asBaseType();
         final Serializer dataSerializer = registry.getSerializer(new SerializedDataType(dataType));
-        final EnhancedMimeType dataContentType = contentType(dataSerializer.getMimeType(), targetContentType);
+        final EnhancedMimeType dataContentType;
+        if (nativeBinaryData && isBinary(dataSerializer.getMimeType())) {
+            dataContentType = dataSerializer.getMimeType();
+        } else {
+            dataContentType = contentType(dataSerializer.getMimeType(), targetContentType);
+        }
 
         if (commonEvent.getMeta() == null) {
             return new EscMeta(dataType, dataContentType);
@@ -232,12 +260,29 @@ public final class EscSpiUtils {
 
     }
 
+    /**
+     * Determines if the content type describes binary data. This is the case
+     * if it has no encoding and is neither JSON, XML nor text. Binary data can
+     * be stored as it is by adapters with a binary storage, but must be Base64
+     * encoded if it is embedded in a JSON or XML document.
+     * 
+     * @param contentType
+     *            Content type to test.
+     * 
+     * @return TRUE if the content is binary.
+     */
+    public static boolean isBinary(@NotNull final EnhancedMimeType contentType) {
+        Contract.requireArgNotNull("contentType", contentType);
+        return contentType.getEncoding() == null && !contentType.isJson() && !contentType.isXml()
+                && !"text".equals(contentType.getPrimaryType());
+    }
+
     private static EnhancedMimeType contentType(final EnhancedMimeType sourceContentType,
             final EnhancedMimeType targetContentType) {
         if (sourceContentType.matchEncoding(targetContentType)) {
             return sourceContentType;
         }
-        return EnhancedMimeType.create(sourceContentType.toString() + "; transfer-encoding=base64");
+        return EnhancedMimeType.intern(sourceContentType.toString() + "; transfer-encoding=base64");
     }
 
     /**
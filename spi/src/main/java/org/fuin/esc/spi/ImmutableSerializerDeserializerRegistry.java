@@ -0,0 +1,254 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Registry with serializers and deserializers that cannot be changed after it
+ * was created. Instances are created with
+ * {@link SimpleSerializerDeserializerRegistry#freeze()}. A lookup first finds
+ * the entry for the type name and then compares the primary and sub type of
+ * the mime type with the few content types registered for that type. No
+ * objects are created for a successful lookup. Upcaster chains are resolved
+ * when the registry is created: For data with a version that has upcasters
+ * a deserializer is returned that runs the chain first. This class is thread
+ * safe.
+ */
+public final class ImmutableSerializerDeserializerRegistry implements SerDeserializerRegistry {
+
+    private final Map<String, TypeEntry> entries;
+
+    /**
+     * Constructor with all data. The given maps are copied.
+     * 
+     * @param serializers
+     *            Serializers by type.
+     * @param deserializers
+     *            Deserializers by type and content type (base type like "application/json").
+     * @param contentTypes
+     *            Default content types by type.
+     * @param upcasters
+     *            Upcasters by type and the version they read.
+     */
+    ImmutableSerializerDeserializerRegistry(@NotNull final Map<SerializedDataType, Serializer> serializers,
+            @NotNull final Map<SerializedDataType, Map<String, Deserializer>> deserializers,
+            @NotNull final Map<SerializedDataType, EnhancedMimeType> contentTypes,
+            @NotNull final Map<SerializedDataType, Map<String, Upcaster>> upcasters) {
+        super();
+        Contract.requireArgNotNull("serializers", serializers);
+        Contract.requireArgNotNull("deserializers", deserializers);
+        Contract.requireArgNotNull("contentTypes", contentTypes);
+        Contract.requireArgNotNull("upcasters", upcasters);
+
+        final Set<SerializedDataType> types = new HashSet<>();
+        types.addAll(serializers.keySet());
+        types.addAll(deserializers.keySet());
+        types.addAll(contentTypes.keySet());
+
+        entries = new HashMap<>();
+        for (final SerializedDataType type : types) {
+            final Map<String, Deserializer> desMap = deserializers.get(type);
+            final Map<String, UpcasterChain> chains = resolveChains(type, upcasters.get(type));
+            final List<ContentTypeEntry> list = new ArrayList<>();
+            if (desMap != null) {
+                for (final Map.Entry<String, Deserializer> entry : desMap.entrySet()) {
+                    final String contentType = entry.getKey();
+                    final int idx = contentType.indexOf('/');
+                    // Content types without a slash never match a base type
+                    if (idx > 0) {
+                        list.add(new ContentTypeEntry(contentType.substring(0, idx),
+                                contentType.substring(idx + 1), entry.getValue(),
+                                upcasting(chains, entry.getValue())));
+                    }
+                }
+            }
+            entries.put(type.asBaseType(), new TypeEntry(serializers.get(type), contentTypes.get(type),
+                    list.toArray(new ContentTypeEntry[list.size()])));
+        }
+    }
+
+    @Override
+    public final Serializer getSerializer(final SerializedDataType type) {
+        Contract.requireArgNotNull("type", type);
+        final TypeEntry entry = entries.get(type.asBaseType());
+        if (entry == null || entry.serializer == null) {
+            throw new IllegalArgumentException("No serializer found for: " + type);
+        }
+        return entry.serializer;
+    }
+
+    @Override
+    public final boolean serializerExists(final SerializedDataType type) {
+        final TypeEntry entry = entries.get(type.asBaseType());
+        return entry != null && entry.serializer != null;
+    }
+
+    @Override
+    public final Deserializer getDeserializer(final SerializedDataType type, final EnhancedMimeType mimeType) {
+        Contract.requireArgNotNull("type", type);
+        Contract.requireArgNotNull("mimeType", mimeType);
+        final Deserializer des = find(type, mimeType);
+        if (des == null) {
+            throw new IllegalArgumentException(
+                    "No deserializer found for: type=" + type + ", contentType=" + mimeType.getBaseType());
+        }
+        return des;
+    }
+
+    @Override
+    public final Deserializer getDeserializer(final SerializedDataType type) {
+        Contract.requireArgNotNull("type", type);
+        final EnhancedMimeType contentType = getDefaultContentType(type);
+        if (contentType == null) {
+            throw new IllegalArgumentException("No default content type was set for: " + type);
+        }
+        return getDeserializer(type, contentType);
+    }
+
+    @Override
+    public final EnhancedMimeType getDefaultContentType(final SerializedDataType type) {
+        Contract.requireArgNotNull("type", type);
+        final TypeEntry entry = entries.get(type.asBaseType());
+        if (entry == null) {
+            return null;
+        }
+        return entry.defaultContentType;
+    }
+
+    @Override
+    public final boolean deserializerExists(final SerializedDataType type) {
+        Contract.requireArgNotNull("type", type);
+        final EnhancedMimeType contentType = getDefaultContentType(type);
+        if (contentType == null) {
+            throw new IllegalArgumentException("No default content type was set for: " + type);
+        }
+        return find(type, contentType) != null;
+    }
+
+    @Override
+    public final boolean deserializerExists(final SerializedDataType type, final EnhancedMimeType mimeType) {
+        Contract.requireArgNotNull("type", type);
+        Contract.requireArgNotNull("mimeType", mimeType);
+        return find(type, mimeType) != null;
+    }
+
+    private Deserializer find(final SerializedDataType type, final EnhancedMimeType mimeType) {
+        final TypeEntry entry = entries.get(type.asBaseType());
+        if (entry == null) {
+            return null;
+        }
+        final String primary = mimeType.getPrimaryType();
+        final String sub = mimeType.getSubType();
+        for (final ContentTypeEntry cte : entry.deserializers) {
+            if (cte.primary.equals(primary) && cte.sub.equals(sub)) {
+                if (cte.upcasting != null) {
+                    final String version = mimeType.getVersion();
+                    if (version != null) {
+                        final Deserializer upcasting = cte.upcasting.get(version);
+                        if (upcasting != null) {
+                            return upcasting;
+                        }
+                    }
+                }
+                return cte.deserializer;
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, UpcasterChain> resolveChains(final SerializedDataType type,
+            final Map<String, Upcaster> byVersion) {
+        if (byVersion == null) {
+            return null;
+        }
+        final Map<String, UpcasterChain> chains = new HashMap<>();
+        for (final String version : byVersion.keySet()) {
+            chains.put(version, UpcasterChain.resolve(type, version, byVersion));
+        }
+        return chains;
+    }
+
+    private static Map<String, Deserializer> upcasting(final Map<String, UpcasterChain> chains,
+            final Deserializer deserializer) {
+        if (chains == null) {
+            return null;
+        }
+        final Map<String, Deserializer> upcasting = new HashMap<>();
+        for (final Map.Entry<String, UpcasterChain> entry : chains.entrySet()) {
+            upcasting.put(entry.getKey(), new UpcastingDeserializer(entry.getValue(), deserializer));
+        }
+        return upcasting;
+    }
+
+    /**
+     * Everything registered for one type.
+     */
+    private static final class TypeEntry {
+
+        private final Serializer serializer;
+
+        private final EnhancedMimeType defaultContentType;
+
+        private final ContentTypeEntry[] deserializers;
+
+        public TypeEntry(final Serializer serializer, final EnhancedMimeType defaultContentType,
+                final ContentTypeEntry[] deserializers) {
+            super();
+            this.serializer = serializer;
+            this.defaultContentType = defaultContentType;
+            this.deserializers = deserializers;
+        }
+
+    }
+
+    /**
+     * Deserializer for a content type split into primary and sub type with
+     * the upcasting deserializers by version.
+     */
+    private static final class ContentTypeEntry {
+
+        private final String primary;
+
+        private final String sub;
+
+        private final Deserializer deserializer;
+
+        private final Map<String, Deserializer> upcasting;
+
+        public ContentTypeEntry(final String primary, final String sub, final Deserializer deserializer,
+                final Map<String, Deserializer> upcasting) {
+            super();
+            this.primary = primary;
+            this.sub = sub;
+            this.deserializer = deserializer;
+            this.upcasting = upcasting;
+        }
+
+    }
+
+}
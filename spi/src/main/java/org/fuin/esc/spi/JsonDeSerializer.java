@@ -19,7 +19,9 @@ package org.fuin.esc.spi;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
@@ -54,7 +56,7 @@ public final class JsonDeSerializer implements SerDeserializer {
      */
     public JsonDeSerializer(final Charset encoding) {
         super();
-        this.mimeType = EnhancedMimeType.create("application", "json", encoding);
+        this.mimeType = EnhancedMimeType.intern(EnhancedMimeType.create("application", "json", encoding));
     }
 
     @Override
@@ -64,6 +66,13 @@ public final class JsonDeSerializer implements SerDeserializer {
 
     @Override
     public final byte[] marshal(final Object obj) {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
+        marshal(obj, bos);
+        return bos.toByteArray();
+    }
+
+    @Override
+    public final <T> void marshal(final T obj, final OutputStream out) {
 
         final JsonStructure struct;
         if (obj instanceof ToJsonCapable) {
@@ -76,15 +85,14 @@ public final class JsonDeSerializer implements SerDeserializer {
                     + "', but not: " + obj.getClass());
         }
 
-        final ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
-        final Writer writer = new OutputStreamWriter(bos, mimeType.getEncoding());
+        // The JSON writer closes the output, but it belongs to the caller
+        final Writer writer = new OutputStreamWriter(SpiStreams.nonClosing(out), mimeType.getEncoding());
         final JsonWriter jsonWriter = Json.createWriter(writer);
         try {
             jsonWriter.write(struct);
         } finally {
             jsonWriter.close();
         }
-        return bos.toByteArray();
     }
 
     @SuppressWarnings("unchecked")
@@ -92,14 +100,7 @@ public final class JsonDeSerializer implements SerDeserializer {
     public final <T> T unmarshal(final Object data, final EnhancedMimeType mimeType) {
 
         if (data instanceof byte[]) {
-            final Reader reader = new InputStreamReader(new ByteArrayInputStream((byte[]) data),
-                    mimeType.getEncoding());
-            final JsonReader jsonReader = Json.createReader(reader);
-            try {
-                return (T) jsonReader.read();
-            } finally {
-                jsonReader.close();
-            }
+            return unmarshal(new ByteArrayInputStream((byte[]) data), mimeType);
         }
         if (data instanceof JsonStructure) {
             // Simply return it
@@ -110,4 +111,17 @@ public final class JsonDeSerializer implements SerDeserializer {
 
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public final <T> T unmarshal(final InputStream in, final EnhancedMimeType mimeType) {
+        // The JSON reader closes the input, but it belongs to the caller
+        final Reader reader = new InputStreamReader(SpiStreams.nonClosing(in), mimeType.getEncoding());
+        final JsonReader jsonReader = Json.createReader(reader);
+        try {
+            return (T) jsonReader.read();
+        } finally {
+            jsonReader.close();
+        }
+    }
+
 }
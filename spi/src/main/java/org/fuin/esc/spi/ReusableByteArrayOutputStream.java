@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import java.io.ByteArrayOutputStream;
+
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Growable byte buffer that is meant to be reused for many serializations,
+ * for example one instance per thread. The backing array is only replaced if
+ * it has grown beyond a maximum size when the buffer is released. This class
+ * is NOT thread safe.
+ */
+public final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    /** Default initial size of the buffer. */
+    public static final int DEFAULT_INITIAL_SIZE = 1024;
+
+    /** Default maximum size a buffer may keep between two usages. */
+    public static final int DEFAULT_MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private final int initialSize;
+
+    private final int maxRetainedSize;
+
+    /**
+     * Constructor with default sizes.
+     */
+    public ReusableByteArrayOutputStream() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_RETAINED_SIZE);
+    }
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param initialSize
+     *            Initial size of the buffer.
+     * @param maxRetainedSize
+     *            Maximum size the buffer may keep after it was released.
+     */
+    public ReusableByteArrayOutputStream(final int initialSize,
+            final int maxRetainedSize) {
+        super(initialSize);
+        Contract.requireArgMin("initialSize", initialSize, 1);
+        Contract.requireArgMin("maxRetainedSize", maxRetainedSize,
+                initialSize);
+        this.initialSize = initialSize;
+        this.maxRetainedSize = maxRetainedSize;
+    }
+
+    /**
+     * Returns the backing array without copying it. Only the first
+     * {@link #size()} bytes are valid and the content changes as soon as the
+     * buffer is written to again.
+     * 
+     * @return Current backing array.
+     */
+    public final synchronized byte[] buffer() {
+        return buf;
+    }
+
+    /**
+     * Resets the buffer so it can be used for the next serialization. A
+     * backing array that has grown beyond the maximum retained size is
+     * replaced by one with the initial size.
+     */
+    public final synchronized void release() {
+        reset();
+        if (buf.length > maxRetainedSize) {
+            buf = new byte[initialSize];
+        }
+    }
+
+}
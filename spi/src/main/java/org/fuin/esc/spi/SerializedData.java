@@ -94,7 +94,7 @@ public class SerializedData implements ValueObject, Serializable {
      */
     @NeverNull
     public final EnhancedMimeType getMimeType() {
-        return EnhancedMimeType.create(mimeType);
+        return EnhancedMimeType.intern(mimeType);
     }
 
     /**
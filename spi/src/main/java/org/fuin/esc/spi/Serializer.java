@@ -17,6 +17,10 @@
  */
 package org.fuin.esc.spi;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
 import javax.validation.constraints.NotNull;
 
 /**
@@ -45,4 +49,45 @@ public interface Serializer {
     @NotNull
     public <T> byte[] marshal(@NotNull T obj);
 
+    /**
+     * Writes the byte representation of the given object to a caller supplied
+     * output. The output is not closed. Implementations should override this
+     * method to avoid the intermediate array created by the default.
+     * 
+     * @param obj
+     *            Object to serialize.
+     * @param out
+     *            Output to write the serialized object to.
+     * 
+     * @param <T>
+     *            Type the data is converted into.
+     */
+    public default <T> void marshal(@NotNull final T obj, @NotNull final OutputStream out) {
+        try {
+            out.write(marshal(obj));
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error writing serialized data", ex);
+        }
+    }
+
+    /**
+     * Writes the byte representation of the given object into a buffer starting at its current position. The
+     * position is advanced by the number of bytes written. The default implementation uses
+     * {@link #marshal(Object, OutputStream)}.
+     * 
+     * @param obj
+     *            Object to serialize.
+     * @param buffer
+     *            Buffer to write the serialized object to.
+     * 
+     * @throws java.nio.BufferOverflowException
+     *             The remaining space of the buffer is not sufficient.
+     * 
+     * @param <T>
+     *            Type the data is converted into.
+     */
+    public default <T> void marshal(@NotNull final T obj, @NotNull final ByteBuffer buffer) {
+        marshal(obj, SpiStreams.asOutputStream(buffer));
+    }
+
 }
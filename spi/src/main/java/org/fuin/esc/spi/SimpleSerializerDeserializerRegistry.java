@@ -19,13 +19,19 @@ package org.fuin.esc.spi;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.validation.constraints.NotNull;
 
 import org.fuin.objects4j.common.Contract;
 
 /**
- * Contains all known serializers and deserializers.
+ * Contains all known serializers, deserializers and upcasters. Deserializers
+ * for data with a version that has upcasters run the {@link UpcasterChain}
+ * first. Chains are resolved once and cached. Adding entries is NOT thread safe, but looking up entries
+ * concurrently after all entries are added is. Call {@link #freeze()} after all entries are added to get
+ * a registry that is faster to query.
  */
 public final class SimpleSerializerDeserializerRegistry implements SerDeserializerRegistry {
 
@@ -35,6 +41,11 @@ public final class SimpleSerializerDeserializerRegistry implements SerDeserializ
 
     private final Map<SerializedDataType, EnhancedMimeType> contentTypes;
 
+    private final Map<SerializedDataType, Map<String, Upcaster>> upcasters;
+
+    /** Resolved on lookup and therefore safe for concurrent modification. */
+    private final ConcurrentMap<SerializedDataType, ConcurrentMap<String, UpcasterChain>> chains;
+
     /**
      * Default constructor.
      */
@@ -43,6 +54,8 @@ public final class SimpleSerializerDeserializerRegistry implements SerDeserializ
         serMap = new HashMap<SerializedDataType, Serializer>();
         desMap = new HashMap<Key, Deserializer>();
         contentTypes = new HashMap<SerializedDataType, EnhancedMimeType>();
+        upcasters = new HashMap<SerializedDataType, Map<String, Upcaster>>();
+        chains = new ConcurrentHashMap<SerializedDataType, ConcurrentMap<String, UpcasterChain>>();
     }
 
     /**
@@ -124,6 +137,56 @@ public final class SimpleSerializerDeserializerRegistry implements SerDeserializ
 
     }
 
+    /**
+     * Adds an upcaster that migrates data of the given type and version. If
+     * another upcaster reads the target version, both are applied one after
+     * the other.
+     * 
+     * @param type
+     *            Type of the data.
+     * @param version
+     *            Version the upcaster reads.
+     * @param upcaster
+     *            Upcaster.
+     */
+    public final void addUpcaster(@NotNull final SerializedDataType type, @NotNull final String version,
+            @NotNull final Upcaster upcaster) {
+
+        Contract.requireArgNotNull("type", type);
+        Contract.requireArgNotNull("version", version);
+        Contract.requireArgNotNull("upcaster", upcaster);
+
+        Map<String, Upcaster> byVersion = upcasters.get(type);
+        if (byVersion == null) {
+            byVersion = new HashMap<String, Upcaster>();
+            upcasters.put(type, byVersion);
+        }
+        byVersion.put(version, upcaster);
+        chains.remove(type);
+
+    }
+
+    /**
+     * Creates an immutable copy of the current content. Changes made to this registry afterwards are not
+     * visible in the copy.
+     * 
+     * @return Immutable registry with the same serializers, deserializers and default content types.
+     */
+    @NotNull
+    public final ImmutableSerializerDeserializerRegistry freeze() {
+        final Map<SerializedDataType, Map<String, Deserializer>> deserializers = new HashMap<>();
+        for (final Map.Entry<Key, Deserializer> entry : desMap.entrySet()) {
+            final Key key = entry.getKey();
+            Map<String, Deserializer> byContentType = deserializers.get(key.type);
+            if (byContentType == null) {
+                byContentType = new HashMap<>();
+                deserializers.put(key.type, byContentType);
+            }
+            byContentType.put(key.contentType, entry.getValue());
+        }
+        return new ImmutableSerializerDeserializerRegistry(serMap, deserializers, contentTypes, upcasters);
+    }
+
     @Override
     public Serializer getSerializer(final SerializedDataType type) {
         Contract.requireArgNotNull("type", type);
@@ -146,7 +209,7 @@ public final class SimpleSerializerDeserializerRegistry implements SerDeserializ
         if (des == null) {
             throw new IllegalArgumentException("No deserializer found for: " + key);
         }
-        return des;
+        return upcasting(type, mimeType, des);
 
     }
 
@@ -164,7 +227,7 @@ public final class SimpleSerializerDeserializerRegistry implements SerDeserializ
         if (des == null) {
             throw new IllegalArgumentException("No deserializer found for: " + key);
         }
-        return des;
+        return upcasting(type, contentType, des);
     }
 
     @Override
@@ -217,6 +280,35 @@ public final class SimpleSerializerDeserializerRegistry implements SerDeserializ
         return true;
     }
 
+    private Deserializer upcasting(final SerializedDataType type, final EnhancedMimeType mimeType,
+            final Deserializer des) {
+        final String version = mimeType.getVersion();
+        if (version == null) {
+            return des;
+        }
+        final Map<String, Upcaster> byVersion = upcasters.get(type);
+        if (byVersion == null || !byVersion.containsKey(version)) {
+            return des;
+        }
+        ConcurrentMap<String, UpcasterChain> chainsByVersion = chains.get(type);
+        if (chainsByVersion == null) {
+            chainsByVersion = new ConcurrentHashMap<String, UpcasterChain>();
+            final ConcurrentMap<String, UpcasterChain> existing = chains.putIfAbsent(type, chainsByVersion);
+            if (existing != null) {
+                chainsByVersion = existing;
+            }
+        }
+        UpcasterChain chain = chainsByVersion.get(version);
+        if (chain == null) {
+            chain = UpcasterChain.resolve(type, version, byVersion);
+            final UpcasterChain existing = chainsByVersion.putIfAbsent(version, chain);
+            if (existing != null) {
+                chain = existing;
+            }
+        }
+        return new UpcastingDeserializer(chain, des);
+    }
+
     /**
      * Key used to find an appropriate deserializer.
      */
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.api.StreamEventsSlice;
+import org.fuin.objects4j.common.Contract;
+import org.fuin.objects4j.common.Immutable;
+
+/**
+ * Slice of events together with the number of bytes the serialized events
+ * had when they were read.
+ */
+@Immutable
+public final class SizedStreamEventsSlice {
+
+    private final StreamEventsSlice slice;
+
+    private final long bytes;
+
+    /**
+     * Constructor with all data.
+     * 
+     * @param slice
+     *            Slice that was read.
+     * @param bytes
+     *            Number of bytes of the serialized events or a negative value
+     *            if unknown.
+     */
+    public SizedStreamEventsSlice(@NotNull final StreamEventsSlice slice,
+            final long bytes) {
+        super();
+        Contract.requireArgNotNull("slice", slice);
+        this.slice = slice;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Returns the slice that was read.
+     * 
+     * @return Slice.
+     */
+    @NotNull
+    public final StreamEventsSlice getSlice() {
+        return slice;
+    }
+
+    /**
+     * Returns the number of bytes of the serialized events.
+     * 
+     * @return Number of bytes or a negative value if unknown.
+     */
+    public final long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public final String toString() {
+        return "SizedStreamEventsSlice [slice=" + slice + ", bytes=" + bytes
+                + "]";
+    }
+
+}
@@ -0,0 +1,269 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+/**
+ * Stream helpers for the default methods of {@link Serializer} and
+ * {@link Deserializer} and their implementations.
+ */
+final class SpiStreams {
+
+    private SpiStreams() {
+        throw new UnsupportedOperationException(
+                "Creating instances of a utility class is not allowed.");
+    }
+
+    /**
+     * Reads all remaining bytes of a stream.
+     * 
+     * @param in
+     *            Stream to read.
+     * 
+     * @return Bytes read.
+     */
+    static byte[] readAll(final InputStream in) {
+        try {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
+            final byte[] buf = new byte[4096];
+            int count;
+            while ((count = in.read(buf)) != -1) {
+                bos.write(buf, 0, count);
+            }
+            return bos.toByteArray();
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error reading serialized data", ex);
+        }
+    }
+
+    /**
+     * Returns a stream that reads the bytes between position and limit of the
+     * buffer. Heap buffers are read without copying. The position of the
+     * buffer is not changed.
+     * 
+     * @param buffer
+     *            Buffer to read.
+     * 
+     * @return Input stream.
+     */
+    static InputStream asInputStream(final ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new ByteArrayInputStream(buffer.array(),
+                    buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining());
+        }
+        return new ByteBufferInputStream(buffer.duplicate());
+    }
+
+    /**
+     * Returns a stream that writes into the buffer starting at its current
+     * position. Writing more than the remaining bytes causes a
+     * {@link java.nio.BufferOverflowException}.
+     * 
+     * @param buffer
+     *            Buffer to write to.
+     * 
+     * @return Output stream.
+     */
+    static OutputStream asOutputStream(final ByteBuffer buffer) {
+        return new ByteBufferOutputStream(buffer);
+    }
+
+    /**
+     * Returns a stream that ignores close calls. Used to hand caller owned
+     * streams to parsers that close their input.
+     * 
+     * @param in
+     *            Stream to wrap.
+     * 
+     * @return Non closing stream.
+     */
+    static InputStream nonClosing(final InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public void close() throws IOException {
+                // Owned by the caller
+            }
+        };
+    }
+
+    /**
+     * Returns a stream that flushes instead of closing. Used to hand caller
+     * owned streams to writers that close their output.
+     * 
+     * @param out
+     *            Stream to wrap.
+     * 
+     * @return Non closing stream.
+     */
+    static OutputStream nonClosing(final OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(final byte[] b, final int off, final int len)
+                    throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Returns a stream that reads the characters of a US-ASCII string as
+     * bytes without copying them into an array.
+     * 
+     * @param str
+     *            String with US-ASCII characters only.
+     * 
+     * @return Input stream.
+     */
+    static InputStream asciiInputStream(final CharSequence str) {
+        return new InputStream() {
+
+            private int pos;
+
+            @Override
+            public int read() {
+                if (pos >= str.length()) {
+                    return -1;
+                }
+                return str.charAt(pos++) & 0xFF;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (pos >= str.length()) {
+                    return -1;
+                }
+                final int count = Math.min(len, str.length() - pos);
+                for (int i = 0; i < count; i++) {
+                    b[off + i] = (byte) str.charAt(pos++);
+                }
+                return count;
+            }
+
+        };
+    }
+
+    /**
+     * Returns a stream that writes US-ASCII bytes as characters to a writer.
+     * Used to write Base64 output into character based documents. Closing
+     * the stream does not close the writer.
+     * 
+     * @param writer
+     *            Writer to write to.
+     * 
+     * @return Output stream.
+     */
+    static OutputStream asciiOutputStream(final Writer writer) {
+        return new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                writer.write(b & 0xFF);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len)
+                    throws IOException {
+                for (int i = 0; i < len; i++) {
+                    writer.write(b[off + i] & 0xFF);
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads from a byte buffer.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        public ByteBufferInputStream(final ByteBuffer buffer) {
+            super();
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+    }
+
+    /**
+     * Writes into a byte buffer.
+     */
+    private static final class ByteBufferOutputStream extends OutputStream {
+
+        private final ByteBuffer buffer;
+
+        public ByteBufferOutputStream(final ByteBuffer buffer) {
+            super();
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(final int b) {
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            buffer.put(b, off, len);
+        }
+
+    }
+
+}
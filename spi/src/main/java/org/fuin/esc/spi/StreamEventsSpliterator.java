@@ -0,0 +1,241 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.ReadableEventStore;
+import org.fuin.esc.api.StreamEventsSlice;
+import org.fuin.esc.api.StreamId;
+import org.fuin.esc.api.StreamNotFoundException;
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Reads the events of a stream slice by slice while they are consumed. The
+ * next slice is only read when all events of the current one were consumed,
+ * so a stream that is not consumed until the end does not read any further
+ * slices. A stream that does not exist has no events. Reading forward with an
+ * end event number can be split into event number ranges for parallel
+ * processing, which requires thread safe read methods of the event store.
+ * The chunk size is either fixed or adapted with an {@link AdaptiveChunkSize}.
+ * This class is NOT thread safe.
+ */
+public final class StreamEventsSpliterator implements Spliterator<CommonEvent> {
+
+    /** Used as end event number if the end of the stream is not known. */
+    public static final int NO_END = -1;
+
+    private final ReadableEventStore eventStore;
+
+    private final StreamId streamId;
+
+    private final boolean forward;
+
+    private final int chunkSize;
+
+    private final AdaptiveChunkSize adaptiveChunkSize;
+
+    private final int end;
+
+    private int next;
+
+    private Iterator<CommonEvent> current;
+
+    private boolean endOfStream;
+
+    /**
+     * Constructor with all mandatory data.
+     * 
+     * @param eventStore
+     *            Event store to read from.
+     * @param streamId
+     *            Unique identifier of the stream.
+     * @param forward
+     *            TRUE to read forward (oldest to newest), FALSE to read
+     *            backward (newest to oldest).
+     * @param start
+     *            First event number to read.
+     * @param end
+     *            Event number to stop reading before (exclusive) or
+     *            {@link #NO_END} to read until the end of the stream. Only
+     *            allowed for reading forward.
+     * @param chunkSize
+     *            Number of events to read in a single operation.
+     */
+    public StreamEventsSpliterator(@NotNull final ReadableEventStore eventStore,
+            @NotNull final StreamId streamId, final boolean forward, final int start, final int end,
+            final int chunkSize) {
+        this(eventStore, streamId, forward, start, end, chunkSize, null);
+    }
+
+    /**
+     * Constructor with adaptive chunk size.
+     * 
+     * @param eventStore
+     *            Event store to read from.
+     * @param streamId
+     *            Unique identifier of the stream.
+     * @param forward
+     *            TRUE to read forward (oldest to newest), FALSE to read
+     *            backward (newest to oldest).
+     * @param start
+     *            First event number to read.
+     * @param end
+     *            Event number to stop reading before (exclusive) or
+     *            {@link #NO_END} to read until the end of the stream. Only
+     *            allowed for reading forward.
+     * @param adaptiveChunkSize
+     *            Provides the number of events to read in a single operation
+     *            and is informed about each read.
+     */
+    public StreamEventsSpliterator(@NotNull final ReadableEventStore eventStore,
+            @NotNull final StreamId streamId, final boolean forward, final int start, final int end,
+            @NotNull final AdaptiveChunkSize adaptiveChunkSize) {
+        this(eventStore, streamId, forward, start, end, 0, requireAdaptive(adaptiveChunkSize));
+    }
+
+    private StreamEventsSpliterator(final ReadableEventStore eventStore, final StreamId streamId,
+            final boolean forward, final int start, final int end, final int chunkSize,
+            final AdaptiveChunkSize adaptiveChunkSize) {
+        super();
+        Contract.requireArgNotNull("eventStore", eventStore);
+        Contract.requireArgNotNull("streamId", streamId);
+        if (adaptiveChunkSize == null) {
+            Contract.requireArgMin("chunkSize", chunkSize, 1);
+        }
+        if (end != NO_END) {
+            if (!forward) {
+                throw new IllegalArgumentException("An end event number is only allowed for reading forward");
+            }
+            Contract.requireArgMin("end", end, start);
+        }
+        this.eventStore = eventStore;
+        this.streamId = streamId;
+        this.forward = forward;
+        this.chunkSize = chunkSize;
+        this.adaptiveChunkSize = adaptiveChunkSize;
+        this.end = end;
+        this.next = start;
+        this.endOfStream = (end != NO_END && start >= end);
+    }
+
+    @Override
+    public final boolean tryAdvance(final Consumer<? super CommonEvent> action) {
+        Contract.requireArgNotNull("action", action);
+        while (current == null || !current.hasNext()) {
+            if (endOfStream) {
+                return false;
+            }
+            readSlice();
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    @Override
+    public final Spliterator<CommonEvent> trySplit() {
+        if (end == NO_END || endOfStream || (current != null && current.hasNext())) {
+            return null;
+        }
+        final int remaining = end - next;
+        if (remaining <= chunkSize()) {
+            return null;
+        }
+        final int mid = next + (remaining / 2);
+        final StreamEventsSpliterator prefix = new StreamEventsSpliterator(eventStore, streamId, true, next,
+                mid, chunkSize, adaptiveChunkSize);
+        next = mid;
+        return prefix;
+    }
+
+    @Override
+    public final long estimateSize() {
+        if (end == NO_END) {
+            return Long.MAX_VALUE;
+        }
+        return end - next;
+    }
+
+    @Override
+    public final int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    private static AdaptiveChunkSize requireAdaptive(final AdaptiveChunkSize adaptiveChunkSize) {
+        Contract.requireArgNotNull("adaptiveChunkSize", adaptiveChunkSize);
+        return adaptiveChunkSize;
+    }
+
+    private int chunkSize() {
+        if (adaptiveChunkSize == null) {
+            return chunkSize;
+        }
+        return adaptiveChunkSize.getChunkSize();
+    }
+
+    private void readSlice() {
+        int count = chunkSize();
+        if (end != NO_END) {
+            count = Math.min(count, end - next);
+        }
+        final long startNanos = System.nanoTime();
+        final StreamEventsSlice slice;
+        try {
+            if (adaptiveChunkSize == null) {
+                slice = read(count);
+            } else {
+                final SizedStreamEventsSlice sizedSlice = readSized(count);
+                slice = sizedSlice.getSlice();
+                adaptiveChunkSize.sliceRead(slice.getEvents().size(), System.nanoTime() - startNanos,
+                        sizedSlice.getBytes());
+            }
+        } catch (final StreamNotFoundException ex) {
+            current = Collections.emptyIterator();
+            endOfStream = true;
+            return;
+        }
+        current = slice.getEvents().iterator();
+        next = slice.getNextEventNumber();
+        endOfStream = slice.isEndOfStream() || (end != NO_END && next >= end);
+    }
+
+    private StreamEventsSlice read(final int count) {
+        if (forward) {
+            return eventStore.readEventsForward(streamId, next, count);
+        }
+        return eventStore.readEventsBackward(streamId, next, count);
+    }
+
+    private SizedStreamEventsSlice readSized(final int count) {
+        if (!(eventStore instanceof AbstractReadableEventStore)) {
+            return new SizedStreamEventsSlice(read(count), -1);
+        }
+        final AbstractReadableEventStore store = (AbstractReadableEventStore) eventStore;
+        if (forward) {
+            return store.readSizedEventsForward(streamId, next, count);
+        }
+        return store.readSizedEventsBackward(streamId, next, count);
+    }
+
+}
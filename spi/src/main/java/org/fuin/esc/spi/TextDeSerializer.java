@@ -41,7 +41,7 @@ public final class TextDeSerializer implements SerDeserializer {
      */
     public TextDeSerializer(final Charset encoding) {
         super();
-        this.mimeType = EnhancedMimeType.create("text", "plain", encoding);
+        this.mimeType = EnhancedMimeType.intern(EnhancedMimeType.create("text", "plain", encoding));
     }
 
     @Override
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Migrates serialized data of one version to the next version before it is
+ * deserialized. Upcasters are registered for a type and the version they
+ * read. Implementations should work on the token stream (for example with a
+ * <code>javax.json.stream.JsonParser</code> and
+ * <code>javax.json.stream.JsonGenerator</code> or StAX for XML) instead of
+ * building a complete document.
+ */
+public interface Upcaster {
+
+    /**
+     * Returns the version of the data written by this upcaster.
+     * 
+     * @return Target version.
+     */
+    @NotNull
+    public String getTargetVersion();
+
+    /**
+     * Reads data of the source version and writes it in the target version.
+     * Neither stream is closed.
+     * 
+     * @param in
+     *            Data to read.
+     * @param out
+     *            Stream to write the migrated data to.
+     * @param mimeType
+     *            Mime type of the input data including encoding and version.
+     */
+    public void upcast(@NotNull InputStream in, @NotNull OutputStream out, @NotNull EnhancedMimeType mimeType);
+
+}
@@ -0,0 +1,259 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.validation.constraints.NotNull;
+
+import org.fuin.objects4j.common.Contract;
+
+/**
+ * Sequence of upcasters that migrates one version of a type to the latest
+ * known version. A chain is resolved once and reused for all data of the
+ * same type and version. This class is thread safe if the upcasters are.
+ */
+public final class UpcasterChain {
+
+    /** Maximum number of source mime types with cached step mime types. */
+    private static final int MAX_STEP_MIME_TYPES = 100;
+
+    private final SerializedDataType type;
+
+    private final String sourceVersion;
+
+    private final List<Upcaster> upcasters;
+
+    private final String targetVersion;
+
+    /** Mime types after each upcaster by interned source mime type. */
+    private final Map<EnhancedMimeType, EnhancedMimeType[]> stepMimeTypes;
+
+    /** Two buffers per thread the upcasters write to in turns. */
+    private final ThreadLocal<ReusableByteArrayOutputStream[]> buffers;
+
+    /**
+     * Constructor with all mandatory data.
+     * 
+     * @param type
+     *            Type of the data.
+     * @param sourceVersion
+     *            Version the first upcaster reads.
+     * @param upcasters
+     *            Upcasters in the order they are applied. Must not be empty.
+     */
+    public UpcasterChain(@NotNull final SerializedDataType type, @NotNull final String sourceVersion,
+            @NotNull final List<Upcaster> upcasters) {
+        super();
+        Contract.requireArgNotNull("type", type);
+        Contract.requireArgNotNull("sourceVersion", sourceVersion);
+        Contract.requireArgNotNull("upcasters", upcasters);
+        if (upcasters.isEmpty()) {
+            throw new IllegalArgumentException("The list of upcasters must not be empty for: " + type);
+        }
+        this.type = type;
+        this.sourceVersion = sourceVersion;
+        this.upcasters = Collections.unmodifiableList(new ArrayList<>(upcasters));
+        this.targetVersion = upcasters.get(upcasters.size() - 1).getTargetVersion();
+        this.stepMimeTypes = new ConcurrentHashMap<>();
+        this.buffers = new ThreadLocal<ReusableByteArrayOutputStream[]>() {
+            @Override
+            protected ReusableByteArrayOutputStream[] initialValue() {
+                return new ReusableByteArrayOutputStream[] { new ReusableByteArrayOutputStream(),
+                        new ReusableByteArrayOutputStream() };
+            }
+        };
+    }
+
+    /**
+     * Returns the type of the data.
+     * 
+     * @return Type.
+     */
+    @NotNull
+    public final SerializedDataType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the version read by the first upcaster.
+     * 
+     * @return Source version.
+     */
+    @NotNull
+    public final String getSourceVersion() {
+        return sourceVersion;
+    }
+
+    /**
+     * Returns the version written by the last upcaster.
+     * 
+     * @return Target version.
+     */
+    @NotNull
+    public final String getTargetVersion() {
+        return targetVersion;
+    }
+
+    /**
+     * Returns the upcasters in the order they are applied.
+     * 
+     * @return Unmodifiable list.
+     */
+    @NotNull
+    public final List<Upcaster> getUpcasters() {
+        return upcasters;
+    }
+
+    /**
+     * Applies all upcasters to the data. The data is passed between the
+     * upcasters as bytes without creating any documents. The upcasters write
+     * to two buffers of the current thread in turns, so the returned stream
+     * is only valid until this method is called again by the same thread.
+     * 
+     * @param in
+     *            Data of the source version.
+     * @param mimeType
+     *            Mime type of the data.
+     * 
+     * @return Data in the target version.
+     */
+    @NotNull
+    public final InputStream upcast(@NotNull final InputStream in, @NotNull final EnhancedMimeType mimeType) {
+        Contract.requireArgNotNull("in", in);
+        Contract.requireArgNotNull("mimeType", mimeType);
+        final EnhancedMimeType[] steps = stepMimeTypes(mimeType);
+        final ReusableByteArrayOutputStream[] pair = buffers.get();
+        InputStream current = in;
+        EnhancedMimeType currentMimeType = mimeType;
+        for (int i = 0; i < steps.length; i++) {
+            final ReusableByteArrayOutputStream out = pair[i % 2];
+            out.release();
+            upcasters.get(i).upcast(current, out, currentMimeType);
+            current = new ByteArrayInputStream(out.buffer(), 0, out.size());
+            currentMimeType = steps[i];
+        }
+        return current;
+    }
+
+    /**
+     * Returns the mime type of the upcasted data. This is the given mime type
+     * with the target version.
+     * 
+     * @param mimeType
+     *            Mime type of the source data.
+     * 
+     * @return Mime type of the target data.
+     */
+    @NotNull
+    public final EnhancedMimeType targetMimeType(@NotNull final EnhancedMimeType mimeType) {
+        Contract.requireArgNotNull("mimeType", mimeType);
+        final EnhancedMimeType[] steps = stepMimeTypes(mimeType);
+        return steps[steps.length - 1];
+    }
+
+    /**
+     * Returns the mime types written by the upcasters. They are only created
+     * for the first data with a mime type. The number of cached source mime
+     * types is limited, others are created on every call.
+     * 
+     * @param mimeType
+     *            Mime type of the source data.
+     * 
+     * @return Mime type after each upcaster in the order of the upcasters.
+     */
+    private EnhancedMimeType[] stepMimeTypes(final EnhancedMimeType mimeType) {
+        final EnhancedMimeType interned = EnhancedMimeType.intern(mimeType);
+        EnhancedMimeType[] steps = stepMimeTypes.get(interned);
+        if (steps == null) {
+            steps = new EnhancedMimeType[upcasters.size()];
+            for (int i = 0; i < steps.length; i++) {
+                steps[i] = withVersion(interned, upcasters.get(i).getTargetVersion());
+            }
+            if (stepMimeTypes.size() < MAX_STEP_MIME_TYPES) {
+                stepMimeTypes.put(interned, steps);
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * Resolves the chain for a type and version by following the target
+     * versions of the upcasters.
+     * 
+     * @param type
+     *            Type of the data.
+     * @param version
+     *            Version of the data.
+     * @param upcasters
+     *            Upcasters of the type by the version they read.
+     * 
+     * @return Chain or NULL if there is no upcaster for the version.
+     */
+    static UpcasterChain resolve(final SerializedDataType type, final String version,
+            final Map<String, Upcaster> upcasters) {
+        if (version == null || upcasters == null) {
+            return null;
+        }
+        final List<Upcaster> list = new ArrayList<>();
+        final Set<String> visited = new HashSet<>();
+        String current = version;
+        Upcaster upcaster = upcasters.get(current);
+        while (upcaster != null) {
+            if (!visited.add(current)) {
+                throw new IllegalStateException("Upcasters of '" + type + "' contain a cycle at version '"
+                        + current + "'");
+            }
+            list.add(upcaster);
+            current = upcaster.getTargetVersion();
+            upcaster = upcasters.get(current);
+        }
+        if (list.isEmpty()) {
+            return null;
+        }
+        return new UpcasterChain(type, version, list);
+    }
+
+    private static EnhancedMimeType withVersion(final EnhancedMimeType mimeType, final String version) {
+        final Map<String, String> params = new HashMap<>();
+        for (final Map.Entry<String, String> entry : mimeType.getParameterMap().entrySet()) {
+            final String name = entry.getKey();
+            if (!name.equals(EnhancedMimeType.ENCODING) && !name.equals(EnhancedMimeType.VERSION)) {
+                params.put(name, entry.getValue());
+            }
+        }
+        return EnhancedMimeType.intern(EnhancedMimeType.create(mimeType.getPrimaryType(),
+                mimeType.getSubType(), mimeType.getEncoding(), version, params));
+    }
+
+    @Override
+    public final String toString() {
+        return "UpcasterChain [type=" + type + ", sourceVersion=" + sourceVersion + ", targetVersion="
+                + targetVersion + "]";
+    }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+
+import javax.json.Json;
+import javax.json.JsonStructure;
+import javax.json.JsonWriter;
+import javax.validation.constraints.NotNull;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.fuin.objects4j.common.Contract;
+import org.w3c.dom.Node;
+
+/**
+ * Deserializer that runs an {@link UpcasterChain} on the raw data and hands
+ * the result with the target version to another deserializer. Returned by the
+ * registries for data with a version that has upcasters. Data that was
+ * already parsed into a DOM node or a JSON structure is written back to bytes
+ * before the upcasters are applied.
+ */
+final class UpcastingDeserializer implements Deserializer {
+
+    private final UpcasterChain chain;
+
+    private final Deserializer delegate;
+
+    /**
+     * Constructor with all mandatory data.
+     * 
+     * @param chain
+     *            Upcasters to apply.
+     * @param delegate
+     *            Deserializer for the target version.
+     */
+    UpcastingDeserializer(@NotNull final UpcasterChain chain, @NotNull final Deserializer delegate) {
+        super();
+        Contract.requireArgNotNull("chain", chain);
+        Contract.requireArgNotNull("delegate", delegate);
+        this.chain = chain;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public final <T> T unmarshal(final Object data, final EnhancedMimeType mimeType) {
+        if (data instanceof byte[]) {
+            return unmarshal(new ByteArrayInputStream((byte[]) data), mimeType);
+        }
+        if (data instanceof Node) {
+            return unmarshal(toStream((Node) data, mimeType), mimeType);
+        }
+        if (data instanceof JsonStructure) {
+            return unmarshal(toStream((JsonStructure) data, mimeType), mimeType);
+        }
+        throw new IllegalArgumentException("Upcasting '" + chain.getType() + "' from version '"
+                + chain.getSourceVersion() + "' requires input of type 'byte[]', 'org.w3c.dom.Node' or "
+                + "'javax.json.JsonStructure', but was: " + data);
+    }
+
+    @Override
+    public final <T> T unmarshal(final InputStream in, final EnhancedMimeType mimeType) {
+        return delegate.unmarshal(chain.upcast(in, mimeType), chain.targetMimeType(mimeType));
+    }
+
+    private static InputStream toStream(final Node node, final EnhancedMimeType mimeType) {
+        final ReusableByteArrayOutputStream out = new ReusableByteArrayOutputStream();
+        try {
+            final Transformer t = TransformerFactory.newInstance().newTransformer();
+            t.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            t.setOutputProperty(OutputKeys.ENCODING, encoding(mimeType).name());
+            t.transform(new DOMSource(node), new StreamResult(out));
+        } catch (final TransformerException ex) {
+            throw new RuntimeException("Failed to render node", ex);
+        }
+        return new ByteArrayInputStream(out.buffer(), 0, out.size());
+    }
+
+    private static InputStream toStream(final JsonStructure structure, final EnhancedMimeType mimeType) {
+        final ReusableByteArrayOutputStream out = new ReusableByteArrayOutputStream();
+        final JsonWriter writer = Json.createWriter(new OutputStreamWriter(out, encoding(mimeType)));
+        try {
+            writer.write(structure);
+        } finally {
+            writer.close();
+        }
+        return new ByteArrayInputStream(out.buffer(), 0, out.size());
+    }
+
+    private static Charset encoding(final EnhancedMimeType mimeType) {
+        if (mimeType.getEncoding() == null) {
+            return Charset.forName("utf-8");
+        }
+        return mimeType.getEncoding();
+    }
+
+    /**
+     * Returns the upcasters applied before deserializing.
+     * 
+     * @return Chain.
+     */
+    final UpcasterChain getChain() {
+        return chain;
+    }
+
+    /**
+     * Returns the deserializer for the target version.
+     * 
+     * @return Deserializer.
+     */
+    final Deserializer getDelegate() {
+        return delegate;
+    }
+
+}
@@ -19,7 +19,10 @@ package org.fuin.esc.spi;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
@@ -40,7 +43,8 @@ import org.w3c.dom.Node;
 /**
  * Serializes and deserializes an object from/to XML using JAXB. The content type for serialization is always
  * "application/xml". This implementation supports {@link Node} and <code>byte[]</code> for unmarshalling
- * content.
+ * content. This class is thread safe: The JAXB context is shared, but every thread uses its own marshaller and
+ * unmarshaller. The adapters are shared by all threads and must therefore be thread safe themselves.
  */
 public final class XmlDeSerializer implements SerDeserializer {
 
@@ -48,9 +52,15 @@ public final class XmlDeSerializer implements SerDeserializer {
 
     private final EnhancedMimeType mimeType;
 
-    private final Marshaller marshaller;
+    private final JAXBContext ctx;
 
-    private final Unmarshaller unmarshaller;
+    private final XmlAdapter<?, ?>[] adapters;
+
+    private final boolean jaxbFragment;
+
+    private final ThreadLocal<Marshaller> marshallers;
+
+    private final ThreadLocal<Unmarshaller> unmarshallers;
 
     /**
      * Constructor that creates a JAXB context internally and uses UTF-8 encoding.
@@ -116,20 +126,56 @@ public final class XmlDeSerializer implements SerDeserializer {
     public XmlDeSerializer(final Charset encoding, final XmlAdapter<?, ?>[] adapters,
             final boolean jaxbFragment, final Class<?>... classesToBeBound) {
         super();
-        this.mimeType = EnhancedMimeType.create("application", "xml", encoding);
+        this.mimeType = EnhancedMimeType.intern(EnhancedMimeType.create("application", "xml", encoding));
+        try {
+            ctx = JAXBContext.newInstance(classesToBeBound);
+        } catch (final JAXBException ex) {
+            throw new RuntimeException("Error initializing JAXB helper classes", ex);
+        }
+        if ((adapters == null) || (adapters.length == 0)) {
+            LOG.debug("No adapters set");
+            this.adapters = new XmlAdapter<?, ?>[0];
+        } else {
+            this.adapters = adapters.clone();
+        }
+        this.jaxbFragment = jaxbFragment;
+        this.marshallers = new ThreadLocal<Marshaller>() {
+            @Override
+            protected Marshaller initialValue() {
+                return createMarshaller();
+            }
+        };
+        this.unmarshallers = new ThreadLocal<Unmarshaller>() {
+            @Override
+            protected Unmarshaller initialValue() {
+                return createUnmarshaller();
+            }
+        };
+        // Fail fast on configuration errors
+        marshallers.get();
+        unmarshallers.get();
+    }
+
+    private Marshaller createMarshaller() {
         try {
-            final JAXBContext ctx = JAXBContext.newInstance(classesToBeBound);
-            marshaller = ctx.createMarshaller();
+            final Marshaller marshaller = ctx.createMarshaller();
             marshaller.setProperty(Marshaller.JAXB_FRAGMENT, jaxbFragment);
-            unmarshaller = ctx.createUnmarshaller();
-            if ((adapters == null) || (adapters.length == 0)) {
-                LOG.debug("No adapters set");
-            } else {
-                for (XmlAdapter<?, ?> adapter : adapters) {
-                    LOG.debug("Set adapter : " + adapter);
-                    marshaller.setAdapter(adapter);
-                    unmarshaller.setAdapter(adapter);
-                }
+            for (final XmlAdapter<?, ?> adapter : adapters) {
+                LOG.debug("Set adapter : " + adapter);
+                marshaller.setAdapter(adapter);
+            }
+            return marshaller;
+        } catch (final JAXBException ex) {
+            throw new RuntimeException("Error initializing JAXB marshaller", ex);
+        }
+    }
+
+    private Unmarshaller createUnmarshaller() {
+        try {
+            final Unmarshaller unmarshaller = ctx.createUnmarshaller();
+            for (final XmlAdapter<?, ?> adapter : adapters) {
+                LOG.debug("Set adapter : " + adapter);
+                unmarshaller.setAdapter(adapter);
             }
             unmarshaller.setEventHandler(new ValidationEventHandler() {
                 @Override
@@ -144,8 +190,9 @@ public final class XmlDeSerializer implements SerDeserializer {
                     return true;
                 }
             });
+            return unmarshaller;
         } catch (final JAXBException ex) {
-            throw new RuntimeException("Error initializing JAXB helper classes", ex);
+            throw new RuntimeException("Error initializing JAXB unmarshaller", ex);
         }
     }
 
@@ -156,12 +203,18 @@ public final class XmlDeSerializer implements SerDeserializer {
 
     @Override
     public final byte[] marshal(final Object obj) {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
+        marshal(obj, bos);
+        return bos.toByteArray();
+    }
+
+    @Override
+    public final <T> void marshal(final T obj, final OutputStream out) {
         try {
-            final ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
-            final Writer writer = new OutputStreamWriter(bos, mimeType.getEncoding());
-            marshaller.marshal(obj, writer);
-            return bos.toByteArray();
-        } catch (final JAXBException ex) {
+            final Writer writer = new OutputStreamWriter(out, mimeType.getEncoding());
+            marshallers.get().marshal(obj, writer);
+            writer.flush();
+        } catch (final JAXBException | IOException ex) {
             throw new RuntimeException("Error serializing data", ex);
         }
     }
@@ -172,12 +225,10 @@ public final class XmlDeSerializer implements SerDeserializer {
         try {
 
             if (data instanceof byte[]) {
-                final Reader reader = new InputStreamReader(new ByteArrayInputStream((byte[]) data),
-                        mimeType.getEncoding());
-                return (T) unmarshaller.unmarshal(reader);
+                return unmarshal(new ByteArrayInputStream((byte[]) data), mimeType);
             }
             if (data instanceof Node) {
-                return (T) unmarshaller.unmarshal((Node) data);
+                return (T) unmarshallers.get().unmarshal((Node) data);
             }
             return (T) data;
             
@@ -186,4 +237,16 @@ public final class XmlDeSerializer implements SerDeserializer {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public final <T> T unmarshal(final InputStream in, final EnhancedMimeType mimeType) {
+        try {
+            // The XML parser closes the input, but it belongs to the caller
+            final Reader reader = new InputStreamReader(SpiStreams.nonClosing(in), mimeType.getEncoding());
+            return (T) unmarshallers.get().unmarshal(reader);
+        } catch (final JAXBException ex) {
+            throw new RuntimeException("Error de-serializing data", ex);
+        }
+    }
+
 }
@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.api.SimpleStreamId;
+import org.fuin.esc.api.StreamEventsSlice;
+import org.fuin.esc.api.StreamId;
+import org.fuin.esc.api.StreamState;
+import org.fuin.esc.api.TypeName;
+import org.junit.Test;
+
+/**
+ * Tests the {@link AbstractReadableEventStore} class.
+ */
+// CHECKSTYLE:OFF Test
+public class AbstractReadableEventStoreTest {
+
+    private static final StreamId STREAM_ID = new SimpleStreamId("MyStream");
+
+    @Test
+    public void testReadAheadRestartsAfterShortSlice() {
+
+        // PREPARE
+        final PagedEventStore testee = new PagedEventStore(10, 4, true, -1);
+        final List<CommonEvent> result = new ArrayList<>();
+        final List<Integer> sliceStarts = new ArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // TEST
+            testee.readAllEventsForward(STREAM_ID, 0, 3, (slice) -> {
+                sliceStarts.add(slice.getFromEventNumber());
+                result.addAll(slice.getEvents());
+            }, executor, 3);
+        } finally {
+            executor.shutdown();
+        }
+
+        // VERIFY
+        assertThat(result).containsExactlyElementsOf(testee.events);
+        assertThat(sliceStarts).containsExactly(0, 3, 4, 7);
+
+    }
+
+    @Test
+    public void testReadAheadWithoutConcurrentReads() {
+
+        // PREPARE
+        final PagedEventStore testee = new PagedEventStore(5, -1, false, -1);
+        final List<CommonEvent> result = new ArrayList<>();
+
+        // TEST
+        testee.readAllEventsForward(STREAM_ID, 0, 2, (slice) -> {
+            result.addAll(slice.getEvents());
+        }, (runnable) -> {
+            throw new IllegalStateException("Executor must not be used");
+        }, 3);
+
+        // VERIFY
+        assertThat(result).containsExactlyElementsOf(testee.events);
+
+    }
+
+    @Test
+    public void testAdaptiveReadUsesSliceBytes() {
+
+        // PREPARE
+        final PagedEventStore testee = new PagedEventStore(50, -1, true, 1000);
+        final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize(2, 64, 10000, 4000);
+        final List<Integer> sliceSizes = new ArrayList<>();
+
+        // TEST
+        testee.readAllEventsForward(STREAM_ID, 0, chunkSize, (slice) -> {
+            sliceSizes.add(slice.getEvents().size());
+        });
+
+        // VERIFY
+        assertThat(Collections.max(sliceSizes)).isEqualTo(4);
+        assertThat(chunkSize.getChunkSize()).isEqualTo(4);
+        assertThat(testee.streamEventsForward(STREAM_ID, 0, chunkSize).count()).isEqualTo(50);
+        assertThat(chunkSize.getChunkSize()).isEqualTo(4);
+
+    }
+
+    /**
+     * Returns shorter slices at a page boundary although the stream did not
+     * end.
+     */
+    private static final class PagedEventStore extends AbstractReadableEventStore {
+
+        private final List<CommonEvent> events;
+
+        private final int pageBoundary;
+
+        private final boolean concurrentReads;
+
+        private final long bytesPerEvent;
+
+        public PagedEventStore(final int count, final int pageBoundary, final boolean concurrentReads,
+                final long bytesPerEvent) {
+            this.events = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                events.add(new SimpleCommonEvent(new EventId(), new TypeName("MyEvent"), "Event" + i));
+            }
+            this.pageBoundary = pageBoundary;
+            this.concurrentReads = concurrentReads;
+            this.bytesPerEvent = bytesPerEvent;
+        }
+
+        @Override
+        public StreamEventsSlice readEventsForward(final StreamId streamId, final int start, final int count) {
+            int end = Math.min(start + count, events.size());
+            if (start < pageBoundary && end > pageBoundary) {
+                end = pageBoundary;
+            }
+            final List<CommonEvent> slice = new ArrayList<>();
+            for (int i = start; i < end; i++) {
+                slice.add(events.get(i));
+            }
+            return new StreamEventsSlice(start, slice, end, end >= events.size());
+        }
+
+        @Override
+        protected SizedStreamEventsSlice readSizedEventsForward(final StreamId streamId, final int start,
+                final int count) {
+            final StreamEventsSlice slice = readEventsForward(streamId, start, count);
+            if (bytesPerEvent < 0) {
+                return new SizedStreamEventsSlice(slice, -1);
+            }
+            return new SizedStreamEventsSlice(slice, slice.getEvents().size() * bytesPerEvent);
+        }
+
+        @Override
+        public StreamEventsSlice readEventsBackward(final StreamId streamId, final int start, final int count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CommonEvent readEvent(final StreamId streamId, final int eventNumber) {
+            return events.get(eventNumber);
+        }
+
+        @Override
+        public boolean streamExists(final StreamId streamId) {
+            return true;
+        }
+
+        @Override
+        public StreamState streamState(final StreamId streamId) {
+            return StreamState.ACTIVE;
+        }
+
+        @Override
+        public void open() {
+            // Not used
+        }
+
+        @Override
+        public void close() {
+            // Not used
+        }
+
+        @Override
+        protected boolean isSupportsConcurrentReads() {
+            return concurrentReads;
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
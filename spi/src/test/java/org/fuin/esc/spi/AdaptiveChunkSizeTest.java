@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link AdaptiveChunkSize}.
+ */
+// CHECKSTYLE:OFF Test
+public class AdaptiveChunkSizeTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testInitialChunkSize() {
+
+        // TEST
+        final AdaptiveChunkSize testee = new AdaptiveChunkSize(20, 1000, 100, 1000000);
+
+        // VERIFY
+        assertThat(testee.getChunkSize()).isEqualTo(20);
+
+    }
+
+    @Test
+    public void testGrowsAtMostTwice() {
+
+        // PREPARE
+        final AdaptiveChunkSize testee = new AdaptiveChunkSize(10, 1000, 100, 1000000);
+
+        // TEST
+        testee.sliceRead(10, 1 * MILLIS, -1);
+
+        // VERIFY
+        assertThat(testee.getChunkSize()).isEqualTo(20);
+
+    }
+
+    @Test
+    public void testClampedToMax() {
+
+        // PREPARE
+        final AdaptiveChunkSize testee = new AdaptiveChunkSize(10, 50, 100, 1000000);
+
+        // TEST
+        for (int i = 0; i < 10; i++) {
+            testee.sliceRead(testee.getChunkSize(), 1 * MILLIS, -1);
+        }
+
+        // VERIFY
+        assertThat(testee.getChunkSize()).isEqualTo(50);
+
+    }
+
+    @Test
+    public void testShrinksToLatencyTarget() {
+
+        // PREPARE
+        final AdaptiveChunkSize testee = new AdaptiveChunkSize(10, 1000, 100, 1000000);
+        for (int i = 0; i < 10; i++) {
+            testee.sliceRead(testee.getChunkSize(), 1 * MILLIS, -1);
+        }
+        assertThat(testee.getChunkSize()).isEqualTo(1000);
+
+        // TEST (1 millisecond per event)
+        for (int i = 0; i < 20; i++) {
+            testee.sliceRead(testee.getChunkSize(), testee.getChunkSize() * MILLIS, -1);
+        }
+
+        // VERIFY
+        assertThat(testee.getChunkSize()).isBetween(100, 110);
+
+    }
+
+    @Test
+    public void testMemoryTarget() {
+
+        // PREPARE
+        final AdaptiveChunkSize testee = new AdaptiveChunkSize(10, 1000, 100, 10000);
+
+        // TEST (fast reads with 1000 bytes per event)
+        for (int i = 0; i < 10; i++) {
+            testee.sliceRead(testee.getChunkSize(), 1 * MILLIS, testee.getChunkSize() * 1000L);
+        }
+
+        // VERIFY
+        assertThat(testee.getChunkSize()).isEqualTo(10);
+
+    }
+
+    @Test
+    public void testIgnoresEmptySlices() {
+
+        // PREPARE
+        final AdaptiveChunkSize testee = new AdaptiveChunkSize(10, 1000, 100, 1000000);
+
+        // TEST
+        testee.sliceRead(0, 1000 * MILLIS, 0);
+
+        // VERIFY
+        assertThat(testee.getChunkSize()).isEqualTo(10);
+        assertThat(testee.toString()).contains("nanosPerEvent=0");
+
+    }
+
+}
+// CHECKSTYLE:ON
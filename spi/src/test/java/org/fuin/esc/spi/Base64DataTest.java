@@ -22,8 +22,12 @@ import static org.fuin.utils4j.JaxbUtils.XML_PREFIX;
 import static org.fuin.utils4j.JaxbUtils.marshal;
 import static org.fuin.utils4j.JaxbUtils.unmarshal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.Charset;
 
+import org.apache.commons.io.IOUtils;
+import org.fuin.esc.spi.Base64Data.Base64DataJsonDeSerializer;
 import org.junit.Test;
 
 /**
@@ -60,4 +64,86 @@ public class Base64DataTest {
 
     }
 
+    @Test
+    public final void testEncodeDecode() throws Exception {
+
+        // PREPARE
+        final byte[] data = "Hello world!".getBytes(Charset.forName("utf-8"));
+        final Base64Data binary = new Base64Data(data);
+        final Base64Data encoded = new Base64Data("SGVsbG8gd29ybGQh");
+
+        // TEST & VERIFY
+        assertThat(binary.getEncoded()).isEqualTo("SGVsbG8gd29ybGQh");
+        assertThat(binary.getDecoded()).isSameAs(data);
+        assertThat(encoded.getEncoded()).isEqualTo("SGVsbG8gd29ybGQh");
+        assertThat(encoded.getDecoded()).isEqualTo(data);
+        assertThat(new Base64Data("SGVsbG8g\r\nd29ybGQh").getDecoded()).isEqualTo(data);
+
+    }
+
+    @Test
+    public final void testWriteEncoded() throws Exception {
+
+        // PREPARE
+        final ByteArrayOutputStream binaryOut = new ByteArrayOutputStream();
+        final ByteArrayOutputStream encodedOut = new ByteArrayOutputStream();
+
+        // TEST
+        new Base64Data("Hello world!".getBytes(Charset.forName("utf-8"))).writeEncoded(binaryOut);
+        new Base64Data("SGVsbG8gd29ybGQh").writeEncoded(encodedOut);
+
+        // VERIFY
+        assertThat(new String(binaryOut.toByteArray(), Charset.forName("us-ascii"))).isEqualTo(
+                "SGVsbG8gd29ybGQh");
+        assertThat(encodedOut.toByteArray()).isEqualTo(binaryOut.toByteArray());
+
+    }
+
+    @Test
+    public final void testOpenDecoded() throws Exception {
+
+        // PREPARE
+        final byte[] data = "Hello world!".getBytes(Charset.forName("utf-8"));
+
+        // TEST & VERIFY
+        assertThat(IOUtils.toByteArray(new Base64Data("SGVsbG8gd29ybGQh").openDecoded())).isEqualTo(data);
+        assertThat(IOUtils.toByteArray(new Base64Data(data).openDecoded())).isEqualTo(data);
+
+    }
+
+    @Test
+    public final void testJsonMarshalUnmarshal() throws Exception {
+
+        // PREPARE
+        final Base64DataJsonDeSerializer testee = new Base64DataJsonDeSerializer();
+        final byte[] data = "Hello world!".getBytes(Charset.forName("utf-8"));
+
+        // TEST
+        final byte[] json = testee.marshal(new Base64Data(data));
+        final Base64Data fromBytes = testee.unmarshal(json, testee.getMimeType());
+        final Base64Data fromStream = testee.unmarshal(new ByteArrayInputStream(json), testee.getMimeType());
+
+        // VERIFY
+        assertThat(new String(json, Charset.forName("utf-8"))).isEqualTo("{\"Base64\":\"SGVsbG8gd29ybGQh\"}");
+        assertThat(json).isEqualTo(testee.marshal(new Base64Data("SGVsbG8gd29ybGQh")));
+        assertThat(fromBytes.getDecoded()).isEqualTo(data);
+        assertThat(fromStream.getDecoded()).isEqualTo(data);
+
+    }
+
+    @Test
+    public final void testJsonMarshalUtf16() throws Exception {
+
+        // PREPARE
+        final Base64DataJsonDeSerializer testee = new Base64DataJsonDeSerializer(Charset.forName("utf-16"));
+
+        // TEST
+        final byte[] json = testee.marshal(new Base64Data("Hello world!".getBytes(Charset.forName("utf-8"))));
+
+        // VERIFY
+        assertThat(new String(json, Charset.forName("utf-16"))).isEqualTo("{\"Base64\":\"SGVsbG8gd29ybGQh\"}");
+        assertThat(testee.unmarshal(json, testee.getMimeType()).getEncoded()).isEqualTo("SGVsbG8gd29ybGQh");
+
+    }
+
 }
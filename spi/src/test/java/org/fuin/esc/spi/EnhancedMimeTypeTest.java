@@ -18,6 +18,7 @@
 package org.fuin.esc.spi;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 import java.nio.charset.Charset;
 import java.util.HashMap;
@@ -116,9 +117,73 @@ public class EnhancedMimeTypeTest {
         final MimeTypeParameterList listA = new MimeTypeParameterList(";charset=utf-8");
         final MimeTypeParameterList listB = new MimeTypeParameterList(";charset=iso-8859-2");
         EqualsVerifier.forClass(EnhancedMimeType.class)
-                .suppress(Warning.NULL_FIELDS, Warning.NONFINAL_FIELDS)
+                .suppress(Warning.NULL_FIELDS, Warning.NONFINAL_FIELDS, Warning.TRANSIENT_FIELDS)
                 .withPrefabValues(MimeTypeParameterList.class, listA, listB)
                 .verify();
     }
 
+    @Test
+    public void testIntern() {
+
+        // TEST
+        final EnhancedMimeType first = EnhancedMimeType.intern("application/json; encoding=utf-8");
+        final EnhancedMimeType second = EnhancedMimeType.intern("application/json;encoding=utf-8");
+        final EnhancedMimeType third = EnhancedMimeType
+                .intern(EnhancedMimeType.create("application", "json", Charset.forName("utf-8")));
+
+        // VERIFY
+        assertThat(second).isSameAs(first);
+        assertThat(third).isSameAs(first);
+        assertThat(first).isEqualTo(EnhancedMimeType.create("application/json; encoding=utf-8"));
+        assertThat(first.getEncoding()).isEqualTo(Charset.forName("utf-8"));
+        assertThat(first.getVersion()).isNull();
+        assertThat(first.isJson()).isTrue();
+        assertThat(first.matchEncoding(EnhancedMimeType.create("application/json; encoding=utf-8"))).isTrue();
+        assertThat(EnhancedMimeType.intern((String) null)).isNull();
+
+    }
+
+    @Test
+    public void testInternedCachesDerivedValues() {
+
+        // PREPARE
+        final EnhancedMimeType created = EnhancedMimeType.create("application/xml; version=1; a=b");
+
+        // TEST
+        final EnhancedMimeType interned = EnhancedMimeType.intern(created);
+
+        // VERIFY
+        assertThat(interned.toString()).isEqualTo(created.toString());
+        assertThat(interned.toString()).isSameAs(interned.toString());
+        assertThat(interned.getBaseType()).isEqualTo("application/xml");
+        assertThat(interned.getBaseType()).isSameAs(interned.getBaseType());
+        assertThat(interned.hashCode()).isEqualTo(created.hashCode());
+        assertThat(interned).isEqualTo(created);
+        assertThat(created).isEqualTo(interned);
+        assertThat(interned.getParameterMap()).isSameAs(interned.getParameterMap());
+        assertThat(interned.getParameterMap()).isEqualTo(created.getParameterMap());
+        assertThat(interned.getParameterMap()).containsEntry(EnhancedMimeType.VERSION, "1").containsEntry("a", "b");
+        assertThat(interned.getParameters().size()).isEqualTo(2);
+
+    }
+
+    @Test
+    public void testInternedCannotBeChanged() {
+
+        // PREPARE
+        final EnhancedMimeType interned = EnhancedMimeType.intern("application/xml; version=1");
+
+        // TEST
+        try {
+            interned.setParameter(EnhancedMimeType.VERSION, "2");
+            fail("Expected an exception");
+        } catch (final UnsupportedOperationException ex) {
+            // VERIFY
+            assertThat(interned.getVersion()).isEqualTo("1");
+        }
+        interned.getParameters().set(EnhancedMimeType.VERSION, "3");
+        assertThat(interned.getParameter(EnhancedMimeType.VERSION)).isEqualTo("1");
+
+    }
+
 }
@@ -331,6 +331,39 @@ public class EscSpiUtilsTest {
 
     }
 
+    @Test
+    public void testCreateEscMetaNativeBinary() {
+
+        // PREPARE
+        final EventId eventId = new EventId();
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        registry.addSerializer(new SerializedDataType("Binary"), dummySerializer("application/octet-stream"));
+        final CommonEvent commonEvent = new SimpleCommonEvent(eventId, new TypeName("Binary"), "whatever");
+        final EnhancedMimeType target = EnhancedMimeType.create("application/xml; encoding=UTF-8");
+
+        // TEST
+        final EscMeta nativeResult = EscSpiUtils.createEscMeta(registry, target, commonEvent, true);
+        final EscMeta base64Result = EscSpiUtils.createEscMeta(registry, target, commonEvent, false);
+
+        // VERIFY
+        assertThat(nativeResult.getDataContentType())
+                .isEqualTo(EnhancedMimeType.create("application/octet-stream"));
+        assertThat(base64Result.getDataContentType())
+                .isEqualTo(EnhancedMimeType.create("application/octet-stream; transfer-encoding=base64"));
+
+    }
+
+    @Test
+    public void testIsBinary() {
+        assertThat(EscSpiUtils.isBinary(EnhancedMimeType.create("application/octet-stream"))).isTrue();
+        assertThat(EscSpiUtils.isBinary(EnhancedMimeType.create("application/cbor"))).isTrue();
+        assertThat(EscSpiUtils.isBinary(EnhancedMimeType.create("application/json"))).isFalse();
+        assertThat(EscSpiUtils.isBinary(EnhancedMimeType.create("application/xml"))).isFalse();
+        assertThat(EscSpiUtils.isBinary(EnhancedMimeType.create("text/plain"))).isFalse();
+        assertThat(EscSpiUtils.isBinary(EnhancedMimeType.create("application/octet-stream; encoding=UTF-8")))
+                .isFalse();
+    }
+
     private EnhancedMimeType mimeType(String str) {
         try {
             return new EnhancedMimeType(str);
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.nio.charset.Charset;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ImmutableSerializerDeserializerRegistry} class.
+ */
+// CHECKSTYLE:OFF Test
+public class ImmutableSerializerDeserializerRegistryTest {
+
+    private static final SerializedDataType TYPE = new SerializedDataType("MyType");
+
+    private JsonDeSerializer jsonDeSer;
+
+    private TextDeSerializer textDeSer;
+
+    private SimpleSerializerDeserializerRegistry source;
+
+    @Before
+    public void setup() {
+        jsonDeSer = new JsonDeSerializer();
+        textDeSer = new TextDeSerializer();
+        source = new SimpleSerializerDeserializerRegistry();
+        source.add(TYPE, "application/json", jsonDeSer);
+        source.addDeserializer(TYPE, "text/plain", textDeSer);
+        source.setDefaultContentType(TYPE, EnhancedMimeType.create("application", "json"));
+    }
+
+    @Test
+    public void testGetDeserializer() {
+
+        // TEST
+        final ImmutableSerializerDeserializerRegistry testee = source.freeze();
+
+        // VERIFY
+        assertThat(testee.getDeserializer(new SerializedDataType("MyType"),
+                EnhancedMimeType.create("application", "json", Charset.forName("utf-8"), "1")))
+                        .isSameAs(jsonDeSer);
+        assertThat(testee.getDeserializer(TYPE, EnhancedMimeType.create("text", "plain"))).isSameAs(textDeSer);
+        assertThat(testee.getDeserializer(TYPE)).isSameAs(jsonDeSer);
+        assertThat(testee.deserializerExists(TYPE)).isTrue();
+        assertThat(testee.deserializerExists(TYPE, EnhancedMimeType.create("application", "xml"))).isFalse();
+
+    }
+
+    @Test
+    public void testGetSerializer() {
+
+        // TEST
+        final ImmutableSerializerDeserializerRegistry testee = source.freeze();
+
+        // VERIFY
+        assertThat(testee.getSerializer(TYPE)).isSameAs(jsonDeSer);
+        assertThat(testee.serializerExists(TYPE)).isTrue();
+        assertThat(testee.serializerExists(new SerializedDataType("Unknown"))).isFalse();
+        assertThat(testee.getDefaultContentType(TYPE)).isEqualTo(EnhancedMimeType.create("application", "json"));
+
+    }
+
+    @Test
+    public void testNotFound() {
+
+        // PREPARE
+        final ImmutableSerializerDeserializerRegistry testee = source.freeze();
+
+        // TEST
+        try {
+            testee.getDeserializer(TYPE, EnhancedMimeType.create("application", "xml"));
+            fail("Expected an exception");
+        } catch (final IllegalArgumentException ex) {
+            // VERIFY
+            assertThat(ex.getMessage()).contains("MyType").contains("application/xml");
+        }
+
+    }
+
+    @Test
+    public void testChangesAfterFreezeNotVisible() {
+
+        // PREPARE
+        final ImmutableSerializerDeserializerRegistry testee = source.freeze();
+
+        // TEST
+        source.addSerializer(new SerializedDataType("Other"), jsonDeSer);
+
+        // VERIFY
+        assertThat(testee.serializerExists(new SerializedDataType("Other"))).isFalse();
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -19,6 +19,11 @@ package org.fuin.esc.spi;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 import javax.activation.MimeTypeParseException;
 import javax.json.Json;
 import javax.json.JsonObject;
@@ -64,5 +69,72 @@ public class JsonDeSerializerTest {
 
     }
 
+    @Test
+    public void testMarshalToOutput() {
+
+        // PREPARE
+        final JsonObject original = Json.createObjectBuilder()
+                .add("name", "Peter").add("age", 21).build();
+        final CloseTrackingOutputStream out = new CloseTrackingOutputStream();
+        out.write(1);
+
+        // TEST
+        testee.marshal(original, out);
+
+        // VERIFY
+        assertThat(out.closed).isFalse();
+        final byte[] all = out.toByteArray();
+        final byte[] data = new byte[all.length - 1];
+        System.arraycopy(all, 1, data, 0, data.length);
+        assertThat(data).isEqualTo(testee.marshal(original));
+
+    }
+
+    @Test
+    public void testUnmarshalInputStream() {
+
+        // PREPARE
+        final JsonObject original = Json.createObjectBuilder().add("name", "Peter").build();
+        final byte[] data = testee.marshal(original);
+
+        // TEST
+        final JsonObject copy = testee.unmarshal(new ByteArrayInputStream(data), testee.getMimeType());
+
+        // VERIFY
+        assertThat(copy.getString("name")).isEqualTo("Peter");
+
+    }
+
+    @Test
+    public void testMarshalUnmarshalByteBuffer() {
+
+        // PREPARE
+        final JsonObject original = Json.createObjectBuilder().add("name", "Peter").build();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        buffer.put((byte) ' ');
+
+        // TEST
+        testee.marshal(original, buffer);
+        buffer.flip();
+        buffer.position(1);
+        final JsonObject copy = testee.unmarshal(buffer, testee.getMimeType());
+
+        // VERIFY
+        assertThat(copy.getString("name")).isEqualTo("Peter");
+        assertThat(buffer.position()).isEqualTo(1);
+
+    }
+
+    private static final class CloseTrackingOutputStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+
+    }
+
 }
 // CHECKSTYLE:ON
@@ -0,0 +1,62 @@
+// CHECKSTYLE:OFF
+package org.fuin.esc.spi;
+
+import java.nio.charset.Charset;
+
+/**
+ * Compares the deserializer and serializer lookup of {@link SimpleSerializerDeserializerRegistry} with the
+ * frozen {@link ImmutableSerializerDeserializerRegistry}.
+ */
+public final class RegistryPerformance {
+
+    private static final int TYPES = 50;
+
+    private static final int COUNT = 10000000;
+
+    private static long blackhole;
+
+    private RegistryPerformance() {
+        super();
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            Not used.
+     */
+    public static void main(final String[] args) {
+
+        final SimpleSerializerDeserializerRegistry simple = new SimpleSerializerDeserializerRegistry();
+        final SerializedDataType[] types = new SerializedDataType[TYPES];
+        for (int i = 0; i < TYPES; i++) {
+            types[i] = new SerializedDataType("Type" + i);
+            simple.add(types[i], "application/json", new JsonDeSerializer());
+            simple.add(types[i], "application/xml", new XmlDeSerializer(MyEvent.class));
+        }
+        final ImmutableSerializerDeserializerRegistry frozen = simple.freeze();
+        final EnhancedMimeType mimeType = EnhancedMimeType.create("application", "xml", Charset.forName("utf-8"));
+
+        // Warm up
+        measure("WARMUP simple", simple, types, mimeType);
+        measure("WARMUP frozen", frozen, types, mimeType);
+        measure("simple", simple, types, mimeType);
+        measure("frozen", frozen, types, mimeType);
+        System.out.println("IGNORE " + blackhole);
+
+    }
+
+    private static void measure(final String name, final SerDeserializerRegistry registry,
+            final SerializedDataType[] types, final EnhancedMimeType mimeType) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < COUNT; i++) {
+            final SerializedDataType type = types[i % TYPES];
+            blackhole += registry.getDeserializer(type, mimeType).hashCode();
+            blackhole += registry.getSerializer(type).hashCode();
+        }
+        final long nanos = System.nanoTime() - start;
+        System.out.println("NANOS PER CALL " + name + ": " + (nanos / (2L * COUNT)));
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link ReusableByteArrayOutputStream} class.
+ */
+// CHECKSTYLE:OFF Test
+public class ReusableByteArrayOutputStreamTest {
+
+    @Test
+    public void testReleaseKeepsSmallBuffer() {
+
+        // PREPARE
+        final ReusableByteArrayOutputStream testee = new ReusableByteArrayOutputStream(4, 16);
+        testee.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }, 0, 8);
+        final byte[] buffer = testee.buffer();
+
+        // TEST
+        testee.release();
+
+        // VERIFY
+        assertThat(testee.size()).isEqualTo(0);
+        assertThat(testee.buffer()).isSameAs(buffer);
+
+    }
+
+    @Test
+    public void testReleaseShrinksLargeBuffer() {
+
+        // PREPARE
+        final ReusableByteArrayOutputStream testee = new ReusableByteArrayOutputStream(4, 16);
+        testee.write(new byte[32], 0, 32);
+        assertThat(testee.buffer().length).isGreaterThan(16);
+
+        // TEST
+        testee.release();
+
+        // VERIFY
+        assertThat(testee.size()).isEqualTo(0);
+        assertThat(testee.buffer()).hasSize(4);
+
+    }
+
+}
+// CHECKSTYLE:ON
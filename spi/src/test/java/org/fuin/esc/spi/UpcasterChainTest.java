@@ -0,0 +1,334 @@
+/**
+ * Copyright (C) 2015 Michael Schnell. All rights reserved. 
+ * http://www.fuin.org/
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see http://www.gnu.org/licenses/.
+ */
+package org.fuin.esc.spi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link UpcasterChain} class and the upcasting of the registries.
+ */
+// CHECKSTYLE:OFF Test
+public class UpcasterChainTest {
+
+    private static final SerializedDataType TYPE = new SerializedDataType("Person");
+
+    private static final Upcaster V1_TO_V2 = new RenameKeyUpcaster("name", "fullName", "2");
+
+    private static final Upcaster V2_TO_V3 = new RenameKeyUpcaster("fullName", "displayName", "3");
+
+    @Test
+    public void testResolve() {
+
+        // PREPARE
+        final Map<String, Upcaster> upcasters = new HashMap<>();
+        upcasters.put("1", V1_TO_V2);
+        upcasters.put("2", V2_TO_V3);
+
+        // TEST
+        final UpcasterChain chain = UpcasterChain.resolve(TYPE, "1", upcasters);
+
+        // VERIFY
+        assertThat(chain.getType()).isEqualTo(TYPE);
+        assertThat(chain.getSourceVersion()).isEqualTo("1");
+        assertThat(chain.getTargetVersion()).isEqualTo("3");
+        assertThat(chain.getUpcasters()).containsExactly(V1_TO_V2, V2_TO_V3);
+        assertThat(UpcasterChain.resolve(TYPE, "2", upcasters).getUpcasters()).containsExactly(V2_TO_V3);
+        assertThat(UpcasterChain.resolve(TYPE, "3", upcasters)).isNull();
+        assertThat(UpcasterChain.resolve(TYPE, null, upcasters)).isNull();
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testResolveCycle() {
+
+        // PREPARE
+        final Map<String, Upcaster> upcasters = new HashMap<>();
+        upcasters.put("1", V1_TO_V2);
+        upcasters.put("2", new RenameKeyUpcaster("fullName", "name", "1"));
+
+        // TEST
+        UpcasterChain.resolve(TYPE, "1", upcasters);
+
+    }
+
+    @Test
+    public void testTargetMimeType() {
+
+        // PREPARE
+        final UpcasterChain testee = new UpcasterChain(TYPE, "1", Arrays.asList(V1_TO_V2, V2_TO_V3));
+        final EnhancedMimeType source = EnhancedMimeType.create("application", "json",
+                Charset.forName("utf-8"), "1");
+
+        // TEST
+        final EnhancedMimeType target = testee.targetMimeType(source);
+
+        // VERIFY
+        assertThat(target.getBaseType()).isEqualTo("application/json");
+        assertThat(target.getEncoding()).isEqualTo(Charset.forName("utf-8"));
+        assertThat(target.getVersion()).isEqualTo("3");
+        assertThat(testee.targetMimeType(source)).isSameAs(target);
+
+    }
+
+    @Test
+    public void testUpcastReusesStepMimeTypes() {
+
+        // PREPARE
+        final List<EnhancedMimeType> mimeTypes = new ArrayList<>();
+        final Upcaster recording = new Upcaster() {
+            @Override
+            public String getTargetVersion() {
+                return V2_TO_V3.getTargetVersion();
+            }
+
+            @Override
+            public void upcast(final InputStream in, final OutputStream out, final EnhancedMimeType mimeType) {
+                mimeTypes.add(mimeType);
+                V2_TO_V3.upcast(in, out, mimeType);
+            }
+        };
+        final UpcasterChain testee = new UpcasterChain(TYPE, "1", Arrays.asList(V1_TO_V2, recording));
+        final EnhancedMimeType source = version("1");
+
+        // TEST
+        for (int i = 0; i < 2; i++) {
+            final byte[] v1 = "{\"name\":\"Peter\"}".getBytes(Charset.forName("utf-8"));
+            testee.upcast(new ByteArrayInputStream(v1), source);
+        }
+
+        // VERIFY
+        assertThat(mimeTypes).hasSize(2);
+        assertThat(mimeTypes.get(0).getVersion()).isEqualTo("2");
+        assertThat(mimeTypes.get(1)).isSameAs(mimeTypes.get(0));
+
+    }
+
+    @Test
+    public void testUpcastAlternatesBuffers() {
+
+        // PREPARE
+        final Upcaster v3ToV4 = new RenameKeyUpcaster("displayName", "label", "4");
+        final UpcasterChain testee = new UpcasterChain(TYPE, "1", Arrays.asList(V1_TO_V2, V2_TO_V3, v3ToV4));
+
+        // TEST & VERIFY
+        for (final String name : Arrays.asList("Peter", "Mary-Ann Jones", "Bo")) {
+            final byte[] v1 = ("{\"name\":\"" + name + "\"}").getBytes(Charset.forName("utf-8"));
+            final InputStream in = testee.upcast(new ByteArrayInputStream(v1), version("1"));
+            final JsonObject v4 = Json.createReader(in).readObject();
+            assertThat(v4.getString("label")).isEqualTo(name);
+            assertThat(v4.containsKey("name")).isFalse();
+        }
+        assertThat(testee.targetMimeType(version("1"))).isSameAs(testee.targetMimeType(version("1")));
+
+    }
+
+    @Test
+    public void testSimpleRegistry() {
+
+        // PREPARE
+        final JsonDeSerializer jsonDeSer = new JsonDeSerializer();
+        final SimpleSerializerDeserializerRegistry testee = createRegistry(jsonDeSer);
+
+        // TEST & VERIFY
+        verifyRegistry(testee, jsonDeSer);
+
+    }
+
+    @Test
+    public void testSimpleRegistryConcurrentLookup() {
+
+        // PREPARE
+        final SimpleSerializerDeserializerRegistry testee = createRegistry(new JsonDeSerializer());
+        final Set<UpcasterChain> chains = ConcurrentHashMap.newKeySet();
+
+        // TEST
+        IntStream.range(0, 1000).parallel().forEach(i -> {
+            final Deserializer des = testee.getDeserializer(TYPE, version(String.valueOf(1 + (i % 2))));
+            chains.add(((UpcastingDeserializer) des).getChain());
+        });
+
+        // VERIFY
+        assertThat(chains).hasSize(2);
+
+    }
+
+    @Test
+    public void testFrozenRegistry() {
+
+        // PREPARE
+        final JsonDeSerializer jsonDeSer = new JsonDeSerializer();
+        final ImmutableSerializerDeserializerRegistry testee = createRegistry(jsonDeSer).freeze();
+
+        // TEST & VERIFY
+        verifyRegistry(testee, jsonDeSer);
+        assertThat(testee.getDeserializer(TYPE, version("1"))).isSameAs(
+                testee.getDeserializer(TYPE, version("1")));
+
+    }
+
+    private static SimpleSerializerDeserializerRegistry createRegistry(final JsonDeSerializer jsonDeSer) {
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        registry.add(TYPE, "application/json", jsonDeSer);
+        registry.addUpcaster(TYPE, "1", V1_TO_V2);
+        registry.addUpcaster(TYPE, "2", V2_TO_V3);
+        return registry;
+    }
+
+    private static void verifyRegistry(final DeserializerRegistry testee, final JsonDeSerializer jsonDeSer) {
+
+        final byte[] v1 = "{\"name\":\"Peter\",\"age\":21}".getBytes(Charset.forName("utf-8"));
+        final byte[] v2 = "{\"fullName\":\"Peter\",\"age\":21}".getBytes(Charset.forName("utf-8"));
+
+        final Deserializer v1Deser = testee.getDeserializer(TYPE, version("1"));
+        assertThat(v1Deser).isInstanceOf(UpcastingDeserializer.class);
+        final JsonObject fromV1 = v1Deser.unmarshal(v1, version("1"));
+        assertThat(fromV1.getString("displayName")).isEqualTo("Peter");
+        assertThat(fromV1.getInt("age")).isEqualTo(21);
+        assertThat(fromV1.containsKey("name")).isFalse();
+
+        final JsonObject fromV2 = testee.getDeserializer(TYPE, version("2")).unmarshal(v2, version("2"));
+        assertThat(fromV2.getString("displayName")).isEqualTo("Peter");
+
+        assertThat(testee.getDeserializer(TYPE, version("3"))).isSameAs(jsonDeSer);
+        assertThat(testee.getDeserializer(TYPE, EnhancedMimeType.create("application/json"))).isSameAs(jsonDeSer);
+
+    }
+
+    private static EnhancedMimeType version(final String version) {
+        return EnhancedMimeType.create("application", "json", Charset.forName("utf-8"), version);
+    }
+
+    /**
+     * Renames a key while copying the JSON tokens.
+     */
+    private static final class RenameKeyUpcaster implements Upcaster {
+
+        private final String from;
+
+        private final String to;
+
+        private final String targetVersion;
+
+        public RenameKeyUpcaster(final String from, final String to, final String targetVersion) {
+            this.from = from;
+            this.to = to;
+            this.targetVersion = targetVersion;
+        }
+
+        @Override
+        public String getTargetVersion() {
+            return targetVersion;
+        }
+
+        @Override
+        public void upcast(final InputStream in, final OutputStream out, final EnhancedMimeType mimeType) {
+            final JsonParser parser = Json.createParser(new InputStreamReader(in, mimeType.getEncoding()));
+            final JsonGenerator gen = Json.createGenerator(new OutputStreamWriter(out, mimeType.getEncoding()));
+            String key = null;
+            while (parser.hasNext()) {
+                final JsonParser.Event event = parser.next();
+                switch (event) {
+                case START_OBJECT:
+                    if (key == null) {
+                        gen.writeStartObject();
+                    } else {
+                        gen.writeStartObject(key);
+                    }
+                    key = null;
+                    break;
+                case START_ARRAY:
+                    if (key == null) {
+                        gen.writeStartArray();
+                    } else {
+                        gen.writeStartArray(key);
+                    }
+                    key = null;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    gen.writeEnd();
+                    break;
+                case KEY_NAME:
+                    key = parser.getString().equals(from) ? to : parser.getString();
+                    break;
+                case VALUE_STRING:
+                    if (key == null) {
+                        gen.write(parser.getString());
+                    } else {
+                        gen.write(key, parser.getString());
+                    }
+                    key = null;
+                    break;
+                case VALUE_NUMBER:
+                    if (key == null) {
+                        gen.write(parser.getBigDecimal());
+                    } else {
+                        gen.write(key, parser.getBigDecimal());
+                    }
+                    key = null;
+                    break;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    final boolean value = (event == JsonParser.Event.VALUE_TRUE);
+                    if (key == null) {
+                        gen.write(value);
+                    } else {
+                        gen.write(key, value);
+                    }
+                    key = null;
+                    break;
+                case VALUE_NULL:
+                    if (key == null) {
+                        gen.writeNull();
+                    } else {
+                        gen.writeNull(key);
+                    }
+                    key = null;
+                    break;
+                }
+            }
+            parser.close();
+            gen.close();
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
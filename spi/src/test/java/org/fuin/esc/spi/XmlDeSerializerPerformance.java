@@ -0,0 +1,87 @@
+// CHECKSTYLE:OFF
+package org.fuin.esc.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the throughput of a single {@link XmlDeSerializer} instance shared by 1, 4 and 16 threads. Every
+ * operation marshals an event and unmarshals it again.
+ */
+public final class XmlDeSerializerPerformance {
+
+    private static final int[] THREADS = new int[] { 1, 4, 16 };
+
+    private static final int OPERATIONS_PER_THREAD = 20000;
+
+    private static long blackhole;
+
+    private XmlDeSerializerPerformance() {
+        super();
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            Not used.
+     * 
+     * @throws Exception
+     *             Error executing the benchmark.
+     */
+    public static void main(final String[] args) throws Exception {
+
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        final XmlDeSerializer deSer = new XmlDeSerializer(MyEvent.class);
+        final MyEvent event = new MyEvent(UUID.randomUUID(), "Some description of what happened");
+
+        for (final int threads : THREADS) {
+            // Warm up
+            measure("WARMUP " + threads + " threads", deSer, event, threads);
+            measure(threads + " threads", deSer, event, threads);
+        }
+        System.out.println("IGNORE " + blackhole);
+
+    }
+
+    private static void measure(final String name, final XmlDeSerializer deSer, final MyEvent event,
+            final int threads) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() throws Exception {
+                        start.await();
+                        long sum = 0;
+                        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                            final MyEvent copy = deSer.unmarshal(deSer.marshal(event), deSer.getMimeType());
+                            sum += copy.getDescription().length();
+                        }
+                        return sum;
+                    }
+                }));
+            }
+            final long startNanos = System.nanoTime();
+            start.countDown();
+            for (final Future<Long> future : futures) {
+                blackhole += future.get();
+            }
+            final long nanos = System.nanoTime() - startNanos;
+            final long eventsPerSecond = (long) OPERATIONS_PER_THREAD * threads * 1000000000L / nanos;
+            System.out.println("EVENTS PER SECOND " + name + ": " + eventsPerSecond);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
+// CHECKSTYLE:ON
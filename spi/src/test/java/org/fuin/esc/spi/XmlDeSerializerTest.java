@@ -17,11 +17,108 @@
  */
 package org.fuin.esc.spi;
 
-import org.fuin.units4j.TestOmitted;
+import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link XmlDeSerializer} class.
+ */
 // CHECKSTYLE:OFF Test code
-@TestOmitted("Class will be moved later to utility library")
 public class XmlDeSerializerTest {
 
+    @Test
+    public void testMarshalUnmarshal() {
+
+        // PREPARE
+        final XmlDeSerializer testee = new XmlDeSerializer(MyEvent.class);
+        final MyEvent original = new MyEvent(UUID.randomUUID(), "Hello world");
+
+        // TEST
+        final byte[] data = testee.marshal(original);
+        final MyEvent copy = testee.unmarshal(data, testee.getMimeType());
+
+        // VERIFY
+        assertThat(copy).isEqualTo(original);
+        assertThat(copy.getDescription()).isEqualTo("Hello world");
+
+    }
+
+    @Test
+    public void testUnmarshalInputStreamAndByteBuffer() {
+
+        // PREPARE
+        final XmlDeSerializer testee = new XmlDeSerializer(MyEvent.class);
+        final MyEvent original = new MyEvent(UUID.randomUUID(), "Hello world");
+        final byte[] data = testee.marshal(original);
+        final ByteBuffer buffer = ByteBuffer.allocate(data.length + 2);
+        buffer.put((byte) 0).put(data).flip();
+        buffer.position(1);
+
+        // TEST
+        final MyEvent copyStream = testee.unmarshal(new ByteArrayInputStream(data), testee.getMimeType());
+        final MyEvent copyBuffer = testee.unmarshal(buffer.slice(), testee.getMimeType());
+
+        // VERIFY
+        assertThat(copyStream).isEqualTo(original);
+        assertThat(copyBuffer).isEqualTo(original);
+
+    }
+
+    @Test
+    public void testConcurrentMarshalUnmarshal() throws Exception {
+
+        // PREPARE
+        final XmlDeSerializer testee = new XmlDeSerializer(MyEvent.class);
+        final int threads = 16;
+        final int iterations = 500;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final String prefix = "Thread " + t + " / ";
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        start.await();
+                        int ok = 0;
+                        for (int i = 0; i < iterations; i++) {
+                            final MyEvent original = new MyEvent(UUID.randomUUID(), prefix + i);
+                            final MyEvent copy = testee.unmarshal(testee.marshal(original),
+                                    testee.getMimeType());
+                            if (original.equals(copy) && original.getDescription().equals(copy.getDescription())) {
+                                ok++;
+                            }
+                        }
+                        return ok;
+                    }
+                }));
+            }
+
+            // TEST
+            start.countDown();
+
+            // VERIFY
+            for (final Future<Integer> future : futures) {
+                assertThat(future.get()).isEqualTo(iterations);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
 }
 // CHECKSTYLE:ON
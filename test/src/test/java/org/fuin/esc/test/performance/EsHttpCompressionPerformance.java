@@ -0,0 +1,170 @@
+// CHECKSTYLE:OFF
+package org.fuin.esc.test.performance;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import javax.json.Json;
+
+import org.fuin.esc.api.CommonEvent;
+import org.fuin.esc.api.EventId;
+import org.fuin.esc.api.EventStore;
+import org.fuin.esc.api.SimpleCommonEvent;
+import org.fuin.esc.api.SimpleStreamId;
+import org.fuin.esc.api.StreamId;
+import org.fuin.esc.eshttp.ESEnvelopeType;
+import org.fuin.esc.eshttp.ESHttpEventStore;
+import org.fuin.esc.eshttp.ESHttpEventsEntity;
+import org.fuin.esc.eshttp.ESHttpGzipEntity;
+import org.fuin.esc.spi.EscEvents;
+import org.fuin.esc.spi.EscMeta;
+import org.fuin.esc.spi.JsonDeSerializer;
+import org.fuin.esc.spi.SimpleSerializerDeserializerRegistry;
+import org.fuin.esc.spi.XmlDeSerializer;
+import org.fuin.esc.test.examples.BookAddedEvent;
+import org.fuin.esc.test.examples.MyMeta;
+
+/**
+ * Compares the bytes on the wire with and without gzip compression for the XML and JSON envelopes of the ESC
+ * HTTP Event Store (https://geteventstore.com/) implementation. The append request bodies are measured
+ * locally. Measuring the responses requires an event store running on "http://127.0.0.1:2113/".
+ */
+public final class EsHttpCompressionPerformance {
+
+    private EsHttpCompressionPerformance() {
+        super();
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            Optional "local" to skip the measurement of the responses.
+     * 
+     * @throws IOException
+     *             Error reading from the event store.
+     */
+    public static void main(final String[] args) throws IOException {
+
+        final boolean local = args.length > 0 && args[0].equals("local");
+        final int max = 1000;
+        final URL url = new URL("http://127.0.0.1:2113/");
+
+        for (final ESEnvelopeType envelopeType : ESEnvelopeType.values()) {
+
+            final SimpleSerializerDeserializerRegistry registry = createRegistry(envelopeType);
+            final List<CommonEvent> events = createEvents(envelopeType, max);
+
+            // Request body of an append
+            final ESHttpEventsEntity entity = new ESHttpEventsEntity(envelopeType.getMarshaller(), registry,
+                    events);
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            entity.writeTo(bos);
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            new ESHttpGzipEntity(entity).writeTo(compressed);
+            print(envelopeType + " APPEND (" + max + " events)", bos.size(), compressed.size());
+
+            if (local) {
+                continue;
+            }
+
+            // Responses of the reads
+            final StreamId streamId = new SimpleStreamId("compression-" + UUID.randomUUID());
+            final EventStore eventStore = new ESHttpEventStore.Builder(Executors.defaultThreadFactory(), url,
+                    envelopeType, registry, registry).build();
+            eventStore.open();
+            try {
+                eventStore.appendToStream(streamId, events);
+            } finally {
+                eventStore.close();
+            }
+            final URL feedUrl = new URL(url, "/streams/" + streamId + "/0/forward/20");
+            print(envelopeType + " FEED (20 entries)", bytesOnWire(feedUrl, envelopeType, false),
+                    bytesOnWire(feedUrl, envelopeType, true));
+            final URL eventUrl = new URL(url, "/streams/" + streamId + "/0");
+            print(envelopeType + " EVENT", bytesOnWire(eventUrl, envelopeType, false),
+                    bytesOnWire(eventUrl, envelopeType, true));
+
+        }
+
+    }
+
+    private static SimpleSerializerDeserializerRegistry createRegistry(final ESEnvelopeType envelopeType) {
+        final SimpleSerializerDeserializerRegistry registry = new SimpleSerializerDeserializerRegistry();
+        if (envelopeType == ESEnvelopeType.XML) {
+            final XmlDeSerializer xmlDeSer = new XmlDeSerializer(false, EscEvents.class, EscMeta.class,
+                    MyMeta.class, BookAddedEvent.class);
+            registry.add(EscEvents.SER_TYPE, "application/xml", xmlDeSer);
+            registry.add(EscMeta.SER_TYPE, "application/xml", xmlDeSer);
+            registry.add(BookAddedEvent.SER_TYPE, "application/xml", xmlDeSer);
+            registry.add(MyMeta.SER_TYPE, "application/xml", xmlDeSer);
+        } else {
+            final JsonDeSerializer jsonDeSer = new JsonDeSerializer();
+            registry.add(EscEvents.SER_TYPE, "application/json", jsonDeSer);
+            registry.add(EscMeta.SER_TYPE, "application/json", jsonDeSer);
+            registry.add(BookAddedEvent.SER_TYPE, "application/json", jsonDeSer);
+            registry.add(MyMeta.SER_TYPE, "application/json", jsonDeSer);
+        }
+        return registry;
+    }
+
+    private static List<CommonEvent> createEvents(final ESEnvelopeType envelopeType, final int max) {
+        final List<CommonEvent> events = new ArrayList<>(max);
+        for (int i = 0; i < max; i++) {
+            final Object data;
+            final Object meta;
+            if (envelopeType == ESEnvelopeType.XML) {
+                data = new BookAddedEvent("Shining " + i, "Stephen King");
+                meta = new MyMeta("michael");
+            } else {
+                data = Json.createObjectBuilder().add("name", "Shining " + i).add("author", "Stephen King")
+                        .build();
+                meta = Json.createObjectBuilder().add("user", "michael").build();
+            }
+            events.add(new SimpleCommonEvent(new EventId(), BookAddedEvent.TYPE, data, MyMeta.TYPE, meta));
+        }
+        return events;
+    }
+
+    private static long bytesOnWire(final URL url, final ESEnvelopeType envelopeType, final boolean gzip)
+            throws IOException {
+        final HttpURLConnection con = (HttpURLConnection) url.openConnection();
+        try {
+            con.setRequestProperty("Accept", envelopeType.getReadContentType());
+            if (gzip) {
+                con.setRequestProperty("Accept-Encoding", "gzip");
+            }
+            // HttpURLConnection does not decompress, so this counts the transferred bytes
+            final InputStream in = con.getInputStream();
+            try {
+                final byte[] buf = new byte[4096];
+                long count = 0;
+                int len;
+                while ((len = in.read(buf)) != -1) {
+                    count = count + len;
+                }
+                return count;
+            } finally {
+                in.close();
+            }
+        } finally {
+            con.disconnect();
+        }
+    }
+
+    private static void print(final String name, final long plain, final long gzip) {
+        System.out.println("PLAIN BYTES    " + name + ": " + plain);
+        System.out.println("GZIP BYTES     " + name + ": " + gzip);
+        final double ratio = (gzip * 100.0) / plain;
+        System.out.println("GZIP RATIO     " + name + ": " + (long) ratio + "%");
+    }
+
+}
+// CHECKSTYLE:ON